@@ -0,0 +1,223 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.analyzer.Analysis;
+import io.confluent.ksql.analyzer.QueryAnalyzer;
+import io.confluent.ksql.execution.codegen.CodeGenRunner;
+import io.confluent.ksql.execution.codegen.ExpressionMetadata;
+import io.confluent.ksql.execution.ddl.commands.KsqlTopic;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.sqlpredicate.SqlPredicate;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.metastore.MetaStoreImpl;
+import io.confluent.ksql.metastore.MutableMetaStore;
+import io.confluent.ksql.metastore.model.KeyField;
+import io.confluent.ksql.metastore.model.KsqlStream;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.parser.DefaultKsqlParser;
+import io.confluent.ksql.parser.KsqlParser;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.serde.Format;
+import io.confluent.ksql.serde.FormatInfo;
+import io.confluent.ksql.serde.KeyFormat;
+import io.confluent.ksql.serde.SerdeOption;
+import io.confluent.ksql.serde.ValueFormat;
+import io.confluent.ksql.test.tools.TestFunctionRegistry;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.timestamp.MetadataTimestampExtractionPolicy;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.kstream.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks of the code KSQL generates for expressions: the time taken to
+ *  compile an expression, and the time taken to evaluate it, or a filter using it, per row.
+ *  See `ksql-benchmark/README.md` for more info, including how to run the benchmarks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(1)
+@Fork(3)
+public class ExpressionBenchmark {
+
+  private static final SourceName SOURCE = SourceName.of("BENCH");
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder()
+      .valueColumn(ColumnName.of("COL0"), SqlTypes.BIGINT)
+      .valueColumn(ColumnName.of("COL1"), SqlTypes.STRING)
+      .valueColumn(ColumnName.of("COL2"), SqlTypes.DOUBLE)
+      .valueColumn(ColumnName.of("COL3"), SqlTypes.decimal(10, 2))
+      .valueColumn(ColumnName.of("COL4"), SqlTypes.struct()
+          .field("A", SqlTypes.STRING)
+          .field("B", SqlTypes.INTEGER)
+          .build())
+      .valueColumn(ColumnName.of("COL5"), SqlTypes.INTEGER)
+      .build();
+
+  /**
+   * The representative expressions benchmarked.
+   */
+  public enum ExpressionShape {
+    ARITHMETIC("COL0 * 2 + COL5 - 1", "COL0 * 2 + COL5 > 100"),
+    CASE("CASE WHEN COL0 > 100 THEN 'big' WHEN COL0 > 10 THEN 'medium' ELSE 'small' END",
+        "(CASE WHEN COL0 > 100 THEN 'big' ELSE 'small' END) = 'big'"),
+    STRING_UDF("UCASE(SUBSTRING(COL1, 1, 3))", "UCASE(SUBSTRING(COL1, 1, 3)) = 'THE'"),
+    STRUCT("COL4->A", "COL4->B > 10"),
+    DECIMAL("COL3 + COL3", "COL3 > 10.00");
+
+    private final String expression;
+    private final String predicate;
+
+    ExpressionShape(final String expression, final String predicate) {
+      this.expression = expression;
+      this.predicate = predicate;
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ExpressionState {
+
+    @Param({"ARITHMETIC", "CASE", "STRING_UDF", "STRUCT", "DECIMAL"})
+    public ExpressionShape expressionShape;
+
+    FunctionRegistry functionRegistry;
+    KsqlConfig ksqlConfig;
+    CodeGenRunner codeGenRunner;
+    Expression expression;
+    Expression predicate;
+    ExpressionMetadata compiled;
+    Predicate<Object, GenericRow> filter;
+    GenericRow row;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      functionRegistry = TestFunctionRegistry.INSTANCE.get();
+      ksqlConfig = new KsqlConfig(Collections.emptyMap());
+
+      final MutableMetaStore metaStore = new MetaStoreImpl(functionRegistry);
+      metaStore.putSource(new KsqlStream<>(
+          "benchmark",
+          SOURCE,
+          SCHEMA,
+          SerdeOption.none(),
+          KeyField.none(),
+          new MetadataTimestampExtractionPolicy(),
+          new KsqlTopic(
+              "benchmark",
+              KeyFormat.nonWindowed(FormatInfo.of(Format.KAFKA)),
+              ValueFormat.of(FormatInfo.of(Format.JSON)),
+              false
+          )
+      ));
+
+      codeGenRunner = new CodeGenRunner(SCHEMA.withAlias(SOURCE), ksqlConfig, functionRegistry);
+      expression = parse(expressionShape.expression, metaStore);
+      predicate = parse(expressionShape.predicate, metaStore);
+
+      compiled = codeGenRunner.buildCodeGenFromParseTree(expression, "Select");
+      filter = new SqlPredicate(
+          predicate,
+          SCHEMA.withAlias(SOURCE),
+          ksqlConfig,
+          functionRegistry,
+          ProcessingLogContext.create().getLoggerFactory().getLogger("benchmark")
+      ).getPredicate();
+
+      final Struct struct = new Struct(
+          SCHEMA.valueConnectSchema().field("COL4").schema());
+      struct.put("A", "a");
+      struct.put("B", 42);
+
+      row = new GenericRow(
+          1000L,
+          "the quick brown fox",
+          3.14,
+          new BigDecimal("12.34"),
+          struct,
+          7
+      );
+    }
+
+    ExpressionMetadata compile() {
+      return codeGenRunner.buildCodeGenFromParseTree(expression, "Select");
+    }
+
+    private static Expression parse(final String expression, final MutableMetaStore metaStore) {
+      final KsqlParser parser = new DefaultKsqlParser();
+      final String sql = "SELECT " + expression + " FROM " + SOURCE.name() + " EMIT CHANGES;";
+      final PreparedStatement<?> prepared = parser.prepare(parser.parse(sql).get(0), metaStore);
+
+      final Analysis analysis = new QueryAnalyzer(metaStore, "", SerdeOption.none())
+          .analyze((Query) prepared.getStatement(), Optional.empty());
+
+      return analysis.getSelectExpressions().get(0).getExpression();
+    }
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public ExpressionMetadata compile(final ExpressionState state) {
+    return state.compile();
+  }
+
+  @Benchmark
+  public Object evaluate(final ExpressionState state) {
+    return state.compiled.evaluate(state.row);
+  }
+
+  @Benchmark
+  public boolean filter(final ExpressionState state) {
+    return state.filter.test(null, state.row);
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(ExpressionBenchmark.class.getSimpleName())
+        .addProfiler(MetaspaceProfiler.class)
+        .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+package io.confluent.ksql.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.Collection;
+import java.util.Collections;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+import org.openjdk.jmh.runner.Defaults;
+
+/**
+ * JMH profiler reporting the growth in Metaspace per benchmark operation.
+ *
+ * <p>Classes are not unloaded until their class loader is collected, so for benchmarks that
+ * generate code, e.g. {@link ExpressionBenchmark#compile}, this approximates the Metaspace
+ * each generated class needs.
+ *
+ * <p>Enable with {@code -prof io.confluent.ksql.benchmark.MetaspaceProfiler}.
+ */
+public class MetaspaceProfiler implements InternalProfiler {
+
+  private long metaspaceBefore;
+
+  @Override
+  public String getDescription() {
+    return "Metaspace growth per operation";
+  }
+
+  @Override
+  public void beforeIteration(
+      final BenchmarkParams benchmarkParams,
+      final IterationParams iterationParams
+  ) {
+    metaspaceBefore = metaspaceUsed();
+  }
+
+  @Override
+  public Collection<? extends Result> afterIteration(
+      final BenchmarkParams benchmarkParams,
+      final IterationParams iterationParams,
+      final IterationResult result
+  ) {
+    final long ops = result.getMetadata().getAllOps();
+    final long growth = metaspaceUsed() - metaspaceBefore;
+
+    return Collections.singletonList(new ScalarResult(
+        Defaults.PREFIX + "metaspace.growth.norm",
+        ops == 0 ? Double.NaN : (double) growth / ops,
+        "B/op",
+        AggregationPolicy.AVG
+    ));
+  }
+
+  private static long metaspaceUsed() {
+    return ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(pool -> pool.getName().equals("Metaspace"))
+        .map(MemoryPoolMXBean::getUsage)
+        .mapToLong(MemoryUsage::getUsed)
+        .sum();
+  }
+}
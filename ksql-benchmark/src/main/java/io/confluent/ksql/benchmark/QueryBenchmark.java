@@ -0,0 +1,244 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.services.ServiceContext;
+import io.confluent.ksql.test.serde.json.ValueSpecJsonSerdeSupplier;
+import io.confluent.ksql.test.serde.string.StringSerdeSupplier;
+import io.confluent.ksql.test.tools.TestCase;
+import io.confluent.ksql.test.tools.TestExecutor;
+import io.confluent.ksql.test.tools.TestExecutorUtil;
+import io.confluent.ksql.test.tools.Topic;
+import io.confluent.ksql.test.tools.TopologyTestDriverContainer;
+import io.confluent.ksql.test.tools.conditions.PostConditions;
+import io.confluent.ksql.test.tools.stubs.StubKafkaService;
+import io.confluent.ksql.util.KsqlConfig;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.test.ConsumerRecordFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH benchmarks of whole KSQL queries, by piping records through the topology that KSQL
+ *  builds for each query using a {@link TopologyTestDriver}.
+ *  See `ksql-benchmark/README.md` for more info, including how to run the benchmarks.
+ */
+@SuppressWarnings("deprecation")
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(1)
+@Fork(3)
+public class QueryBenchmark {
+
+  private static final String PAGEVIEWS_TOPIC = "pageviews";
+  private static final String USERS_TOPIC = "users";
+  private static final int NUM_USERS = 100;
+  private static final int NUM_PAGES = 97;
+  private static final int NUM_RECORDS = 1024;
+
+  private static final List<String> SOURCES = ImmutableList.of(
+      "CREATE STREAM PAGEVIEWS (VIEWTIME BIGINT, USERID VARCHAR, PAGEID VARCHAR) "
+          + "WITH (kafka_topic='" + PAGEVIEWS_TOPIC + "', value_format='JSON');",
+      "CREATE TABLE USERS (USERID VARCHAR, REGIONID VARCHAR) "
+          + "WITH (kafka_topic='" + USERS_TOPIC + "', value_format='JSON', key='USERID');"
+  );
+
+  /**
+   * The shapes of query benchmarked, each reading from the {@code PAGEVIEWS} stream.
+   */
+  public enum QueryShape {
+    PROJECT("CREATE STREAM OUTPUT AS "
+        + "SELECT USERID, UCASE(PAGEID) AS PAGE, VIEWTIME * 2 AS DOUBLED FROM PAGEVIEWS;"),
+    FILTER("CREATE STREAM OUTPUT AS "
+        + "SELECT * FROM PAGEVIEWS WHERE VIEWTIME % 2 = 0;"),
+    AGGREGATE("CREATE TABLE OUTPUT AS "
+        + "SELECT USERID, COUNT(*) AS CNT, SUM(VIEWTIME) AS TOTAL FROM PAGEVIEWS "
+        + "GROUP BY USERID;"),
+    WINDOWED_AGGREGATE("CREATE TABLE OUTPUT AS "
+        + "SELECT USERID, COUNT(*) AS CNT FROM PAGEVIEWS "
+        + "WINDOW TUMBLING (SIZE 1 SECOND) GROUP BY USERID;"),
+    STREAM_TABLE_JOIN("CREATE STREAM OUTPUT AS "
+        + "SELECT P.USERID, P.PAGEID, U.REGIONID FROM PAGEVIEWS P "
+        + "JOIN USERS U ON P.USERID = U.USERID;");
+
+    private final String sql;
+
+    QueryShape(final String sql) {
+      this.sql = sql;
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class QueryState {
+
+    @Param({"PROJECT", "FILTER", "AGGREGATE", "WINDOWED_AGGREGATE", "STREAM_TABLE_JOIN"})
+    public QueryShape queryShape;
+
+    ServiceContext serviceContext;
+    KsqlEngine ksqlEngine;
+    TopologyTestDriver driver;
+    String sinkTopic;
+    ConsumerRecordFactory<byte[], byte[]> recordFactory;
+    byte[][] keys;
+    byte[][] values;
+    long timestamp;
+    int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      serviceContext = TestExecutor.getServiceContext();
+      ksqlEngine = TestExecutor.getKsqlEngine(serviceContext);
+
+      final List<TopologyTestDriverContainer> drivers =
+          TestExecutorUtil.buildStreamsTopologyTestDrivers(
+              testCase(),
+              serviceContext,
+              ksqlEngine,
+              new KsqlConfig(TestExecutor.getConfigs(ImmutableMap.of())),
+              StubKafkaService.create()
+          );
+
+      driver = drivers.get(0).getTopologyTestDriver();
+      sinkTopic = drivers.get(0).getSinkTopic().getName();
+      recordFactory = new ConsumerRecordFactory<>(
+          new ByteArraySerializer(), new ByteArraySerializer());
+
+      if (queryShape == QueryShape.STREAM_TABLE_JOIN) {
+        for (int i = 0; i < NUM_USERS; i++) {
+          driver.pipeInput(recordFactory.create(
+              USERS_TOPIC,
+              bytes(user(i)),
+              bytes("{\"USERID\":\"" + user(i) + "\",\"REGIONID\":\"REGION_" + i % 7 + "\"}"),
+              0L
+          ));
+        }
+        drainOutput();
+      }
+
+      keys = new byte[NUM_RECORDS][];
+      values = new byte[NUM_RECORDS][];
+      for (int i = 0; i < NUM_RECORDS; i++) {
+        keys[i] = bytes(user(i % NUM_USERS));
+        values[i] = bytes("{\"VIEWTIME\":" + i
+            + ",\"USERID\":\"" + user(i % NUM_USERS)
+            + "\",\"PAGEID\":\"PAGE_" + i % NUM_PAGES + "\"}");
+      }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+      driver.close();
+      ksqlEngine.close();
+      serviceContext.close();
+    }
+
+    /**
+     * Pipes the next record into the query and drains its output.
+     *
+     * @return the number of records output.
+     */
+    int process() {
+      final int idx = next++ & (NUM_RECORDS - 1);
+      driver.pipeInput(recordFactory.create(PAGEVIEWS_TOPIC, keys[idx], values[idx], timestamp++));
+      return drainOutput();
+    }
+
+    private int drainOutput() {
+      int count = 0;
+      while (driver.readOutput(sinkTopic) != null) {
+        count++;
+      }
+      return count;
+    }
+
+    private TestCase testCase() {
+      return new TestCase(
+          Paths.get("benchmark"),
+          queryShape.name(),
+          Optional.empty(),
+          ImmutableMap.of(),
+          ImmutableList.of(topic(PAGEVIEWS_TOPIC), topic(USERS_TOPIC)),
+          ImmutableList.of(),
+          ImmutableList.of(),
+          ImmutableList.<String>builder().addAll(SOURCES).add(queryShape.sql).build(),
+          Optional.empty(),
+          PostConditions.NONE
+      );
+    }
+
+    private static Topic topic(final String name) {
+      return new Topic(
+          name,
+          Optional.empty(),
+          new StringSerdeSupplier(),
+          new ValueSpecJsonSerdeSupplier(),
+          1,
+          1,
+          Optional.empty()
+      );
+    }
+
+    private static String user(final int idx) {
+      return "USER_" + idx;
+    }
+
+    private static byte[] bytes(final String value) {
+      return value.getBytes(StandardCharsets.UTF_8);
+    }
+  }
+
+  @Benchmark
+  public int processRecord(final QueryState queryState) {
+    return queryState.process();
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(QueryBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+import io.confluent.ksql.benchmark.ExpressionBenchmark.ExpressionShape;
+import io.confluent.ksql.benchmark.ExpressionBenchmark.ExpressionState;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class ExpressionBenchmarkTest {
+
+  private final ExpressionShape expressionShape;
+
+  private ExpressionState expressionState;
+
+  public ExpressionBenchmarkTest(final ExpressionShape expressionShape) {
+    this.expressionShape = expressionShape;
+  }
+
+  @Parameterized.Parameters(name = "{0}")
+  public static Iterable<Object[]> data() {
+    return Arrays.stream(ExpressionShape.values())
+        .map(shape -> new Object[]{shape})
+        .collect(Collectors.toList());
+  }
+
+  @Before
+  public void setUp() {
+    expressionState = new ExpressionState();
+    expressionState.expressionShape = expressionShape;
+    expressionState.setUp();
+  }
+
+  @Test
+  public void shouldCompileAndEvaluate() {
+    assertThat(expressionState.compile().evaluate(expressionState.row), is(notNullValue()));
+    assertThat(expressionState.compiled.evaluate(expressionState.row), is(notNullValue()));
+  }
+
+  @Test
+  public void shouldMatchFilter() {
+    assertThat(expressionState.filter.test(null, expressionState.row), is(true));
+  }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import static io.confluent.ksql.util.KsqlConfig.KSQL_STREAMS_PREFIX;
+
+import io.confluent.ksql.datagen.DataGen;
+import io.confluent.ksql.execution.streams.materialization.Locator.KsqlNode;
+import io.confluent.ksql.execution.streams.materialization.Materialization;
+import io.confluent.ksql.execution.util.StructKeyUtil;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.rest.client.KsqlRestClient;
+import io.confluent.ksql.rest.client.RestResponse;
+import io.confluent.ksql.rest.entity.KsqlEntityList;
+import io.confluent.ksql.rest.entity.TableRowsEntity;
+import io.confluent.ksql.rest.server.TestKsqlRestApp;
+import io.confluent.ksql.test.util.EmbeddedSingleNodeKafkaCluster;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.kafka.streams.StreamsConfig;
+
+/**
+ * Measures the latency of pull queries under concurrent load.
+ *
+ * <p>Starts an embedded Kafka cluster and two KSQL servers, populates a materialized aggregate
+ * using {@link DataGen}, and then issues pull queries against the first server from a number of
+ * threads. Latencies are reported separately for keys stored on the first server, i.e. local
+ * keys, and keys stored on the second server, i.e. keys the first server proxies.
+ *
+ * <p>See `ksql-benchmark/README.md` for more info, including how to run the tool.
+ */
+public final class PullQueryLoadGenerator {
+
+  private static final String TOPIC = "pageviews";
+  private static final SourceName TABLE = SourceName.of("PAGEVIEWS_PER_PAGE");
+  private static final int NUM_PAGES = 99;
+  private static final long MAX_LATENCY_NS = TimeUnit.SECONDS.toNanos(60);
+
+  private final Arguments arguments;
+  private final PrintStream out;
+
+  private PullQueryLoadGenerator(final Arguments arguments, final PrintStream out) {
+    this.arguments = arguments;
+    this.out = out;
+  }
+
+  public static void main(final String[] args) throws Exception {
+    new PullQueryLoadGenerator(Arguments.parse(args), System.out).run();
+  }
+
+  private void run() throws Exception {
+    final EmbeddedSingleNodeKafkaCluster cluster = EmbeddedSingleNodeKafkaCluster.build();
+    cluster.start();
+    try {
+      final TestKsqlRestApp server0 = buildServer(cluster);
+      final TestKsqlRestApp server1 = buildServer(cluster);
+      server0.start();
+      server1.start();
+      try {
+        populate(cluster, server0);
+
+        final List<String> localKeys = new ArrayList<>();
+        final List<String> proxiedKeys = new ArrayList<>();
+        locateKeys(server0, localKeys, proxiedKeys);
+
+        out.printf("Warming up for %d seconds...%n", arguments.warmupSecs);
+        drive(server0, localKeys, proxiedKeys, arguments.warmupSecs);
+
+        out.printf("Running %d threads for %d seconds...%n", arguments.threads, arguments.secs);
+        final Results results = drive(server0, localKeys, proxiedKeys, arguments.secs);
+
+        report("local", results.local, localKeys.size());
+        report("proxied", results.proxied, proxiedKeys.size());
+      } finally {
+        server1.stop();
+        server0.stop();
+      }
+    } finally {
+      cluster.stop();
+    }
+  }
+
+  private void populate(
+      final EmbeddedSingleNodeKafkaCluster cluster,
+      final TestKsqlRestApp server
+  ) {
+    cluster.createTopic(TOPIC, arguments.partitions, 1);
+
+    out.printf("Producing %d records to %s...%n", arguments.records, TOPIC);
+    try {
+      DataGen.run(
+          "quickstart=pageviews",
+          "format=json",
+          "topic=" + TOPIC,
+          "key=pageid",
+          "iterations=" + arguments.records,
+          "maxInterval=0",
+          "printRows=false",
+          "bootstrap-server=" + cluster.bootstrapServers()
+      );
+    } catch (final Throwable e) {
+      throw new KsqlException("Failed to produce records", e);
+    }
+
+    execute(server, "CREATE STREAM PAGEVIEWS (VIEWTIME BIGINT, USERID VARCHAR, PAGEID VARCHAR) "
+        + "WITH (kafka_topic='" + TOPIC + "', value_format='JSON');");
+    execute(server, "CREATE TABLE " + TABLE.name() + " AS "
+        + "SELECT COUNT(*) AS VIEWS FROM PAGEVIEWS GROUP BY PAGEID;");
+  }
+
+  /**
+   * Splits the keys of the table into those stored on, and those proxied by, {@code server},
+   * waiting until every key has been produced to the table and its location is known.
+   */
+  private void locateKeys(
+      final TestKsqlRestApp server,
+      final List<String> localKeys,
+      final List<String> proxiedKeys
+  ) throws InterruptedException {
+    final Materialization materialization = server.getEngine().getPersistentQueries().stream()
+        .filter(query -> query.getSinkName().equals(TABLE))
+        .map(PersistentQueryMetadata::getMaterialization)
+        .filter(Optional::isPresent)
+        .map(Optional::get)
+        .findFirst()
+        .orElseThrow(() -> new KsqlException("Table not materialized: " + TABLE));
+
+    try (KsqlRestClient client = server.buildKsqlClient()) {
+      for (int page = 1; page <= NUM_PAGES; page++) {
+        final String key = "Page_" + page;
+
+        Optional<KsqlNode> owner = Optional.empty();
+        while (!owner.isPresent() || !hasRow(client, key)) {
+          TimeUnit.MILLISECONDS.sleep(100);
+          owner = materialization.locator().locate(StructKeyUtil.asStructKey(key));
+        }
+
+        if (owner.get().isLocal()) {
+          localKeys.add(key);
+        } else {
+          proxiedKeys.add(key);
+        }
+      }
+    }
+  }
+
+  private Results drive(
+      final TestKsqlRestApp server,
+      final List<String> localKeys,
+      final List<String> proxiedKeys,
+      final int secs
+  ) throws Exception {
+    final Recorder local = new Recorder(MAX_LATENCY_NS, 3);
+    final Recorder proxied = new Recorder(MAX_LATENCY_NS, 3);
+    final AtomicBoolean stop = new AtomicBoolean(false);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(arguments.threads);
+    try {
+      final List<Future<?>> workers = new ArrayList<>();
+      for (int i = 0; i < arguments.threads; i++) {
+        final int seed = i;
+        workers.add(executor.submit(() -> {
+          try (KsqlRestClient client = server.buildKsqlClient()) {
+            int next = seed;
+            while (!stop.get()) {
+              final boolean isLocal = proxiedKeys.isEmpty()
+                  || (!localKeys.isEmpty() && (next & 1) == 0);
+              final List<String> keys = isLocal ? localKeys : proxiedKeys;
+              final String key = keys.get((next >>> 1) % keys.size());
+              next++;
+
+              final long start = System.nanoTime();
+              pullQuery(client, key);
+              (isLocal ? local : proxied).recordValue(System.nanoTime() - start);
+            }
+          }
+          return null;
+        }));
+      }
+
+      TimeUnit.SECONDS.sleep(secs);
+      stop.set(true);
+
+      for (final Future<?> worker : workers) {
+        worker.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    return new Results(local.getIntervalHistogram(), proxied.getIntervalHistogram());
+  }
+
+  private void report(final String type, final Histogram histogram, final int numKeys) {
+    out.printf(
+        "%-8s keys=%-3d queries=%-9d throughput=%.1f/s "
+            + "p50=%.3fms p99=%.3fms p999=%.3fms max=%.3fms%n",
+        type,
+        numKeys,
+        histogram.getTotalCount(),
+        (double) histogram.getTotalCount() / arguments.secs,
+        millis(histogram.getValueAtPercentile(50)),
+        millis(histogram.getValueAtPercentile(99)),
+        millis(histogram.getValueAtPercentile(99.9)),
+        millis(histogram.getMaxValue())
+    );
+  }
+
+  private static double millis(final long nanos) {
+    return nanos / 1_000_000.0;
+  }
+
+  private static boolean hasRow(final KsqlRestClient client, final String key) {
+    return !pullQuery(client, key).isEmpty();
+  }
+
+  private static List<List<?>> pullQuery(final KsqlRestClient client, final String key) {
+    final RestResponse<KsqlEntityList> response = client.makeKsqlRequest(
+        "SELECT * FROM " + TABLE.name() + " WHERE ROWKEY='" + key + "';");
+
+    if (response.isErroneous()) {
+      // Pull queries fail while the table is still being restored or rebalanced:
+      return Collections.emptyList();
+    }
+
+    return ((TableRowsEntity) response.getResponse().get(0)).getRows();
+  }
+
+  private static void execute(final TestKsqlRestApp server, final String sql) {
+    try (KsqlRestClient client = server.buildKsqlClient()) {
+      final RestResponse<KsqlEntityList> response = client.makeKsqlRequest(sql);
+      if (response.isErroneous()) {
+        throw new KsqlException("Failed to execute '" + sql + "': "
+            + response.getErrorMessage().getMessage());
+      }
+    }
+  }
+
+  private static TestKsqlRestApp buildServer(final EmbeddedSingleNodeKafkaCluster cluster) {
+    try {
+      return TestKsqlRestApp
+          .builder(cluster::bootstrapServers)
+          .withProperty(KSQL_STREAMS_PREFIX + StreamsConfig.NUM_STREAM_THREADS_CONFIG, 1)
+          .withProperty(KSQL_STREAMS_PREFIX + StreamsConfig.STATE_DIR_CONFIG,
+              Files.createTempDirectory("ksql-pull-query-load").toString())
+          .build();
+    } catch (final IOException e) {
+      throw new KsqlException("Failed to create state directory", e);
+    }
+  }
+
+  private static final class Results {
+
+    private final Histogram local;
+    private final Histogram proxied;
+
+    Results(final Histogram local, final Histogram proxied) {
+      this.local = local;
+      this.proxied = proxied;
+    }
+  }
+
+  private static final class Arguments {
+
+    private int threads = 4;
+    private int secs = 60;
+    private int warmupSecs = 10;
+    private int records = 100_000;
+    private int partitions = 4;
+
+    static Arguments parse(final String[] args) {
+      final Arguments arguments = new Arguments();
+      for (final String arg : args) {
+        final String[] parts = arg.split("=", 2);
+        if (parts.length != 2) {
+          throw new IllegalArgumentException("Expected <name>=<value>, got: " + arg);
+        }
+
+        final int value = Integer.parseInt(parts[1]);
+        switch (parts[0]) {
+          case "threads":
+            arguments.threads = value;
+            break;
+          case "secs":
+            arguments.secs = value;
+            break;
+          case "warmupSecs":
+            arguments.warmupSecs = value;
+            break;
+          case "records":
+            arguments.records = value;
+            break;
+          case "partitions":
+            arguments.partitions = value;
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown argument: " + parts[0]);
+        }
+      }
+      return arguments;
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+import io.confluent.ksql.benchmark.QueryBenchmark.QueryShape;
+import io.confluent.ksql.benchmark.QueryBenchmark.QueryState;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class QueryBenchmarkTest {
+
+  private final QueryShape queryShape;
+
+  private QueryState queryState;
+
+  public QueryBenchmarkTest(final QueryShape queryShape) {
+    this.queryShape = queryShape;
+  }
+
+  @Parameterized.Parameters(name = "{0}")
+  public static Iterable<Object[]> data() {
+    return Arrays.stream(QueryShape.values())
+        .map(shape -> new Object[]{shape})
+        .collect(Collectors.toList());
+  }
+
+  @Before
+  public void setUp() {
+    queryState = new QueryState();
+    queryState.queryShape = queryShape;
+    queryState.setUp();
+  }
+
+  @After
+  public void tearDown() {
+    queryState.tearDown();
+  }
+
+  @Test
+  public void shouldProduceOutput() {
+    // When:
+    int output = 0;
+    for (int i = 0; i < 10; i++) {
+      output += queryState.process();
+    }
+
+    // Then:
+    assertThat(output, greaterThan(0));
+  }
+}
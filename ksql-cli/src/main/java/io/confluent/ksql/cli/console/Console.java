@@ -544,6 +544,17 @@ public class Console implements Closeable {
     }
   }
 
+  private void printStepStatistics(final QueryDescription queryDescription) {
+    if (!queryDescription.getStepStatistics().isEmpty()) {
+      writer().println(String.format(
+          "%n%-20s%n%-20s%n%s",
+          "Step statistics",
+          "---------------",
+          queryDescription.getStepStatistics()
+      ));
+    }
+  }
+
   private void printOverriddenProperties(final QueryDescription queryDescription) {
     final Map<String, Object> overriddenProperties = queryDescription.getOverriddenProperties();
     if (overriddenProperties.isEmpty()) {
@@ -649,6 +660,7 @@ public class Console implements Closeable {
     printQuerySinks(query);
     printExecutionPlan(query);
     printTopology(query);
+    printStepStatistics(query);
     printOverriddenProperties(query);
   }
 
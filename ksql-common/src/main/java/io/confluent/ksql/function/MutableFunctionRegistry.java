@@ -51,4 +51,16 @@ public interface MutableFunctionRegistry extends FunctionRegistry {
    * @throws KsqlException if a function, (of any type), with the same name exists.
    */
   void addAggregateFunctionFactory(AggregateFunctionFactory aggregateFunctionFactory);
+
+  /**
+   * Register a loader that will register the function(s) with the supplied name when they are
+   * first needed, i.e. when the name is first looked up, or all functions are listed.
+   *
+   * <p>Each loader is invoked at most once. Loaders may be registered for a name that already has
+   * loaders, and are invoked in the order they were registered.
+   *
+   * @param functionName the name of the function the loader registers.
+   * @param loader the loader, which registers the function with this registry.
+   */
+  void addLazyFunction(String functionName, Runnable loader);
 }
@@ -80,6 +80,28 @@ public class ProcessingLogConfig extends AbstractConfig {
   private static final String INCLUDE_ROWS_DOC =
       "Toggles whether or not the processing log should include rows in log messages";
 
+  public static final String QUEUE_SIZE = propertyName("queue.size");
+  private static final int QUEUE_SIZE_DEFAULT = 1000;
+  private static final String QUEUE_SIZE_DOC =
+      "The maximum number of processing log messages waiting to be written. Messages are "
+          + "built and written by a background thread, and are dropped if the queue is full. "
+          + "If set to 0, messages are written by the thread that reports them.";
+
+  public static final String RATE_LIMIT_MESSAGES = propertyName("rate.limit.messages");
+  private static final int RATE_LIMIT_MESSAGES_DEFAULT = 100;
+  private static final String RATE_LIMIT_MESSAGES_DOC = String.format(
+      "The maximum number of processing log messages written for each kind of error, i.e. "
+          + "each logger and call site, within the window set in the \"%s\" property. Further "
+          + "errors are counted, and written as a single summary message once the window "
+          + "closes. If set to 0, messages are not rate limited.",
+      propertyName("rate.limit.window.ms"));
+
+  public static final String RATE_LIMIT_WINDOW_MS = propertyName("rate.limit.window.ms");
+  private static final long RATE_LIMIT_WINDOW_MS_DEFAULT = 10000L;
+  private static final String RATE_LIMIT_WINDOW_MS_DOC = String.format(
+      "The length, in milliseconds, of the window the \"%s\" property applies to.",
+      RATE_LIMIT_MESSAGES);
+
   private static final ConfigDef CONFIG_DEF = new ConfigDef()
       .define(
           STREAM_AUTO_CREATE,
@@ -122,7 +144,28 @@ public class ProcessingLogConfig extends AbstractConfig {
           Type.BOOLEAN,
           false,
           Importance.HIGH,
-          INCLUDE_ROWS_DOC
+          INCLUDE_ROWS_DOC)
+      .define(
+          QUEUE_SIZE,
+          Type.INT,
+          QUEUE_SIZE_DEFAULT,
+          ConfigDef.Range.atLeast(0),
+          Importance.LOW,
+          QUEUE_SIZE_DOC)
+      .define(
+          RATE_LIMIT_MESSAGES,
+          Type.INT,
+          RATE_LIMIT_MESSAGES_DEFAULT,
+          ConfigDef.Range.atLeast(0),
+          Importance.LOW,
+          RATE_LIMIT_MESSAGES_DOC)
+      .define(
+          RATE_LIMIT_WINDOW_MS,
+          Type.LONG,
+          RATE_LIMIT_WINDOW_MS_DEFAULT,
+          ConfigDef.Range.atLeast(1),
+          Importance.LOW,
+          RATE_LIMIT_WINDOW_MS_DOC
       );
 
   public ProcessingLogConfig(final Map<?, ?> properties) {
@@ -0,0 +1,419 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.logging.processing;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.metrics.MetricCollectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.CumulativeSum;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.Struct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Takes the writing of processing log messages off the threads that report them.
+ *
+ * <p>Messages are rate limited per signature, i.e. per logger and message factory class, which
+ * identifies the call site that reported the error. Once a signature has written its quota of
+ * messages within a window, further messages are counted rather than written, and a single
+ * summary message, built from the last message written, is written once the window closes.
+ *
+ * <p>Messages that pass the rate limit are built on the reporting thread, as message factories
+ * may reference state the reporting thread goes on to change, e.g. the row being processed.
+ * Built messages are put on a bounded queue, and written by a single background thread. If the
+ * queue is full the message is dropped. Both suppressed and dropped messages are counted in
+ * metrics.
+ *
+ * <p>If the queue size is zero messages are written on the reporting thread, and summaries are
+ * written when the next message with the same signature is reported.
+ *
+ * <p>Signatures that report no messages for a full window are forgotten, once any summary is
+ * written, so that those of loggers no longer in use, e.g. those of transient queries, and the
+ * messages they last wrote, are not held forever. If the queue size is zero this happens at most
+ * once a window, when a message is reported.
+ */
+final class ProcessingLogDispatcher {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ProcessingLogDispatcher.class);
+
+  static final String METRIC_GROUP = "ksql-processing-log";
+  static final String DROPPED_METRIC = "processing-log-messages-dropped-total";
+  static final String SUPPRESSED_METRIC = "processing-log-messages-suppressed-total";
+
+  private static final long POLL_INTERVAL_MS = 100;
+
+  private static final Map<String, String> ERROR_MESSAGE_FIELDS = ImmutableMap.of(
+      ProcessingLogMessageSchema.DESERIALIZATION_ERROR,
+      ProcessingLogMessageSchema.DESERIALIZATION_ERROR_FIELD_MESSAGE,
+      ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR,
+      ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE,
+      ProcessingLogMessageSchema.PRODUCTION_ERROR,
+      ProcessingLogMessageSchema.PRODUCTION_ERROR_FIELD_MESSAGE
+  );
+
+  private final ProcessingLogConfig config;
+  private final int rateLimit;
+  private final long windowMs;
+  private final LongSupplier clock;
+  private final Optional<BlockingQueue<Entry>> queue;
+  private final ConcurrentMap<Signature, RateLimiter> limiters = new ConcurrentHashMap<>();
+  private final Sensor droppedSensor;
+  private final Sensor suppressedSensor;
+  private final Consumer<Runnable> threadStarter;
+  private final AtomicBoolean started = new AtomicBoolean();
+  private final AtomicLong lastSweep;
+
+  ProcessingLogDispatcher(final ProcessingLogConfig config) {
+    this(
+        config,
+        MetricCollectors.getMetrics(),
+        System::currentTimeMillis,
+        ProcessingLogDispatcher::startDaemon
+    );
+  }
+
+  ProcessingLogDispatcher(
+      final ProcessingLogConfig config,
+      final Metrics metrics,
+      final LongSupplier clock,
+      final Consumer<Runnable> threadStarter
+  ) {
+    this.config = Objects.requireNonNull(config, "config");
+    Objects.requireNonNull(metrics, "metrics");
+    this.clock = Objects.requireNonNull(clock, "clock");
+    this.threadStarter = Objects.requireNonNull(threadStarter, "threadStarter");
+
+    final int queueSize = config.getInt(ProcessingLogConfig.QUEUE_SIZE);
+    this.queue = queueSize > 0
+        ? Optional.of(new ArrayBlockingQueue<>(queueSize))
+        : Optional.empty();
+    this.rateLimit = config.getInt(ProcessingLogConfig.RATE_LIMIT_MESSAGES);
+    this.windowMs = config.getLong(ProcessingLogConfig.RATE_LIMIT_WINDOW_MS);
+    this.droppedSensor = buildSensor(metrics, DROPPED_METRIC,
+        "The total number of processing log messages dropped because the queue was full");
+    this.suppressedSensor = buildSensor(metrics, SUPPRESSED_METRIC,
+        "The total number of processing log messages suppressed by the rate limit");
+    this.lastSweep = new AtomicLong(clock.getAsLong());
+  }
+
+  ProcessingLogger wrap(final String name, final ProcessingLogger logger) {
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(logger, "logger");
+    return msgFactory -> submit(name, logger, msgFactory);
+  }
+
+  private void submit(
+      final String name,
+      final ProcessingLogger logger,
+      final Function<ProcessingLogConfig, SchemaAndValue> msgFactory
+  ) {
+    if (rateLimit <= 0) {
+      if (!queue.isPresent()) {
+        logger.error(msgFactory);
+      } else {
+        build(msgFactory).ifPresent(msg -> write(logger, msg));
+      }
+      return;
+    }
+
+    final long now = clock.getAsLong();
+    if (!queue.isPresent()) {
+      maybeSweep(now);
+    }
+
+    final RateLimiter limiter = limiters.computeIfAbsent(
+        new Signature(name, msgFactory.getClass()),
+        signature -> new RateLimiter(logger, now)
+    );
+
+    if (!queue.isPresent()) {
+      limiter.takeSummary(now).ifPresent(summary -> write(logger, summary));
+    }
+
+    if (!limiter.tryAcquire(now)) {
+      suppressedSensor.record();
+      return;
+    }
+
+    build(msgFactory).ifPresent(msg -> {
+      limiter.written(msg);
+      write(logger, msg);
+    });
+  }
+
+  private Optional<SchemaAndValue> build(
+      final Function<ProcessingLogConfig, SchemaAndValue> msgFactory
+  ) {
+    try {
+      return Optional.of(msgFactory.apply(config));
+    } catch (final Exception e) {
+      LOG.warn("Failed to build processing log message", e);
+      return Optional.empty();
+    }
+  }
+
+  private void write(final ProcessingLogger logger, final SchemaAndValue msg) {
+    if (!queue.isPresent()) {
+      logger.error(c -> msg);
+      return;
+    }
+
+    startIfRequired();
+    if (!queue.get().offer(new Entry(logger, msg))) {
+      droppedSensor.record();
+    }
+  }
+
+  /**
+   * Writes the next queued message, waiting up to {@code timeoutMs} for one, and then the
+   * summaries of any closed windows.
+   */
+  void drain(final long timeoutMs) throws InterruptedException {
+    final Entry entry = queue
+        .orElseThrow(() -> new IllegalStateException("Processing log is synchronous"))
+        .poll(timeoutMs, TimeUnit.MILLISECONDS);
+
+    if (entry != null) {
+      entry.write();
+    }
+
+    sweep(clock.getAsLong());
+  }
+
+  @VisibleForTesting
+  int numSignatures() {
+    return limiters.size();
+  }
+
+  private void maybeSweep(final long now) {
+    final long last = lastSweep.get();
+    if (now - last >= windowMs && lastSweep.compareAndSet(last, now)) {
+      sweep(now);
+    }
+  }
+
+  /**
+   * Writes the summaries of any closed windows, and forgets signatures that have been idle for a
+   * full window.
+   */
+  private void sweep(final long now) {
+    limiters.forEach((signature, limiter) -> {
+      limiter.takeSummary(now)
+          .ifPresent(summary -> new Entry(limiter.logger, summary).write());
+
+      if (limiter.isIdle(now)) {
+        // A message reported concurrently may still go to the removed limiter. As it has been
+        // idle for a full window, the message is written, and the next gets a new limiter:
+        limiters.remove(signature, limiter);
+      }
+    });
+  }
+
+  private void startIfRequired() {
+    if (started.compareAndSet(false, true)) {
+      threadStarter.accept(this::run);
+    }
+  }
+
+  private static void startDaemon(final Runnable task) {
+    final Thread thread = new Thread(task, "ksql-processing-log");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private void run() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        drain(POLL_INTERVAL_MS);
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private SchemaAndValue summaryOf(final SchemaAndValue last, final long suppressed) {
+    if (!(last.value() instanceof Struct)) {
+      return last;
+    }
+
+    // The last message may still be queued, so is copied rather than changed:
+    final Struct struct = copy((Struct) last.value());
+    ERROR_MESSAGE_FIELDS.forEach((field, messageField) -> {
+      final Struct error = struct.getStruct(field);
+      if (error != null) {
+        struct.put(field, copy(error).put(messageField, String.format(
+            "%d similar errors in the last %d ms were not logged. Last logged error: %s",
+            suppressed,
+            windowMs,
+            error.get(messageField)
+        )));
+      }
+    });
+    return new SchemaAndValue(last.schema(), struct);
+  }
+
+  private static Struct copy(final Struct struct) {
+    final Struct copy = new Struct(struct.schema());
+    struct.schema().fields().forEach(field -> copy.put(field, struct.get(field)));
+    return copy;
+  }
+
+  private static Sensor buildSensor(
+      final Metrics metrics,
+      final String name,
+      final String description
+  ) {
+    final MetricName metricName = metrics.metricName(name, METRIC_GROUP, description);
+    synchronized (metrics) {
+      final Sensor sensor = metrics.sensor(name);
+      if (metrics.metric(metricName) == null) {
+        sensor.add(metricName, new CumulativeSum());
+      }
+      return sensor;
+    }
+  }
+
+  private static final class Entry {
+
+    private final ProcessingLogger logger;
+    private final SchemaAndValue msg;
+
+    Entry(final ProcessingLogger logger, final SchemaAndValue msg) {
+      this.logger = logger;
+      this.msg = msg;
+    }
+
+    void write() {
+      try {
+        logger.error(config -> msg);
+      } catch (final Exception e) {
+        LOG.warn("Failed to write processing log message", e);
+      }
+    }
+  }
+
+  private static final class Signature {
+
+    private final String name;
+    private final Class<?> factoryClass;
+
+    Signature(final String name, final Class<?> factoryClass) {
+      this.name = name;
+      this.factoryClass = factoryClass;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Signature that = (Signature) o;
+      return name.equals(that.name)
+          && factoryClass.equals(that.factoryClass);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, factoryClass);
+    }
+  }
+
+  private final class RateLimiter {
+
+    private final ProcessingLogger logger;
+    private long windowStart;
+    private long lastActive;
+    private int written;
+    private long suppressed;
+    private SchemaAndValue lastWritten;
+    private long pendingCount;
+    private SchemaAndValue pendingLast;
+
+    RateLimiter(final ProcessingLogger logger, final long now) {
+      this.logger = logger;
+      this.windowStart = now;
+      this.lastActive = now;
+    }
+
+    synchronized boolean tryAcquire(final long now) {
+      roll(now);
+      lastActive = now;
+      if (written < rateLimit) {
+        written++;
+        return true;
+      }
+
+      suppressed++;
+      return false;
+    }
+
+    synchronized void written(final SchemaAndValue msg) {
+      lastWritten = msg;
+    }
+
+    synchronized Optional<SchemaAndValue> takeSummary(final long now) {
+      roll(now);
+      if (pendingCount == 0 || pendingLast == null) {
+        return Optional.empty();
+      }
+
+      final SchemaAndValue summary = summaryOf(pendingLast, pendingCount);
+      pendingCount = 0;
+      pendingLast = null;
+      return Optional.of(summary);
+    }
+
+    synchronized boolean isIdle(final long now) {
+      roll(now);
+      return now - lastActive >= windowMs && suppressed == 0 && pendingCount == 0;
+    }
+
+    private void roll(final long now) {
+      if (now - windowStart < windowMs) {
+        return;
+      }
+
+      if (suppressed > 0) {
+        pendingCount += suppressed;
+        pendingLast = lastWritten;
+      }
+
+      windowStart = now;
+      written = 0;
+      suppressed = 0;
+    }
+  }
+}
@@ -24,26 +24,29 @@ public class ProcessingLoggerFactoryImpl implements ProcessingLoggerFactory {
   private final ProcessingLogConfig config;
   private final StructuredLoggerFactory innerFactory;
   private final BiFunction<ProcessingLogConfig, StructuredLogger, ProcessingLogger> loggerFactory;
+  private final ProcessingLogDispatcher dispatcher;
 
   ProcessingLoggerFactoryImpl(
       final ProcessingLogConfig config,
       final StructuredLoggerFactory innerFactory) {
-    this(config, innerFactory, ProcessingLoggerImpl::new);
+    this(config, innerFactory, ProcessingLoggerImpl::new, new ProcessingLogDispatcher(config));
   }
 
   ProcessingLoggerFactoryImpl(
       final ProcessingLogConfig config,
       final StructuredLoggerFactory innerFactory,
-      final BiFunction<ProcessingLogConfig, StructuredLogger, ProcessingLogger> loggerFactory
+      final BiFunction<ProcessingLogConfig, StructuredLogger, ProcessingLogger> loggerFactory,
+      final ProcessingLogDispatcher dispatcher
   ) {
     this.config = config;
     this.innerFactory = innerFactory;
     this.loggerFactory = loggerFactory;
+    this.dispatcher = dispatcher;
   }
 
   @Override
   public ProcessingLogger getLogger(final String name) {
-    return loggerFactory.apply(config, innerFactory.getLogger(name));
+    return dispatcher.wrap(name, loggerFactory.apply(config, innerFactory.getLogger(name)));
   }
 
   @Override
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.metrics;
+
+import io.confluent.ksql.query.QueryId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Sampled latency and throughput of the steps of running queries, registered with the metrics
+ * of {@link MetricCollectors} and keyed by query id and the path of the step's query context.
+ */
+public final class QueryStepMetrics {
+
+  public static final String METRIC_GROUP = "ksql-query-steps";
+
+  private static final Map<QueryId, Map<String, StepTimer>> TIMERS = new ConcurrentHashMap<>();
+
+  private QueryStepMetrics() {
+  }
+
+  /**
+   * Get the timer of a step, creating it if required.
+   *
+   * @param queryId the id of the query.
+   * @param step the name of the step, unique within the query.
+   * @param sampleInterval the timer times one in every {@code sampleInterval} records.
+   * @return the timer.
+   */
+  public static StepTimer getTimer(
+      final QueryId queryId,
+      final String step,
+      final int sampleInterval
+  ) {
+    final Map<String, StepTimer> timers = TIMERS.computeIfAbsent(
+        queryId,
+        id -> Collections.synchronizedMap(new LinkedHashMap<>())
+    );
+
+    return timers.computeIfAbsent(
+        step,
+        s -> new StepTimer(MetricCollectors.getMetrics(), queryId, s, sampleInterval)
+    );
+  }
+
+  /**
+   * @return one line per step of the query that has timed a record, in the order the steps were
+   *         built, or an empty string if none have.
+   */
+  public static String getAndFormatStatsFor(final QueryId queryId) {
+    final Map<String, StepTimer> timers = TIMERS.get(queryId);
+    if (timers == null) {
+      return "";
+    }
+
+    final List<StepTimer> recorded;
+    synchronized (timers) {
+      recorded = new ArrayList<>(timers.values());
+    }
+
+    return recorded.stream()
+        .filter(StepTimer::hasRecorded)
+        .map(timer -> String.format(
+            "%-40s %s: %10.2f %s: %12.0f %s: %12.0f",
+            timer.getStep(),
+            StepTimer.RECORDS_PER_SEC,
+            timer.value(StepTimer.RECORDS_PER_SEC),
+            StepTimer.LATENCY_AVG,
+            timer.value(StepTimer.LATENCY_AVG),
+            StepTimer.LATENCY_MAX,
+            timer.value(StepTimer.LATENCY_MAX)
+        ))
+        .collect(Collectors.joining(System.lineSeparator()));
+  }
+
+  /**
+   * Remove the timers, and their metrics, of a query that has been closed.
+   */
+  public static void remove(final QueryId queryId) {
+    final Map<String, StepTimer> timers = TIMERS.remove(queryId);
+    if (timers == null) {
+      return;
+    }
+
+    synchronized (timers) {
+      timers.values().forEach(StepTimer::close);
+    }
+  }
+}
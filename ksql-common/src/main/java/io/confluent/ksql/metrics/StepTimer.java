@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.metrics;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.query.QueryId;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.metrics.stats.Rate;
+
+/**
+ * Samples the time one step of a query takes to process a record.
+ *
+ * <p>One in every {@code sampleInterval} calls to {@link #start()}, picked at random, is timed.
+ * Each timed record is counted as {@code sampleInterval} records when computing throughput.
+ * The timer is called from every stream thread running the query, so it holds no per-record
+ * state.
+ *
+ * <p>Sensors are only registered once the first record is timed, so steps that never process a
+ * record, e.g. the deserializer of a sink's serde, are not reported.
+ */
+public final class StepTimer {
+
+  static final String LATENCY_AVG = "step-latency-avg-ns";
+  static final String LATENCY_MAX = "step-latency-max-ns";
+  static final String RECORDS_PER_SEC = "step-records-per-sec";
+
+  private static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+  private final Metrics metrics;
+  private final QueryId queryId;
+  private final String step;
+  private final int sampleInterval;
+  private volatile Sensors sensors;
+
+  StepTimer(
+      final Metrics metrics,
+      final QueryId queryId,
+      final String step,
+      final int sampleInterval
+  ) {
+    this.metrics = Objects.requireNonNull(metrics, "metrics");
+    this.queryId = Objects.requireNonNull(queryId, "queryId");
+    this.step = Objects.requireNonNull(step, "step");
+    this.sampleInterval = sampleInterval;
+
+    if (sampleInterval < 1) {
+      throw new IllegalArgumentException("sampleInterval must be positive: " + sampleInterval);
+    }
+  }
+
+  /**
+   * @return the value to pass to {@link #stop(long)} once the record has been processed.
+   */
+  public long start() {
+    if (sampleInterval > 1 && ThreadLocalRandom.current().nextInt(sampleInterval) != 0) {
+      return NOT_SAMPLED;
+    }
+    return System.nanoTime();
+  }
+
+  public void stop(final long start) {
+    if (start == NOT_SAMPLED) {
+      return;
+    }
+
+    final long elapsed = System.nanoTime() - start;
+    final Sensors sensors = getSensors();
+    sensors.latency.record(elapsed);
+    sensors.throughput.record(sampleInterval);
+  }
+
+  String getStep() {
+    return step;
+  }
+
+  boolean hasRecorded() {
+    return sensors != null;
+  }
+
+  double value(final String name) {
+    final KafkaMetric metric = metrics.metric(metricName(name));
+    return metric == null ? 0.0 : (Double) metric.metricValue();
+  }
+
+  void close() {
+    if (sensors != null) {
+      metrics.removeSensor(sensorName("latency"));
+      metrics.removeSensor(sensorName("throughput"));
+    }
+  }
+
+  private Sensors getSensors() {
+    final Sensors existing = sensors;
+    if (existing != null) {
+      return existing;
+    }
+
+    synchronized (metrics) {
+      if (sensors == null) {
+        final Sensor latency = metrics.sensor(sensorName("latency"));
+        latency.add(metricName(LATENCY_AVG), new Avg());
+        latency.add(metricName(LATENCY_MAX), new Max());
+
+        final Sensor throughput = metrics.sensor(sensorName("throughput"));
+        throughput.add(metricName(RECORDS_PER_SEC), new Rate());
+
+        sensors = new Sensors(latency, throughput);
+      }
+      return sensors;
+    }
+  }
+
+  private String sensorName(final String type) {
+    return "query-step-" + queryId + "-" + step + "-" + type;
+  }
+
+  private MetricName metricName(final String name) {
+    final Map<String, String> tags = ImmutableMap.of("query-id", queryId.getId(), "step", step);
+    return new MetricName(name, QueryStepMetrics.METRIC_GROUP, "", tags);
+  }
+
+  private static final class Sensors {
+
+    private final Sensor latency;
+    private final Sensor throughput;
+
+    Sensors(final Sensor latency, final Sensor throughput) {
+      this.latency = latency;
+      this.throughput = throughput;
+    }
+  }
+}
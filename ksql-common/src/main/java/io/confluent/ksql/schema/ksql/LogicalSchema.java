@@ -18,6 +18,8 @@ package io.confluent.ksql.schema.ksql;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.errorprone.annotations.Immutable;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.name.SourceName;
@@ -26,7 +28,7 @@ import io.confluent.ksql.schema.ksql.types.SqlType;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.SchemaUtil;
-import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -34,7 +36,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.apache.kafka.connect.data.ConnectSchema;
@@ -43,6 +44,9 @@ import org.apache.kafka.connect.data.SchemaBuilder;
 
 /**
  * Immutable KSQL logical schema.
+ *
+ * <p>Columns are grouped by namespace and indexed by name on construction, so that looking up
+ * a column or its index does not scan the whole schema.
  */
 @Immutable
 public final class LogicalSchema {
@@ -58,6 +62,9 @@ public final class LogicalSchema {
   );
 
   private final ImmutableList<NamespacedColumn> columns;
+  private final ImmutableMap<Namespace, ImmutableList<Column>> byNamespace;
+  private final ImmutableListMultimap<ColumnName, NamespacedColumn> byName;
+  private final ImmutableListMultimap<ColumnName, Integer> valueIndexesByName;
 
   public static Builder builder() {
     return new Builder();
@@ -65,6 +72,34 @@ public final class LogicalSchema {
 
   private LogicalSchema(final ImmutableList<NamespacedColumn> columns) {
     this.columns = Objects.requireNonNull(columns, "columns");
+
+    final Map<Namespace, ImmutableList.Builder<Column>> namespaces = new EnumMap<>(Namespace.class);
+    for (final Namespace ns : Namespace.values()) {
+      namespaces.put(ns, ImmutableList.builder());
+    }
+
+    final ImmutableListMultimap.Builder<ColumnName, NamespacedColumn> names =
+        ImmutableListMultimap.builder();
+    final ImmutableListMultimap.Builder<ColumnName, Integer> valueIndexes =
+        ImmutableListMultimap.builder();
+
+    int valueIdx = 0;
+    for (final NamespacedColumn c : columns) {
+      namespaces.get(c.namespace()).add(c.column());
+      names.put(c.column().name(), c);
+
+      if (c.namespace() == Namespace.VALUE) {
+        valueIndexes.put(c.column().name(), valueIdx++);
+      }
+    }
+
+    final ImmutableMap.Builder<Namespace, ImmutableList<Column>> byNamespace =
+        ImmutableMap.builder();
+    namespaces.forEach((ns, builder) -> byNamespace.put(ns, builder.build()));
+
+    this.byNamespace = byNamespace.build();
+    this.byName = names.build();
+    this.valueIndexesByName = valueIndexes.build();
   }
 
   public ConnectSchema keyConnectSchema() {
@@ -79,24 +114,21 @@ public final class LogicalSchema {
    * @return the schema of the metadata.
    */
   public List<Column> metadata() {
-    return byNamespace(NamespacedColumn::column)
-        .get(Namespace.META);
+    return byNamespace.get(Namespace.META);
   }
 
   /**
    * @return the schema of the key.
    */
   public List<Column> key() {
-    return byNamespace(NamespacedColumn::column)
-        .get(Namespace.KEY);
+    return byNamespace.get(Namespace.KEY);
   }
 
   /**
    * @return the schema of the value.
    */
   public List<Column> value() {
-    return byNamespace(NamespacedColumn::column)
-        .get(Namespace.VALUE);
+    return byNamespace.get(Namespace.VALUE);
   }
 
   /**
@@ -115,7 +147,7 @@ public final class LogicalSchema {
    * @return the column if found, else {@code Optional.empty()}.
    */
   public Optional<Column> findColumn(final ColumnRef target) {
-    return findNamespacedColumn(thatMatches(target))
+    return findNamespacedColumn(target, c -> true)
         .map(NamespacedColumn::column);
   }
 
@@ -126,7 +158,7 @@ public final class LogicalSchema {
    * @return the value column if found, else {@code Optional.empty()}.
    */
   public Optional<Column> findValueColumn(final ColumnRef target) {
-    return findNamespacedColumn(withNamespace(Namespace.VALUE).and(thatMatches(target)))
+    return findNamespacedColumn(target, withNamespace(Namespace.VALUE))
         .map(NamespacedColumn::column);
   }
 
@@ -137,12 +169,11 @@ public final class LogicalSchema {
    * @return the index if it exists or else {@code empty()}.
    */
   public OptionalInt valueColumnIndex(final ColumnRef target) {
-    int idx = 0;
-    for (final Column column : value()) {
-      if (column.matches(target)) {
+    final List<Column> value = value();
+    for (final int idx : valueIndexesByName.get(target.name())) {
+      if (value.get(idx).matches(target)) {
         return OptionalInt.of(idx);
       }
-      ++idx;
     }
 
     return OptionalInt.empty();
@@ -222,7 +253,7 @@ public final class LogicalSchema {
    * @return {@code true} if the column matches the name of any metadata column.
    */
   public boolean isMetaColumn(final ColumnName columnName) {
-    return findNamespacedColumn(withNamespace(Namespace.META).and(withName(columnName)))
+    return findNamespacedColumn(ColumnRef.withoutSource(columnName), withNamespace(Namespace.META))
         .isPresent();
   }
 
@@ -231,7 +262,7 @@ public final class LogicalSchema {
    * @return {@code true} if the column matches the name of any key column.
    */
   public boolean isKeyColumn(final ColumnName columnName) {
-    return findNamespacedColumn(withNamespace(Namespace.KEY).and(withName(columnName)))
+    return findNamespacedColumn(ColumnRef.withoutSource(columnName), withNamespace(Namespace.KEY))
         .isPresent();
   }
 
@@ -266,65 +297,44 @@ public final class LogicalSchema {
         .collect(Collectors.joining(", ", "[", "]"));
   }
 
+  /**
+   * Find the first column, in schema order, that matches the supplied {@code target} and
+   * {@code predicate}. Only columns with the target's name are checked.
+   */
   private Optional<NamespacedColumn> findNamespacedColumn(
+      final ColumnRef target,
       final Predicate<NamespacedColumn> predicate
   ) {
-    return columns.stream()
-        .filter(predicate)
-        .findFirst();
-  }
-
-  private <T> Map<Namespace, List<T>> byNamespace(final Function<NamespacedColumn, T> mapper) {
-    final Map<Namespace, List<T>> byNamespace = columns.stream()
-        .collect(Collectors.groupingBy(
-            NamespacedColumn::namespace,
-            Collectors.mapping(mapper, Collectors.toList())
-        ));
-
-    Arrays.stream(Namespace.values())
-        .forEach(ns -> byNamespace.putIfAbsent(ns, ImmutableList.of()));
-
-    return byNamespace;
+    for (final NamespacedColumn c : byName.get(target.name())) {
+      if (c.column().matches(target) && predicate.test(c)) {
+        return Optional.of(c);
+      }
+    }
+    return Optional.empty();
   }
 
   private LogicalSchema rebuild(final boolean withMetaAndKeyColsInValue) {
-    final Map<Namespace, List<NamespacedColumn>> byNamespace = byNamespace(Function.identity());
-
-    final List<NamespacedColumn> metadata = byNamespace.get(Namespace.META);
-    final List<NamespacedColumn> key = byNamespace.get(Namespace.KEY);
-    final List<NamespacedColumn> value = byNamespace.get(Namespace.VALUE);
+    final List<Column> metadata = metadata();
+    final List<Column> key = key();
 
     final ImmutableList.Builder<NamespacedColumn> builder = ImmutableList.builder();
 
-    builder.addAll(metadata);
-    builder.addAll(key);
+    metadata.forEach(c -> builder.add(NamespacedColumn.of(c, Namespace.META)));
+    key.forEach(c -> builder.add(NamespacedColumn.of(c, Namespace.KEY)));
 
     if (withMetaAndKeyColsInValue) {
-      metadata.stream()
-          .map(c -> NamespacedColumn.of(c.column(), Namespace.VALUE))
-          .forEach(builder::add);
-
-      key.stream()
-          .map(c -> NamespacedColumn.of(c.column(), Namespace.VALUE))
-          .forEach(builder::add);
+      metadata.forEach(c -> builder.add(NamespacedColumn.of(c, Namespace.VALUE)));
+      key.forEach(c -> builder.add(NamespacedColumn.of(c, Namespace.VALUE)));
     }
 
-    value.stream()
-        .filter(c -> !findNamespacedColumn(
-            (withNamespace(Namespace.META).or(withNamespace(Namespace.KEY))
-                .and(thatMatches(c.column().ref()))
-            )).isPresent())
-        .forEach(builder::add);
-
-    return new LogicalSchema(builder.build());
-  }
+    final Predicate<NamespacedColumn> metaOrKey =
+        withNamespace(Namespace.META).or(withNamespace(Namespace.KEY));
 
-  private static Predicate<NamespacedColumn> thatMatches(final ColumnRef ref) {
-    return c -> c.column().matches(ref);
-  }
+    value().stream()
+        .filter(c -> !findNamespacedColumn(c.ref(), metaOrKey).isPresent())
+        .forEach(c -> builder.add(NamespacedColumn.of(c, Namespace.VALUE)));
 
-  private static Predicate<NamespacedColumn> withName(final ColumnName name) {
-    return c -> c.column().matches(ColumnRef.withoutSource(name));
+    return new LogicalSchema(builder.build());
   }
 
   private static Predicate<NamespacedColumn> withNamespace(final Namespace ns) {
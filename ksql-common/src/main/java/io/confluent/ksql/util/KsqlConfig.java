@@ -16,8 +16,12 @@
 package io.confluent.ksql.util;
 
 import com.google.common.base.Splitter;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.confluent.ksql.config.ConfigItem;
 import io.confluent.ksql.config.KsqlConfigResolver;
 import io.confluent.ksql.errors.LogMetricAndContinueExceptionHandler;
@@ -30,6 +34,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.admin.AdminClientConfig;
@@ -44,7 +49,9 @@ import org.apache.kafka.common.config.ConfigDef.Validator;
 import org.apache.kafka.common.config.SslConfigs;
 import org.apache.kafka.streams.StreamsConfig;
 
+// CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
 public class KsqlConfig extends AbstractConfig {
+  // CHECKSTYLE_RULES.ON: ClassDataAbstractionCoupling
 
   public static final String KSQL_CONFIG_PROPERTY_PREFIX = "ksql.";
 
@@ -138,6 +145,94 @@ public class KsqlConfig extends AbstractConfig {
       + "in interactive mode. Once this limit is reached, any further persistent queries will not "
       + "be accepted.";
 
+  public static final String KSQL_SHARED_RUNTIME_PUSH_QUERIES_ENABLED_CONFIG =
+      "ksql.query.push.shared.runtime.enable";
+  private static final String KSQL_SHARED_RUNTIME_PUSH_QUERIES_ENABLED_DOC =
+      "When true, push queries that only filter and project a single stream, read from the "
+      + "latest offset and have no LIMIT, attach to a streams app shared by all such queries over "
+      + "the same source, rather than each starting their own. The shared app runs with the "
+      + "service context of the query that started it, so this should only be enabled where "
+      + "queries are not run with per-user credentials.";
+
+  public static final String KSQL_QUERY_PUSH_QUEUE_CAPACITY_CONFIG =
+      "ksql.query.push.queue.capacity";
+  private static final String KSQL_QUERY_PUSH_QUEUE_CAPACITY_DOC =
+      "The number of rows buffered between the stream threads of a push query and the thread "
+      + "writing its rows to the client. Rounded up to the next power of two.";
+
+  public static final String KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_CONFIG =
+      "ksql.query.push.queue.overflow.policy";
+  public static final String KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_BLOCK = "block";
+  public static final String KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_DROP_OLDEST = "drop_oldest";
+  public static final String KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_DISCONNECT = "disconnect";
+  private static final String KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_DOC =
+      "What a push query does when a client reads its rows slower than they are produced and "
+      + "the buffer fills up. '" + KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_BLOCK + "' blocks the "
+      + "query's stream threads until the client catches up, '"
+      + KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_DROP_OLDEST + "' drops the oldest buffered rows and '"
+      + KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_DISCONNECT + "' terminates the query with an error.";
+
+  public static final String KSQL_SHARED_RUNTIME_PUSH_QUERY_BUFFER_SIZE_CONFIG =
+      "ksql.query.push.shared.runtime.buffer.size";
+  private static final String KSQL_SHARED_RUNTIME_PUSH_QUERY_BUFFER_SIZE_DOC =
+      "The number of rows buffered for each push query attached to a shared runtime. As one slow "
+      + "client must not stall the others, the '" + KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_BLOCK
+      + "' overflow policy is treated as '" + KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_DROP_OLDEST
+      + "' for these queries.";
+
+  public static final String KSQL_QUERY_PULL_CACHE_MAX_ENTRIES_CONFIG =
+      "ksql.query.pull.cache.max.entries";
+  private static final String KSQL_QUERY_PULL_CACHE_MAX_ENTRIES_DOC =
+      "The maximum number of rows, per materialized table, of pull query results to cache. "
+      + "Cached results are invalidated once the table emits an update for their key. Enabling "
+      + "the cache disables record caching for the state stores of queries, so that updates are "
+      + "emitted as soon as they are written. Zero, the default, disables the cache.";
+
+  public static final String KSQL_QUERY_PULL_CACHE_TTL_MS_CONFIG =
+      "ksql.query.pull.cache.ttl.ms";
+  private static final String KSQL_QUERY_PULL_CACHE_TTL_MS_DOC =
+      "The maximum time, in milliseconds, the result of a pull query is cached for.";
+
+  public static final String KSQL_QUERY_PULL_CACHE_ENABLED_CONFIG =
+      "ksql.query.pull.cache.enabled";
+  private static final String KSQL_QUERY_PULL_CACHE_ENABLED_DOC =
+      "Whether pull queries may be served from the cache of their table's results. Set to false "
+      + "in a request's properties to read the latest rows of the table's state store. "
+      + "Can be set per request.";
+
+  public static final String KSQL_QUERY_PULL_MAX_ALLOWED_OFFSET_LAG_CONFIG =
+      "ksql.query.pull.max.allowed.offset.lag";
+  private static final String KSQL_QUERY_PULL_MAX_ALLOWED_OFFSET_LAG_DOC =
+      "The maximum number of offsets the state store serving a pull query may trail its inputs "
+      + "by. Pull queries against a store that lags by more fail. Can be set per request.";
+
+  public static final String KSQL_SERVICE_CONTEXT_POOL_MAX_SIZE_CONFIG =
+      "ksql.service.context.pool.max.size";
+  private static final String KSQL_SERVICE_CONTEXT_POOL_MAX_SIZE_DOC =
+      "The maximum number of service contexts the server keeps for reuse across requests, "
+      + "one per distinct principal and auth header. 0, the default, disables pooling.";
+
+  public static final String KSQL_SERVICE_CONTEXT_POOL_IDLE_TIMEOUT_MS_CONFIG =
+      "ksql.service.context.pool.idle.timeout.ms";
+  private static final String KSQL_SERVICE_CONTEXT_POOL_IDLE_TIMEOUT_MS_DOC =
+      "The time, in milliseconds, after which a pooled service context that has not been used "
+      + "is closed.";
+
+  public static final String KSQL_QUERY_JOIN_GLOBAL_TABLE_ENABLED_CONFIG =
+      "ksql.query.join.global.table.enable";
+  private static final String KSQL_QUERY_JOIN_GLOBAL_TABLE_ENABLED_DOC =
+      "If true, stream-table joins read the whole table into every instance of the query, as a "
+      + "GlobalKTable, rather than repartitioning the stream by the join column. Only suitable "
+      + "for small tables. Can be set per query.";
+
+  public static final String KSQL_QUERY_STEP_METRICS_SAMPLE_INTERVAL_CONFIG =
+      "ksql.query.step.metrics.sample.interval";
+  private static final String KSQL_QUERY_STEP_METRICS_SAMPLE_INTERVAL_DOC =
+      "If greater than zero, each step of a query, e.g. deserializing its source, filtering, "
+      + "projecting, joining, aggregating and serializing its sink, times one in every this many "
+      + "records it processes. The latency and throughput of each step are reported as metrics "
+      + "and in the output of EXPLAIN. If zero, the default, steps are not timed.";
+
   public static final String KSQL_USE_NAMED_INTERNAL_TOPICS = "ksql.named.internal.topics";
   private static final String KSQL_USE_NAMED_INTERNAL_TOPICS_DOC = "";
   public static final String KSQL_USE_NAMED_INTERNAL_TOPICS_ON = "on";
@@ -153,6 +248,9 @@ public class KsqlConfig extends AbstractConfig {
   public static final String KSQL_LEGACY_REPARTITION_ON_GROUP_BY_ROWKEY =
       "ksql.query.stream.groupby.rowkey.repartition";
 
+  public static final String KSQL_PRIMITIVE_AGGREGATE_STATE =
+      "ksql.query.aggregate.state.primitive";
+
   public static final String KSQL_WRAP_SINGLE_VALUES =
       "ksql.persistence.wrap.single.values";
 
@@ -290,6 +388,19 @@ public class KsqlConfig extends AbstractConfig {
               Optional.empty(),
               "Ensures legacy queries that perform a 'GROUP BY ROWKEY' continue to "
                   + "perform an unnecessary repartition step"
+          ),
+          new CompatibilityBreakingConfigDef(
+              KSQL_PRIMITIVE_AGGREGATE_STATE,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              true,
+              ConfigDef.Importance.LOW,
+              Optional.empty(),
+              "Determines if aggregations hold the aggregates of built-in numeric functions, "
+                  + "e.g. SUM, COUNT, MIN and MAX, in primitive slots that are stored in a "
+                  + "fixed binary layout. Persistent queries started by older versions of KSQL "
+                  + "keep the state format they were started with. "
+                  + "This setting should not be set manually."
           )
   );
 
@@ -508,6 +619,91 @@ public class KsqlConfig extends AbstractConfig {
             true,
             ConfigDef.Importance.LOW,
             "Enable the INSERT INTO ... VALUES functionality."
+        ).define(
+            KSQL_SHARED_RUNTIME_PUSH_QUERIES_ENABLED_CONFIG,
+            Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_SHARED_RUNTIME_PUSH_QUERIES_ENABLED_DOC
+        ).define(
+            KSQL_SHARED_RUNTIME_PUSH_QUERY_BUFFER_SIZE_CONFIG,
+            Type.INT,
+            100,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            KSQL_SHARED_RUNTIME_PUSH_QUERY_BUFFER_SIZE_DOC
+        ).define(
+            KSQL_QUERY_PUSH_QUEUE_CAPACITY_CONFIG,
+            Type.INT,
+            100,
+            ConfigDef.Range.between(1, 1 << 20),
+            ConfigDef.Importance.LOW,
+            KSQL_QUERY_PUSH_QUEUE_CAPACITY_DOC
+        ).define(
+            KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_CONFIG,
+            Type.STRING,
+            KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_BLOCK,
+            ValidString.in(
+                KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_BLOCK,
+                KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_DROP_OLDEST,
+                KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_DISCONNECT
+            ),
+            ConfigDef.Importance.LOW,
+            KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_DOC
+        ).define(
+            KSQL_QUERY_PULL_CACHE_MAX_ENTRIES_CONFIG,
+            Type.LONG,
+            0L,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            KSQL_QUERY_PULL_CACHE_MAX_ENTRIES_DOC
+        ).define(
+            KSQL_QUERY_PULL_CACHE_TTL_MS_CONFIG,
+            Type.LONG,
+            30000L,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            KSQL_QUERY_PULL_CACHE_TTL_MS_DOC
+        ).define(
+            KSQL_QUERY_PULL_CACHE_ENABLED_CONFIG,
+            Type.BOOLEAN,
+            true,
+            ConfigDef.Importance.LOW,
+            KSQL_QUERY_PULL_CACHE_ENABLED_DOC
+        ).define(
+            KSQL_QUERY_PULL_MAX_ALLOWED_OFFSET_LAG_CONFIG,
+            Type.LONG,
+            Long.MAX_VALUE,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            KSQL_QUERY_PULL_MAX_ALLOWED_OFFSET_LAG_DOC
+        ).define(
+            KSQL_SERVICE_CONTEXT_POOL_MAX_SIZE_CONFIG,
+            Type.LONG,
+            0L,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            KSQL_SERVICE_CONTEXT_POOL_MAX_SIZE_DOC
+        ).define(
+            KSQL_SERVICE_CONTEXT_POOL_IDLE_TIMEOUT_MS_CONFIG,
+            Type.LONG,
+            300000L,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            KSQL_SERVICE_CONTEXT_POOL_IDLE_TIMEOUT_MS_DOC
+        ).define(
+            KSQL_QUERY_JOIN_GLOBAL_TABLE_ENABLED_CONFIG,
+            Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_QUERY_JOIN_GLOBAL_TABLE_ENABLED_DOC
+        ).define(
+            KSQL_QUERY_STEP_METRICS_SAMPLE_INTERVAL_CONFIG,
+            Type.INT,
+            0,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            KSQL_QUERY_STEP_METRICS_SAMPLE_INTERVAL_DOC
         ).define(
             KSQL_SECURITY_EXTENSION_CLASS,
             Type.CLASS,
@@ -631,7 +827,48 @@ public class KsqlConfig extends AbstractConfig {
     return ImmutableMap.copyOf(streamConfigProps);
   }
 
+  /**
+   * A {@link ConfigDef} that parses only the keys that changed, taking the values of all others
+   * from an already parsed config.
+   */
+  private static final class OverlayConfigDef extends ConfigDef {
+
+    private final Map<String, Object> baseValues;
+    private final Set<String> changedKeys;
+
+    private OverlayConfigDef(
+        final ConfigDef definition,
+        final Map<String, Object> baseValues,
+        final Set<String> changedKeys
+    ) {
+      super(definition);
+      this.baseValues = Objects.requireNonNull(baseValues, "baseValues");
+      this.changedKeys = Objects.requireNonNull(changedKeys, "changedKeys");
+    }
+
+    @Override
+    public Map<String, Object> parse(final Map<?, ?> props) {
+      final Map<String, Object> values = new HashMap<>(baseValues);
+      for (final String key : changedKeys) {
+        final ConfigKey configKey = configKeys().get(key);
+        if (configKey == null) {
+          continue;
+        }
+
+        final Object value = parseType(configKey.name, props.get(key), configKey.type);
+        if (configKey.validator != null) {
+          configKey.validator.ensureValid(configKey.name, value);
+        }
+        values.put(key, value);
+      }
+      return values;
+    }
+  }
+
+  private static final int MAX_CACHED_OVERRIDES = 256;
+
   private final Map<String, ConfigValue> ksqlStreamConfigProps;
+  private volatile Cache<Map<String, Object>, KsqlConfig> overrideCache;
 
   public KsqlConfig(final Map<?, ?> props) {
     this(ConfigGeneration.CURRENT, props);
@@ -685,6 +922,13 @@ public class KsqlConfig extends AbstractConfig {
     this.ksqlStreamConfigProps = ksqlStreamConfigProps;
   }
 
+  private KsqlConfig(final OverlayConfigDef definition,
+                     final Map<String, ?> values,
+                     final Map<String, ConfigValue> ksqlStreamConfigProps) {
+    super(definition, values, false);
+    this.ksqlStreamConfigProps = ksqlStreamConfigProps;
+  }
+
   private void validate() {
     final Object optimizationsConfig = getKsqlStreamConfigProps().get(
         StreamsConfig.TOPOLOGY_OPTIMIZATION);
@@ -775,13 +1019,59 @@ public class KsqlConfig extends AbstractConfig {
     return Collections.unmodifiableMap(allPropsCleaned);
   }
 
+  /**
+   * Returns a config with the supplied {@code props} layered over this one.
+   *
+   * <p>Only the overridden properties are parsed and validated. Values of all other properties
+   * are shared with this config. Configs are immutable, so the result is cached and returned
+   * again for the same overrides.
+   */
   public KsqlConfig cloneWithPropertyOverwrite(final Map<String, Object> props) {
+    if (props.isEmpty()) {
+      return this;
+    }
+
+    final Map<String, Object> overrides = Collections.unmodifiableMap(new HashMap<>(props));
+    try {
+      return overrideCache().get(overrides, () -> overlay(overrides));
+    } catch (final ExecutionException e) {
+      throw new KsqlException(e.getCause());
+    } catch (final UncheckedExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    }
+  }
+
+  private KsqlConfig overlay(final Map<String, Object> props) {
     final Map<String, Object> cloneProps = new HashMap<>(originals());
     cloneProps.putAll(props);
-    final Map<String, ConfigValue> streamConfigProps =
-        buildStreamingConfig(getKsqlStreamConfigProps(), props);
 
-    return new KsqlConfig(ConfigGeneration.CURRENT, cloneProps, streamConfigProps);
+    final Map<String, ConfigValue> streamConfigProps = new HashMap<>(ksqlStreamConfigProps);
+    applyStreamsConfig(props, streamConfigProps);
+
+    final OverlayConfigDef definition = new OverlayConfigDef(
+        configDef(ConfigGeneration.CURRENT),
+        values(),
+        props.keySet()
+    );
+
+    return new KsqlConfig(definition, cloneProps, ImmutableMap.copyOf(streamConfigProps));
+  }
+
+  private Cache<Map<String, Object>, KsqlConfig> overrideCache() {
+    Cache<Map<String, Object>, KsqlConfig> cache = overrideCache;
+    if (cache == null) {
+      synchronized (this) {
+        cache = overrideCache;
+        if (cache == null) {
+          cache = CacheBuilder.newBuilder()
+              .maximumSize(MAX_CACHED_OVERRIDES)
+              .build();
+          overrideCache = cache;
+        }
+      }
+    }
+    return cache;
   }
 
   public KsqlConfig overrideBreakingConfigsWithOriginalValues(final Map<String, String> props) {
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.util.timestamp;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A parser for fixed width, numeric, timestamp patterns, e.g. {@code yyyy-MM-dd'T'HH:mm:ss.SSS},
+ * which scans the digits of each field directly rather than going through a
+ * {@link java.time.format.DateTimeFormatter}.
+ *
+ * <p>Only patterns made up of {@code yyyy}, {@code MM}, {@code dd}, {@code HH}, {@code mm},
+ * {@code ss}, {@code S} to {@code SSSSSSSSS} and literals are supported: {@link #create} returns
+ * nothing for any other pattern. Text the parser can not handle itself, e.g. text of the wrong
+ * length, out of range fields or local times that fall in a time zone transition, is reported as
+ * {@link #UNPARSEABLE}, so that the caller can fall back to the general parser, which either
+ * handles it or reports the error.
+ *
+ * <p>The start of the day and the zone offset are memoized per thread, as successive timestamps
+ * normally share the same date.
+ */
+final class FastTimestampParser {
+
+  static final long UNPARSEABLE = Long.MIN_VALUE;
+
+  private static final int SECONDS_PER_DAY = 86_400;
+  private static final int MAX_OFFSET_SECONDS = 18 * 3600;
+  private static final long DAYS_0000_TO_1970 = 719_528L;
+  private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+  private static final long[] POWERS_OF_TEN = {
+      1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L
+  };
+
+  private enum Field {
+    YEAR('y', 4),
+    MONTH('M', 2),
+    DAY('d', 2),
+    HOUR('H', 2),
+    MINUTE('m', 2),
+    SECOND('s', 2),
+    FRACTION('S', 0);
+
+    private final char letter;
+    private final int width;
+
+    Field(final char letter, final int width) {
+      this.letter = letter;
+      this.width = width;
+    }
+
+    static Optional<Field> of(final char letter, final int width) {
+      for (final Field field : values()) {
+        if (field.letter == letter) {
+          final boolean valid = field == FRACTION ? width <= 9 : width == field.width;
+          return valid ? Optional.of(field) : Optional.empty();
+        }
+      }
+      return Optional.empty();
+    }
+  }
+
+  private final Field[] fields;
+  private final int[] offsets;
+  private final int[] widths;
+  private final String literals;
+  private final int length;
+  private final ThreadLocal<DateMemo> memo = ThreadLocal.withInitial(DateMemo::new);
+
+  private FastTimestampParser(
+      final List<Field> fields,
+      final List<Integer> offsets,
+      final List<Integer> widths,
+      final String literals
+  ) {
+    this.fields = fields.toArray(new Field[0]);
+    this.offsets = offsets.stream().mapToInt(Integer::intValue).toArray();
+    this.widths = widths.stream().mapToInt(Integer::intValue).toArray();
+    this.literals = literals;
+    this.length = literals.length();
+  }
+
+  /**
+   * @param pattern the {@link java.time.format.DateTimeFormatter} pattern.
+   * @return the parser, if the pattern is supported.
+   */
+  static Optional<FastTimestampParser> create(final String pattern) {
+    final List<Field> fields = new ArrayList<>();
+    final List<Integer> offsets = new ArrayList<>();
+    final List<Integer> widths = new ArrayList<>();
+    final Set<Field> seen = EnumSet.noneOf(Field.class);
+
+    // The expected text, with each field replaced by placeholder digits:
+    final StringBuilder literals = new StringBuilder();
+
+    int idx = 0;
+    while (idx < pattern.length()) {
+      final char c = pattern.charAt(idx);
+
+      if (Character.isLetter(c)) {
+        int end = idx + 1;
+        while (end < pattern.length() && pattern.charAt(end) == c) {
+          end++;
+        }
+
+        final Optional<Field> field = Field.of(c, end - idx);
+        if (!field.isPresent() || !seen.add(field.get())) {
+          return Optional.empty();
+        }
+
+        fields.add(field.get());
+        offsets.add(literals.length());
+        widths.add(end - idx);
+        for (int i = idx; i < end; i++) {
+          literals.append('0');
+        }
+        idx = end;
+      } else if (c == '\'') {
+        final int end = pattern.indexOf('\'', idx + 1);
+        if (end <= idx + 1 || (end + 1 < pattern.length() && pattern.charAt(end + 1) == '\'')) {
+          // Unterminated or escaped quote:
+          return Optional.empty();
+        }
+        literals.append(pattern, idx + 1, end);
+        idx = end + 1;
+      } else if ("[]{}#".indexOf(c) != -1) {
+        // Optional sections and reserved characters:
+        return Optional.empty();
+      } else {
+        literals.append(c);
+        idx++;
+      }
+    }
+
+    return Optional.of(new FastTimestampParser(fields, offsets, widths, literals.toString()));
+  }
+
+  /**
+   * @param text the textual representation of the timestamp.
+   * @param zoneId the zone the timestamp is in.
+   * @return the millis since epoch that {@code text} represents, or {@link #UNPARSEABLE}.
+   */
+  long parse(final String text, final ZoneId zoneId) {
+    if (text.length() != length || !literalsMatch(text)) {
+      return UNPARSEABLE;
+    }
+
+    int year = 1970;
+    int month = 1;
+    int day = 1;
+    int hour = 0;
+    int minute = 0;
+    int second = 0;
+    long nanos = 0;
+
+    for (int i = 0; i < fields.length; i++) {
+      final int value = digits(text, offsets[i], widths[i]);
+      if (value < 0) {
+        return UNPARSEABLE;
+      }
+
+      switch (fields[i]) {
+        case YEAR:
+          year = value;
+          break;
+        case MONTH:
+          month = value;
+          break;
+        case DAY:
+          day = value;
+          break;
+        case HOUR:
+          hour = value;
+          break;
+        case MINUTE:
+          minute = value;
+          break;
+        case SECOND:
+          second = value;
+          break;
+        default:
+          nanos = value * POWERS_OF_TEN[9 - widths[i]];
+          break;
+      }
+    }
+
+    if (year < 1 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+        || hour > 23 || minute > 59 || second > 59) {
+      return UNPARSEABLE;
+    }
+
+    final DateMemo date = memo.get();
+    if (!date.matches(year, month, day, zoneId)) {
+      date.update(year, month, day, zoneId);
+    }
+
+    if (!date.hasFixedOffset) {
+      return UNPARSEABLE;
+    }
+
+    final long localSeconds = date.epochDay * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+    return (localSeconds - date.offsetSeconds) * 1000 + nanos / 1_000_000;
+  }
+
+  private boolean literalsMatch(final String text) {
+    int field = 0;
+    int idx = 0;
+    while (idx < length) {
+      if (field < fields.length && idx == offsets[field]) {
+        idx += widths[field];
+        field++;
+      } else if (text.charAt(idx) != literals.charAt(idx)) {
+        return false;
+      } else {
+        idx++;
+      }
+    }
+    return true;
+  }
+
+  private static int digits(final String text, final int offset, final int width) {
+    int value = 0;
+    for (int i = offset; i < offset + width; i++) {
+      final int digit = text.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  private static boolean isLeapYear(final long year) {
+    return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+  }
+
+  private static int daysInMonth(final int year, final int month) {
+    return month == 2 && isLeapYear(year) ? 29 : DAYS_IN_MONTH[month - 1];
+  }
+
+  private static long toEpochDay(final int year, final int month, final int day) {
+    // As LocalDate.toEpochDay, for positive years:
+    long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+    total += (367 * month - 362) / 12;
+    total += day - 1;
+    if (month > 2) {
+      total--;
+      if (!isLeapYear(year)) {
+        total--;
+      }
+    }
+    return total - DAYS_0000_TO_1970;
+  }
+
+  /**
+   * The last date parsed by a thread, and the offset of its zone on that date, if the offset is
+   * the same throughout the day.
+   */
+  private static final class DateMemo {
+
+    private int year;
+    private int month;
+    private int day;
+    private ZoneId zoneId;
+    private long epochDay;
+    private boolean hasFixedOffset;
+    private int offsetSeconds;
+
+    boolean matches(final int year, final int month, final int day, final ZoneId zoneId) {
+      return this.day == day
+          && this.month == month
+          && this.year == year
+          && zoneId.equals(this.zoneId);
+    }
+
+    void update(final int year, final int month, final int day, final ZoneId zoneId) {
+      this.year = year;
+      this.month = month;
+      this.day = day;
+      this.zoneId = zoneId;
+      this.epochDay = toEpochDay(year, month, day);
+
+      final ZoneRules rules = zoneId.getRules();
+      final long dayStart = epochDay * SECONDS_PER_DAY;
+      final Instant earliest = Instant.ofEpochSecond(dayStart - MAX_OFFSET_SECONDS);
+      final ZoneOffsetTransition next = rules.nextTransition(earliest);
+
+      this.hasFixedOffset = rules.isFixedOffset()
+          || next == null
+          || next.getInstant().getEpochSecond() > dayStart + SECONDS_PER_DAY + MAX_OFFSET_SECONDS;
+      this.offsetSeconds = rules.getOffset(earliest).getTotalSeconds();
+    }
+  }
+}
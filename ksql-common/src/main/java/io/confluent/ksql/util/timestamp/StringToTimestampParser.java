@@ -25,6 +25,7 @@ import java.time.temporal.TemporalAccessor;
 import java.time.temporal.TemporalField;
 import java.time.temporal.TemporalQueries;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.function.Function;
 import org.apache.commons.lang3.ObjectUtils;
 
@@ -34,9 +35,11 @@ public class StringToTimestampParser {
       zid -> ZonedDateTime.of(1970, 1, 1, 0, 0, 0, 0, zid);
 
   private final DateTimeFormatter formatter;
+  private final Optional<FastTimestampParser> fastParser;
 
   public StringToTimestampParser(final String pattern) {
     formatter = DateTimeFormatter.ofPattern(pattern, Locale.ROOT);
+    fastParser = FastTimestampParser.create(pattern);
   }
 
   /**
@@ -55,9 +58,21 @@ public class StringToTimestampParser {
    * @return the millis since epoch that {@code text} represents
    */
   public long parse(final String text, final ZoneId zoneId) {
+    if (fastParser.isPresent()) {
+      final long millis = fastParser.get().parse(text, zoneId);
+      if (millis != FastTimestampParser.UNPARSEABLE) {
+        return millis;
+      }
+    }
+
     return parseZoned(text, zoneId).toInstant().toEpochMilli();
   }
 
+  @VisibleForTesting
+  boolean hasFastParser() {
+    return fastParser.isPresent();
+  }
+
   @VisibleForTesting
   ZonedDateTime parseZoned(final String text, final ZoneId zoneId) {
     final TemporalAccessor parsed = formatter.parse(text);
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.logging.processing;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.ksql.logging.processing.ProcessingLogMessageSchema.MessageType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProcessingLogDispatcherTest {
+
+  private static final long WINDOW_MS = 10_000L;
+
+  @Mock
+  private ProcessingLogConfig config;
+  @Mock
+  private ProcessingLogger logger;
+  @Mock
+  private ProcessingLogger otherLogger;
+
+  private final Metrics metrics = new Metrics();
+  private long now = 1_000L;
+  private int threadsStarted;
+
+  @Before
+  public void setUp() {
+    when(config.getLong(ProcessingLogConfig.RATE_LIMIT_WINDOW_MS)).thenReturn(WINDOW_MS);
+  }
+
+  @After
+  public void tearDown() {
+    metrics.close();
+  }
+
+  @Test
+  public void shouldWriteMessagesOnBackgroundThread() {
+    // Given:
+    final ProcessingLogger dispatching = givenDispatcher(10, 100).wrap("foo", logger);
+
+    // When:
+    dispatching.error(errorMessage("boom"));
+
+    // Then:
+    verify(logger, never()).error(any());
+    assertThat(threadsStarted, is(1));
+  }
+
+  @Test
+  public void shouldWriteQueuedMessagesWhenDrained() throws Exception {
+    // Given:
+    final ProcessingLogDispatcher dispatcher = givenDispatcher(10, 100);
+    dispatcher.wrap("foo", logger).error(errorMessage("boom"));
+
+    // When:
+    dispatcher.drain(0);
+
+    // Then:
+    assertThat(writtenMessages(logger, 1), contains("boom"));
+  }
+
+  @Test
+  public void shouldBuildQueuedMessagesOnReportingThread() throws Exception {
+    // Given:
+    final ProcessingLogDispatcher dispatcher = givenDispatcher(10, 100);
+    final List<String> row = new ArrayList<>(Collections.singletonList("before"));
+    dispatcher.wrap("foo", logger).error(config -> errorMessage(row.get(0)).apply(config));
+
+    // When:
+    row.set(0, "after");
+    dispatcher.drain(0);
+
+    // Then:
+    assertThat(writtenMessages(logger, 1), contains("before"));
+  }
+
+  @Test
+  public void shouldNotBuildSuppressedMessages() {
+    // Given:
+    final ProcessingLogger dispatching = givenDispatcher(0, 1).wrap("foo", logger);
+
+    // When:
+    for (final String message : new String[]{"first", null}) {
+      dispatching.error(config -> {
+        if (message == null) {
+          throw new AssertionError("suppressed message should not be built");
+        }
+        return errorMessage(message).apply(config);
+      });
+    }
+
+    // Then:
+    assertThat(writtenMessages(logger, 1), contains("first"));
+  }
+
+  @Test
+  public void shouldStartOnlyOneBackgroundThread() {
+    // Given:
+    final ProcessingLogDispatcher dispatcher = givenDispatcher(10, 100);
+
+    // When:
+    dispatcher.wrap("foo", logger).error(errorMessage("boom"));
+    dispatcher.wrap("bar", logger).error(errorMessage("boom"));
+
+    // Then:
+    assertThat(threadsStarted, is(1));
+  }
+
+  @Test
+  public void shouldDropAndCountMessagesIfQueueFull() throws Exception {
+    // Given:
+    final ProcessingLogDispatcher dispatcher = givenDispatcher(1, 100);
+    final ProcessingLogger dispatching = dispatcher.wrap("foo", logger);
+
+    // When:
+    dispatching.error(errorMessage("first"));
+    dispatching.error(errorMessage("second"));
+    dispatcher.drain(0);
+
+    // Then:
+    assertThat(writtenMessages(logger, 1), contains("first"));
+    assertThat(metricValue(ProcessingLogDispatcher.DROPPED_METRIC), is(1.0));
+  }
+
+  @Test
+  public void shouldSuppressAndCountMessagesOverRateLimit() {
+    // Given:
+    final ProcessingLogger dispatching = givenDispatcher(0, 2).wrap("foo", logger);
+
+    // When:
+    dispatching.error(errorMessage("first"));
+    dispatching.error(errorMessage("second"));
+    dispatching.error(errorMessage("third"));
+
+    // Then:
+    assertThat(writtenMessages(logger, 2), contains("first", "second"));
+    assertThat(metricValue(ProcessingLogDispatcher.SUPPRESSED_METRIC), is(1.0));
+  }
+
+  @Test
+  public void shouldRateLimitEachLoggerSeparately() {
+    // Given:
+    final ProcessingLogDispatcher dispatcher = givenDispatcher(0, 1);
+
+    // When:
+    dispatcher.wrap("foo", logger).error(errorMessage("first"));
+    dispatcher.wrap("bar", otherLogger).error(errorMessage("second"));
+
+    // Then:
+    assertThat(writtenMessages(logger, 1), contains("first"));
+    assertThat(writtenMessages(otherLogger, 1), contains("second"));
+  }
+
+  @Test
+  public void shouldNotRateLimitIfLimitIsZero() {
+    // Given:
+    final ProcessingLogger dispatching = givenDispatcher(0, 0).wrap("foo", logger);
+
+    // When:
+    dispatching.error(errorMessage("first"));
+    dispatching.error(errorMessage("second"));
+
+    // Then:
+    assertThat(writtenMessages(logger, 2), contains("first", "second"));
+  }
+
+  @Test
+  public void shouldWriteSummaryOfSuppressedMessagesOnceWindowCloses() throws Exception {
+    // Given:
+    final ProcessingLogDispatcher dispatcher = givenDispatcher(10, 1);
+    final ProcessingLogger dispatching = dispatcher.wrap("foo", logger);
+    dispatching.error(errorMessage("first"));
+    dispatching.error(errorMessage("second"));
+    dispatching.error(errorMessage("third"));
+    dispatcher.drain(0);
+
+    // When:
+    now += WINDOW_MS;
+    dispatcher.drain(0);
+
+    // Then:
+    assertThat(writtenMessages(logger, 2), contains(
+        "first",
+        "2 similar errors in the last 10000 ms were not logged. Last logged error: first"
+    ));
+  }
+
+  @Test
+  public void shouldNotWriteSummaryBeforeWindowCloses() throws Exception {
+    // Given:
+    final ProcessingLogDispatcher dispatcher = givenDispatcher(10, 1);
+    final ProcessingLogger dispatching = dispatcher.wrap("foo", logger);
+    dispatching.error(errorMessage("first"));
+    dispatching.error(errorMessage("second"));
+
+    // When:
+    now += WINDOW_MS - 1;
+    dispatcher.drain(0);
+
+    // Then:
+    assertThat(writtenMessages(logger, 1), contains("first"));
+  }
+
+  @Test
+  public void shouldWriteSummaryBeforeNextMessageIfSynchronous() {
+    // Given:
+    final ProcessingLogger dispatching = givenDispatcher(0, 1).wrap("foo", logger);
+    dispatching.error(errorMessage("first"));
+    dispatching.error(errorMessage("second"));
+
+    // When:
+    now += WINDOW_MS;
+    dispatching.error(errorMessage("third"));
+
+    // Then:
+    assertThat(writtenMessages(logger, 3), contains(
+        "first",
+        "1 similar errors in the last 10000 ms were not logged. Last logged error: first",
+        "third"
+    ));
+    assertThat(threadsStarted, is(0));
+  }
+
+  @Test
+  public void shouldForgetSignaturesIdleForFullWindow() throws Exception {
+    // Given:
+    final ProcessingLogDispatcher dispatcher = givenDispatcher(10, 1);
+    dispatcher.wrap("foo", logger).error(errorMessage("first"));
+    dispatcher.drain(0);
+
+    // When:
+    now += WINDOW_MS;
+    dispatcher.drain(0);
+
+    // Then:
+    assertThat(dispatcher.numSignatures(), is(0));
+  }
+
+  @Test
+  public void shouldNotForgetSignaturesBeforeIdleForFullWindow() throws Exception {
+    // Given:
+    final ProcessingLogDispatcher dispatcher = givenDispatcher(10, 1);
+    dispatcher.wrap("foo", logger).error(errorMessage("first"));
+    dispatcher.drain(0);
+
+    // When:
+    now += WINDOW_MS - 1;
+    dispatcher.drain(0);
+
+    // Then:
+    assertThat(dispatcher.numSignatures(), is(1));
+  }
+
+  @Test
+  public void shouldWriteSummaryBeforeForgettingSignature() throws Exception {
+    // Given:
+    final ProcessingLogDispatcher dispatcher = givenDispatcher(10, 1);
+    final ProcessingLogger dispatching = dispatcher.wrap("foo", logger);
+    dispatching.error(errorMessage("first"));
+    dispatching.error(errorMessage("second"));
+    dispatcher.drain(0);
+
+    // When:
+    now += WINDOW_MS;
+    dispatcher.drain(0);
+
+    // Then:
+    assertThat(writtenMessages(logger, 2), contains(
+        "first",
+        "1 similar errors in the last 10000 ms were not logged. Last logged error: first"
+    ));
+    assertThat(dispatcher.numSignatures(), is(0));
+  }
+
+  @Test
+  public void shouldForgetSignaturesIdleForFullWindowIfSynchronous() {
+    // Given:
+    final ProcessingLogDispatcher dispatcher = givenDispatcher(0, 1);
+    dispatcher.wrap("foo", logger).error(errorMessage("first"));
+
+    // When:
+    now += WINDOW_MS;
+    dispatcher.wrap("bar", otherLogger).error(errorMessage("second"));
+
+    // Then:
+    assertThat(dispatcher.numSignatures(), is(1));
+    assertThat(writtenMessages(otherLogger, 1), contains("second"));
+  }
+
+  private ProcessingLogDispatcher givenDispatcher(final int queueSize, final int rateLimit) {
+    when(config.getInt(ProcessingLogConfig.QUEUE_SIZE)).thenReturn(queueSize);
+    when(config.getInt(ProcessingLogConfig.RATE_LIMIT_MESSAGES)).thenReturn(rateLimit);
+    return new ProcessingLogDispatcher(config, metrics, () -> now, task -> threadsStarted++);
+  }
+
+  private static Function<ProcessingLogConfig, SchemaAndValue> errorMessage(
+      final String message
+  ) {
+    return config -> {
+      final Struct error = new Struct(MessageType.RECORD_PROCESSING_ERROR.getSchema())
+          .put(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE, message);
+      final Struct struct = new Struct(ProcessingLogMessageSchema.PROCESSING_LOG_SCHEMA)
+          .put(ProcessingLogMessageSchema.TYPE, MessageType.RECORD_PROCESSING_ERROR.getTypeId())
+          .put(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR, error);
+      return new SchemaAndValue(ProcessingLogMessageSchema.PROCESSING_LOG_SCHEMA, struct);
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<String> writtenMessages(final ProcessingLogger logger, final int expected) {
+    final ArgumentCaptor<Function<ProcessingLogConfig, SchemaAndValue>> msgCaptor =
+        ArgumentCaptor.forClass(Function.class);
+    verify(logger, times(expected)).error(msgCaptor.capture());
+    return msgCaptor.getAllValues().stream()
+        .map(msgFactory -> (Struct) msgFactory.apply(config).value())
+        .map(struct -> struct.getStruct(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR))
+        .map(error -> error.getString(
+            ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE))
+        .collect(Collectors.toList());
+  }
+
+  private double metricValue(final String name) {
+    return (Double) metrics
+        .metric(metrics.metricName(name, ProcessingLogDispatcher.METRIC_GROUP))
+        .metricValue();
+  }
+}
@@ -18,6 +18,7 @@ package io.confluent.ksql.logging.processing;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -45,6 +46,10 @@ public class ProcessingLoggerFactoryImplTest {
   private BiFunction<ProcessingLogConfig, StructuredLogger, ProcessingLogger> loggerFactory;
   @Mock
   private ProcessingLogger logger;
+  @Mock
+  private ProcessingLogDispatcher dispatcher;
+  @Mock
+  private ProcessingLogger dispatchingLogger;
 
   private final Collection<String> loggers = ImmutableList.of("logger1", "logger2");
 
@@ -55,7 +60,8 @@ public class ProcessingLoggerFactoryImplTest {
     when(innerFactory.getLogger(anyString())).thenReturn(innerLogger);
     when(innerFactory.getLoggers()).thenReturn(loggers);
     when(loggerFactory.apply(config, innerLogger)).thenReturn(logger);
-    factory = new ProcessingLoggerFactoryImpl(config, innerFactory, loggerFactory);
+    when(dispatcher.wrap(anyString(), any())).thenReturn(dispatchingLogger);
+    factory = new ProcessingLoggerFactoryImpl(config, innerFactory, loggerFactory, dispatcher);
   }
 
   @Test
@@ -64,9 +70,10 @@ public class ProcessingLoggerFactoryImplTest {
     final ProcessingLogger logger = factory.getLogger("foo.bar");
 
     // Then:
-    assertThat(logger, is(this.logger));
+    assertThat(logger, is(dispatchingLogger));
     verify(innerFactory).getLogger("foo.bar");
     verify(loggerFactory).apply(config, innerLogger);
+    verify(dispatcher).wrap("foo.bar", this.logger);
   }
 
   @Test
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.query.QueryId;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryStepMetricsTest {
+
+  private static final QueryId QUERY_ID = new QueryId("CSAS_FOO_1");
+
+  @Before
+  public void setUp() {
+    MetricCollectors.initialize();
+  }
+
+  @After
+  public void tearDown() {
+    QueryStepMetrics.remove(QUERY_ID);
+    MetricCollectors.cleanUp();
+  }
+
+  @Test
+  public void shouldReturnSameTimerForSameStep() {
+    // When:
+    final StepTimer timer = QueryStepMetrics.getTimer(QUERY_ID, "Project", 1);
+
+    // Then:
+    assertThat(QueryStepMetrics.getTimer(QUERY_ID, "Project", 1), is(sameInstance(timer)));
+  }
+
+  @Test
+  public void shouldRegisterMetricsOnceStepHasTimedRecord() {
+    // Given:
+    final StepTimer timer = QueryStepMetrics.getTimer(QUERY_ID, "Project", 1);
+    final MetricName latency = metricName(StepTimer.LATENCY_MAX, "Project");
+    assertThat(MetricCollectors.getMetrics().metric(latency) == null, is(true));
+
+    // When:
+    timer.stop(timer.start());
+
+    // Then:
+    final KafkaMetric metric = MetricCollectors.getMetrics().metric(latency);
+    assertThat((Double) metric.metricValue(), greaterThanOrEqualTo(0.0));
+  }
+
+  @Test
+  public void shouldFormatOnlyStepsThatHaveTimedRecords() {
+    // Given:
+    final StepTimer timer = QueryStepMetrics.getTimer(QUERY_ID, "KsqlTopic/source", 1);
+    QueryStepMetrics.getTimer(QUERY_ID, "Project", 1);
+
+    // When:
+    timer.stop(timer.start());
+
+    // Then:
+    final String stats = QueryStepMetrics.getAndFormatStatsFor(QUERY_ID);
+    assertThat(stats, containsString("KsqlTopic/source"));
+    assertThat(stats, containsString(StepTimer.RECORDS_PER_SEC));
+    assertThat(stats.contains("Project"), is(false));
+  }
+
+  @Test
+  public void shouldReturnEmptyStatsForUnknownQuery() {
+    assertThat(QueryStepMetrics.getAndFormatStatsFor(new QueryId("unknown")), is(""));
+  }
+
+  @Test
+  public void shouldRemoveMetricsOfQuery() {
+    // Given:
+    final StepTimer timer = QueryStepMetrics.getTimer(QUERY_ID, "Project", 1);
+    timer.stop(timer.start());
+
+    // When:
+    QueryStepMetrics.remove(QUERY_ID);
+
+    // Then:
+    assertThat(QueryStepMetrics.getAndFormatStatsFor(QUERY_ID), is(""));
+    assertThat(
+        MetricCollectors.getMetrics().metric(metricName(StepTimer.LATENCY_AVG, "Project")) == null,
+        is(true)
+    );
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowOnNonPositiveSampleInterval() {
+    QueryStepMetrics.getTimer(QUERY_ID, "Project", 0);
+  }
+
+  private static MetricName metricName(final String name, final String step) {
+    return new MetricName(
+        name,
+        QueryStepMetrics.METRIC_GROUP,
+        "",
+        ImmutableMap.of("query-id", QUERY_ID.getId(), "step", step)
+    );
+  }
+}
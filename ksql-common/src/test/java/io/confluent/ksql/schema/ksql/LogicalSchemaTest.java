@@ -313,6 +313,39 @@ public class LogicalSchemaTest {
     assertThat(ALIASED_SCHEMA.valueColumnIndex(ColumnRef.of(SourceName.of("bob"), F1)), is(OptionalInt.of(1)));
   }
 
+  @Test
+  public void shouldGetColumnIndexOfColumnsWithSameNameButDifferentSource() {
+    // Given:
+    final LogicalSchema schema = LogicalSchema.builder()
+        .valueColumn(BOB, F0, SqlTypes.STRING)
+        .valueColumn(BOB, F1, SqlTypes.BIGINT)
+        .valueColumn(FRED, F0, SqlTypes.STRING)
+        .build();
+
+    // Then:
+    assertThat(schema.valueColumnIndex(ColumnRef.of(BOB, F0)), is(OptionalInt.of(0)));
+    assertThat(schema.valueColumnIndex(ColumnRef.of(FRED, F0)), is(OptionalInt.of(2)));
+    assertThat(schema.valueColumnIndex(ColumnRef.withoutSource(F0)), is(OptionalInt.of(0)));
+    assertThat(schema.valueColumnIndex(ColumnRef.of(FRED, F1)), is(OptionalInt.empty()));
+  }
+
+  @Test
+  public void shouldFindColumnsWithSameNameButDifferentSource() {
+    // Given:
+    final LogicalSchema schema = LogicalSchema.builder()
+        .keyColumn(Column.of(BOB, K0, SqlTypes.BIGINT))
+        .valueColumn(BOB, F0, SqlTypes.STRING)
+        .valueColumn(FRED, F0, SqlTypes.BIGINT)
+        .build();
+
+    // Then:
+    assertThat(schema.findValueColumn(ColumnRef.of(FRED, F0)),
+        is(Optional.of(Column.of(FRED, F0, SqlTypes.BIGINT))));
+    assertThat(schema.findColumn(ColumnRef.withoutSource(F0)),
+        is(Optional.of(Column.of(BOB, F0, SqlTypes.STRING))));
+    assertThat(schema.findColumn(ColumnRef.of(FRED, K0)), is(Optional.empty()));
+  }
+
   @Test
   public void shouldExposeMetaColumns() {
     assertThat(SOME_SCHEMA.metadata(), is(ImmutableList.of(
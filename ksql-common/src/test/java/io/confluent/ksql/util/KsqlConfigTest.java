@@ -20,6 +20,7 @@ import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
@@ -280,6 +281,60 @@ public class KsqlConfigTest {
     assertThat(result, equalTo(200));
   }
 
+  @Test
+  public void shouldReturnSameConfigIfNoOverwrites() {
+    // Given:
+    final KsqlConfig ksqlConfig = new KsqlConfig(Collections.emptyMap());
+
+    // Then:
+    assertThat(ksqlConfig.cloneWithPropertyOverwrite(Collections.emptyMap()),
+        is(sameInstance(ksqlConfig)));
+  }
+
+  @Test
+  public void shouldReuseCloneForSameOverwrites() {
+    // Given:
+    final KsqlConfig ksqlConfig = new KsqlConfig(Collections.emptyMap());
+    final KsqlConfig first = ksqlConfig.cloneWithPropertyOverwrite(
+        ImmutableMap.of(KsqlConfig.KSQL_SERVICE_ID_CONFIG, "test-2"));
+
+    // When:
+    final KsqlConfig second = ksqlConfig.cloneWithPropertyOverwrite(
+        new HashMap<>(ImmutableMap.of(KsqlConfig.KSQL_SERVICE_ID_CONFIG, "test-2")));
+
+    // Then:
+    assertThat(second, is(sameInstance(first)));
+  }
+
+  @Test
+  public void shouldKeepUnchangedValuesWhenCloningClone() {
+    // Given:
+    final KsqlConfig ksqlConfig = new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.SINK_NUMBER_OF_PARTITIONS_PROPERTY, "7"));
+
+    // When:
+    final KsqlConfig cloned = ksqlConfig
+        .cloneWithPropertyOverwrite(ImmutableMap.of(KsqlConfig.KSQL_SERVICE_ID_CONFIG, "id"))
+        .cloneWithPropertyOverwrite(ImmutableMap.of(
+            KsqlConfig.KSQL_PERSISTENT_QUERY_NAME_PREFIX_CONFIG, "bob"));
+
+    // Then:
+    assertThat(cloned.getInt(KsqlConfig.SINK_NUMBER_OF_PARTITIONS_PROPERTY), is(7));
+    assertThat(cloned.getString(KsqlConfig.KSQL_SERVICE_ID_CONFIG), is("id"));
+    assertThat(cloned.getString(KsqlConfig.KSQL_PERSISTENT_QUERY_NAME_PREFIX_CONFIG),
+        is("bob"));
+  }
+
+  @Test(expected = ConfigException.class)
+  public void shouldValidateOverwrites() {
+    // Given:
+    final KsqlConfig ksqlConfig = new KsqlConfig(Collections.emptyMap());
+
+    // When:
+    ksqlConfig.cloneWithPropertyOverwrite(ImmutableMap.of(
+        KsqlConfig.KSQL_USE_NAMED_INTERNAL_TOPICS, "not-a-valid-value"));
+  }
+
   @Test
   public void shouldHaveCorrectOriginalsAfterCloneWithOverwrite() {
     // Given:
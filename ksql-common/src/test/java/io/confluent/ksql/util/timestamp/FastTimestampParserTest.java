@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.util.timestamp;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import org.junit.Test;
+
+public class FastTimestampParserTest {
+
+  private static final ZoneId UTC = ZoneId.of("UTC");
+  private static final ZoneId GMT_3 = ZoneId.of("GMT+3");
+  private static final ZoneId LOS_ANGELES = ZoneId.of("America/Los_Angeles");
+
+  private static final String ISO_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSS";
+
+  @Test
+  public void shouldSupportFixedWidthNumericPatterns() {
+    assertThat(FastTimestampParser.create(ISO_PATTERN).isPresent(), is(true));
+    assertThat(FastTimestampParser.create("yyyyMMddHHmmss").isPresent(), is(true));
+    assertThat(FastTimestampParser.create("dd/MM/yyyy HH:mm").isPresent(), is(true));
+  }
+
+  @Test
+  public void shouldNotSupportOtherPatterns() {
+    assertThat(FastTimestampParser.create("yyyy-MM-dd[ HH:mm:ss]").isPresent(), is(false));
+    assertThat(FastTimestampParser.create("yyyy-MM-dd HH O").isPresent(), is(false));
+    assertThat(FastTimestampParser.create("yyyy-MMM-dd").isPresent(), is(false));
+    assertThat(FastTimestampParser.create("yy-M-d").isPresent(), is(false));
+    assertThat(FastTimestampParser.create("yyyy-DDD").isPresent(), is(false));
+    assertThat(FastTimestampParser.create("HH 'o''clock'").isPresent(), is(false));
+  }
+
+  @Test
+  public void shouldParseIsoTimestamp() {
+    // When:
+    final long millis = parse(ISO_PATTERN, "2019-11-05T10:20:30.456", UTC);
+
+    // Then:
+    assertThat(millis, is(ZonedDateTime.of(2019, 11, 5, 10, 20, 30, 456_000_000, UTC)
+        .toInstant().toEpochMilli()));
+  }
+
+  @Test
+  public void shouldParseWithZoneOffset() {
+    // When:
+    final long millis = parse("yyyy-MM-dd HH", "1605-11-05 10", GMT_3);
+
+    // Then:
+    assertThat(millis, is(ZonedDateTime.of(1605, 11, 5, 10, 0, 0, 0, GMT_3)
+        .toInstant().toEpochMilli()));
+  }
+
+  @Test
+  public void shouldParseWithZoneRules() {
+    // When:
+    final long winter = parse(ISO_PATTERN, "2019-01-15T12:00:00.000", LOS_ANGELES);
+    final long summer = parse(ISO_PATTERN, "2019-07-15T12:00:00.000", LOS_ANGELES);
+
+    // Then:
+    assertThat(winter, is(ZonedDateTime.of(2019, 1, 15, 12, 0, 0, 0, LOS_ANGELES)
+        .toInstant().toEpochMilli()));
+    assertThat(summer, is(ZonedDateTime.of(2019, 7, 15, 12, 0, 0, 0, LOS_ANGELES)
+        .toInstant().toEpochMilli()));
+  }
+
+  @Test
+  public void shouldParseSuccessiveDatesAndZones() {
+    // Given:
+    final FastTimestampParser parser = FastTimestampParser.create(ISO_PATTERN).get();
+
+    // When:
+    final long first = parser.parse("2019-11-05T10:00:00.000", UTC);
+    final long sameDay = parser.parse("2019-11-05T11:00:00.000", UTC);
+    final long otherZone = parser.parse("2019-11-05T11:00:00.000", GMT_3);
+    final long nextDay = parser.parse("2019-11-06T10:00:00.000", UTC);
+
+    // Then:
+    assertThat(sameDay - first, is(3_600_000L));
+    assertThat(sameDay - otherZone, is(3 * 3_600_000L));
+    assertThat(nextDay - first, is(86_400_000L));
+  }
+
+  @Test
+  public void shouldParseFractionsOfAnyWidth() {
+    assertThat(parse("ss.S", "01.5", UTC), is(1_500L));
+    assertThat(parse("ss.SSSSSSSSS", "01.123456789", UTC), is(1_123L));
+  }
+
+  @Test
+  public void shouldParseLeapDay() {
+    assertThat(parse("yyyy-MM-dd", "2020-02-29", UTC),
+        is(ZonedDateTime.of(2020, 2, 29, 0, 0, 0, 0, UTC).toInstant().toEpochMilli()));
+  }
+
+  @Test
+  public void shouldNotParseTextOfWrongShape() {
+    assertThat(parse(ISO_PATTERN, "2019-11-05T10:20:30", UTC),
+        is(FastTimestampParser.UNPARSEABLE));
+    assertThat(parse(ISO_PATTERN, "2019-11-05 10:20:30.456", UTC),
+        is(FastTimestampParser.UNPARSEABLE));
+    assertThat(parse(ISO_PATTERN, "2019-1a-05T10:20:30.456", UTC),
+        is(FastTimestampParser.UNPARSEABLE));
+  }
+
+  @Test
+  public void shouldNotParseOutOfRangeFields() {
+    assertThat(parse("yyyy-MM-dd", "2019-13-01", UTC), is(FastTimestampParser.UNPARSEABLE));
+    assertThat(parse("yyyy-MM-dd", "2019-02-29", UTC), is(FastTimestampParser.UNPARSEABLE));
+    assertThat(parse("HH:mm", "24:00", UTC), is(FastTimestampParser.UNPARSEABLE));
+  }
+
+  @Test
+  public void shouldNotParseOnDaysWithZoneTransition() {
+    assertThat(parse(ISO_PATTERN, "2019-03-10T12:00:00.000", LOS_ANGELES),
+        is(FastTimestampParser.UNPARSEABLE));
+  }
+
+  private static long parse(final String pattern, final String text, final ZoneId zoneId) {
+    return FastTimestampParser.create(pattern).get().parse(text, zoneId);
+  }
+}
@@ -186,6 +186,36 @@ public class StringToTimestampParserTest {
     assertThat(ts, is(sameInstant(EPOCH.withDayOfYear(100).withZoneSameInstant(ZID))));
   }
 
+  @Test
+  public void shouldParseSameWithFastParser() {
+    // Given
+    final String format = "yyyy-MM-dd'T'HH:mm:ss.SSS";
+    final String timestamp = "2019-11-05T10:10:10.010";
+    final StringToTimestampParser parser = new StringToTimestampParser(format);
+
+    // When
+    long ts = parser.parse(timestamp, GMT_3);
+
+    // Then
+    assertThat(parser.hasFastParser(), is(true));
+    assertThat(ts, is(parser.parseZoned(timestamp, GMT_3).toInstant().toEpochMilli()));
+  }
+
+  @Test
+  public void shouldFallBackFromFastParserOnZoneTransition() {
+    // Given
+    final String format = "yyyy-MM-dd HH:mm";
+    final String timestamp = "2019-03-31 01:30";
+    final ZoneId london = ZoneId.of("Europe/London");
+
+    // When
+    long ts = new StringToTimestampParser(format).parse(timestamp, london);
+
+    // Then
+    assertThat(ts, is(ZonedDateTime.of(2019, 3, 31, 2, 30, 0, 0, london)
+        .toInstant().toEpochMilli()));
+  }
+
   private static Matcher<ZonedDateTime> sameInstant(final ZonedDateTime other) {
     return new TypeSafeMatcher<ZonedDateTime>() {
       @Override
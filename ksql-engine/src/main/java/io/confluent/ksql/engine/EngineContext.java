@@ -35,6 +35,7 @@ import io.confluent.ksql.parser.tree.ExecutableDdlStatement;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.query.QueryExecutor;
 import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.query.SharedPushQueryRuntimes;
 import io.confluent.ksql.query.id.QueryIdGenerator;
 import io.confluent.ksql.services.SandboxedServiceContext;
 import io.confluent.ksql.services.ServiceContext;
@@ -67,13 +68,16 @@ final class EngineContext {
   private final BiConsumer<ServiceContext, QueryMetadata> outerOnQueryCloseCallback;
   private final Map<QueryId, PersistentQueryMetadata> persistentQueries;
   private final StatementRewriteForStruct rewriter;
+  private final StatementCache statementCache;
+  private final SharedPushQueryRuntimes sharedRuntimes = new SharedPushQueryRuntimes();
 
   static EngineContext create(
       final ServiceContext serviceContext,
       final ProcessingLogContext processingLogContext,
       final MutableMetaStore metaStore,
       final QueryIdGenerator queryIdGenerator,
-      final BiConsumer<ServiceContext, QueryMetadata> onQueryCloseCallback
+      final BiConsumer<ServiceContext, QueryMetadata> onQueryCloseCallback,
+      final StatementCache statementCache
   ) {
     return new EngineContext(
         serviceContext,
@@ -82,7 +86,8 @@ final class EngineContext {
         queryIdGenerator,
         onQueryCloseCallback,
         new DefaultKsqlParser(),
-        new StatementRewriteForStruct()
+        new StatementRewriteForStruct(),
+        statementCache
     );
   }
 
@@ -94,7 +99,8 @@ final class EngineContext {
       final QueryIdGenerator queryIdGenerator,
       final BiConsumer<ServiceContext, QueryMetadata> onQueryCloseCallback,
       final KsqlParser parser,
-      final StatementRewriteForStruct rewriter
+      final StatementRewriteForStruct rewriter,
+      final StatementCache statementCache
   ) {
     this.serviceContext = requireNonNull(serviceContext, "serviceContext");
     this.metaStore = requireNonNull(metaStore, "metaStore");
@@ -106,6 +112,7 @@ final class EngineContext {
     this.processingLogContext = requireNonNull(processingLogContext, "processingLogContext");
     this.parser = requireNonNull(parser, "parser");
     this.rewriter = requireNonNull(rewriter, "rewriter");
+    this.statementCache = requireNonNull(statementCache, "statementCache");
   }
 
   EngineContext createSandbox(final ServiceContext serviceContext) {
@@ -114,7 +121,8 @@ final class EngineContext {
         processingLogContext,
         metaStore.copy(),
         queryIdGenerator.createSandbox(),
-        (sc, query) -> { /* No-op */ }
+        (sc, query) -> { /* No-op */ },
+        statementCache
     );
 
     persistentQueries.forEach((queryId, query) ->
@@ -141,11 +149,19 @@ final class EngineContext {
     return serviceContext;
   }
 
+  StatementCache getStatementCache() {
+    return statementCache;
+  }
+
   List<ParsedStatement> parse(final String sql) {
-    return parser.parse(sql);
+    return statementCache.parse(sql, parser::parse);
   }
 
   PreparedStatement<?> prepare(final ParsedStatement stmt) {
+    return statementCache.prepare(stmt, metaStore, this::prepareUncached);
+  }
+
+  private PreparedStatement<?> prepareUncached(final ParsedStatement stmt) {
     try {
       final PreparedStatement<?> prepared = parser.prepare(stmt, metaStore);
 
@@ -177,7 +193,8 @@ final class EngineContext {
         processingLogContext,
         serviceContext,
         metaStore,
-        this::unregisterQuery
+        this::unregisterQuery,
+        sharedRuntimes
     );
   }
 
@@ -95,7 +95,8 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
         processingLogContext,
         metaStore,
         queryIdGenerator,
-        this::unregisterQuery);
+        this::unregisterQuery,
+        new StatementCache());
     this.serviceId = Objects.requireNonNull(serviceId, "serviceId");
     this.engineMetrics = engineMetricsFactory.apply(this);
     this.aggregateMetricsCollector = Executors.newSingleThreadScheduledExecutor();
@@ -159,6 +160,13 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
     return primaryContext.prepare(stmt);
   }
 
+  /**
+   * @return the cache of parsed and prepared statements, shared with any sandboxes.
+   */
+  public StatementCache getStatementCache() {
+    return primaryContext.getStatementCache();
+  }
+
   @Override
   public ExecuteResult execute(
       final ServiceContext serviceContext,
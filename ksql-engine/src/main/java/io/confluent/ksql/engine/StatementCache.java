@@ -0,0 +1,164 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.engine;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.CharMatcher;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.metastore.MetaStore;
+import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of parsed and prepared statements, shared by the engine and its sandboxes, so
+ * that statements clients send repeatedly, e.g. {@code LIST STREAMS;} or a templated pull query,
+ * are only parsed and prepared once.
+ *
+ * <p>Parsed statements are cached against the statement text. Prepared statements are cached
+ * against the parsed statement they were prepared from, and the {@link MetaStore#getVersion()
+ * version} of the metastore they were prepared against, as preparing a statement resolves the
+ * sources and types it references.
+ */
+public final class StatementCache {
+
+  static final int DEFAULT_MAX_SIZE = 1000;
+
+  private static final CharMatcher TRAILING_WHITESPACE = CharMatcher.whitespace();
+
+  private final Cache<String, List<ParsedStatement>> parsed;
+  private final Cache<ParsedStatement, VersionedStatement> prepared;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder parseNanos = new LongAdder();
+  private final LongAccumulator maxParseNanos = new LongAccumulator(Math::max, 0);
+
+  StatementCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  @VisibleForTesting
+  StatementCache(final long maxSize) {
+    this.parsed = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .build();
+    this.prepared = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .weakKeys()
+        .build();
+  }
+
+  /**
+   * @return the number of statements served from the cache.
+   */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of statements parsed and prepared.
+   */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the average time taken to parse, or prepare, a statement not in the cache.
+   */
+  public double averageParseTimeMs() {
+    final long count = misses.sum();
+    return count == 0 ? 0.0 : nanosToMillis(parseNanos.sum()) / count;
+  }
+
+  /**
+   * @return the maximum time taken to parse, or prepare, a statement not in the cache.
+   */
+  public double maxParseTimeMs() {
+    return nanosToMillis(maxParseNanos.get());
+  }
+
+  List<ParsedStatement> parse(
+      final String sql,
+      final Function<String, List<ParsedStatement>> parser
+  ) {
+    // Trailing whitespace does not change the statements, or their locations:
+    final String key = TRAILING_WHITESPACE.trimTrailingFrom(sql);
+
+    final List<ParsedStatement> cached = parsed.getIfPresent(key);
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+
+    final List<ParsedStatement> result = ImmutableList.copyOf(timed(() -> parser.apply(sql)));
+    parsed.put(key, result);
+    return result;
+  }
+
+  PreparedStatement<?> prepare(
+      final ParsedStatement stmt,
+      final MetaStore metaStore,
+      final Function<ParsedStatement, PreparedStatement<?>> preparer
+  ) {
+    final long version = metaStore.getVersion();
+
+    final VersionedStatement cached = prepared.getIfPresent(stmt);
+    if (cached != null && cached.version == version) {
+      hits.increment();
+      return cached.statement;
+    }
+
+    final PreparedStatement<?> result = timed(() -> preparer.apply(stmt));
+    prepared.put(stmt, new VersionedStatement(version, result));
+    return result;
+  }
+
+  private <T> T timed(final Supplier<T> task) {
+    misses.increment();
+    final long start = System.nanoTime();
+    try {
+      return task.get();
+    } finally {
+      final long elapsed = System.nanoTime() - start;
+      parseNanos.add(elapsed);
+      maxParseNanos.accumulate(elapsed);
+    }
+  }
+
+  private static double nanosToMillis(final long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  private static final class VersionedStatement {
+
+    private final long version;
+    private final PreparedStatement<?> statement;
+
+    VersionedStatement(final long version, final PreparedStatement<?> statement) {
+      this.version = version;
+      this.statement = requireNonNull(statement, "statement");
+    }
+  }
+}
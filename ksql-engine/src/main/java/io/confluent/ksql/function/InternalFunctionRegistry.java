@@ -38,9 +38,11 @@ import io.confluent.ksql.name.FunctionName;
 import io.confluent.ksql.util.KsqlException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.kafka.connect.data.Schema;
@@ -52,6 +54,8 @@ public class InternalFunctionRegistry implements MutableFunctionRegistry {
   private final Object lock = new Object();
   private final Map<String, UdfFactory> udfs = new ConcurrentHashMap<>();
   private final Map<String, AggregateFunctionFactory> udafs = new ConcurrentHashMap<>();
+  private final Map<String, List<Runnable>> lazyFunctions = new ConcurrentHashMap<>();
+  private final Set<String> loading = new HashSet<>();
   private final FunctionNameValidator functionNameValidator = new FunctionNameValidator();
 
   public InternalFunctionRegistry() {
@@ -59,6 +63,7 @@ public class InternalFunctionRegistry implements MutableFunctionRegistry {
   }
 
   public UdfFactory getUdfFactory(final String functionName) {
+    ensureLoaded(functionName);
     final UdfFactory udfFactory = udfs.get(functionName.toUpperCase());
     if (udfFactory == null) {
       throw new KsqlException("Can't find any functions with the name '" + functionName + "'");
@@ -78,6 +83,7 @@ public class InternalFunctionRegistry implements MutableFunctionRegistry {
   @Override
   public UdfFactory ensureFunctionFactory(final UdfFactory factory) {
     validateFunctionName(factory.getName());
+    ensureLoaded(factory.getName());
 
     synchronized (lock) {
       final String functionName = factory.getName().toUpperCase();
@@ -99,6 +105,7 @@ public class InternalFunctionRegistry implements MutableFunctionRegistry {
 
   @Override
   public boolean isAggregate(final String functionName) {
+    ensureLoaded(functionName);
     return udafs.containsKey(functionName.toUpperCase());
   }
 
@@ -108,6 +115,7 @@ public class InternalFunctionRegistry implements MutableFunctionRegistry {
       final Schema argumentType,
       final AggregateFunctionInitArguments initArgs
   ) {
+    ensureLoaded(functionName);
     final AggregateFunctionFactory udafFactory = udafs.get(functionName.toUpperCase());
     if (udafFactory == null) {
       throw new KsqlException("No aggregate function with name " + functionName + " exists!");
@@ -120,6 +128,7 @@ public class InternalFunctionRegistry implements MutableFunctionRegistry {
   public void addAggregateFunctionFactory(final AggregateFunctionFactory aggregateFunctionFactory) {
     final String functionName = aggregateFunctionFactory.getName().toUpperCase();
     validateFunctionName(functionName);
+    ensureLoaded(functionName);
 
     synchronized (lock) {
       if (udfs.containsKey(functionName)) {
@@ -135,11 +144,13 @@ public class InternalFunctionRegistry implements MutableFunctionRegistry {
 
   @Override
   public List<UdfFactory> listFunctions() {
+    ensureAllLoaded();
     return new ArrayList<>(udfs.values());
   }
 
   @Override
   public AggregateFunctionFactory getAggregateFactory(final String functionName) {
+    ensureLoaded(functionName);
     final AggregateFunctionFactory udafFactory = udafs.get(functionName.toUpperCase());
     if (udafFactory == null) {
       throw new KsqlException(
@@ -151,9 +162,60 @@ public class InternalFunctionRegistry implements MutableFunctionRegistry {
 
   @Override
   public List<AggregateFunctionFactory> listAggregateFunctions() {
+    ensureAllLoaded();
     return new ArrayList<>(udafs.values());
   }
 
+  @Override
+  public void addLazyFunction(final String functionName, final Runnable loader) {
+    Objects.requireNonNull(loader, "loader");
+    final String name = functionName.toUpperCase();
+    validateFunctionName(name);
+
+    synchronized (lock) {
+      lazyFunctions.computeIfAbsent(name, k -> new ArrayList<>()).add(loader);
+    }
+  }
+
+  private void ensureLoaded(final String functionName) {
+    if (lazyFunctions.isEmpty()) {
+      return;
+    }
+
+    synchronized (lock) {
+      final String name = functionName.toUpperCase();
+      if (loading.contains(name)) {
+        // Loaders register functions with the same name, which calls back in here:
+        return;
+      }
+
+      final List<Runnable> loaders = lazyFunctions.get(name);
+      if (loaders == null) {
+        return;
+      }
+
+      // Leave the entry in place until loading has finished, so that other threads wait on the
+      // lock, rather than seeing a partly registered function:
+      loading.add(name);
+      try {
+        loaders.forEach(Runnable::run);
+      } finally {
+        loading.remove(name);
+        lazyFunctions.remove(name);
+      }
+    }
+  }
+
+  private void ensureAllLoaded() {
+    if (lazyFunctions.isEmpty()) {
+      return;
+    }
+
+    synchronized (lock) {
+      new ArrayList<>(lazyFunctions.keySet()).forEach(this::ensureLoaded);
+    }
+  }
+
   private void validateFunctionName(final String functionName) {
     if (!functionNameValidator.test(functionName)) {
       throw new KsqlException(functionName + " is not a valid function name."
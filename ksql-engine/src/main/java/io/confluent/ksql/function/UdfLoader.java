@@ -17,6 +17,10 @@ package io.confluent.ksql.function;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.confluent.ksql.execution.function.UdfUtil;
+import io.confluent.ksql.function.index.FunctionIndex;
+import io.confluent.ksql.function.index.FunctionIndex.Entry;
+import io.confluent.ksql.function.index.FunctionIndex.Kind;
+import io.confluent.ksql.function.index.FunctionIndexProcessor;
 import io.confluent.ksql.function.udaf.UdafDescription;
 import io.confluent.ksql.function.udaf.UdafFactory;
 import io.confluent.ksql.function.udf.Kudf;
@@ -42,14 +46,21 @@ import io.github.lukehutch.fastclasspathscanner.matchprocessor.ClassAnnotationMa
 import io.github.lukehutch.fastclasspathscanner.matchprocessor.MethodAnnotationMatchProcessor;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -152,6 +163,88 @@ public class UdfLoader {
   private void loadUdfs(final ClassLoader loader, final Optional<Path> path) {
     final String pathLoadedFrom
         = path.map(Path::toString).orElse(KsqlFunction.INTERNAL_PATH);
+
+    final Optional<List<Entry>> index = readIndex(loader, pathLoadedFrom);
+    if (index.isPresent()) {
+      index.get().forEach(entry -> functionRegistry.addLazyFunction(
+          entry.getFunctionName(),
+          () -> loadIndexedClass(loader, entry, pathLoadedFrom)
+      ));
+      return;
+    }
+
+    LOGGER.info("No function index found, scanning for UDFs. path={}", pathLoadedFrom);
+    scanForUdfs(loader, pathLoadedFrom);
+  }
+
+  /**
+   * Read the function indexes written by the {@link FunctionIndexProcessor}.
+   *
+   * <p>As when scanning, only jars and directories containing "ksql-engine" are considered when
+   * loading from the parent class loader, and only the jar itself for extensions.
+   *
+   * @return the combined index, or empty if there is no index, or it can not be read.
+   */
+  private Optional<List<Entry>> readIndex(final ClassLoader loader, final String path) {
+    try {
+      final List<URL> urls = loader == parentClassLoader
+          ? Collections.list(loader.getResources(FunctionIndex.RESOURCE)).stream()
+              .filter(url -> url.toString().contains("ksql-engine"))
+              .collect(Collectors.toList())
+          : findExtensionIndex((URLClassLoader) loader);
+
+      if (urls.isEmpty()) {
+        return Optional.empty();
+      }
+
+      final List<Entry> entries = new ArrayList<>();
+      for (final URL url : urls) {
+        try (Reader reader = new InputStreamReader(url.openStream(), StandardCharsets.UTF_8)) {
+          entries.addAll(FunctionIndex.read(reader));
+        }
+      }
+      return Optional.of(entries);
+    } catch (final IOException | IllegalArgumentException e) {
+      LOGGER.warn("Failed to read function index. path={}", path, e);
+      return Optional.empty();
+    }
+  }
+
+  private static List<URL> findExtensionIndex(final URLClassLoader loader) {
+    final URL url = loader.findResource(FunctionIndex.RESOURCE);
+    return url == null ? Collections.emptyList() : Collections.singletonList(url);
+  }
+
+  private void loadIndexedClass(final ClassLoader loader, final Entry entry, final String path) {
+    try {
+      final Class<?> theClass = Class.forName(entry.getClassName(), true, loader);
+
+      if (entry.getKind() == Kind.UDAF) {
+        handleUdafAnnotation(path).processMatch(theClass);
+        return;
+      }
+
+      final MethodAnnotationMatchProcessor processor = processMethodAnnotation(loader, path);
+      for (final Method method : theClass.getDeclaredMethods()) {
+        if (method.isAnnotationPresent(Udf.class) && Modifier.isPublic(method.getModifiers())) {
+          processor.processMatch(theClass, method);
+        }
+      }
+    } catch (final ClassNotFoundException | LinkageError | KsqlException e) {
+      if (loader == parentClassLoader) {
+        throw new KsqlException("Failed to load function " + entry.getFunctionName()
+            + " from class " + entry.getClassName(), e);
+      }
+
+      LOGGER.warn("Failed to load function. name={} class={} path={}",
+          entry.getFunctionName(),
+          entry.getClassName(),
+          path,
+          e);
+    }
+  }
+
+  private void scanForUdfs(final ClassLoader loader, final String pathLoadedFrom) {
     final FastClasspathScanner fastClasspathScanner = new FastClasspathScanner();
     if (loader != parentClassLoader) {
       fastClasspathScanner.overrideClassLoaders(loader);
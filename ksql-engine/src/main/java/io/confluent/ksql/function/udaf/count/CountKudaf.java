@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.function.udaf.count;
 
+import io.confluent.ksql.execution.function.LongAggregationFunction;
 import io.confluent.ksql.execution.function.TableAggregationFunction;
 import io.confluent.ksql.function.BaseAggregateFunction;
 import java.util.Collections;
@@ -25,7 +26,8 @@ import org.apache.kafka.streams.kstream.Merger;
 
 public class CountKudaf
     extends BaseAggregateFunction<Object, Long, Long>
-    implements TableAggregationFunction<Object, Long, Long> {
+    implements TableAggregationFunction<Object, Long, Long>,
+    LongAggregationFunction<Object, Long, Long> {
 
   CountKudaf(final String functionName, final int argIndexInValue) {
     super(functionName,
@@ -54,6 +56,21 @@ public class CountKudaf
     return Function.identity();
   }
 
+  @Override
+  public long toLong(final Object value) {
+    return 1L;
+  }
+
+  @Override
+  public long aggregateLong(final long value, final long aggregate) {
+    return aggregate + value;
+  }
+
+  @Override
+  public Long fromLong(final long aggregate) {
+    return aggregate;
+  }
+
 
   @Override
   public Long undo(final Object valueToUndo, final Long aggregateValue) {
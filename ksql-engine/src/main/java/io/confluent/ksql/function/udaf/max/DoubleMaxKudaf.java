@@ -15,10 +15,12 @@
 
 package io.confluent.ksql.function.udaf.max;
 
+import io.confluent.ksql.execution.function.DoubleAggregationFunction;
 import io.confluent.ksql.function.udaf.BaseNumberKudaf;
 import org.apache.kafka.connect.data.Schema;
 
-public class DoubleMaxKudaf extends BaseNumberKudaf<Double> {
+public class DoubleMaxKudaf extends BaseNumberKudaf<Double>
+    implements DoubleAggregationFunction<Double, Double, Double> {
 
   DoubleMaxKudaf(final String functionName, final int argIndexInValue) {
     super(functionName,
@@ -28,4 +30,18 @@ public class DoubleMaxKudaf extends BaseNumberKudaf<Double> {
           "Computes the maximum double value for a key.");
   }
 
+  @Override
+  public double toDouble(final Double value) {
+    return value;
+  }
+
+  @Override
+  public double aggregateDouble(final double value, final double aggregate) {
+    return Math.max(aggregate, value);
+  }
+
+  @Override
+  public Double fromDouble(final double aggregate) {
+    return aggregate;
+  }
 }
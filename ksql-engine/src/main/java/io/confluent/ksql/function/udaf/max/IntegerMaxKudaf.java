@@ -15,10 +15,12 @@
 
 package io.confluent.ksql.function.udaf.max;
 
+import io.confluent.ksql.execution.function.LongAggregationFunction;
 import io.confluent.ksql.function.udaf.BaseNumberKudaf;
 import org.apache.kafka.connect.data.Schema;
 
-public class IntegerMaxKudaf extends BaseNumberKudaf<Integer> {
+public class IntegerMaxKudaf extends BaseNumberKudaf<Integer>
+    implements LongAggregationFunction<Integer, Integer, Integer> {
 
   IntegerMaxKudaf(final String functionName, final int argIndexInValue) {
     super(functionName,
@@ -28,4 +30,18 @@ public class IntegerMaxKudaf extends BaseNumberKudaf<Integer> {
           "Computes the maximum integer value for a key.");
   }
 
+  @Override
+  public long toLong(final Integer value) {
+    return value;
+  }
+
+  @Override
+  public long aggregateLong(final long value, final long aggregate) {
+    return Math.max(aggregate, value);
+  }
+
+  @Override
+  public Integer fromLong(final long aggregate) {
+    return (int) aggregate;
+  }
 }
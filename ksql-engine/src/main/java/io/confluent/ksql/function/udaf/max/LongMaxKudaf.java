@@ -15,10 +15,12 @@
 
 package io.confluent.ksql.function.udaf.max;
 
+import io.confluent.ksql.execution.function.LongAggregationFunction;
 import io.confluent.ksql.function.udaf.BaseNumberKudaf;
 import org.apache.kafka.connect.data.Schema;
 
-public class LongMaxKudaf extends BaseNumberKudaf<Long> {
+public class LongMaxKudaf extends BaseNumberKudaf<Long>
+    implements LongAggregationFunction<Long, Long, Long> {
 
   LongMaxKudaf(final String functionName, final int argIndexInValue) {
     super(functionName,
@@ -28,4 +30,18 @@ public class LongMaxKudaf extends BaseNumberKudaf<Long> {
           "Computes the maximum long value for a key.");
   }
 
+  @Override
+  public long toLong(final Long value) {
+    return value;
+  }
+
+  @Override
+  public long aggregateLong(final long value, final long aggregate) {
+    return Math.max(aggregate, value);
+  }
+
+  @Override
+  public Long fromLong(final long aggregate) {
+    return aggregate;
+  }
 }
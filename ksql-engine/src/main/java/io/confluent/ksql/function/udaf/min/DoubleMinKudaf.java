@@ -15,10 +15,12 @@
 
 package io.confluent.ksql.function.udaf.min;
 
+import io.confluent.ksql.execution.function.DoubleAggregationFunction;
 import io.confluent.ksql.function.udaf.BaseNumberKudaf;
 import org.apache.kafka.connect.data.Schema;
 
-public class DoubleMinKudaf extends BaseNumberKudaf<Double> {
+public class DoubleMinKudaf extends BaseNumberKudaf<Double>
+    implements DoubleAggregationFunction<Double, Double, Double> {
 
   DoubleMinKudaf(final String functionName, final int argIndexInValue) {
     super(functionName,
@@ -27,4 +29,19 @@ public class DoubleMinKudaf extends BaseNumberKudaf<Double> {
           Double::min,
           "Computes the minimum double value by key.");
   }
+
+  @Override
+  public double toDouble(final Double value) {
+    return value;
+  }
+
+  @Override
+  public double aggregateDouble(final double value, final double aggregate) {
+    return Math.min(aggregate, value);
+  }
+
+  @Override
+  public Double fromDouble(final double aggregate) {
+    return aggregate;
+  }
 }
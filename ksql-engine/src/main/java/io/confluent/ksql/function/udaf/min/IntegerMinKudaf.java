@@ -15,10 +15,12 @@
 
 package io.confluent.ksql.function.udaf.min;
 
+import io.confluent.ksql.execution.function.LongAggregationFunction;
 import io.confluent.ksql.function.udaf.BaseNumberKudaf;
 import org.apache.kafka.connect.data.Schema;
 
-public class IntegerMinKudaf extends BaseNumberKudaf<Integer> {
+public class IntegerMinKudaf extends BaseNumberKudaf<Integer>
+    implements LongAggregationFunction<Integer, Integer, Integer> {
 
   IntegerMinKudaf(final String functionName, final int argIndexInValue) {
     super(functionName,
@@ -28,4 +30,18 @@ public class IntegerMinKudaf extends BaseNumberKudaf<Integer> {
           "Computes the minimum integer value for a key.");
   }
 
+  @Override
+  public long toLong(final Integer value) {
+    return value;
+  }
+
+  @Override
+  public long aggregateLong(final long value, final long aggregate) {
+    return Math.min(aggregate, value);
+  }
+
+  @Override
+  public Integer fromLong(final long aggregate) {
+    return (int) aggregate;
+  }
 }
\ No newline at end of file
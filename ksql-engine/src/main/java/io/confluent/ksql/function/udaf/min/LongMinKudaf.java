@@ -15,10 +15,12 @@
 
 package io.confluent.ksql.function.udaf.min;
 
+import io.confluent.ksql.execution.function.LongAggregationFunction;
 import io.confluent.ksql.function.udaf.BaseNumberKudaf;
 import org.apache.kafka.connect.data.Schema;
 
-public class LongMinKudaf extends BaseNumberKudaf<Long> {
+public class LongMinKudaf extends BaseNumberKudaf<Long>
+    implements LongAggregationFunction<Long, Long, Long> {
 
   LongMinKudaf(final String functionName, final int argIndexInValue) {
     super(functionName,
@@ -28,4 +30,18 @@ public class LongMinKudaf extends BaseNumberKudaf<Long> {
           "Computes the minimum long value for a key.");
   }
 
+  @Override
+  public long toLong(final Long value) {
+    return value;
+  }
+
+  @Override
+  public long aggregateLong(final long value, final long aggregate) {
+    return Math.min(aggregate, value);
+  }
+
+  @Override
+  public Long fromLong(final long aggregate) {
+    return aggregate;
+  }
 }
@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.function.udaf.sum;
 
+import io.confluent.ksql.execution.function.DoubleAggregationFunction;
 import io.confluent.ksql.execution.function.TableAggregationFunction;
 import io.confluent.ksql.function.BaseAggregateFunction;
 import java.util.Collections;
@@ -25,7 +26,8 @@ import org.apache.kafka.streams.kstream.Merger;
 
 public class DoubleSumKudaf
     extends BaseAggregateFunction<Double, Double, Double>
-    implements TableAggregationFunction<Double, Double, Double> {
+    implements TableAggregationFunction<Double, Double, Double>,
+    DoubleAggregationFunction<Double, Double, Double> {
 
   DoubleSumKudaf(final String functionName, final int argIndexInValue) {
     super(functionName,
@@ -62,4 +64,19 @@ public class DoubleSumKudaf
     return Function.identity();
   }
 
+  @Override
+  public double toDouble(final Double value) {
+    return value;
+  }
+
+  @Override
+  public double aggregateDouble(final double value, final double aggregate) {
+    return aggregate + value;
+  }
+
+  @Override
+  public Double fromDouble(final double aggregate) {
+    return aggregate;
+  }
+
 }
@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.function.udaf.sum;
 
+import io.confluent.ksql.execution.function.LongAggregationFunction;
 import io.confluent.ksql.execution.function.TableAggregationFunction;
 import io.confluent.ksql.function.BaseAggregateFunction;
 import java.util.Collections;
@@ -25,7 +26,8 @@ import org.apache.kafka.streams.kstream.Merger;
 
 public class IntegerSumKudaf
     extends BaseAggregateFunction<Integer, Integer, Integer>
-    implements TableAggregationFunction<Integer, Integer, Integer> {
+    implements TableAggregationFunction<Integer, Integer, Integer>,
+    LongAggregationFunction<Integer, Integer, Integer> {
 
   IntegerSumKudaf(final String functionName, final int argIndexInValue) {
     super(functionName,
@@ -61,4 +63,19 @@ public class IntegerSumKudaf
     return Function.identity();
   }
 
+  @Override
+  public long toLong(final Integer value) {
+    return value;
+  }
+
+  @Override
+  public long aggregateLong(final long value, final long aggregate) {
+    return aggregate + value;
+  }
+
+  @Override
+  public Integer fromLong(final long aggregate) {
+    return (int) aggregate;
+  }
+
 }
\ No newline at end of file
@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.function.udaf.sum;
 
+import io.confluent.ksql.execution.function.LongAggregationFunction;
 import io.confluent.ksql.execution.function.TableAggregationFunction;
 import io.confluent.ksql.function.BaseAggregateFunction;
 import java.util.Collections;
@@ -25,7 +26,8 @@ import org.apache.kafka.streams.kstream.Merger;
 
 public class LongSumKudaf
     extends BaseAggregateFunction<Long, Long, Long>
-    implements TableAggregationFunction<Long, Long, Long> {
+    implements TableAggregationFunction<Long, Long, Long>,
+    LongAggregationFunction<Long, Long, Long> {
 
   LongSumKudaf(final String functionName, final int argIndexInValue) {
     super(functionName,
@@ -62,4 +64,19 @@ public class LongSumKudaf
     return Function.identity();
   }
 
+  @Override
+  public long toLong(final Long value) {
+    return value;
+  }
+
+  @Override
+  public long aggregateLong(final long value, final long aggregate) {
+    return aggregate + value;
+  }
+
+  @Override
+  public Long fromLong(final long aggregate) {
+    return aggregate;
+  }
+
 }
@@ -16,6 +16,7 @@
 package io.confluent.ksql.internal;
 
 import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.engine.StatementCache;
 import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.util.KsqlConstants;
 import io.confluent.ksql.util.QueryMetadata;
@@ -29,6 +30,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
 import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.metrics.Gauge;
 import org.apache.kafka.common.metrics.MeasurableStat;
@@ -101,6 +103,7 @@ public class KsqlEngineMetrics implements Closeable {
     configureLivenessIndicator();
     configureNumActiveQueries();
     configureNumPersistentQueries();
+    configureStatementCacheMetrics();
     this.messagesIn = configureMessagesIn();
     this.totalMessagesIn = configureTotalMessagesIn();
     this.totalBytesIn = configureTotalBytesIn();
@@ -250,6 +253,50 @@ public class KsqlEngineMetrics implements Closeable {
     createSensor(KsqlMetric.of(metricName, description, statSupplier));
   }
 
+  private void configureStatementCacheMetrics() {
+    configureStatementCacheMetric(
+        "statement-cache-hits",
+        "The number of statements served from the parsed statement cache",
+        StatementCache::hitCount
+    );
+    configureStatementCacheMetric(
+        "statement-cache-misses",
+        "The number of statements that had to be parsed, or prepared, as they were not cached",
+        StatementCache::missCount
+    );
+    configureStatementCacheMetric(
+        "statement-parse-time-avg-ms",
+        "The average time taken to parse, or prepare, a statement not in the cache",
+        StatementCache::averageParseTimeMs
+    );
+    configureStatementCacheMetric(
+        "statement-parse-time-max-ms",
+        "The maximum time taken to parse, or prepare, a statement not in the cache",
+        StatementCache::maxParseTimeMs
+    );
+  }
+
+  private void configureStatementCacheMetric(
+      final String metricName,
+      final String description,
+      final ToDoubleFunction<StatementCache> value
+  ) {
+    final Supplier<MeasurableStat> statSupplier =
+        () -> new MeasurableStat() {
+          @Override
+          public double measure(final MetricConfig metricConfig, final long l) {
+            final StatementCache cache = ksqlEngine.getStatementCache();
+            return cache == null ? 0 : value.applyAsDouble(cache);
+          }
+
+          @Override
+          public void record(final MetricConfig metricConfig, final double v, final long l) {
+            // We don't want to record anything, since the cache tracks its own stats
+          }
+        };
+    createSensor(KsqlMetric.of(metricName, description, statSupplier));
+  }
+
   private Sensor configureIdleQueriesSensor() {
     final String metricName = "num-idle-queries";
     final String description = "Number of inactive queries";
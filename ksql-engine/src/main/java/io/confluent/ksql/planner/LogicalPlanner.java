@@ -258,7 +258,8 @@ public class LogicalPlanner {
         rightSourceNode,
         joinInfo.get().getLeftJoinField(),
         joinInfo.get().getRightJoinField(),
-        joinInfo.get().getWithinExpression()
+        joinInfo.get().getWithinExpression(),
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_JOIN_GLOBAL_TABLE_ENABLED_CONFIG)
     );
   }
 
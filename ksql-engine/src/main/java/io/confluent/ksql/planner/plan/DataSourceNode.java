@@ -21,8 +21,11 @@ import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
 import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.context.QueryContext.Stacker;
+import io.confluent.ksql.execution.ddl.commands.KsqlTopic;
+import io.confluent.ksql.execution.plan.Formats;
 import io.confluent.ksql.execution.plan.LogicalSchemaWithMetaAndKeyFields;
 import io.confluent.ksql.execution.plan.StreamSource;
+import io.confluent.ksql.execution.streams.ExecutionStepFactory;
 import io.confluent.ksql.metastore.model.DataSource;
 import io.confluent.ksql.metastore.model.DataSource.DataSourceType;
 import io.confluent.ksql.metastore.model.KeyField;
@@ -149,6 +152,25 @@ public class DataSourceNode extends PlanNode {
     );
   }
 
+  /**
+   * Build the source step of a table that is to be joined as a {@code GlobalKTable}.
+   *
+   * <p>Unlike {@link #buildStream}, the source is not built into a stream: the step only
+   * describes the topic the global table is to be read from.
+   */
+  StreamSource buildGlobalTableSource(final KsqlQueryBuilder builder) {
+    final KsqlTopic topic = dataSource.getKsqlTopic();
+    return ExecutionStepFactory.streamSource(
+        builder.buildNodeContext(getId().toString()).push(SOURCE_OP_NAME),
+        schema,
+        topic.getKafkaTopicName(),
+        Formats.of(topic.getKeyFormat(), topic.getValueFormat(), dataSource.getSerdeOptions()),
+        dataSource.getTimestampExtractionPolicy(),
+        timestampIndex(),
+        Optional.empty()
+    );
+  }
+
   interface SchemaKStreamFactory {
     SchemaKStream<?> create(
         KsqlQueryBuilder builder,
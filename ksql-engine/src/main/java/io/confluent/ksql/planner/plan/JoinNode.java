@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
 import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.context.QueryContext.Stacker;
+import io.confluent.ksql.execution.plan.StreamSource;
 import io.confluent.ksql.metastore.model.DataSource.DataSourceType;
 import io.confluent.ksql.metastore.model.KeyField;
 import io.confluent.ksql.metastore.model.KeyField.LegacyField;
@@ -59,6 +60,7 @@ public class JoinNode extends PlanNode {
   private final ColumnRef rightJoinFieldName;
   private final KeyField keyField;
   private final Optional<WithinExpression> withinExpression;
+  private final boolean globalTableJoin;
 
   public JoinNode(
       final PlanNodeId id,
@@ -68,6 +70,35 @@ public class JoinNode extends PlanNode {
       final ColumnRef leftJoinFieldName,
       final ColumnRef rightJoinFieldName,
       final Optional<WithinExpression> withinExpression
+  ) {
+    this(
+        id,
+        joinType,
+        left,
+        right,
+        leftJoinFieldName,
+        rightJoinFieldName,
+        withinExpression,
+        false
+    );
+  }
+
+  /**
+   * Create a join node.
+   *
+   * <p>If {@code useGlobalTable} is set, a non-windowed stream-table join that is not an outer
+   * join reads the table as a {@code GlobalKTable}, rather than repartitioning the stream by the
+   * join field and requiring the stream and table to be co-partitioned.
+   */
+  public JoinNode(
+      final PlanNodeId id,
+      final JoinType joinType,
+      final DataSourceNode left,
+      final DataSourceNode right,
+      final ColumnRef leftJoinFieldName,
+      final ColumnRef rightJoinFieldName,
+      final Optional<WithinExpression> withinExpression,
+      final boolean useGlobalTable
   ) {
     super(id, calculateSinkType(left, right));
     this.joinType = joinType;
@@ -77,12 +108,16 @@ public class JoinNode extends PlanNode {
     this.rightJoinFieldName = Objects.requireNonNull(rightJoinFieldName, "rightJoinFieldName");
     this.withinExpression = Objects.requireNonNull(withinExpression, "withinExpression");
 
+    this.globalTableJoin = useGlobalTable && canJoinGlobalTable(joinType, left, right,
+        withinExpression);
+
     final Column leftKeyCol = validateSchemaColumn(leftJoinFieldName, left.getSchema());
     validateSchemaColumn(rightJoinFieldName, right.getSchema());
 
-    this.keyField = KeyField
-        .of(leftKeyCol.ref(),
-            LegacyField.of(leftKeyCol.ref(), leftKeyCol.type()));
+    // A global table join does not rekey the stream, so the stream's key is retained:
+    this.keyField = globalTableJoin
+        ? left.getKeyField()
+        : KeyField.of(leftKeyCol.ref(), LegacyField.of(leftKeyCol.ref(), leftKeyCol.type()));
 
     this.schema = buildSchema(left, right);
   }
@@ -115,37 +150,98 @@ public class JoinNode extends PlanNode {
     return right;
   }
 
+  /**
+   * @return {@code true} if the right table is joined as a {@code GlobalKTable}.
+   */
+  public boolean isGlobalTableJoin() {
+    return globalTableJoin;
+  }
+
   @Override
   public SchemaKStream<?> buildStream(final KsqlQueryBuilder builder) {
 
-    ensureMatchingPartitionCounts(builder.getServiceContext().getTopicClient());
+    final QueryContext.Stacker contextStacker = builder.buildNodeContext(getId().toString());
+
+    if (globalTableJoin) {
+      return new StreamToGlobalTableJoiner<>(builder, this, contextStacker).join();
+    }
+
+    final Optional<DataSourceNode> repartitioned =
+        sourceToRepartition(builder.getServiceContext().getTopicClient());
 
     final JoinerFactory joinerFactory = new JoinerFactory(
         builder,
         this,
-        builder.buildNodeContext(getId().toString()));
+        contextStacker,
+        repartitioned);
 
     return joinerFactory.getJoiner(left.getDataSourceType(), right.getDataSourceType()).join();
   }
 
   @Override
   protected int getPartitions(final KafkaTopicClient kafkaTopicClient) {
+    if (globalTableJoin) {
+      return left.getPartitions(kafkaTopicClient);
+    }
+
+    if (right.getDataSourceType() == DataSourceType.KSTREAM) {
+      // Stream-stream joins repartition the smaller side to match the larger:
+      return Math.max(
+          left.getPartitions(kafkaTopicClient),
+          right.getPartitions(kafkaTopicClient)
+      );
+    }
+
     return right.getPartitions(kafkaTopicClient);
   }
 
-  private void ensureMatchingPartitionCounts(final KafkaTopicClient kafkaTopicClient) {
+  private static boolean canJoinGlobalTable(
+      final JoinType joinType,
+      final DataSourceNode left,
+      final DataSourceNode right,
+      final Optional<WithinExpression> withinExpression
+  ) {
+    return joinType != JoinType.OUTER
+        && !withinExpression.isPresent()
+        && left.getDataSourceType() == DataSourceType.KSTREAM
+        && right.getDataSourceType() == DataSourceType.KTABLE
+        && !right.getDataSource().getKsqlTopic().getKeyFormat().isWindowed();
+  }
+
+  /**
+   * Determine which source, if any, must be repartitioned so that the sources are co-partitioned.
+   *
+   * <p>A repartitioned stream is written to an internal topic that Kafka Streams creates with the
+   * same number of partitions as the topic it is joined to, and deletes with the query. Tables
+   * can not be repartitioned, so a stream is always the side repartitioned. Where both sides are
+   * streams, the side with fewer partitions is repartitioned.
+   *
+   * @param kafkaTopicClient the client used to look up partition counts.
+   * @return the source to repartition, or empty if the partition counts already match.
+   */
+  private Optional<DataSourceNode> sourceToRepartition(final KafkaTopicClient kafkaTopicClient) {
     final int leftPartitions = left.getPartitions(kafkaTopicClient);
     final int rightPartitions = right.getPartitions(kafkaTopicClient);
 
-    if (leftPartitions != rightPartitions) {
-      throw new KsqlException(
-          "Can't join " + getSourceName(left) + " with "
-              + getSourceName(right) + " since the number of partitions don't "
-              + "match. " + getSourceName(left) + " partitions = "
-              + leftPartitions + "; " + getSourceName(right) + " partitions = "
-              + rightPartitions + ". Please repartition either one so that the "
-              + "number of partitions match.");
+    if (leftPartitions == rightPartitions) {
+      return Optional.empty();
+    }
+
+    if (right.getDataSourceType() == DataSourceType.KSTREAM) {
+      return Optional.of(leftPartitions < rightPartitions ? left : right);
     }
+
+    if (left.getDataSourceType() == DataSourceType.KSTREAM) {
+      return Optional.of(left);
+    }
+
+    throw new KsqlException(
+        "Can't join " + getSourceName(left) + " with "
+            + getSourceName(right) + " since the number of partitions don't "
+            + "match. " + getSourceName(left) + " partitions = "
+            + leftPartitions + "; " + getSourceName(right) + " partitions = "
+            + rightPartitions + ". Please repartition either one so that the "
+            + "number of partitions match.");
   }
 
   private static String getSourceName(final DataSourceNode node) {
@@ -167,15 +263,16 @@ public class JoinNode extends PlanNode {
     JoinerFactory(
         final KsqlQueryBuilder builder,
         final JoinNode joinNode,
-        final QueryContext.Stacker contextStacker
+        final QueryContext.Stacker contextStacker,
+        final Optional<DataSourceNode> repartitioned
     ) {
       this.joinerMap = ImmutableMap.of(
           new Pair<>(DataSourceType.KSTREAM, DataSourceType.KSTREAM),
-          () -> new StreamToStreamJoiner(builder, joinNode, contextStacker),
+          () -> new StreamToStreamJoiner(builder, joinNode, contextStacker, repartitioned),
           new Pair<>(DataSourceType.KSTREAM, DataSourceType.KTABLE),
-          () -> new StreamToTableJoiner(builder, joinNode, contextStacker),
+          () -> new StreamToTableJoiner(builder, joinNode, contextStacker, repartitioned),
           new Pair<>(DataSourceType.KTABLE, DataSourceType.KTABLE),
-          () -> new TableToTableJoiner(builder, joinNode, contextStacker)
+          () -> new TableToTableJoiner(builder, joinNode, contextStacker, repartitioned)
       );
     }
 
@@ -194,15 +291,18 @@ public class JoinNode extends PlanNode {
     final KsqlQueryBuilder builder;
     final JoinNode joinNode;
     final QueryContext.Stacker contextStacker;
+    final Optional<DataSourceNode> repartitioned;
 
     Joiner(
         final KsqlQueryBuilder builder,
         final JoinNode joinNode,
-        final QueryContext.Stacker contextStacker
+        final QueryContext.Stacker contextStacker,
+        final Optional<DataSourceNode> repartitioned
     ) {
       this.builder = Objects.requireNonNull(builder, "builder");
       this.joinNode = Objects.requireNonNull(joinNode, "joinNode");
       this.contextStacker = Objects.requireNonNull(contextStacker, "contextStacker");
+      this.repartitioned = Objects.requireNonNull(repartitioned, "repartitioned");
     }
 
     public abstract SchemaKStream<K> join();
@@ -214,6 +314,7 @@ public class JoinNode extends PlanNode {
       return maybeRePartitionByKey(
           node.buildStream(builder),
           joinFieldName,
+          repartitioned.filter(source -> source == node).isPresent(),
           contextStacker);
     }
 
@@ -237,6 +338,15 @@ public class JoinNode extends PlanNode {
           .getKeyField()
           .resolve(schemaKStream.getSchema(), builder.getKsqlConfig());
 
+      validateTableJoinField(keyColumn, joinFieldName, tableName);
+      return (SchemaKTable) schemaKStream;
+    }
+
+    static void validateTableJoinField(
+        final Optional<Column> keyColumn,
+        final ColumnRef joinFieldName,
+        final SourceName tableName
+    ) {
       final ColumnRef rowKey = ColumnRef.of(
           tableName,
           SchemaUtil.ROWKEY_NAME
@@ -247,7 +357,7 @@ public class JoinNode extends PlanNode {
           .orElse(false);
 
       if (namesMatch || joinFieldName.equals(rowKey)) {
-        return (SchemaKTable) schemaKStream;
+        return;
       }
 
       if (!keyColumn.isPresent()) {
@@ -270,6 +380,7 @@ public class JoinNode extends PlanNode {
     static <K> SchemaKStream<K> maybeRePartitionByKey(
         final SchemaKStream stream,
         final ColumnRef joinFieldName,
+        final boolean forceRepartition,
         final Stacker contextStacker
     ) {
       final LogicalSchema schema = stream.getSchema();
@@ -278,6 +389,10 @@ public class JoinNode extends PlanNode {
           .orElseThrow(() ->
               new KsqlException("couldn't find key field: " + joinFieldName + " in schema"));
 
+      if (forceRepartition) {
+        return stream.repartitionByKey(joinFieldName, contextStacker);
+      }
+
       return stream.selectKey(joinFieldName, true, contextStacker);
     }
 
@@ -325,9 +440,10 @@ public class JoinNode extends PlanNode {
     private StreamToStreamJoiner(
         final KsqlQueryBuilder builder,
         final JoinNode joinNode,
-        final QueryContext.Stacker contextStacker
+        final QueryContext.Stacker contextStacker,
+        final Optional<DataSourceNode> repartitioned
     ) {
-      super(builder, joinNode, contextStacker);
+      super(builder, joinNode, contextStacker, repartitioned);
     }
 
     @Override
@@ -388,9 +504,10 @@ public class JoinNode extends PlanNode {
     private StreamToTableJoiner(
         final KsqlQueryBuilder builder,
         final JoinNode joinNode,
-        final QueryContext.Stacker contextStacker
+        final QueryContext.Stacker contextStacker,
+        final Optional<DataSourceNode> repartitioned
     ) {
-      super(builder, joinNode, contextStacker);
+      super(builder, joinNode, contextStacker, repartitioned);
     }
 
     @Override
@@ -434,14 +551,66 @@ public class JoinNode extends PlanNode {
     }
   }
 
+  private static final class StreamToGlobalTableJoiner<K> extends Joiner<K> {
+
+    private StreamToGlobalTableJoiner(
+        final KsqlQueryBuilder builder,
+        final JoinNode joinNode,
+        final QueryContext.Stacker contextStacker
+    ) {
+      super(builder, joinNode, contextStacker, Optional.empty());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public SchemaKStream<K> join() {
+      final DataSourceNode right = joinNode.getRight();
+
+      final Optional<Column> keyColumn = right
+          .getKeyField()
+          .resolve(right.getSchema(), builder.getKsqlConfig());
+
+      validateTableJoinField(keyColumn, joinNode.rightJoinFieldName, right.getAlias());
+
+      final StreamSource globalTable = right.buildGlobalTableSource(builder);
+
+      final SchemaKStream<K> leftStream = (SchemaKStream<K>) joinNode.getLeft()
+          .buildStream(builder);
+
+      switch (joinNode.joinType) {
+        case LEFT:
+          return leftStream.leftJoinGlobalTable(
+              globalTable,
+              joinNode.leftJoinFieldName,
+              joinNode.schema,
+              getJoinedKeyField(joinNode.left.getAlias(), leftStream.getKeyField()),
+              getFormatForSource(joinNode.left),
+              contextStacker
+          );
+        case INNER:
+          return leftStream.joinGlobalTable(
+              globalTable,
+              joinNode.leftJoinFieldName,
+              joinNode.schema,
+              getJoinedKeyField(joinNode.left.getAlias(), leftStream.getKeyField()),
+              getFormatForSource(joinNode.left),
+              contextStacker
+          );
+        default:
+          throw new KsqlException("Invalid join type encountered: " + joinNode.joinType);
+      }
+    }
+  }
+
   private static final class TableToTableJoiner<K> extends Joiner<K> {
 
     TableToTableJoiner(
         final KsqlQueryBuilder builder,
         final JoinNode joinNode,
-        final QueryContext.Stacker contextStacker
+        final QueryContext.Stacker contextStacker,
+        final Optional<DataSourceNode> repartitioned
     ) {
-      super(builder, joinNode, contextStacker);
+      super(builder, joinNode, contextStacker, repartitioned);
     }
 
     @Override
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import io.confluent.ksql.GenericRow;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.streams.KeyValue;
+
+/**
+ * The consumer side of the queue of rows output by a transient query.
+ */
+public interface BlockingRowQueue {
+
+  /**
+   * Retrieves and removes the next row, waiting up to the specified time for one to be available.
+   *
+   * @param timeout how long to wait.
+   * @param unit the unit of {@code timeout}.
+   * @return the next key and row, or {@code null} if none became available in time.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  KeyValue<String, GenericRow> poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+  /**
+   * Removes all available keys and rows, adding them to the supplied {@code collection}.
+   *
+   * @param collection the collection to add to.
+   * @return the number of rows drained.
+   */
+  int drainTo(Collection<? super KeyValue<String, GenericRow>> collection);
+
+  /**
+   * Removes up to {@code maxRows} available rows, adding them to the supplied {@code rows},
+   * waiting up to the specified time for the first to be available.
+   *
+   * <p>Keys are never formatted, making this the cheapest way to consume the queue.
+   *
+   * @param rows the collection to add to.
+   * @param maxRows the maximum number of rows to drain.
+   * @param timeout how long to wait for the first row.
+   * @param unit the unit of {@code timeout}.
+   * @return the number of rows drained.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  int drainRowsTo(
+      Collection<? super GenericRow> rows,
+      int maxRows,
+      long timeout,
+      TimeUnit unit
+  ) throws InterruptedException;
+
+  /**
+   * @return the number of rows currently queued.
+   */
+  int size();
+
+  /**
+   * @return {@code true} if the queue overflowed and the consumer should be disconnected.
+   */
+  boolean hasOverflowed();
+
+  /**
+   * Registers a one-shot callback to run once a row is available, or the queue has been closed
+   * or has overflowed, allowing a consumer to wait for rows without holding a thread.
+   *
+   * <p>The callback runs immediately if a row is already available; otherwise it is run by the
+   * next producer to queue a row, so it must be cheap and must not block. Registering a new
+   * callback replaces any that has yet to run.
+   *
+   * @param callback the callback to run.
+   */
+  void notifyWhenAvailable(Runnable callback);
+
+  /**
+   * Called once the consumer is done, releasing any producer blocked waiting on it.
+   */
+  void close();
+}
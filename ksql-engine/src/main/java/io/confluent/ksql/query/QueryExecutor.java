@@ -18,14 +18,23 @@ package io.confluent.ksql.query;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.errors.ProductionExceptionHandlerUtil;
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
+import io.confluent.ksql.execution.context.QueryContext;
+import io.confluent.ksql.execution.context.QueryLoggerUtil;
 import io.confluent.ksql.execution.materialization.MaterializationInfo;
 import io.confluent.ksql.execution.materialization.MaterializationInfo.Builder;
 import io.confluent.ksql.execution.plan.ExecutionStep;
 import io.confluent.ksql.execution.plan.KStreamHolder;
 import io.confluent.ksql.execution.plan.KTableHolder;
 import io.confluent.ksql.execution.plan.PlanBuilder;
+import io.confluent.ksql.execution.plan.StreamFilter;
+import io.confluent.ksql.execution.plan.StreamMapValues;
+import io.confluent.ksql.execution.plan.StreamSource;
+import io.confluent.ksql.execution.sqlpredicate.SqlPredicate;
 import io.confluent.ksql.execution.streams.KSPlanBuilder;
+import io.confluent.ksql.execution.streams.SelectValueMapper;
+import io.confluent.ksql.execution.streams.Selection;
 import io.confluent.ksql.execution.streams.materialization.KsqlMaterializationFactory;
+import io.confluent.ksql.execution.streams.materialization.MaterializationCache;
 import io.confluent.ksql.execution.streams.materialization.MaterializationProvider;
 import io.confluent.ksql.execution.streams.materialization.ks.KsMaterialization;
 import io.confluent.ksql.execution.streams.materialization.ks.KsMaterializationFactory;
@@ -36,6 +45,7 @@ import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.metastore.model.DataSource;
 import io.confluent.ksql.metrics.ConsumerCollector;
 import io.confluent.ksql.metrics.ProducerCollector;
+import io.confluent.ksql.metrics.QueryStepMetrics;
 import io.confluent.ksql.name.SourceName;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
@@ -49,6 +59,7 @@ import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.QueryMetadata;
 import io.confluent.ksql.util.TransientQueryMetadata;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -58,6 +69,8 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -67,8 +80,11 @@ import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.Topology.AutoOffsetReset;
 import org.apache.kafka.streams.kstream.KStream;
 import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.Predicate;
+import org.apache.kafka.streams.kstream.Windowed;
 
 // CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
 public final class QueryExecutor {
@@ -83,6 +99,7 @@ public final class QueryExecutor {
   private final KsMaterializationFactory ksMaterializationFactory;
   private final KsqlMaterializationFactory ksqlMaterializationFactory;
   private final StreamsBuilder streamsBuilder;
+  private final SharedPushQueryRuntimes sharedRuntimes;
 
   public QueryExecutor(
       final KsqlConfig ksqlConfig,
@@ -90,7 +107,8 @@ public final class QueryExecutor {
       final ProcessingLogContext processingLogContext,
       final ServiceContext serviceContext,
       final FunctionRegistry functionRegistry,
-      final Consumer<QueryMetadata> queryCloseCallback) {
+      final Consumer<QueryMetadata> queryCloseCallback,
+      final SharedPushQueryRuntimes sharedRuntimes) {
     this(
         ksqlConfig,
         overrides,
@@ -98,6 +116,7 @@ public final class QueryExecutor {
         serviceContext,
         functionRegistry,
         queryCloseCallback,
+        sharedRuntimes,
         new KafkaStreamsBuilderImpl(
             Objects.requireNonNull(serviceContext, "serviceContext").getKafkaClientSupplier()),
         new StreamsBuilder(),
@@ -117,6 +136,7 @@ public final class QueryExecutor {
       final ServiceContext serviceContext,
       final FunctionRegistry functionRegistry,
       final Consumer<QueryMetadata> queryCloseCallback,
+      final SharedPushQueryRuntimes sharedRuntimes,
       final KafkaStreamsBuilder kafkaStreamsBuilder,
       final StreamsBuilder streamsBuilder,
       final KsqlMaterializationFactory ksqlMaterializationFactory,
@@ -143,6 +163,7 @@ public final class QueryExecutor {
     );
     this.kafkaStreamsBuilder = Objects.requireNonNull(kafkaStreamsBuilder);
     this.streamsBuilder = Objects.requireNonNull(streamsBuilder, "builder");
+    this.sharedRuntimes = Objects.requireNonNull(sharedRuntimes, "sharedRuntimes");
   }
 
   public TransientQueryMetadata buildTransientQuery(
@@ -154,6 +175,19 @@ public final class QueryExecutor {
       final LogicalSchema schema,
       final OptionalInt limit
   ) {
+    final Optional<StreamSource> sharedSource = getShareableSource(physicalPlan, limit);
+    if (sharedSource.isPresent()) {
+      return buildSharedTransientQuery(
+          statementText,
+          queryId,
+          sources,
+          physicalPlan,
+          sharedSource.get(),
+          planSummary,
+          schema
+      );
+    }
+
     final TransientQueryQueue queue = buildTransientQueryQueue(queryId, physicalPlan, limit);
     final String transientQueryPrefix =
         ksqlConfig.getString(KsqlConfig.KSQL_TRANSIENT_QUERY_NAME_PREFIX_CONFIG);
@@ -178,10 +212,158 @@ public final class QueryExecutor {
         streamsBuilder.build(),
         streamsProperties,
         overrides,
-        queryCloseCallback
+        closeCallback(queryId)
     );
   }
 
+  private TransientQueryMetadata buildSharedTransientQuery(
+      final String statementText,
+      final QueryId queryId,
+      final Set<SourceName> sources,
+      final ExecutionStep<?> physicalPlan,
+      final StreamSource source,
+      final String planSummary,
+      final LogicalSchema schema
+  ) {
+    final SharedPushQuerySubscriber subscriber = new SharedPushQuerySubscriber(
+        queryId,
+        buildSharedTransform(queryId, physicalPlan),
+        new RowRingBuffer(
+            ksqlConfig.getInt(KsqlConfig.KSQL_SHARED_RUNTIME_PUSH_QUERY_BUFFER_SIZE_CONFIG),
+            // Blocking would stall every query attached to the shared runtime:
+            getOverflowPolicy() == QueueOverflowPolicy.DISCONNECT
+                ? QueueOverflowPolicy.DISCONNECT
+                : QueueOverflowPolicy.DROP_OLDEST
+        )
+    );
+    final SharedSourceRuntime runtime = sharedRuntimes.acquire(
+        source,
+        overrides,
+        () -> buildSharedSourceRuntime(source)
+    );
+    final String applicationId = addTimeSuffix(getQueryApplicationId(
+        getServiceId(),
+        ksqlConfig.getString(KsqlConfig.KSQL_TRANSIENT_QUERY_NAME_PREFIX_CONFIG),
+        queryId
+    ));
+    return new SharedTransientQueryMetadata(
+        statementText,
+        schema,
+        sources,
+        planSummary,
+        applicationId,
+        overrides,
+        queryCloseCallback,
+        sharedRuntimes,
+        runtime,
+        subscriber
+    );
+  }
+
+  private SharedSourceRuntime buildSharedSourceRuntime(final StreamSource source) {
+    final QueryId runtimeId = new QueryId(
+        "SHARED_" + Math.abs(ThreadLocalRandom.current().nextLong()));
+    final String applicationId = addTimeSuffix(getQueryApplicationId(
+        getServiceId(),
+        ksqlConfig.getString(KsqlConfig.KSQL_TRANSIENT_QUERY_NAME_PREFIX_CONFIG),
+        runtimeId
+    ));
+    final SharedSourceRuntime.Dispatcher dispatcher = new SharedSourceRuntime.Dispatcher();
+    source.build(new KSPlanBuilder(queryBuilder(runtimeId))).getStream().foreach(dispatcher);
+    final Map<String, Object> streamsProperties = buildStreamsProperties(applicationId, runtimeId);
+    final KafkaStreams streams =
+        kafkaStreamsBuilder.buildKafkaStreams(streamsBuilder, streamsProperties);
+    return new SharedSourceRuntime(
+        applicationId,
+        streams,
+        streamsBuilder.build(),
+        streamsProperties,
+        dispatcher
+    );
+  }
+
+  /**
+   * Compiles the filters and projections of a shareable plan into a single function that is
+   * evaluated inline on the shared stream thread.
+   */
+  private BiFunction<Object, GenericRow, GenericRow> buildSharedTransform(
+      final QueryId queryId,
+      final ExecutionStep<?> step
+  ) {
+    if (step instanceof StreamSource) {
+      return (key, row) -> row;
+    }
+
+    final BiFunction<Object, GenericRow, GenericRow> source =
+        buildSharedTransform(queryId, step.getSources().get(0));
+
+    if (step instanceof StreamFilter) {
+      final StreamFilter<?> filter = (StreamFilter<?>) step;
+      final QueryContext.Stacker contextStacker =
+          QueryContext.Stacker.of(filter.getProperties().getQueryContext());
+      final Predicate<Object, GenericRow> predicate = new SqlPredicate(
+          filter.getFilterExpression(),
+          filter.getSource().getProperties().getSchema(),
+          ksqlConfig,
+          functionRegistry,
+          processingLogContext.getLoggerFactory().getLogger(
+              QueryLoggerUtil.queryLoggerName(
+                  queryId,
+                  contextStacker.push("FILTER").getQueryContext())
+          )
+      ).getPredicate();
+      return (key, row) -> {
+        final GenericRow result = source.apply(key, row);
+        return result != null && predicate.test(key, result) ? result : null;
+      };
+    }
+
+    final StreamMapValues<?> mapValues = (StreamMapValues<?>) step;
+    final SelectValueMapper mapper = Selection.of(
+        queryId,
+        mapValues.getProperties().getQueryContext(),
+        mapValues.getSource().getProperties().getSchema(),
+        mapValues.getSelectExpressions(),
+        ksqlConfig,
+        functionRegistry,
+        processingLogContext
+    ).getMapper();
+    return (key, row) -> {
+      final GenericRow result = source.apply(key, row);
+      return result == null ? null : mapper.apply(result);
+    };
+  }
+
+  /**
+   * A push query can attach to a shared runtime if it only filters and projects a non-windowed
+   * stream, starting from the latest offset, without a limit.
+   */
+  private Optional<StreamSource> getShareableSource(
+      final ExecutionStep<?> physicalPlan,
+      final OptionalInt limit
+  ) {
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_SHARED_RUNTIME_PUSH_QUERIES_ENABLED_CONFIG)
+        || limit.isPresent()) {
+      return Optional.empty();
+    }
+
+    ExecutionStep<?> step = physicalPlan;
+    while (step instanceof StreamFilter || step instanceof StreamMapValues) {
+      step = step.getSources().get(0);
+    }
+
+    if (!(step instanceof StreamSource)) {
+      return Optional.empty();
+    }
+
+    final StreamSource source = (StreamSource) step;
+    if (!source.getOffsetReset().equals(Optional.of(AutoOffsetReset.LATEST))) {
+      return Optional.empty();
+    }
+
+    return Optional.of(source);
+  }
+
   private static Optional<MaterializationInfo> getMaterializationInfo(final Object result) {
     if (result instanceof KTableHolder) {
       return ((KTableHolder<?>) result).getMaterializationBuilder().map(Builder::build);
@@ -200,6 +382,8 @@ public final class QueryExecutor {
     final KsqlQueryBuilder ksqlQueryBuilder = queryBuilder(queryId);
     final PlanBuilder planBuilder = new KSPlanBuilder(ksqlQueryBuilder);
     final Object result = physicalPlan.build(planBuilder);
+    final Optional<MaterializationCache> materializationCache =
+        buildMaterializationCache(queryId, result);
     final String persistanceQueryPrefix =
         ksqlConfig.getString(KsqlConfig.KSQL_PERSISTENT_QUERY_NAME_PREFIX_CONFIG);
     final String applicationId = getQueryApplicationId(
@@ -219,10 +403,18 @@ public final class QueryExecutor {
         .flatMap(info -> buildMaterializationProvider(
             info,
             streams,
+            topology,
             querySchema,
             sinkDataSource.getKsqlTopic().getKeyFormat(),
             streamsProperties
-        ));
+        ))
+        .map(provider -> materializationCache
+            .<MaterializationProvider>map(cache -> (id, stacker) ->
+                cache.wrap(provider.build(id, stacker)))
+            .orElse(provider));
+    final Consumer<QueryMetadata> closeCallback = materializationCache
+        .map(cache -> closeCallback(queryId).andThen(query -> cache.close()))
+        .orElse(closeCallback(queryId));
     return new PersistentQueryMetadata(
         statementText,
         streams,
@@ -239,8 +431,46 @@ public final class QueryExecutor {
         ksqlQueryBuilder.getSchemas(),
         streamsProperties,
         overrides,
-        queryCloseCallback
+        closeCallback
+    );
+  }
+
+  /**
+   * Builds a cache of pull query results for the table built by the query, if enabled.
+   *
+   * <p>Adds a processor to the topology to invalidate the cached rows of each key the table
+   * updates, so must be called before the topology is built. The table's store is built without
+   * record caching when the cache is enabled, see {@code MaterializedFactory}, so these updates are
+   * emitted as soon as they are written.
+   */
+  private Optional<MaterializationCache> buildMaterializationCache(
+      final QueryId queryId,
+      final Object result
+  ) {
+    final long maxEntries =
+        ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_PULL_CACHE_MAX_ENTRIES_CONFIG);
+    if (maxEntries == 0 || !getMaterializationInfo(result).isPresent()) {
+      return Optional.empty();
+    }
+
+    final MaterializationCache cache = new MaterializationCache(
+        queryId.getId(),
+        maxEntries,
+        Duration.ofMillis(ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_PULL_CACHE_TTL_MS_CONFIG))
     );
+
+    ((KTableHolder<?>) result).getTable()
+        .toStream()
+        .foreach((key, value) -> cache.invalidate(unwindowed(key)));
+
+    return Optional.of(cache);
+  }
+
+  private static Struct unwindowed(final Object key) {
+    if (key instanceof Windowed) {
+      return (Struct) ((Windowed<?>) key).key();
+    }
+    return (Struct) key;
   }
 
   private TransientQueryQueue buildTransientQueryQueue(
@@ -259,7 +489,21 @@ public final class QueryExecutor {
     } else {
       throw new IllegalStateException("Unexpected type built from exection plan");
     }
-    return new TransientQueryQueue(kstream, limit);
+    return new TransientQueryQueue(
+        kstream,
+        limit,
+        ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PUSH_QUEUE_CAPACITY_CONFIG),
+        getOverflowPolicy()
+    );
+  }
+
+  private QueueOverflowPolicy getOverflowPolicy() {
+    return QueueOverflowPolicy.from(
+        ksqlConfig.getString(KsqlConfig.KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_CONFIG));
+  }
+
+  private Consumer<QueryMetadata> closeCallback(final QueryId queryId) {
+    return queryCloseCallback.andThen(query -> QueryStepMetrics.remove(queryId));
   }
 
   private KsqlQueryBuilder queryBuilder(final QueryId queryId) {
@@ -343,6 +587,7 @@ public final class QueryExecutor {
   private Optional<MaterializationProvider> buildMaterializationProvider(
       final MaterializationInfo info,
       final KafkaStreams kafkaStreams,
+      final Topology topology,
       final PhysicalSchema schema,
       final KeyFormat keyFormat,
       final Map<String, Object> streamsProperties
@@ -360,6 +605,7 @@ public final class QueryExecutor {
         .create(
             info.stateStoreName(),
             kafkaStreams,
+            topology,
             info.getStateStoreSchema(),
             keySerializer,
             keyFormat.getWindowType(),
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import io.confluent.ksql.util.KsqlException;
+
+/**
+ * What a {@link RowRingBuffer} does with new rows once it is full.
+ */
+public enum QueueOverflowPolicy {
+
+  /**
+   * Block the producer until the consumer frees up space.
+   */
+  BLOCK,
+
+  /**
+   * Drop the oldest queued row to make room for the new one.
+   */
+  DROP_OLDEST,
+
+  /**
+   * Drop the new row and flag the queue as overflowed, so the consumer can be disconnected.
+   */
+  DISCONNECT;
+
+  public static QueueOverflowPolicy from(final String value) {
+    try {
+      return valueOf(value.toUpperCase());
+    } catch (final IllegalArgumentException e) {
+      throw new KsqlException("Unknown queue overflow policy: " + value);
+    }
+  }
+}
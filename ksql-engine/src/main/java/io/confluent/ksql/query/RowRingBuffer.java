@@ -0,0 +1,309 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import com.google.common.math.IntMath;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.util.KsqlException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.kstream.Windowed;
+
+/**
+ * A bounded, lock-free ring buffer of rows, handing rows from stream threads to the thread
+ * writing them to the client.
+ *
+ * <p>Each slot carries a sequence number that producers and consumers claim with a CAS, so
+ * neither side takes a lock. Multiple stream threads may produce concurrently. What happens
+ * when the buffer is full is controlled by the {@link QueueOverflowPolicy}.
+ *
+ * <p>Keys are stored as-is and only formatted if the consumer asks for them, keeping
+ * {@link String#format} off the stream threads.
+ */
+@ThreadSafe
+public final class RowRingBuffer implements BlockingRowQueue {
+
+  private static final long BLOCKED_PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+  private final int capacity;
+  private final int mask;
+  private final QueueOverflowPolicy overflowPolicy;
+  private final AtomicLongArray sequences;
+  private final Object[] keys;
+  private final GenericRow[] rows;
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+  private final AtomicLong droppedRows = new AtomicLong();
+  private final AtomicReference<Runnable> availableCallback = new AtomicReference<>();
+  private volatile Thread waitingConsumer;
+  private volatile boolean overflowed;
+  private volatile boolean closed;
+
+  /**
+   * @param capacity the minimum number of rows to hold, rounded up to a power of two.
+   * @param overflowPolicy what to do with new rows once full.
+   */
+  public RowRingBuffer(final int capacity, final QueueOverflowPolicy overflowPolicy) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive, was:" + capacity);
+    }
+
+    this.capacity = IntMath.ceilingPowerOfTwo(capacity);
+    this.mask = this.capacity - 1;
+    this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "overflowPolicy");
+    this.sequences = new AtomicLongArray(this.capacity);
+    this.keys = new Object[this.capacity];
+    this.rows = new GenericRow[this.capacity];
+
+    for (int i = 0; i != this.capacity; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  public long getDroppedRows() {
+    return droppedRows.get();
+  }
+
+  /**
+   * Adds a row, applying the overflow policy if the buffer is full.
+   *
+   * @param key the row's key, formatted only if the consumer asks for it.
+   * @param row the row.
+   * @return {@code true} if the row was queued.
+   */
+  public boolean offer(final Object key, final GenericRow row) {
+    Objects.requireNonNull(row, "row");
+
+    while (!closed) {
+      if (overflowed) {
+        droppedRows.incrementAndGet();
+        return false;
+      }
+
+      if (tryOffer(key, row)) {
+        signalConsumer();
+        return true;
+      }
+
+      switch (overflowPolicy) {
+        case DROP_OLDEST:
+          if (tryPoll((k, r) -> { })) {
+            droppedRows.incrementAndGet();
+          }
+          break;
+        case DISCONNECT:
+          overflowed = true;
+          signalConsumer();
+          break;
+        default:
+          LockSupport.parkNanos(this, BLOCKED_PRODUCER_PARK_NANOS);
+          if (Thread.currentThread().isInterrupted()) {
+            throw new KsqlException("InterruptedException while enqueueing:" + key);
+          }
+      }
+    }
+
+    return false;
+  }
+
+  @Override
+  public KeyValue<String, GenericRow> poll(
+      final long timeout,
+      final TimeUnit unit
+  ) throws InterruptedException {
+    final List<KeyValue<String, GenericRow>> result = new ArrayList<>(1);
+    drain(1, unit.toNanos(timeout), (key, row) -> result.add(new KeyValue<>(formatKey(key), row)));
+    return result.isEmpty() ? null : result.get(0);
+  }
+
+  @Override
+  public int drainTo(final Collection<? super KeyValue<String, GenericRow>> collection) {
+    int drained = 0;
+    while (tryPoll((key, row) -> collection.add(new KeyValue<>(formatKey(key), row)))) {
+      drained++;
+    }
+    return drained;
+  }
+
+  @Override
+  public int drainRowsTo(
+      final Collection<? super GenericRow> collection,
+      final int maxRows,
+      final long timeout,
+      final TimeUnit unit
+  ) throws InterruptedException {
+    return drain(maxRows, unit.toNanos(timeout), (key, row) -> collection.add(row));
+  }
+
+  @Override
+  public int size() {
+    return (int) Math.max(0, Math.min(capacity, tail.get() - head.get()));
+  }
+
+  @Override
+  public boolean hasOverflowed() {
+    return overflowed;
+  }
+
+  @Override
+  public void notifyWhenAvailable(final Runnable callback) {
+    availableCallback.set(Objects.requireNonNull(callback, "callback"));
+
+    // Re-check after registering, as a producer may have missed the callback:
+    if ((hasPublishedRow() || closed || overflowed)
+        && availableCallback.compareAndSet(callback, null)) {
+      callback.run();
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    signalConsumer();
+  }
+
+  static String formatKey(final Object key) {
+    if (key instanceof Windowed) {
+      final Windowed<?> windowedKey = (Windowed<?>) key;
+      return String.format("%s : %s", windowedKey.key(), windowedKey.window());
+    }
+
+    return Objects.toString(key);
+  }
+
+  private int drain(
+      final int maxRows,
+      final long timeoutNanos,
+      final EntryConsumer consumer
+  ) throws InterruptedException {
+    final long deadline = System.nanoTime() + timeoutNanos;
+    int drained = 0;
+    while (drained < maxRows) {
+      if (tryPoll(consumer)) {
+        drained++;
+        continue;
+      }
+
+      if (drained != 0 || !awaitRow(deadline)) {
+        break;
+      }
+    }
+    return drained;
+  }
+
+  private boolean tryOffer(final Object key, final GenericRow row) {
+    long pos = tail.get();
+    while (true) {
+      final int idx = (int) (pos & mask);
+      final long diff = sequences.get(idx) - pos;
+      if (diff == 0) {
+        if (tail.compareAndSet(pos, pos + 1)) {
+          keys[idx] = key;
+          rows[idx] = row;
+          // Volatile write, so that it can not be reordered with the read in signalConsumer:
+          sequences.set(idx, pos + 1);
+          return true;
+        }
+        pos = tail.get();
+      } else if (diff < 0) {
+        return false;
+      } else {
+        pos = tail.get();
+      }
+    }
+  }
+
+  private boolean tryPoll(final EntryConsumer consumer) {
+    long pos = head.get();
+    while (true) {
+      final int idx = (int) (pos & mask);
+      final long diff = sequences.get(idx) - (pos + 1);
+      if (diff == 0) {
+        if (head.compareAndSet(pos, pos + 1)) {
+          final Object key = keys[idx];
+          final GenericRow row = rows[idx];
+          keys[idx] = null;
+          rows[idx] = null;
+          sequences.lazySet(idx, pos + capacity);
+          consumer.accept(key, row);
+          return true;
+        }
+        pos = head.get();
+      } else if (diff < 0) {
+        return false;
+      } else {
+        pos = head.get();
+      }
+    }
+  }
+
+  private boolean hasPublishedRow() {
+    final long pos = head.get();
+    return sequences.get((int) (pos & mask)) == pos + 1;
+  }
+
+  private boolean awaitRow(final long deadline) throws InterruptedException {
+    waitingConsumer = Thread.currentThread();
+    try {
+      while (!hasPublishedRow()) {
+        final long remaining = deadline - System.nanoTime();
+        if (remaining <= 0 || closed || overflowed) {
+          return false;
+        }
+
+        LockSupport.parkNanos(this, remaining);
+
+        if (Thread.interrupted()) {
+          throw new InterruptedException();
+        }
+      }
+      return true;
+    } finally {
+      waitingConsumer = null;
+    }
+  }
+
+  private void signalConsumer() {
+    final Thread waiter = waitingConsumer;
+    if (waiter != null) {
+      LockSupport.unpark(waiter);
+    }
+
+    if (availableCallback.get() != null) {
+      final Runnable callback = availableCallback.getAndSet(null);
+      if (callback != null) {
+        callback.run();
+      }
+    }
+  }
+
+  private interface EntryConsumer {
+    void accept(Object key, GenericRow row);
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import io.confluent.ksql.execution.plan.Formats;
+import io.confluent.ksql.execution.plan.StreamSource;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The shared streams apps that multiplex push queries over the same source.
+ *
+ * <p>Rather than each push query starting its own streams app, with its own consumer group,
+ * threads and rebalances, eligible queries attach to a single app per source. Runtimes are
+ * reference counted and closed once the last query attached to them is closed.
+ */
+@ThreadSafe
+public final class SharedPushQueryRuntimes {
+
+  private final Map<RuntimeKey, SharedSourceRuntime> runtimes = new HashMap<>();
+  private final Map<SharedSourceRuntime, Integer> references = new HashMap<>();
+
+  public synchronized int numberOfRuntimes() {
+    return runtimes.size();
+  }
+
+  synchronized SharedSourceRuntime acquire(
+      final StreamSource source,
+      final Map<String, Object> overrides,
+      final Supplier<SharedSourceRuntime> runtimeFactory
+  ) {
+    final RuntimeKey key = new RuntimeKey(source, overrides);
+    final SharedSourceRuntime runtime = runtimes.computeIfAbsent(key, k -> runtimeFactory.get());
+    references.merge(runtime, 1, Integer::sum);
+    return runtime;
+  }
+
+  void release(final SharedSourceRuntime runtime) {
+    if (!removeReference(runtime)) {
+      return;
+    }
+
+    runtime.close();
+  }
+
+  private synchronized boolean removeReference(final SharedSourceRuntime runtime) {
+    final Integer remaining = references.computeIfPresent(
+        runtime,
+        (r, count) -> count == 1 ? null : count - 1
+    );
+
+    if (remaining != null) {
+      return false;
+    }
+
+    return runtimes.values().remove(runtime);
+  }
+
+  /**
+   * Identifies the source data a runtime reads.
+   *
+   * <p>The step's properties are deliberately excluded, as they hold the query-specific alias
+   * and context of the source, which do not change the rows it produces.
+   */
+  private static final class RuntimeKey {
+
+    private final String topicName;
+    private final Formats formats;
+    private final TimestampExtractionPolicy timestampPolicy;
+    private final int timestampIndex;
+    private final LogicalSchema sourceSchema;
+    private final Map<String, Object> overrides;
+
+    RuntimeKey(final StreamSource source, final Map<String, Object> overrides) {
+      this.topicName = source.getTopicName();
+      this.formats = source.getFormats();
+      this.timestampPolicy = source.getTimestampPolicy();
+      this.timestampIndex = source.getTimestampIndex();
+      this.sourceSchema = source.getSourceSchema();
+      this.overrides = Collections.unmodifiableMap(new HashMap<>(overrides));
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final RuntimeKey that = (RuntimeKey) o;
+      return timestampIndex == that.timestampIndex
+          && Objects.equals(topicName, that.topicName)
+          && Objects.equals(formats, that.formats)
+          && Objects.equals(timestampPolicy, that.timestampPolicy)
+          && Objects.equals(sourceSchema, that.sourceSchema)
+          && Objects.equals(overrides, that.overrides);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(
+          topicName,
+          formats,
+          timestampPolicy,
+          timestampIndex,
+          sourceSchema,
+          overrides
+      );
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import io.confluent.ksql.GenericRow;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.kafka.streams.KafkaStreams.State;
+import org.apache.kafka.streams.KafkaStreams.StateListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A push query attached to a {@link SharedSourceRuntime}.
+ *
+ * <p>Rows are filtered and projected inline on the shared stream thread and offered to the
+ * subscriber's bounded queue. The queue must not use {@link QueueOverflowPolicy#BLOCK}: the
+ * stream thread never blocks, so a full queue only affects this subscriber.
+ */
+@ThreadSafe
+final class SharedPushQuerySubscriber {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SharedPushQuerySubscriber.class);
+
+  private final QueryId queryId;
+  private final BiFunction<Object, GenericRow, GenericRow> transform;
+  private final RowRingBuffer rowQueue;
+  private volatile StateListener stateListener = (newState, oldState) -> { };
+  private volatile UncaughtExceptionHandler exceptionHandler = (thread, e) -> { };
+
+  /**
+   * @param queryId the id of the push query.
+   * @param transform the filter and projection of the query: returns the row to output, or
+   *                  {@code null} if the row is filtered out.
+   * @param rowQueue the queue rows are output to.
+   */
+  SharedPushQuerySubscriber(
+      final QueryId queryId,
+      final BiFunction<Object, GenericRow, GenericRow> transform,
+      final RowRingBuffer rowQueue
+  ) {
+    this.queryId = Objects.requireNonNull(queryId, "queryId");
+    this.transform = Objects.requireNonNull(transform, "transform");
+    this.rowQueue = Objects.requireNonNull(rowQueue, "rowQueue");
+  }
+
+  RowRingBuffer getRowQueue() {
+    return rowQueue;
+  }
+
+  long getDroppedRows() {
+    return rowQueue.getDroppedRows();
+  }
+
+  void setStateListener(final StateListener stateListener) {
+    this.stateListener = Objects.requireNonNull(stateListener, "stateListener");
+  }
+
+  void setUncaughtExceptionHandler(final UncaughtExceptionHandler exceptionHandler) {
+    this.exceptionHandler = Objects.requireNonNull(exceptionHandler, "exceptionHandler");
+  }
+
+  void accept(final Object key, final GenericRow row) {
+    final GenericRow result;
+    try {
+      result = transform.apply(key, row);
+    } catch (final Exception e) {
+      LOG.warn("Failed to process row for query {}", queryId, e);
+      return;
+    }
+
+    if (result == null) {
+      return;
+    }
+
+    rowQueue.offer(key, result);
+  }
+
+  void onStateChange(final State newState, final State oldState) {
+    stateListener.onChange(newState, oldState);
+  }
+
+  void onUncaughtException(final Thread thread, final Throwable e) {
+    exceptionHandler.uncaughtException(thread, e);
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.util.KafkaStreamsUncaughtExceptionHandler;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KafkaStreams.State;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.kstream.ForeachAction;
+
+/**
+ * A single streams app reading a source, fanning its rows out to the push queries attached to it.
+ *
+ * <p>The app is started when the first subscriber starts and is closed by
+ * {@link SharedPushQueryRuntimes} once the last subscriber has been released.
+ */
+@ThreadSafe
+final class SharedSourceRuntime {
+
+  private final String applicationId;
+  private final KafkaStreams kafkaStreams;
+  private final Topology topology;
+  private final Map<String, Object> streamsProperties;
+  private final Dispatcher dispatcher;
+  private final UncaughtExceptionHandler defaultHandler =
+      new KafkaStreamsUncaughtExceptionHandler();
+  private boolean started;
+
+  SharedSourceRuntime(
+      final String applicationId,
+      final KafkaStreams kafkaStreams,
+      final Topology topology,
+      final Map<String, Object> streamsProperties,
+      final Dispatcher dispatcher
+  ) {
+    this.applicationId = Objects.requireNonNull(applicationId, "applicationId");
+    this.kafkaStreams = Objects.requireNonNull(kafkaStreams, "kafkaStreams");
+    this.topology = Objects.requireNonNull(topology, "topology");
+    this.streamsProperties = Objects.requireNonNull(streamsProperties, "streamsProperties");
+    this.dispatcher = Objects.requireNonNull(dispatcher, "dispatcher");
+
+    kafkaStreams.setStateListener(this::onStateChange);
+    kafkaStreams.setUncaughtExceptionHandler(this::onUncaughtException);
+  }
+
+  String getApplicationId() {
+    return applicationId;
+  }
+
+  KafkaStreams getKafkaStreams() {
+    return kafkaStreams;
+  }
+
+  Topology getTopology() {
+    return topology;
+  }
+
+  Map<String, Object> getStreamsProperties() {
+    return streamsProperties;
+  }
+
+  int numberOfSubscribers() {
+    return dispatcher.subscribers.size();
+  }
+
+  synchronized void subscribe(final SharedPushQuerySubscriber subscriber) {
+    dispatcher.subscribers.add(subscriber);
+
+    if (!started) {
+      started = true;
+      kafkaStreams.start();
+    }
+  }
+
+  void unsubscribe(final SharedPushQuerySubscriber subscriber) {
+    dispatcher.subscribers.remove(subscriber);
+  }
+
+  void close() {
+    kafkaStreams.close();
+    kafkaStreams.cleanUp();
+  }
+
+  private void onStateChange(final State newState, final State oldState) {
+    dispatcher.subscribers.forEach(s -> s.onStateChange(newState, oldState));
+  }
+
+  private void onUncaughtException(final Thread thread, final Throwable e) {
+    defaultHandler.uncaughtException(thread, e);
+    dispatcher.subscribers.forEach(s -> s.onUncaughtException(thread, e));
+  }
+
+  /**
+   * The terminal processor of the shared topology, passing each row to every subscriber.
+   */
+  static final class Dispatcher implements ForeachAction<Object, GenericRow> {
+
+    private final List<SharedPushQuerySubscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void apply(final Object key, final GenericRow row) {
+      if (row == null) {
+        return;
+      }
+
+      for (final SharedPushQuerySubscriber subscriber : subscribers) {
+        subscriber.accept(key, row);
+      }
+    }
+  }
+}
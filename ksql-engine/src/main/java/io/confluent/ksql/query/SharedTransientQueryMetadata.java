@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import io.confluent.ksql.internal.QueryStateListener;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.util.QueryMetadata;
+import io.confluent.ksql.util.TransientQueryMetadata;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.apache.kafka.streams.KafkaStreams.State;
+
+/**
+ * Metadata of a transient query attached to a {@link SharedSourceRuntime}.
+ *
+ * <p>Starting and closing the query attaches it to, and detaches it from, the shared streams app,
+ * which is owned by {@link SharedPushQueryRuntimes}.
+ */
+final class SharedTransientQueryMetadata extends TransientQueryMetadata {
+
+  private final SharedPushQueryRuntimes runtimes;
+  private final SharedSourceRuntime runtime;
+  private final SharedPushQuerySubscriber subscriber;
+  private final AtomicBoolean released = new AtomicBoolean(false);
+
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  SharedTransientQueryMetadata(
+      final String statementString,
+      final LogicalSchema logicalSchema,
+      final Set<SourceName> sourceNames,
+      final String executionPlan,
+      final String queryApplicationId,
+      final Map<String, Object> overriddenProperties,
+      final Consumer<QueryMetadata> closeCallback,
+      final SharedPushQueryRuntimes runtimes,
+      final SharedSourceRuntime runtime,
+      final SharedPushQuerySubscriber subscriber
+  ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
+    super(
+        statementString,
+        runtime.getKafkaStreams(),
+        logicalSchema,
+        sourceNames,
+        limitHandler -> { },
+        executionPlan,
+        subscriber.getRowQueue(),
+        queryApplicationId,
+        runtime.getTopology(),
+        runtime.getStreamsProperties(),
+        overriddenProperties,
+        closeCallback
+    );
+    this.runtimes = Objects.requireNonNull(runtimes, "runtimes");
+    this.runtime = Objects.requireNonNull(runtime, "runtime");
+    this.subscriber = Objects.requireNonNull(subscriber, "subscriber");
+  }
+
+  @Override
+  public String getState() {
+    return released.get() ? State.NOT_RUNNING.toString() : super.getState();
+  }
+
+  @Override
+  public void setUncaughtExceptionHandler(final UncaughtExceptionHandler handler) {
+    subscriber.setUncaughtExceptionHandler(handler);
+  }
+
+  @Override
+  protected void startKafkaStreams(final Optional<QueryStateListener> stateListener) {
+    stateListener.ifPresent(subscriber::setStateListener);
+    runtime.subscribe(subscriber);
+  }
+
+  @Override
+  protected void closeKafkaStreams() {
+    if (released.getAndSet(true)) {
+      return;
+    }
+
+    runtime.unsubscribe(subscriber);
+    runtimes.release(runtime);
+  }
+}
@@ -16,15 +16,10 @@
 package io.confluent.ksql.query;
 
 import io.confluent.ksql.GenericRow;
-import io.confluent.ksql.util.KsqlException;
 import java.util.Objects;
 import java.util.OptionalInt;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.kstream.ForeachAction;
 import org.apache.kafka.streams.kstream.KStream;
-import org.apache.kafka.streams.kstream.Windowed;
 
 /**
  * A queue of rows for transient queries.
@@ -32,18 +27,23 @@ import org.apache.kafka.streams.kstream.Windowed;
 class TransientQueryQueue {
 
   private final LimitQueueCallback callback;
-  private final BlockingQueue<KeyValue<String, GenericRow>> rowQueue =
-      new LinkedBlockingQueue<>(100);
-
-  TransientQueryQueue(final KStream<?, GenericRow> kstream, final OptionalInt limit) {
+  private final RowRingBuffer rowQueue;
+
+  TransientQueryQueue(
+      final KStream<?, GenericRow> kstream,
+      final OptionalInt limit,
+      final int capacity,
+      final QueueOverflowPolicy overflowPolicy
+  ) {
     this.callback = limit.isPresent()
         ? new LimitedQueueCallback(limit.getAsInt())
         : new UnlimitedQueueCallback();
+    this.rowQueue = new RowRingBuffer(capacity, overflowPolicy);
 
     kstream.foreach(new TransientQueryQueue.QueuePopulator<>(rowQueue, callback));
   }
 
-  BlockingQueue<KeyValue<String, GenericRow>> getQueue() {
+  BlockingRowQueue getQueue() {
     return rowQueue;
   }
 
@@ -51,14 +51,13 @@ class TransientQueryQueue {
     callback.setLimitHandler(limitHandler);
   }
 
-  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
   static final class QueuePopulator<K> implements ForeachAction<K, GenericRow> {
 
-    private final BlockingQueue<KeyValue<String, GenericRow>> queue;
+    private final RowRingBuffer queue;
     private final QueueCallback callback;
 
     QueuePopulator(
-        final BlockingQueue<KeyValue<String, GenericRow>> queue,
+        final RowRingBuffer queue,
         final QueueCallback callback
     ) {
       this.queue = Objects.requireNonNull(queue, "queue");
@@ -67,31 +66,17 @@ class TransientQueryQueue {
 
     @Override
     public void apply(final K key, final GenericRow row) {
-      try {
-        if (row == null) {
-          return;
-        }
-
-        if (!callback.shouldQueue()) {
-          return;
-        }
-
-        final String keyString = getStringKey(key);
-        queue.put(new KeyValue<>(keyString, row));
-
-        callback.onQueued();
-      } catch (final InterruptedException exception) {
-        throw new KsqlException("InterruptedException while enqueueing:" + key);
+      if (row == null) {
+        return;
       }
-    }
 
-    private String getStringKey(final K key) {
-      if (key instanceof Windowed) {
-        final Windowed windowedKey = (Windowed) key;
-        return String.format("%s : %s", windowedKey.key(), windowedKey.window());
+      if (!callback.shouldQueue()) {
+        return;
       }
 
-      return Objects.toString(key);
+      if (queue.offer(key, row)) {
+        callback.onQueued();
+      }
     }
   }
 }
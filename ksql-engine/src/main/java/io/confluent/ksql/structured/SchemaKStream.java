@@ -37,6 +37,7 @@ import io.confluent.ksql.execution.plan.KStreamHolder;
 import io.confluent.ksql.execution.plan.LogicalSchemaWithMetaAndKeyFields;
 import io.confluent.ksql.execution.plan.SelectExpression;
 import io.confluent.ksql.execution.plan.StreamFilter;
+import io.confluent.ksql.execution.plan.StreamGlobalTableJoin;
 import io.confluent.ksql.execution.plan.StreamGroupBy;
 import io.confluent.ksql.execution.plan.StreamGroupByKey;
 import io.confluent.ksql.execution.plan.StreamMapValues;
@@ -459,6 +460,78 @@ public class SchemaKStream<K> {
     );
   }
 
+  public SchemaKStream<K> leftJoinGlobalTable(
+      final StreamSource globalTable,
+      final ColumnRef joinField,
+      final LogicalSchema joinSchema,
+      final KeyField keyField,
+      final ValueFormat valueFormat,
+      final QueryContext.Stacker contextStacker
+  ) {
+    return joinGlobalTable(
+        JoinType.LEFT,
+        globalTable,
+        joinField,
+        joinSchema,
+        keyField,
+        valueFormat,
+        contextStacker
+    );
+  }
+
+  public SchemaKStream<K> joinGlobalTable(
+      final StreamSource globalTable,
+      final ColumnRef joinField,
+      final LogicalSchema joinSchema,
+      final KeyField keyField,
+      final ValueFormat valueFormat,
+      final QueryContext.Stacker contextStacker
+  ) {
+    return joinGlobalTable(
+        JoinType.INNER,
+        globalTable,
+        joinField,
+        joinSchema,
+        keyField,
+        valueFormat,
+        contextStacker
+    );
+  }
+
+  /**
+   * Join this stream to a table that is read in full by every instance of the query, looking up
+   * the table row whose key matches the stream's join field. Unlike the other joins, this does
+   * not require the stream to be keyed by the join field, nor co-partitioned with the table.
+   */
+  private SchemaKStream<K> joinGlobalTable(
+      final JoinType joinType,
+      final StreamSource globalTable,
+      final ColumnRef joinField,
+      final LogicalSchema joinSchema,
+      final KeyField keyField,
+      final ValueFormat valueFormat,
+      final QueryContext.Stacker contextStacker
+  ) {
+    final StreamGlobalTableJoin<K> step = ExecutionStepFactory.streamGlobalTableJoin(
+        contextStacker,
+        joinType,
+        Formats.of(keyFormat, valueFormat, SerdeOption.none()),
+        sourceStep,
+        globalTable,
+        joinField,
+        joinSchema
+    );
+    return new SchemaKStream<>(
+        step,
+        keyFormat,
+        keyField,
+        ImmutableList.of(this),
+        Type.JOIN,
+        ksqlConfig,
+        functionRegistry
+    );
+  }
+
   public SchemaKStream<K> join(
       final SchemaKStream<K> otherSchemaKStream,
       final LogicalSchema joinSchema,
@@ -517,11 +590,33 @@ public class SchemaKStream<K> {
     );
   }
 
-  @SuppressWarnings("unchecked")
   public SchemaKStream<Struct> selectKey(
       final ColumnRef columnRef,
       final boolean updateRowKey,
       final QueryContext.Stacker contextStacker
+  ) {
+    return selectKey(columnRef, updateRowKey, false, contextStacker);
+  }
+
+  /**
+   * Key the stream by the supplied column, as {@link #selectKey}, but repartition the stream even
+   * if it is already keyed by the column.
+   *
+   * <p>Used to bring the stream to the partition count of a source it is to be joined with.
+   */
+  public SchemaKStream<Struct> repartitionByKey(
+      final ColumnRef columnRef,
+      final QueryContext.Stacker contextStacker
+  ) {
+    return selectKey(columnRef, true, true, contextStacker);
+  }
+
+  @SuppressWarnings("unchecked")
+  private SchemaKStream<Struct> selectKey(
+      final ColumnRef columnRef,
+      final boolean updateRowKey,
+      final boolean forceRepartition,
+      final QueryContext.Stacker contextStacker
   ) {
     if (keyFormat.isWindowed()) {
       throw new UnsupportedOperationException("Can not selectKey of windowed stream");
@@ -547,7 +642,7 @@ public class SchemaKStream<K> {
     // So we only handle rowkey for new queries:
     final boolean treatAsRowKey = usingNewKeyFields() && isRowKey(proposedKey.ref());
 
-    if (namesMatch || treatAsRowKey) {
+    if (!forceRepartition && (namesMatch || treatAsRowKey)) {
       return (SchemaKStream<Struct>) new SchemaKStream<>(
           sourceStep,
           keyFormat,
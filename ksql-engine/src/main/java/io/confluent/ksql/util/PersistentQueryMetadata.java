@@ -17,6 +17,7 @@ package io.confluent.ksql.util;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.base.Suppliers;
 import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.ddl.commands.KsqlTopic;
 import io.confluent.ksql.execution.streams.materialization.Materialization;
@@ -30,6 +31,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.Topology;
 
@@ -44,7 +46,7 @@ public class PersistentQueryMetadata extends QueryMetadata {
   private final QuerySchemas schemas;
   private final PhysicalSchema resultSchema;
   private final DataSourceType dataSourceType;
-  private final Optional<MaterializationProvider> materializationProvider;
+  private final Supplier<Optional<Materialization>> materialization;
 
   // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
   public PersistentQueryMetadata(
@@ -83,8 +85,10 @@ public class PersistentQueryMetadata extends QueryMetadata {
     this.sinkName = Objects.requireNonNull(sinkName, "sinkName");
     this.schemas = requireNonNull(schemas, "schemas");
     this.resultSchema = requireNonNull(schema, "schema");
-    this.materializationProvider =
-        requireNonNull(materializationProvider, "materializationProvider");
+    this.materialization = buildOnce(
+        requireNonNull(materializationProvider, "materializationProvider"),
+        id
+    );
     this.dataSourceType = Objects.requireNonNull(dataSourceType, "dataSourceType");
   }
 
@@ -98,7 +102,7 @@ public class PersistentQueryMetadata extends QueryMetadata {
     this.sinkName = other.sinkName;
     this.schemas = other.schemas;
     this.resultSchema = other.resultSchema;
-    this.materializationProvider = other.materializationProvider;
+    this.materialization = other.materialization;
     this.dataSourceType = other.dataSourceType;
   }
 
@@ -130,10 +134,30 @@ public class PersistentQueryMetadata extends QueryMetadata {
     return resultSchema;
   }
 
-  public Optional<Materialization> getMaterialization(
-      final QueryId queryId,
-      final QueryContext.Stacker contextStacker
+  /**
+   * Get the materialization of the query's result, if it has one.
+   *
+   * <p>The materialization, including its compiled transforms, is built when the query starts,
+   * or on first use if sooner, and then shared by all pull queries against the query.
+   *
+   * @return the materialization, if any.
+   */
+  public Optional<Materialization> getMaterialization() {
+    return materialization.get();
+  }
+
+  @Override
+  public void start() {
+    super.start();
+    materialization.get();
+  }
+
+  private static Supplier<Optional<Materialization>> buildOnce(
+      final Optional<MaterializationProvider> provider,
+      final QueryId queryId
   ) {
-    return materializationProvider.map(builder -> builder.build(queryId, contextStacker));
+    return Suppliers.memoize(
+        () -> provider.map(builder -> builder.build(queryId, new QueryContext.Stacker()))
+    )::get;
   }
 }
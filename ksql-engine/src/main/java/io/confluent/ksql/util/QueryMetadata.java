@@ -141,9 +141,7 @@ public class QueryMetadata {
   }
 
   public void close() {
-    kafkaStreams.close();
-
-    kafkaStreams.cleanUp();
+    closeKafkaStreams();
 
     queryStateListener.ifPresent(QueryStateListener::close);
 
@@ -153,10 +151,31 @@ public class QueryMetadata {
   public void start() {
     LOG.info("Starting query with application id: {}", queryApplicationId);
     everStarted = true;
-    queryStateListener.ifPresent(kafkaStreams::setStateListener);
+    startKafkaStreams(queryStateListener);
+  }
+
+  /**
+   * Starts the streams app backing this query.
+   *
+   * <p>Queries that do not own their streams app, e.g. those attached to a shared runtime,
+   * override this to attach to the running app instead.
+   *
+   * @param stateListener the optional state listener to register.
+   */
+  protected void startKafkaStreams(final Optional<QueryStateListener> stateListener) {
+    stateListener.ifPresent(kafkaStreams::setStateListener);
     kafkaStreams.start();
   }
 
+  /**
+   * Stops the streams app backing this query and cleans up its local state.
+   */
+  protected void closeKafkaStreams() {
+    kafkaStreams.close();
+
+    kafkaStreams.cleanUp();
+  }
+
   public String getTopologyDescription() {
     return topology.describe().toString();
   }
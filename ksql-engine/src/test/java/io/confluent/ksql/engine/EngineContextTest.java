@@ -19,6 +19,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -76,7 +77,8 @@ public class EngineContextTest {
         queryIdGenerator,
         onQueryCloseCallback,
         parser,
-        rewriter
+        rewriter,
+        new StatementCache()
     );
 
     when((parsed).getStatementText()).thenReturn("some sql");
@@ -94,4 +96,31 @@ public class EngineContextTest {
     verify(rewriter).rewriteForStruct(statement);
     assertThat(prepared.getStatement(), is(sameInstance(rewrittenStatement)));
   }
+
+  @Test
+  public void shouldOnlyPrepareOncePerMetaStoreVersion() {
+    // Given:
+    when(metaStore.getVersion()).thenReturn(1L);
+    final PreparedStatement<?> first = engineContext.prepare(parsed);
+
+    // When:
+    final PreparedStatement<?> second = engineContext.prepare(parsed);
+
+    // Then:
+    verify(parser, times(1)).prepare(parsed, metaStore);
+    assertThat(second, is(sameInstance(first)));
+  }
+
+  @Test
+  public void shouldPrepareAgainOnceMetaStoreChanges() {
+    // Given:
+    when(metaStore.getVersion()).thenReturn(1L, 2L);
+    engineContext.prepare(parsed);
+
+    // When:
+    engineContext.prepare(parsed);
+
+    // Then:
+    verify(parser, times(2)).prepare(parsed, metaStore);
+  }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.metastore.MetaStore;
+import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.parser.SqlBaseParser.SingleStatementContext;
+import io.confluent.ksql.parser.exception.ParseFailedException;
+import io.confluent.ksql.parser.tree.Statement;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StatementCacheTest {
+
+  private static final String SQL = "LIST STREAMS;";
+
+  @Mock
+  private Function<String, List<ParsedStatement>> parser;
+  @Mock
+  private Function<ParsedStatement, PreparedStatement<?>> preparer;
+  @Mock
+  private SingleStatementContext statementContext;
+  @Mock
+  private Statement statement;
+  @Mock
+  private MetaStore metaStore;
+
+  private ParsedStatement parsed;
+  private PreparedStatement<?> prepared;
+  private StatementCache cache;
+
+  @Before
+  public void setUp() {
+    parsed = ParsedStatement.of(SQL, statementContext);
+    prepared = PreparedStatement.of(SQL, statement);
+    cache = new StatementCache(10);
+  }
+
+  @Test
+  public void shouldOnlyParseSameTextOnce() {
+    // Given:
+    when(parser.apply(any())).thenReturn(ImmutableList.of(parsed));
+    cache.parse(SQL, parser);
+
+    // When:
+    final List<ParsedStatement> result = cache.parse(SQL + " \n", parser);
+
+    // Then:
+    verify(parser, times(1)).apply(any());
+    assertThat(result, contains(parsed));
+    assertThat(cache.hitCount(), is(1L));
+    assertThat(cache.missCount(), is(1L));
+  }
+
+  @Test
+  public void shouldParseTextWithDifferentLeadingWhitespace() {
+    // Given:
+    when(parser.apply(any())).thenReturn(ImmutableList.of(parsed));
+    cache.parse(SQL, parser);
+
+    // When:
+    cache.parse("\n" + SQL, parser);
+
+    // Then:
+    verify(parser, times(2)).apply(any());
+  }
+
+  @Test
+  public void shouldNotCacheParseFailures() {
+    // Given:
+    when(parser.apply(any()))
+        .thenThrow(new ParseFailedException("Boom"))
+        .thenReturn(ImmutableList.of(parsed));
+
+    try {
+      cache.parse(SQL, parser);
+    } catch (final ParseFailedException e) {
+      // expected
+    }
+
+    // When:
+    final List<ParsedStatement> result = cache.parse(SQL, parser);
+
+    // Then:
+    assertThat(result, contains(parsed));
+  }
+
+  @Test
+  public void shouldOnlyPrepareOncePerMetaStoreVersion() {
+    // Given:
+    when(metaStore.getVersion()).thenReturn(1L);
+    when(preparer.apply(any())).thenReturn(prepared);
+    cache.prepare(parsed, metaStore, preparer);
+
+    // When:
+    final PreparedStatement<?> result = cache.prepare(parsed, metaStore, preparer);
+
+    // Then:
+    verify(preparer, times(1)).apply(parsed);
+    assertThat(result, is(sameInstance(prepared)));
+  }
+
+  @Test
+  public void shouldPrepareAgainOnceMetaStoreVersionChanges() {
+    // Given:
+    when(metaStore.getVersion()).thenReturn(1L, 2L);
+    when(preparer.apply(any())).thenReturn(prepared);
+    cache.prepare(parsed, metaStore, preparer);
+
+    // When:
+    cache.prepare(parsed, metaStore, preparer);
+
+    // Then:
+    verify(preparer, times(2)).apply(parsed);
+  }
+}
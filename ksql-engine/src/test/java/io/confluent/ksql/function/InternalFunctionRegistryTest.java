@@ -25,6 +25,10 @@ import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.Collections2;
@@ -37,6 +41,12 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import org.apache.kafka.connect.data.Schema;
@@ -89,6 +99,9 @@ public class InternalFunctionRegistryTest {
   @Mock
   private AggregateFunctionFactory udafFactory;
 
+  @Mock
+  private Runnable lazyLoader;
+
   @Before
   public void setUp() {
     when(udfFactory.getName()).thenReturn(UDF_NAME);
@@ -416,6 +429,100 @@ public class InternalFunctionRegistryTest {
     assertThat(functionRegistry.listFunctions(), hasItem(sameInstance(udfFactory)));
   }
 
+  @Test
+  public void shouldNotInvokeLazyLoaderUntilFunctionLookedUp() {
+    // When:
+    functionRegistry.addLazyFunction(UDF_NAME, lazyLoader);
+    functionRegistry.getUdfFactory("LCASE");
+
+    // Then:
+    verify(lazyLoader, never()).run();
+  }
+
+  @Test
+  public void shouldInvokeLazyLoaderOnceOnFirstLookup() {
+    // Given:
+    doAnswer(inv -> functionRegistry.ensureFunctionFactory(udfFactory))
+        .when(lazyLoader).run();
+    functionRegistry.addLazyFunction(UDF_NAME, lazyLoader);
+
+    // When:
+    final UdfFactory factory = functionRegistry.getUdfFactory(UDF_NAME.toLowerCase());
+    functionRegistry.getUdfFactory(UDF_NAME);
+
+    // Then:
+    verify(lazyLoader, times(1)).run();
+    assertThat(factory, is(sameInstance(udfFactory)));
+  }
+
+  @Test
+  public void shouldInvokeLazyLoadersWhenListingFunctions() {
+    // Given:
+    doAnswer(inv -> {
+      functionRegistry.addAggregateFunctionFactory(udafFactory);
+      return null;
+    }).when(lazyLoader).run();
+    functionRegistry.addLazyFunction(UDAF_NAME, lazyLoader);
+
+    // When:
+    final List<AggregateFunctionFactory> functions = functionRegistry.listAggregateFunctions();
+
+    // Then:
+    assertThat(functions, hasItem(sameInstance(udafFactory)));
+    assertThat(functionRegistry.isAggregate(UDAF_NAME), is(true));
+  }
+
+  @Test
+  public void shouldInvokeLazyLoaderBeforeRegisteringFunctionWithSameName() {
+    // Given:
+    doAnswer(inv -> functionRegistry.ensureFunctionFactory(udfFactory))
+        .when(lazyLoader).run();
+    functionRegistry.addLazyFunction(UDF_NAME, lazyLoader);
+
+    // When:
+    final UdfFactory factory = functionRegistry.ensureFunctionFactory(udfFactory);
+
+    // Then:
+    verify(lazyLoader).run();
+    assertThat(factory, is(sameInstance(udfFactory)));
+  }
+
+  @Test
+  public void shouldNotExposeFunctionToOtherThreadsUntilLazyLoaderHasFinished() throws Exception {
+    // Given:
+    final CountDownLatch registered = new CountDownLatch(1);
+    final CountDownLatch lookedUp = new CountDownLatch(1);
+    final AtomicBoolean loaded = new AtomicBoolean(false);
+
+    doAnswer(inv -> {
+      functionRegistry.ensureFunctionFactory(udfFactory);
+      registered.countDown();
+      lookedUp.await(500, TimeUnit.MILLISECONDS);
+      loaded.set(true);
+      return null;
+    }).when(lazyLoader).run();
+    functionRegistry.addLazyFunction(UDF_NAME, lazyLoader);
+
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final Future<Boolean> loadedWhenLookedUp = executor.submit(() -> {
+        registered.await();
+        functionRegistry.getUdfFactory(UDF_NAME);
+        lookedUp.countDown();
+        return loaded.get();
+      });
+
+      // When:
+      functionRegistry.getUdfFactory(UDF_NAME);
+
+      // Then:
+      assertThat(loadedWhenLookedUp.get(30, TimeUnit.SECONDS), is(true));
+      verify(lazyLoader, times(1)).run();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   private void givenUdfFactoryRegistered() {
     functionRegistry.ensureFunctionFactory(UdfLoaderUtil.createTestUdfFactory(func));
   }
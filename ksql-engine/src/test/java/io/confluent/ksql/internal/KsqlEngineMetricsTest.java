@@ -28,6 +28,7 @@ import static org.mockito.Mockito.when;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.engine.StatementCache;
 import io.confluent.ksql.metrics.ConsumerCollector;
 import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.metrics.ProducerCollector;
@@ -73,6 +74,8 @@ public class KsqlEngineMetricsTest {
   private KsqlEngine ksqlEngine;
   @Mock
   private QueryMetadata query1;
+  @Mock
+  private StatementCache statementCache;
 
   @Before
   public void setUp() {
@@ -112,6 +115,20 @@ public class KsqlEngineMetricsTest {
     assertThat(legacyValue, equalTo(1.0));
   }
 
+  @Test
+  public void shouldRecordStatementCacheStats() {
+    when(ksqlEngine.getStatementCache()).thenReturn(statementCache);
+    when(statementCache.hitCount()).thenReturn(5L);
+    when(statementCache.missCount()).thenReturn(2L);
+    when(statementCache.averageParseTimeMs()).thenReturn(1.5);
+    when(statementCache.maxParseTimeMs()).thenReturn(2.5);
+
+    assertThat(getMetricValue("statement-cache-hits"), equalTo(5.0));
+    assertThat(getMetricValue("statement-cache-misses"), equalTo(2.0));
+    assertThat(getMetricValue("statement-parse-time-avg-ms"), equalTo(1.5));
+    assertThat(getMetricValueLegacy("statement-parse-time-max-ms"), equalTo(2.5));
+  }
+
   @Test
   public void shouldRecordNumberOfActiveQueries() {
     when(ksqlEngine.numberOfLiveQueries()).thenReturn(3);
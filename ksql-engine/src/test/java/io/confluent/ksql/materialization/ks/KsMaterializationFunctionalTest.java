@@ -25,7 +25,6 @@ import static org.hamcrest.Matchers.is;
 
 import com.google.common.collect.Range;
 import io.confluent.ksql.GenericRow;
-import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.streams.materialization.Materialization;
 import io.confluent.ksql.execution.streams.materialization.MaterializedTable;
 import io.confluent.ksql.execution.streams.materialization.MaterializedWindowedTable;
@@ -37,7 +36,6 @@ import io.confluent.ksql.integration.Retry;
 import io.confluent.ksql.integration.TestKsqlContext;
 import io.confluent.ksql.model.WindowType;
 import io.confluent.ksql.name.ColumnName;
-import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
 import io.confluent.ksql.schema.ksql.types.SqlType;
@@ -116,8 +114,6 @@ public class KsMaterializationFunctionalTest {
   private final List<QueryMetadata> toClose = new ArrayList<>();
 
   private String output;
-  private final QueryId queryId = new QueryId("static");
-  private final QueryContext.Stacker contextStacker = new QueryContext.Stacker();
 
   @BeforeClass
   public static void classSetUp() {
@@ -153,7 +149,7 @@ public class KsMaterializationFunctionalTest {
     );
 
     // When:
-    final Optional<Materialization> result = query.getMaterialization(queryId, contextStacker);
+    final Optional<Materialization> result = query.getMaterialization();
 
     // Then:
     assertThat(result, is(Optional.empty()));
@@ -168,7 +164,7 @@ public class KsMaterializationFunctionalTest {
     );
 
     // When:
-    final Optional<Materialization> result = query.getMaterialization(queryId, contextStacker);
+    final Optional<Materialization> result = query.getMaterialization();
 
     // Then:
     assertThat(result, is(Optional.empty()));
@@ -188,7 +184,7 @@ public class KsMaterializationFunctionalTest {
       );
 
       // When:
-      final Optional<Materialization> result = query.getMaterialization(queryId, contextStacker);
+      final Optional<Materialization> result = query.getMaterialization();
 
       // Then:
       assertThat(result, is(Optional.empty()));
@@ -209,7 +205,7 @@ public class KsMaterializationFunctionalTest {
     final Map<String, GenericRow> rows = waitForTableRows(STRING_DESERIALIZER, schema);
 
     // When:
-    final Materialization materialization = query.getMaterialization(queryId, contextStacker).get();
+    final Materialization materialization = query.getMaterialization().get();
 
     // Then:
     assertThat(materialization.windowType(), is(Optional.empty()));
@@ -243,7 +239,7 @@ public class KsMaterializationFunctionalTest {
     final Map<String, GenericRow> rows = waitForTableRows(STRING_DESERIALIZER, schema);
 
     // When:
-    final Materialization materialization = query.getMaterialization(queryId, contextStacker).get();
+    final Materialization materialization = query.getMaterialization().get();
 
     // Then:
     assertThat(materialization.windowType(), is(Optional.empty()));
@@ -279,7 +275,7 @@ public class KsMaterializationFunctionalTest {
         waitForTableRows(TIME_WINDOWED_DESERIALIZER, schema);
 
     // When:
-    final Materialization materialization = query.getMaterialization(queryId, contextStacker).get();
+    final Materialization materialization = query.getMaterialization().get();
 
     // Then:
     assertThat(materialization.windowType(), is(Optional.of(WindowType.TUMBLING)));
@@ -327,7 +323,7 @@ public class KsMaterializationFunctionalTest {
         waitForTableRows(TIME_WINDOWED_DESERIALIZER, schema);
 
     // When:
-    final Materialization materialization = query.getMaterialization(queryId, contextStacker).get();
+    final Materialization materialization = query.getMaterialization().get();
 
     // Then:
     assertThat(materialization.windowType(), is(Optional.of(WindowType.HOPPING)));
@@ -374,7 +370,7 @@ public class KsMaterializationFunctionalTest {
         waitForTableRows(SESSION_WINDOWED_DESERIALIZER, schema);
 
     // When:
-    final Materialization materialization = query.getMaterialization(queryId, contextStacker).get();
+    final Materialization materialization = query.getMaterialization().get();
 
     // Then:
     assertThat(materialization.windowType(), is(Optional.of(WindowType.SESSION)));
@@ -424,7 +420,7 @@ public class KsMaterializationFunctionalTest {
 
 
     // When:
-    final Materialization materialization = query.getMaterialization(queryId, contextStacker).get();
+    final Materialization materialization = query.getMaterialization().get();
 
     // Then:
     assertThat(materialization.windowType(), is(Optional.empty()));
@@ -454,7 +450,7 @@ public class KsMaterializationFunctionalTest {
     final Map<String, GenericRow> rows = waitForTableRows(STRING_DESERIALIZER, schema);
 
     // When:
-    final Materialization materialization = query.getMaterialization(queryId, contextStacker).get();
+    final Materialization materialization = query.getMaterialization().get();
 
     // Then:
     assertThat(materialization.windowType(), is(Optional.empty()));
@@ -484,7 +480,7 @@ public class KsMaterializationFunctionalTest {
     final Map<String, GenericRow> rows = waitForTableRows(STRING_DESERIALIZER, schema);
 
     // When:
-    final Materialization materialization = query.getMaterialization(queryId, contextStacker).get();
+    final Materialization materialization = query.getMaterialization().get();
 
     // Then:
     final MaterializedTable table = materialization.nonWindowed();
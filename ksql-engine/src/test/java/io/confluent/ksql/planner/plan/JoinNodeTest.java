@@ -21,6 +21,7 @@ import static io.confluent.ksql.planner.plan.PlanTestUtil.SOURCE_NODE;
 import static io.confluent.ksql.planner.plan.PlanTestUtil.getNodeByName;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
@@ -55,6 +56,7 @@ import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import io.confluent.ksql.serde.Format;
 import io.confluent.ksql.serde.FormatInfo;
+import io.confluent.ksql.serde.KeyFormat;
 import io.confluent.ksql.serde.ValueFormat;
 import io.confluent.ksql.services.KafkaTopicClient;
 import io.confluent.ksql.services.ServiceContext;
@@ -257,6 +259,80 @@ public class JoinNodeTest {
     assertThat(joinNode.getKeyField().ref(), is(Optional.of(LEFT_JOIN_FIELD_REF)));
   }
 
+  @Test
+  public void shouldReturnLeftSourceKeyAsKeyFieldOfGlobalTableJoin() {
+    // Given:
+    givenRightKeyFormat(KeyFormat.nonWindowed(FormatInfo.of(Format.KAFKA)));
+    when(left.getKeyField()).thenReturn(KeyField.none());
+
+    // When:
+    final JoinNode joinNode = new JoinNode(
+        nodeId,
+        JoinType.LEFT,
+        left,
+        right,
+        LEFT_JOIN_FIELD_REF,
+        RIGHT_JOIN_FIELD_REF,
+        Optional.empty(),
+        true
+    );
+
+    // Then:
+    assertThat(joinNode.isGlobalTableJoin(), is(true));
+    assertThat(joinNode.getKeyField(), is(KeyField.none()));
+  }
+
+  @Test
+  public void shouldNotUseGlobalTableForOuterOrWindowedJoins() {
+    // When:
+    final JoinNode outer = new JoinNode(
+        nodeId,
+        JoinType.OUTER,
+        left,
+        right,
+        LEFT_JOIN_FIELD_REF,
+        RIGHT_JOIN_FIELD_REF,
+        Optional.empty(),
+        true
+    );
+
+    final JoinNode windowed = new JoinNode(
+        nodeId,
+        JoinType.INNER,
+        left,
+        right,
+        LEFT_JOIN_FIELD_REF,
+        RIGHT_JOIN_FIELD_REF,
+        WITHIN_EXPRESSION,
+        true
+    );
+
+    // Then:
+    assertThat(outer.isGlobalTableJoin(), is(false));
+    assertThat(windowed.isGlobalTableJoin(), is(false));
+  }
+
+  @Test
+  public void shouldJoinGlobalTableWithoutRepartitioning() {
+    // Given:
+    setupTopicClientExpectations(1, 2);
+    final KsqlConfig config = ksqlConfig.cloneWithPropertyOverwrite(ImmutableMap.of(
+        KsqlConfig.KSQL_QUERY_JOIN_GLOBAL_TABLE_ENABLED_CONFIG, true));
+    when(ksqlStreamBuilder.getKsqlConfig()).thenReturn(config);
+
+    // When:
+    buildJoin(config, "SELECT t1.col1, t2.col1 "
+        + "FROM test1 t1 LEFT JOIN test2 t2 ON t1.col1 = t2.col0 EMIT CHANGES;");
+
+    // Then:
+    assertThat(joinNode.isGlobalTableJoin(), is(true));
+    final TopologyDescription topology = builder.build().describe();
+    assertThat(topology.subtopologies(), hasSize(1));
+    assertThat(topology.globalStores(), hasSize(1));
+    assertThat(topology.globalStores().iterator().next().source().topicSet(),
+        is(ImmutableSet.of("test2")));
+  }
+
   @Test
   public void shouldBuildSourceNode() {
     setupTopicClientExpectations(1, 1);
@@ -306,23 +382,36 @@ public class JoinNodeTest {
   }
 
   @Test
-  public void shouldThrowOnPartitionMismatch() {
+  public void shouldRepartitionStreamOnPartitionMismatch() {
     // Given:
     setupTopicClientExpectations(1, 2);
 
-    // Then:
-    expectedException.expect(KsqlException.class);
-    expectedException.expectMessage(
-        "Can't join TEST1 with TEST2 since the number of partitions don't match. TEST1 "
-            + "partitions = 1; TEST2 partitions = 2. Please repartition either one so that the "
-            + "number of partitions match."
+    // When:
+    buildJoin(
+        "SELECT t1.col0, t2.col0, t2.col1 "
+            + "FROM test1 t1 LEFT JOIN test2 t2 ON t1.col0 = t2.col0 EMIT CHANGES;"
     );
 
+    // Then:
+    final TopologyDescription topology = builder.build().describe();
+    assertThat(topology.subtopologies(), hasSize(2));
+    assertThat(joinNode.getPartitions(mockKafkaTopicClient), is(2));
+  }
+
+  @Test
+  public void shouldNotRepartitionStreamKeyedByJoinFieldIfPartitionsMatch() {
+    // Given:
+    setupTopicClientExpectations(2, 2);
+
     // When:
     buildJoin(
-          "SELECT t1.col0, t2.col0, t2.col1 "
-              + "FROM test1 t1 LEFT JOIN test2 t2 ON t1.col0 = t2.col0 EMIT CHANGES;"
+        "SELECT t1.col0, t2.col0, t2.col1 "
+            + "FROM test1 t1 LEFT JOIN test2 t2 ON t1.col0 = t2.col0 EMIT CHANGES;"
     );
+
+    // Then:
+    final TopologyDescription topology = builder.build().describe();
+    assertThat(topology.subtopologies(), hasSize(1));
   }
 
   @Test
@@ -445,8 +534,9 @@ public class JoinNodeTest {
   }
 
   @Test
-  public void shouldNotPerformJoinIfInputPartitionsMisMatch() {
+  public void shouldNotPerformTableTableJoinIfInputPartitionsMisMatch() {
     // Given:
+    when(left.getDataSourceType()).thenReturn(DataSourceType.KTABLE);
     when(left.getPartitions(mockKafkaTopicClient)).thenReturn(3);
 
     final JoinNode joinNode = new JoinNode(
@@ -456,7 +546,7 @@ public class JoinNodeTest {
         right,
         LEFT_JOIN_FIELD_REF,
         RIGHT_JOIN_FIELD_REF,
-        WITHIN_EXPRESSION
+        Optional.empty()
     );
 
     // Then:
@@ -469,6 +559,34 @@ public class JoinNodeTest {
     joinNode.buildStream(ksqlStreamBuilder);
   }
 
+  @Test
+  public void shouldRepartitionSmallerStreamIfInputPartitionsMisMatch() {
+    // Given:
+    setupStream(left, leftSchemaKStream);
+    setupStream(right, rightSchemaKStream);
+    when(left.getPartitions(mockKafkaTopicClient)).thenReturn(3);
+    when(rightSchemaKStream.repartitionByKey(any(), any())).thenReturn(rightSchemaKStream);
+
+    final JoinNode joinNode = new JoinNode(
+        nodeId,
+        JoinNode.JoinType.INNER,
+        left,
+        right,
+        LEFT_JOIN_FIELD_REF,
+        RIGHT_JOIN_FIELD_REF,
+        WITHIN_EXPRESSION
+    );
+
+    // When:
+    joinNode.buildStream(ksqlStreamBuilder);
+
+    // Then:
+    verify(leftSchemaKStream).selectKey(LEFT_JOIN_FIELD_REF, true, CONTEXT_STACKER);
+    verify(rightSchemaKStream).repartitionByKey(RIGHT_JOIN_FIELD_REF, CONTEXT_STACKER);
+    verify(rightSchemaKStream, never()).selectKey(any(), anyBoolean(), any());
+    assertThat(joinNode.getPartitions(mockKafkaTopicClient), is(3));
+  }
+
   @Test
   public void shouldFailJoinIfTableCriteriaColumnIsNotKey() {
     // Given:
@@ -980,7 +1098,11 @@ public class JoinNodeTest {
   }
 
   private void buildJoin(final String queryString) {
-    buildJoinNode(queryString);
+    buildJoin(ksqlConfig, queryString);
+  }
+
+  private void buildJoin(final KsqlConfig config, final String queryString) {
+    buildJoinNode(config, queryString);
     final SchemaKStream stream = joinNode.buildStream(ksqlStreamBuilder);
     if (stream instanceof SchemaKTable) {
       final SchemaKTable table = (SchemaKTable) stream;
@@ -990,11 +1112,11 @@ public class JoinNodeTest {
     }
   }
 
-  private void buildJoinNode(final String queryString) {
+  private void buildJoinNode(final KsqlConfig config, final String queryString) {
     final MetaStore metaStore = MetaStoreFixture.getNewMetaStore(new InternalFunctionRegistry());
 
     final KsqlBareOutputNode planNode =
-        (KsqlBareOutputNode) AnalysisTestUtil.buildLogicalPlan(ksqlConfig, queryString, metaStore);
+        (KsqlBareOutputNode) AnalysisTestUtil.buildLogicalPlan(config, queryString, metaStore);
 
     joinNode = (JoinNode) ((ProjectNode) planNode.getSource()).getSource();
   }
@@ -1049,6 +1171,10 @@ public class JoinNodeTest {
   }
 
   @SuppressWarnings("unchecked")
+  private void givenRightKeyFormat(final KeyFormat keyFormat) {
+    when(rightSource.getKsqlTopic().getKeyFormat()).thenReturn(keyFormat);
+  }
+
   private static void setUpSource(
       final DataSourceNode node,
       final ValueFormat valueFormat,
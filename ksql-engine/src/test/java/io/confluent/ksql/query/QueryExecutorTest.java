@@ -3,11 +3,13 @@ package io.confluent.ksql.query;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -16,8 +18,6 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.errors.ProductionExceptionHandlerUtil;
-import io.confluent.ksql.execution.context.QueryContext;
-import io.confluent.ksql.execution.context.QueryContext.Stacker;
 import io.confluent.ksql.execution.ddl.commands.KsqlTopic;
 import io.confluent.ksql.execution.materialization.MaterializationInfo;
 import io.confluent.ksql.execution.plan.ExecutionStep;
@@ -154,6 +154,7 @@ public class QueryExecutorTest {
   @Captor
   private ArgumentCaptor<Map<String, Object>> propertyCaptor;
 
+  private final SharedPushQueryRuntimes sharedRuntimes = new SharedPushQueryRuntimes();
   private QueryExecutor queryBuilder;
 
   @Before
@@ -170,7 +171,7 @@ public class QueryExecutorTest {
     when(materializationBuilder.build()).thenReturn(materializationInfo);
     when(materializationInfo.getStateStoreSchema()).thenReturn(aggregationSchema);
     when(materializationInfo.stateStoreName()).thenReturn(STORE_NAME);
-    when(ksMaterializationFactory.create(any(), any(), any(), any(), any(), any()))
+    when(ksMaterializationFactory.create(any(), any(), any(), any(), any(), any(), any()))
         .thenReturn(Optional.of(ksMaterialization));
     when(ksqlMaterializationFactory.create(any(), any(), any(), any())).thenReturn(materialization);
     when(processingLogContext.getLoggerFactory()).thenReturn(processingLoggerFactory);
@@ -187,6 +188,7 @@ public class QueryExecutorTest {
         serviceContext,
         functionRegistry,
         closeCallback,
+        sharedRuntimes,
         kafkaStreamsBuilder,
         streamsBuilder,
         ksqlMaterializationFactory,
@@ -274,13 +276,53 @@ public class QueryExecutorTest {
         physicalPlan,
         SUMMARY
     );
-    final QueryContext.Stacker stacker = new Stacker();
-    final Optional<Materialization> result = queryMetadata.getMaterialization(QUERY_ID, stacker);
+    final Optional<Materialization> result = queryMetadata.getMaterialization();
 
     // Then:
     assertThat(result.get(), is(materialization));
   }
 
+  @Test
+  public void shouldNotCachePullQueryResultsByDefault() {
+    // When:
+    final PersistentQueryMetadata queryMetadata = queryBuilder.buildQuery(
+        STATEMENT_TEXT,
+        QUERY_ID,
+        sink,
+        SOURCES,
+        physicalPlan,
+        SUMMARY
+    );
+
+    // Then:
+    assertThat(queryMetadata.getMaterialization().get(), is(materialization));
+    verify(tableHolder, never()).getTable();
+  }
+
+  @Test
+  public void shouldInvalidatePullQueryCacheOnTableUpdatesIfEnabled() {
+    // Given:
+    when(ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_PULL_CACHE_MAX_ENTRIES_CONFIG)).thenReturn(10L);
+    when(ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_PULL_CACHE_TTL_MS_CONFIG)).thenReturn(1000L);
+    when(tableHolder.getTable()).thenReturn(ktable);
+    when(ktable.toStream()).thenReturn(kstream);
+
+    // When:
+    final PersistentQueryMetadata queryMetadata = queryBuilder.buildQuery(
+        STATEMENT_TEXT,
+        QUERY_ID,
+        sink,
+        SOURCES,
+        physicalPlan,
+        SUMMARY
+    );
+
+    // Then:
+    verify(kstream).foreach(any());
+    assertThat(queryMetadata.getMaterialization().get(), is(not(materialization)));
+    queryMetadata.close();
+  }
+
   @Test
   public void shouldCreateKSMaterializationCorrectly() {
     // When:
@@ -298,6 +340,7 @@ public class QueryExecutorTest {
     verify(ksMaterializationFactory).create(
         eq(STORE_NAME),
         same(kafkaStreams),
+        same(topology),
         same(aggregationSchema),
         any(),
         eq(Optional.empty()),
@@ -316,16 +359,35 @@ public class QueryExecutorTest {
         physicalPlan,
         SUMMARY
     );
-    final QueryContext.Stacker stacker = new Stacker();
-    queryMetadata.getMaterialization(QUERY_ID, stacker);
+    queryMetadata.getMaterialization();
 
     // Then:
     verify(ksqlMaterializationFactory).create(
-        ksMaterialization,
-        materializationInfo,
+        eq(ksMaterialization),
+        eq(materializationInfo),
+        eq(QUERY_ID),
+        any()
+    );
+  }
+
+  @Test
+  public void shouldOnlyBuildMaterializationOnce() {
+    // Given:
+    final PersistentQueryMetadata queryMetadata = queryBuilder.buildQuery(
+        STATEMENT_TEXT,
         QUERY_ID,
-        stacker
+        sink,
+        SOURCES,
+        physicalPlan,
+        SUMMARY
     );
+
+    // When:
+    queryMetadata.getMaterialization();
+    queryMetadata.copyWith(q -> { }).getMaterialization();
+
+    // Then:
+    verify(ksqlMaterializationFactory).create(any(), any(), any(), any());
   }
 
   @Test
@@ -342,8 +404,7 @@ public class QueryExecutorTest {
         physicalPlan,
         SUMMARY
     );
-    final QueryContext.Stacker stacker = new Stacker();
-    final Optional<Materialization> result = queryMetadata.getMaterialization(QUERY_ID, stacker);
+    final Optional<Materialization> result = queryMetadata.getMaterialization();
 
     assertThat(result, is(Optional.empty()));
   }
@@ -609,5 +670,8 @@ public class QueryExecutorTest {
   private void givenTransientQuery() {
     when(physicalPlan.build(any())).thenReturn(streamHolder);
     when(streamHolder.getStream()).thenReturn(kstream);
+    when(ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PUSH_QUEUE_CAPACITY_CONFIG)).thenReturn(100);
+    when(ksqlConfig.getString(KsqlConfig.KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_CONFIG))
+        .thenReturn(KsqlConfig.KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_BLOCK);
   }
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+
+import io.confluent.ksql.GenericRow;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.kstream.internals.TimeWindow;
+import org.junit.Test;
+
+public class RowRingBufferTest {
+
+  private static final GenericRow ROW_ONE = mock(GenericRow.class);
+  private static final GenericRow ROW_TWO = mock(GenericRow.class);
+  private static final GenericRow ROW_THREE = mock(GenericRow.class);
+
+  @Test
+  public void shouldRoundCapacityUpToPowerOfTwo() {
+    assertThat(new RowRingBuffer(1, QueueOverflowPolicy.BLOCK).capacity(), is(1));
+    assertThat(new RowRingBuffer(3, QueueOverflowPolicy.BLOCK).capacity(), is(4));
+    assertThat(new RowRingBuffer(100, QueueOverflowPolicy.BLOCK).capacity(), is(128));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowOnNonPositiveCapacity() {
+    new RowRingBuffer(0, QueueOverflowPolicy.BLOCK);
+  }
+
+  @Test
+  public void shouldPollInOrder() throws Exception {
+    // Given:
+    final RowRingBuffer buffer = new RowRingBuffer(4, QueueOverflowPolicy.BLOCK);
+    buffer.offer("key1", ROW_ONE);
+    buffer.offer("key2", ROW_TWO);
+
+    // Then:
+    assertThat(buffer.size(), is(2));
+    assertThat(buffer.poll(0, TimeUnit.MILLISECONDS), is(new KeyValue<>("key1", ROW_ONE)));
+    assertThat(buffer.poll(0, TimeUnit.MILLISECONDS), is(new KeyValue<>("key2", ROW_TWO)));
+    assertThat(buffer.size(), is(0));
+  }
+
+  @Test
+  public void shouldReturnNullIfPollTimesOut() throws Exception {
+    // Given:
+    final RowRingBuffer buffer = new RowRingBuffer(4, QueueOverflowPolicy.BLOCK);
+
+    // Then:
+    assertThat(buffer.poll(1, TimeUnit.MILLISECONDS), is(nullValue()));
+  }
+
+  @Test
+  public void shouldFormatWindowedKeysOnDrain() {
+    // Given:
+    final RowRingBuffer buffer = new RowRingBuffer(4, QueueOverflowPolicy.BLOCK);
+    final Windowed<String> key = new Windowed<>("key1", new TimeWindow(10, 20));
+    buffer.offer(key, ROW_ONE);
+
+    // When:
+    final List<KeyValue<String, GenericRow>> drained = new ArrayList<>();
+    buffer.drainTo(drained);
+
+    // Then:
+    assertThat(drained, contains(
+        new KeyValue<>(String.format("%s : %s", key.key(), key.window()), ROW_ONE)));
+  }
+
+  @Test
+  public void shouldDrainNoMoreThanMaxRows() throws Exception {
+    // Given:
+    final RowRingBuffer buffer = new RowRingBuffer(4, QueueOverflowPolicy.BLOCK);
+    buffer.offer("key1", ROW_ONE);
+    buffer.offer("key2", ROW_TWO);
+    buffer.offer("key3", ROW_THREE);
+
+    // When:
+    final List<GenericRow> drained = new ArrayList<>();
+    final int count = buffer.drainRowsTo(drained, 2, 0, TimeUnit.MILLISECONDS);
+
+    // Then:
+    assertThat(count, is(2));
+    assertThat(drained, contains(ROW_ONE, ROW_TWO));
+    assertThat(buffer.size(), is(1));
+  }
+
+  @Test
+  public void shouldDropOldestRowWhenFull() {
+    // Given:
+    final RowRingBuffer buffer = new RowRingBuffer(2, QueueOverflowPolicy.DROP_OLDEST);
+    buffer.offer("key1", ROW_ONE);
+    buffer.offer("key2", ROW_TWO);
+
+    // When:
+    final boolean queued = buffer.offer("key3", ROW_THREE);
+
+    // Then:
+    assertThat(queued, is(true));
+    assertThat(buffer.getDroppedRows(), is(1L));
+    assertThat(drainRows(buffer), contains(ROW_TWO, ROW_THREE));
+  }
+
+  @Test
+  public void shouldFlagOverflowWhenFullWithDisconnectPolicy() {
+    // Given:
+    final RowRingBuffer buffer = new RowRingBuffer(1, QueueOverflowPolicy.DISCONNECT);
+    buffer.offer("key1", ROW_ONE);
+
+    // When:
+    final boolean queued = buffer.offer("key2", ROW_TWO);
+
+    // Then:
+    assertThat(queued, is(false));
+    assertThat(buffer.hasOverflowed(), is(true));
+    assertThat(drainRows(buffer), contains(ROW_ONE));
+  }
+
+  @Test
+  public void shouldReleaseBlockedProducerOnClose() throws Exception {
+    // Given:
+    final RowRingBuffer buffer = new RowRingBuffer(1, QueueOverflowPolicy.BLOCK);
+    buffer.offer("key1", ROW_ONE);
+
+    final boolean[] queued = {true};
+    final Thread producer = new Thread(() -> queued[0] = buffer.offer("key2", ROW_TWO));
+    producer.start();
+
+    // When:
+    buffer.close();
+    producer.join(TimeUnit.SECONDS.toMillis(30));
+
+    // Then:
+    assertThat(producer.isAlive(), is(false));
+    assertThat(queued[0], is(false));
+  }
+
+  @Test
+  public void shouldWakeWaitingConsumerWhenRowOffered() throws Exception {
+    // Given:
+    final RowRingBuffer buffer = new RowRingBuffer(4, QueueOverflowPolicy.BLOCK);
+    final Thread producer = new Thread(() -> buffer.offer("key1", ROW_ONE));
+
+    // When:
+    producer.start();
+    final KeyValue<String, GenericRow> polled = buffer.poll(30, TimeUnit.SECONDS);
+
+    // Then:
+    assertThat(polled, is(new KeyValue<>("key1", ROW_ONE)));
+    producer.join();
+  }
+
+  @Test
+  public void shouldRunAvailableCallbackImmediatelyIfRowQueued() {
+    // Given:
+    final RowRingBuffer buffer = new RowRingBuffer(4, QueueOverflowPolicy.BLOCK);
+    buffer.offer("key1", ROW_ONE);
+    final AtomicInteger called = new AtomicInteger();
+
+    // When:
+    buffer.notifyWhenAvailable(called::incrementAndGet);
+
+    // Then:
+    assertThat(called.get(), is(1));
+  }
+
+  @Test
+  public void shouldRunAvailableCallbackOnceWhenRowsOffered() {
+    // Given:
+    final RowRingBuffer buffer = new RowRingBuffer(4, QueueOverflowPolicy.BLOCK);
+    final AtomicInteger called = new AtomicInteger();
+    buffer.notifyWhenAvailable(called::incrementAndGet);
+
+    // When:
+    buffer.offer("key1", ROW_ONE);
+    buffer.offer("key2", ROW_TWO);
+
+    // Then:
+    assertThat(called.get(), is(1));
+  }
+
+  @Test
+  public void shouldRunAvailableCallbackOnClose() {
+    // Given:
+    final RowRingBuffer buffer = new RowRingBuffer(4, QueueOverflowPolicy.BLOCK);
+    final AtomicInteger called = new AtomicInteger();
+    buffer.notifyWhenAvailable(called::incrementAndGet);
+
+    // When:
+    buffer.close();
+
+    // Then:
+    assertThat(called.get(), is(1));
+  }
+
+  private static List<GenericRow> drainRows(final RowRingBuffer buffer) {
+    final List<KeyValue<String, GenericRow>> drained = new ArrayList<>();
+    buffer.drainTo(drained);
+
+    final List<GenericRow> rows = new ArrayList<>();
+    drained.forEach(kv -> rows.add(kv.value));
+    return rows;
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.execution.plan.StreamSource;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SharedPushQueryRuntimesTest {
+
+  private static final Map<String, Object> NO_OVERRIDES = Collections.emptyMap();
+
+  @Mock
+  private StreamSource source;
+  @Mock
+  private StreamSource otherSource;
+  @Mock
+  private Supplier<SharedSourceRuntime> factory;
+
+  private SharedPushQueryRuntimes runtimes;
+
+  @Before
+  public void setUp() {
+    when(source.getTopicName()).thenReturn("topic");
+    when(factory.get()).thenAnswer(inv -> mock(SharedSourceRuntime.class));
+
+    runtimes = new SharedPushQueryRuntimes();
+  }
+
+  @Test
+  public void shouldShareRuntimeForSameSource() {
+    // When:
+    final SharedSourceRuntime first = runtimes.acquire(source, NO_OVERRIDES, factory);
+    final SharedSourceRuntime second = runtimes.acquire(source, NO_OVERRIDES, factory);
+
+    // Then:
+    assertThat(second, is(sameInstance(first)));
+    assertThat(runtimes.numberOfRuntimes(), is(1));
+  }
+
+  @Test
+  public void shouldNotShareRuntimeForDifferentSources() {
+    // Given:
+    when(otherSource.getTopicName()).thenReturn("other");
+
+    // When:
+    final SharedSourceRuntime first = runtimes.acquire(source, NO_OVERRIDES, factory);
+    final SharedSourceRuntime second = runtimes.acquire(otherSource, NO_OVERRIDES, factory);
+
+    // Then:
+    assertThat(second, is(not(sameInstance(first))));
+    assertThat(runtimes.numberOfRuntimes(), is(2));
+  }
+
+  @Test
+  public void shouldNotShareRuntimeForDifferentOverrides() {
+    // When:
+    final SharedSourceRuntime first = runtimes.acquire(source, NO_OVERRIDES, factory);
+    final SharedSourceRuntime second =
+        runtimes.acquire(source, ImmutableMap.of("some.prop", 1), factory);
+
+    // Then:
+    assertThat(second, is(not(sameInstance(first))));
+  }
+
+  @Test
+  public void shouldNotCloseRuntimeWhileStillReferenced() {
+    // Given:
+    final SharedSourceRuntime runtime = runtimes.acquire(source, NO_OVERRIDES, factory);
+    runtimes.acquire(source, NO_OVERRIDES, factory);
+
+    // When:
+    runtimes.release(runtime);
+
+    // Then:
+    verify(runtime, never()).close();
+    assertThat(runtimes.numberOfRuntimes(), is(1));
+  }
+
+  @Test
+  public void shouldCloseRuntimeOnLastRelease() {
+    // Given:
+    final SharedSourceRuntime runtime = runtimes.acquire(source, NO_OVERRIDES, factory);
+    runtimes.acquire(source, NO_OVERRIDES, factory);
+
+    // When:
+    runtimes.release(runtime);
+    runtimes.release(runtime);
+
+    // Then:
+    verify(runtime).close();
+    assertThat(runtimes.numberOfRuntimes(), is(0));
+  }
+
+  @Test
+  public void shouldBuildNewRuntimeAfterLastRelease() {
+    // Given:
+    final SharedSourceRuntime first = runtimes.acquire(source, NO_OVERRIDES, factory);
+    runtimes.release(first);
+
+    // When:
+    final SharedSourceRuntime second = runtimes.acquire(source, NO_OVERRIDES, factory);
+
+    // Then:
+    assertThat(second, is(not(sameInstance(first))));
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import io.confluent.ksql.GenericRow;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.kafka.streams.KafkaStreams.State;
+import org.apache.kafka.streams.KafkaStreams.StateListener;
+import org.apache.kafka.streams.KeyValue;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SharedPushQuerySubscriberTest {
+
+  private static final QueryId QUERY_ID = new QueryId("query");
+  private static final GenericRow ROW_ONE = mock(GenericRow.class);
+  private static final GenericRow ROW_TWO = mock(GenericRow.class);
+  private static final GenericRow PROJECTED = mock(GenericRow.class);
+
+  @Mock
+  private StateListener stateListener;
+  @Mock
+  private UncaughtExceptionHandler exceptionHandler;
+
+  private RowRingBuffer queue;
+
+  @Before
+  public void setUp() {
+    queue = new RowRingBuffer(1, QueueOverflowPolicy.DROP_OLDEST);
+  }
+
+  @Test
+  public void shouldQueueTransformedRow() {
+    // Given:
+    final SharedPushQuerySubscriber subscriber =
+        new SharedPushQuerySubscriber(QUERY_ID, (key, row) -> PROJECTED, queue);
+
+    // When:
+    subscriber.accept("key1", ROW_ONE);
+
+    // Then:
+    assertThat(drain(), contains(new KeyValue<>("key1", PROJECTED)));
+  }
+
+  @Test
+  public void shouldNotQueueFilteredRow() {
+    // Given:
+    final SharedPushQuerySubscriber subscriber =
+        new SharedPushQuerySubscriber(QUERY_ID, (key, row) -> null, queue);
+
+    // When:
+    subscriber.accept("key1", ROW_ONE);
+
+    // Then:
+    assertThat(drain(), is(empty()));
+  }
+
+  @Test
+  public void shouldDropOldestRowsRatherThanBlockWhenQueueFull() {
+    // Given:
+    final SharedPushQuerySubscriber subscriber =
+        new SharedPushQuerySubscriber(QUERY_ID, (key, row) -> row, queue);
+
+    // When:
+    subscriber.accept("key1", ROW_ONE);
+    subscriber.accept("key2", ROW_TWO);
+
+    // Then:
+    assertThat(drain(), contains(new KeyValue<>("key2", ROW_TWO)));
+    assertThat(subscriber.getDroppedRows(), is(1L));
+  }
+
+  @Test
+  public void shouldNotThrowIfTransformThrows() {
+    // Given:
+    final SharedPushQuerySubscriber subscriber = new SharedPushQuerySubscriber(
+        QUERY_ID,
+        (key, row) -> {
+          throw new IllegalStateException("boom");
+        },
+        queue
+    );
+
+    // When:
+    subscriber.accept("key1", ROW_ONE);
+
+    // Then:
+    assertThat(drain(), is(empty()));
+  }
+
+  @Test
+  public void shouldForwardStateChanges() {
+    // Given:
+    final SharedPushQuerySubscriber subscriber =
+        new SharedPushQuerySubscriber(QUERY_ID, (key, row) -> row, queue);
+    subscriber.setStateListener(stateListener);
+
+    // When:
+    subscriber.onStateChange(State.RUNNING, State.REBALANCING);
+
+    // Then:
+    verify(stateListener).onChange(State.RUNNING, State.REBALANCING);
+  }
+
+  @Test
+  public void shouldForwardUncaughtExceptions() {
+    // Given:
+    final SharedPushQuerySubscriber subscriber =
+        new SharedPushQuerySubscriber(QUERY_ID, (key, row) -> row, queue);
+    subscriber.setUncaughtExceptionHandler(exceptionHandler);
+    final Exception e = new RuntimeException("boom");
+
+    // When:
+    subscriber.onUncaughtException(Thread.currentThread(), e);
+
+    // Then:
+    verify(exceptionHandler).uncaughtException(Thread.currentThread(), e);
+  }
+
+  private List<KeyValue<String, GenericRow>> drain() {
+    final List<KeyValue<String, GenericRow>> rows = new ArrayList<>();
+    queue.drainTo(rows);
+    return rows;
+  }
+}
@@ -16,6 +16,7 @@
 package io.confluent.ksql.query;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -26,8 +27,9 @@ import static org.mockito.Mockito.verify;
 
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.query.TransientQueryQueue.QueuePopulator;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.OptionalInt;
-import java.util.Queue;
 import java.util.stream.IntStream;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.kstream.KStream;
@@ -53,13 +55,18 @@ public class TransientQueryQueueTest {
   private KStream<String, GenericRow> kStreamsApp;
   @Captor
   private ArgumentCaptor<QueuePopulator<String>> queuePopulatorCaptor;
-  private Queue<KeyValue<String, GenericRow>> queue;
+  private BlockingRowQueue queue;
   private QueuePopulator<String> queuePopulator;
 
   @Before
   public void setUp() {
     final TransientQueryQueue queuer =
-        new TransientQueryQueue(kStreamsApp, OptionalInt.of(SOME_LIMIT));
+        new TransientQueryQueue(
+            kStreamsApp,
+            OptionalInt.of(SOME_LIMIT),
+            100,
+            QueueOverflowPolicy.BLOCK
+        );
 
     queuer.setLimitHandler(limitHandler);
 
@@ -76,11 +83,10 @@ public class TransientQueryQueueTest {
     queuePopulator.apply("key2", ROW_TWO);
 
     // Then:
-    assertThat(queue, hasSize(2));
-    assertThat(queue.peek().key, is("key1"));
-    assertThat(queue.remove().value, is(ROW_ONE));
-    assertThat(queue.peek().key, is("key2"));
-    assertThat(queue.remove().value, is(ROW_TWO));
+    assertThat(drain(), contains(
+        new KeyValue<>("key1", ROW_ONE),
+        new KeyValue<>("key2", ROW_TWO)
+    ));
   }
 
   @Test
@@ -89,7 +95,7 @@ public class TransientQueryQueueTest {
     queuePopulator.apply("key1", null);
 
     // Then:
-    assertThat(queue, is(empty()));
+    assertThat(drain(), is(empty()));
   }
 
   @Test
@@ -99,7 +105,7 @@ public class TransientQueryQueueTest {
         .forEach(idx -> queuePopulator.apply("key1", ROW_ONE));
 
     // Then:
-    assertThat(queue, hasSize(SOME_LIMIT));
+    assertThat(drain(), hasSize(SOME_LIMIT));
   }
 
   @Test
@@ -131,4 +137,10 @@ public class TransientQueryQueueTest {
     // Then:
     verify(limitHandler, times(1)).limitReached();
   }
-}
\ No newline at end of file
+
+  private List<KeyValue<String, GenericRow>> drain() {
+    final List<KeyValue<String, GenericRow>> rows = new ArrayList<>();
+    queue.drainTo(rows);
+    return rows;
+  }
+}
@@ -35,12 +35,18 @@ import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
+import org.apache.kafka.clients.producer.ProducerConfig;
 
 public final class DataGen {
 
+  private static final long REPORT_INTERVAL_SECONDS = 5;
+
   private DataGen() {
   }
 
@@ -57,7 +63,7 @@ public final class DataGen {
     }
   }
 
-  static void run(final String... args) throws Throwable {
+  public static void run(final String... args) throws Throwable {
     final Arguments arguments = new Arguments.Builder()
         .parseArgs(args)
         .build();
@@ -82,9 +88,12 @@ public final class DataGen {
         }
     );
     final CompletionService<Void> service = new ExecutorCompletionService<>(executor);
+    final Optional<ProducerStats> stats = arguments.maxThroughput
+        ? Optional.of(new ProducerStats()) : Optional.empty();
+    final Optional<ScheduledExecutorService> reporter = stats.map(DataGen::startReporting);
 
     for (int i = 0; i < arguments.numThreads; i++) {
-      service.submit(getProducerTask(arguments, dataProducer, props, rateLimiter));
+      service.submit(getProducerTask(arguments, dataProducer, props, rateLimiter, stats));
     }
     for (int i = 0; i < arguments.numThreads; i++) {
       try {
@@ -96,14 +105,49 @@ public final class DataGen {
         throw e.getCause();
       }
     }
+
+    reporter.ifPresent(ExecutorService::shutdownNow);
+    stats.ifPresent(s -> System.out.println(s.report()));
+  }
+
+  private static ScheduledExecutorService startReporting(final ProducerStats stats) {
+    final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+      final Thread thread = new Thread(r);
+      thread.setDaemon(true);
+      return thread;
+    });
+    reporter.scheduleAtFixedRate(
+        () -> System.out.println(stats.report()),
+        REPORT_INTERVAL_SECONDS,
+        REPORT_INTERVAL_SECONDS,
+        TimeUnit.SECONDS
+    );
+    return reporter;
   }
 
   private static Callable<Void> getProducerTask(
       final Arguments arguments,
       final DataGenProducer dataProducer,
       final Properties props,
-      final Optional<RateLimiter> rateLimiter) throws IOException {
+      final Optional<RateLimiter> rateLimiter,
+      final Optional<ProducerStats> stats) throws IOException {
     final Generator generator = new Generator(arguments.schemaFile.get(), new Random());
+    if (stats.isPresent()) {
+      return () -> {
+        dataProducer.populateTopicAtMaxThroughput(
+            props,
+            generator,
+            arguments.topicName,
+            arguments.keyName,
+            arguments.iterations,
+            arguments.poolSize,
+            rateLimiter,
+            stats.get()
+        );
+        return null;
+      };
+    }
+
     return () -> {
       dataProducer.populateTopic(
           props,
@@ -125,6 +169,15 @@ public final class DataGen {
     props.put("client.id", "KSQLDataGenProducer");
     props.put(KsqlConfig.SCHEMA_REGISTRY_URL_PROPERTY, arguments.schemaRegistryUrl);
 
+    if (arguments.maxThroughput) {
+      // Favour throughput over latency; any of these can be overridden in the properties file:
+      props.put(ProducerConfig.LINGER_MS_CONFIG, "10");
+      props.put(ProducerConfig.BATCH_SIZE_CONFIG, String.valueOf(256 * 1024));
+      props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, String.valueOf(128 * 1024 * 1024));
+      props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+      props.put(ProducerConfig.ACKS_CONFIG, "1");
+    }
+
     if (arguments.propertiesFile != null) {
       props.load(arguments.propertiesFile);
     }
@@ -156,6 +209,10 @@ public final class DataGen {
         + "[nThreads=<number of producer threads to start>] " + newLine
         + "[msgRate=<rate to produce in msgs/second>] " + newLine
         + "[printRows=<true|false>]" + newLine
+        + "[maxThroughput=<true|false> (produce pre-generated rows with no interval between "
+            + "them, reporting the achieved rate and latency)] " + newLine
+        + "[poolSize=<number of rows to pre-generate in maxThroughput mode> "
+            + "(defaults to 10000)]" + newLine
     );
   }
 
@@ -176,6 +233,8 @@ public final class DataGen {
     private final int numThreads;
     private final int msgRate;
     private final boolean printRows;
+    private final boolean maxThroughput;
+    private final int poolSize;
 
     // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
     Arguments(
@@ -193,7 +252,9 @@ public final class DataGen {
         final InputStream propertiesFile,
         final int numThreads,
         final int msgRate,
-        final boolean printRows
+        final boolean printRows,
+        final boolean maxThroughput,
+        final int poolSize
     ) {
       // CHECKSTYLE_RULES.ON: ParameterNumberCheck
       this.help = help;
@@ -211,6 +272,8 @@ public final class DataGen {
       this.numThreads = numThreads;
       this.msgRate = msgRate;
       this.printRows = printRows;
+      this.maxThroughput = maxThroughput;
+      this.poolSize = poolSize;
     }
 
     static class ArgumentParseException extends RuntimeException {
@@ -244,6 +307,9 @@ public final class DataGen {
               .put("msgRate", (builder, argVal) -> builder.msgRate = parseInt(argVal, 1))
               .put("nThreads", (builder, argVal) -> builder.numThreads = parseNumThreads(argVal))
               .put("printRows", (builder, argVal) -> builder.printRows = parsePrintRows(argVal))
+              .put("maxThroughput",
+                  (builder, arg) -> builder.maxThroughput = parseBoolean("maxThroughput", arg))
+              .put("poolSize", (builder, argVal) -> builder.poolSize = parseInt(argVal, 1))
               .build();
 
       private Quickstart quickstart;
@@ -263,6 +329,8 @@ public final class DataGen {
       private int msgRate;
       private int numThreads;
       private boolean printRows;
+      private boolean maxThroughput;
+      private int poolSize;
 
       private Builder() {
         quickstart = null;
@@ -281,6 +349,8 @@ public final class DataGen {
         msgRate = -1;
         numThreads = 1;
         printRows = true;
+        maxThroughput = false;
+        poolSize = 10000;
       }
 
       private enum Quickstart {
@@ -341,7 +411,9 @@ public final class DataGen {
               null,
               1,
               -1,
-              true
+              true,
+              false,
+              10000
           );
         }
 
@@ -377,7 +449,9 @@ public final class DataGen {
             propertiesFile,
             numThreads,
             msgRate,
-            printRows
+            printRows,
+            maxThroughput,
+            poolSize
         );
       }
 
@@ -505,15 +579,20 @@ public final class DataGen {
       }
 
       private static boolean parsePrintRows(final String printRowsString) {
-        switch (printRowsString.toLowerCase()) {
+        return parseBoolean("printRows", printRowsString);
+      }
+
+      private static boolean parseBoolean(final String argName, final String argValue) {
+        switch (argValue.toLowerCase()) {
           case "false":
             return false;
           case "true":
             return true;
           default:
             throw new ArgumentParseException(String.format(
-                "Invalid value for printRows in '%s'; must be true or false",
-                printRowsString
+                "Invalid value for %s in '%s'; must be true or false",
+                argName,
+                argValue
             ));
         }
       }
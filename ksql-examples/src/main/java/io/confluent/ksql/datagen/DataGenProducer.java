@@ -22,6 +22,8 @@ import io.confluent.avro.random.generator.Generator;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.util.Pair;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
@@ -31,6 +33,7 @@ import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.connect.data.ConnectSchema;
 import org.apache.kafka.connect.data.Struct;
@@ -40,6 +43,8 @@ public class DataGenProducer {
   // Max 500 ms between messsages.
   public static final long INTER_MESSAGE_MAX_INTERVAL = 500;
 
+  private static final int MAX_PERMITS_PER_ACQUIRE = 1000;
+
   private final SerializerFactory<Struct> keySerializerFactory;
   private final SerializerFactory<GenericRow> valueSerializerFactory;
 
@@ -61,12 +66,7 @@ public class DataGenProducer {
       final boolean printRows,
       final Optional<RateLimiter> rateLimiter
   ) {
-    final Schema avroSchema = generator.schema();
-    if (avroSchema.getField(key) == null) {
-      throw new IllegalArgumentException("Key field does not exist:" + key);
-    }
-
-    final RowGenerator rowGenerator = new RowGenerator(generator, key);
+    final RowGenerator rowGenerator = createRowGenerator(generator, key);
 
     final Serializer<Struct> keySerializer = getKeySerializer();
 
@@ -107,6 +107,88 @@ public class DataGenProducer {
     producer.close();
   }
 
+  /**
+   * Produces rows as fast as possible, or as fast as {@code rateLimiter} permits.
+   *
+   * <p>Rather than generating and serializing each row as it is sent, a pool of {@code poolSize}
+   * rows is generated and serialized up front and then sent in rotation, and the producer never
+   * sleeps between rows. Permits are acquired from the {@code rateLimiter} in small batches, so
+   * that rates of millions of rows per second can be held.
+   */
+  public void populateTopicAtMaxThroughput(
+      final Properties props,
+      final Generator generator,
+      final String kafkaTopicName,
+      final String key,
+      final int messageCount,
+      final int poolSize,
+      final Optional<RateLimiter> rateLimiter,
+      final ProducerStats stats
+  ) {
+    final List<Pair<byte[], byte[]>> pool = generatePool(generator, kafkaTopicName, key, poolSize);
+    final int permitsPerAcquire = rateLimiter
+        .map(limiter -> permitsPerAcquire(limiter.getRate()))
+        .orElse(1);
+
+    final KafkaProducer<byte[], byte[]> producer = new KafkaProducer<>(
+        props,
+        new ByteArraySerializer(),
+        new ByteArraySerializer()
+    );
+
+    for (long i = 0; messageCount == -1 || i < messageCount; i++) {
+      if (rateLimiter.isPresent() && i % permitsPerAcquire == 0) {
+        rateLimiter.get().acquire(permitsPerAcquire);
+      }
+
+      final Pair<byte[], byte[]> row = pool.get((int) (i % pool.size()));
+      producer.send(
+          new ProducerRecord<>(kafkaTopicName, row.getLeft(), row.getRight()),
+          stats.callback()
+      );
+    }
+
+    producer.flush();
+    producer.close();
+  }
+
+  private List<Pair<byte[], byte[]>> generatePool(
+      final Generator generator,
+      final String kafkaTopicName,
+      final String key,
+      final int poolSize
+  ) {
+    final RowGenerator rowGenerator = createRowGenerator(generator, key);
+
+    final Serializer<Struct> keySerializer = getKeySerializer();
+    final Serializer<GenericRow> valueSerializer =
+        getValueSerializer(rowGenerator.schema().valueConnectSchema());
+
+    final List<Pair<byte[], byte[]>> pool = new ArrayList<>(poolSize);
+    for (int i = 0; i < poolSize; i++) {
+      final Pair<Struct, GenericRow> row = rowGenerator.generateRow();
+      pool.add(Pair.of(
+          keySerializer.serialize(kafkaTopicName, row.getLeft()),
+          valueSerializer.serialize(kafkaTopicName, row.getRight())
+      ));
+    }
+    return pool;
+  }
+
+  private static int permitsPerAcquire(final double rate) {
+    // Acquire roughly a millisecond's worth of permits at a time:
+    return (int) Math.max(1, Math.min(MAX_PERMITS_PER_ACQUIRE, rate / 1000));
+  }
+
+  private static RowGenerator createRowGenerator(final Generator generator, final String key) {
+    final Schema avroSchema = generator.schema();
+    if (avroSchema.getField(key) == null) {
+      throw new IllegalArgumentException("Key field does not exist:" + key);
+    }
+
+    return new RowGenerator(generator, key);
+  }
+
   private void produceOne(
       final RowGenerator rowGenerator,
       final KafkaProducer<Struct, GenericRow> producer,
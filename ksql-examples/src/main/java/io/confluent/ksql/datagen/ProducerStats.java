@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.datagen;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.kafka.clients.producer.Callback;
+
+/**
+ * Tracks the rate at which records are acknowledged, and the latency from send to acknowledgement,
+ * across all the producers of a DataGen run.
+ */
+public final class ProducerStats {
+
+  private final Ticker ticker;
+  private final long startNanos;
+  private final LongAdder acked = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder latencyNanos = new LongAdder();
+  private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+  private long lastReportNanos;
+  private long lastReportAcked;
+
+  public ProducerStats() {
+    this(Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  ProducerStats(final Ticker ticker) {
+    this.ticker = ticker;
+    this.startNanos = ticker.read();
+    this.lastReportNanos = startNanos;
+  }
+
+  /**
+   * @return a callback to pass with a record being sent now, which records its acknowledgement.
+   */
+  public Callback callback() {
+    final long sentNanos = ticker.read();
+    return (metadata, e) -> {
+      if (e != null) {
+        failed.increment();
+        return;
+      }
+
+      final long latency = ticker.read() - sentNanos;
+      acked.increment();
+      latencyNanos.add(latency);
+      maxLatencyNanos.accumulate(latency);
+    };
+  }
+
+  /**
+   * @return a line reporting the rate achieved since the last report, and since the start.
+   */
+  public synchronized String report() {
+    final long now = ticker.read();
+    final long totalAcked = acked.sum();
+
+    final String report = String.format(
+        "acked=%d failed=%d rate=%.0f msgs/s (overall %.0f msgs/s) "
+            + "latency avg=%.3f ms max=%.3f ms",
+        totalAcked,
+        failed.sum(),
+        rate(totalAcked - lastReportAcked, now - lastReportNanos),
+        rate(totalAcked, now - startNanos),
+        totalAcked == 0 ? 0.0 : millis(latencyNanos.sum() / totalAcked),
+        millis(maxLatencyNanos.get())
+    );
+
+    lastReportNanos = now;
+    lastReportAcked = totalAcked;
+    return report;
+  }
+
+  @VisibleForTesting
+  long acked() {
+    return acked.sum();
+  }
+
+  @VisibleForTesting
+  long failed() {
+    return failed.sum();
+  }
+
+  private static double rate(final long count, final long nanos) {
+    return nanos <= 0 ? 0.0 : count * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+  }
+
+  private static double millis(final long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+}
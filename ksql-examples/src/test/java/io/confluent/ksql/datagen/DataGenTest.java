@@ -21,6 +21,7 @@ import static org.hamcrest.Matchers.containsString;
 
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.Properties;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -84,13 +85,52 @@ public class DataGenTest {
         null,
         1,
         -1,
-        true
+        true,
+        false,
+        10000
     );
 
     final Properties props = DataGen.getProperties(args);
     assertThat(props.getProperty(KsqlConfig.SCHEMA_REGISTRY_URL_PROPERTY), equalTo("srUrl"));
   }
 
+  @Test
+  public void shouldTuneProducerForMaxThroughput() throws Exception {
+    final DataGen.Arguments args = new DataGen.Arguments(
+        false,
+        "bootstrap",
+        null,
+        null,
+        null,
+        null,
+        "topic",
+        "key",
+        0,
+        0L,
+        "srUrl",
+        null,
+        1,
+        -1,
+        true,
+        true,
+        10000
+    );
+
+    final Properties props = DataGen.getProperties(args);
+    assertThat(props.getProperty(ProducerConfig.LINGER_MS_CONFIG), equalTo("10"));
+    assertThat(props.getProperty(ProducerConfig.COMPRESSION_TYPE_CONFIG), equalTo("lz4"));
+  }
+
+  @Test(expected = DataGen.Arguments.ArgumentParseException.class)
+  public void shouldThrowOnInvalidMaxThroughput() throws Throwable {
+    DataGen.run(
+        "schema=./src/main/resources/purchase.avro",
+        "key=id",
+        "format=json",
+        "topic=foo",
+        "maxThroughput=sometimes");
+  }
+
   @Test(expected = DataGen.Arguments.ArgumentParseException.class)
   public void valueDelimiterCanOnlyBeSingleCharacter() throws Throwable {
     DataGen.run(
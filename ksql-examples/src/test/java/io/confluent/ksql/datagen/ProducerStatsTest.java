@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.datagen;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+
+import com.google.common.base.Ticker;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.clients.producer.Callback;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProducerStatsTest {
+
+  private final AtomicLong nanos = new AtomicLong();
+  private ProducerStats stats;
+
+  @Before
+  public void setUp() {
+    stats = new ProducerStats(new Ticker() {
+      @Override
+      public long read() {
+        return nanos.get();
+      }
+    });
+  }
+
+  @Test
+  public void shouldCountAckedAndFailedRecords() {
+    // Given:
+    final Callback acked = stats.callback();
+    final Callback failed = stats.callback();
+
+    // When:
+    acked.onCompletion(null, null);
+    failed.onCompletion(null, new RuntimeException("Boom"));
+
+    // Then:
+    assertThat(stats.acked(), is(1L));
+    assertThat(stats.failed(), is(1L));
+  }
+
+  @Test
+  public void shouldReportRateAndLatency() {
+    // Given:
+    final Callback first = stats.callback();
+    final Callback second = stats.callback();
+    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(2));
+    first.onCompletion(null, null);
+    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(2));
+    second.onCompletion(null, null);
+    nanos.set(TimeUnit.SECONDS.toNanos(1));
+
+    // When:
+    final String report = stats.report();
+
+    // Then:
+    assertThat(report, containsString("acked=2 failed=0 rate=2 msgs/s (overall 2 msgs/s)"));
+    assertThat(report, containsString("latency avg=3.000 ms max=4.000 ms"));
+  }
+
+  @Test
+  public void shouldReportRateSinceLastReport() {
+    // Given:
+    stats.callback().onCompletion(null, null);
+    nanos.set(TimeUnit.SECONDS.toNanos(1));
+    stats.report();
+
+    // When:
+    nanos.set(TimeUnit.SECONDS.toNanos(2));
+    final String report = stats.report();
+
+    // Then:
+    assertThat(report, containsString("rate=0 msgs/s (overall 1 msgs/s)"));
+  }
+}
@@ -23,6 +23,8 @@ import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.context.QueryLoggerUtil;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.metrics.QueryStepMetrics;
+import io.confluent.ksql.metrics.StepTimer;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
@@ -37,6 +39,7 @@ import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.QuerySchemas;
 import java.util.LinkedHashMap;
+import java.util.Optional;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.StreamsBuilder;
@@ -184,7 +187,7 @@ public final class KsqlQueryBuilder {
 
     track(loggerNamePrefix, schema.valueSchema());
 
-    return valueSerdeFactory.create(
+    final Serde<GenericRow> serde = valueSerdeFactory.create(
         format,
         schema.valueSchema(),
         ksqlConfig,
@@ -192,6 +195,35 @@ public final class KsqlQueryBuilder {
         loggerNamePrefix,
         processingLogContext
     );
+
+    final QueryContext.Stacker stacker = QueryContext.Stacker.of(queryContext);
+    final Optional<StepTimer> serializeTimer =
+        buildStepTimer(stacker.push("serialize").getQueryContext());
+    final Optional<StepTimer> deserializeTimer =
+        buildStepTimer(stacker.push("deserialize").getQueryContext());
+
+    if (!serializeTimer.isPresent() || !deserializeTimer.isPresent()) {
+      return serde;
+    }
+
+    return new TimedSerde<>(serde, serializeTimer.get(), deserializeTimer.get());
+  }
+
+  /**
+   * Build the timer of a step of the query, if step metrics are enabled.
+   *
+   * @param queryContext the context of the step, which names it.
+   * @return the timer, or empty if step metrics are disabled.
+   */
+  public Optional<StepTimer> buildStepTimer(final QueryContext queryContext) {
+    final int sampleInterval =
+        ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_STEP_METRICS_SAMPLE_INTERVAL_CONFIG);
+    if (sampleInterval <= 0) {
+      return Optional.empty();
+    }
+
+    final String step = String.join("/", queryContext.getContext());
+    return Optional.of(QueryStepMetrics.getTimer(queryId, step, sampleInterval));
   }
 
   private void track(final String loggerNamePrefix, final PersistenceSchema schema) {
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.builder;
+
+import io.confluent.ksql.metrics.StepTimer;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Serde that times the serializer and deserializer of another serde.
+ */
+final class TimedSerde<T> implements Serde<T> {
+
+  private final Serde<T> inner;
+  private final Serializer<T> serializer;
+  private final Deserializer<T> deserializer;
+
+  TimedSerde(
+      final Serde<T> inner,
+      final StepTimer serializeTimer,
+      final StepTimer deserializeTimer
+  ) {
+    this.inner = Objects.requireNonNull(inner, "inner");
+    this.serializer = new TimedSerializer<>(inner.serializer(), serializeTimer);
+    this.deserializer = new TimedDeserializer<>(inner.deserializer(), deserializeTimer);
+  }
+
+  @Override
+  public void configure(final Map<String, ?> configs, final boolean isKey) {
+    inner.configure(configs, isKey);
+  }
+
+  @Override
+  public void close() {
+    inner.close();
+  }
+
+  @Override
+  public Serializer<T> serializer() {
+    return serializer;
+  }
+
+  @Override
+  public Deserializer<T> deserializer() {
+    return deserializer;
+  }
+
+  private static final class TimedSerializer<T> implements Serializer<T> {
+
+    private final Serializer<T> inner;
+    private final StepTimer timer;
+
+    TimedSerializer(final Serializer<T> inner, final StepTimer timer) {
+      this.inner = Objects.requireNonNull(inner, "inner");
+      this.timer = Objects.requireNonNull(timer, "timer");
+    }
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+      inner.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final T data) {
+      final long start = timer.start();
+      try {
+        return inner.serialize(topic, data);
+      } finally {
+        timer.stop(start);
+      }
+    }
+
+    @Override
+    public void close() {
+      inner.close();
+    }
+  }
+
+  private static final class TimedDeserializer<T> implements Deserializer<T> {
+
+    private final Deserializer<T> inner;
+    private final StepTimer timer;
+
+    TimedDeserializer(final Deserializer<T> inner, final StepTimer timer) {
+      this.inner = Objects.requireNonNull(inner, "inner");
+      this.timer = Objects.requireNonNull(timer, "timer");
+    }
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+      inner.configure(configs, isKey);
+    }
+
+    @Override
+    public T deserialize(final String topic, final byte[] data) {
+      final long start = timer.start();
+      try {
+        return inner.deserialize(topic, data);
+      } finally {
+        timer.stop(start);
+      }
+    }
+
+    @Override
+    public void close() {
+      inner.close();
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.confluent.ksql.execution.function;
+
+import io.confluent.ksql.function.KsqlAggregateFunction;
+
+/**
+ * An aggregate function whose aggregate is a single, possibly null, {@code double}.
+ *
+ * @see LongAggregationFunction
+ */
+public interface DoubleAggregationFunction<I, A, O> extends KsqlAggregateFunction<I, A, O> {
+
+  /**
+   * @param value the non-null argument.
+   * @return the value to pass to {@link #aggregateDouble}.
+   */
+  double toDouble(I value);
+
+  /**
+   * Aggregates a value into the aggregate.
+   *
+   * <p>Also used to merge two aggregates, e.g. of session windows.
+   */
+  double aggregateDouble(double value, double aggregate);
+
+  /**
+   * @return the aggregate as an instance of the aggregate type.
+   */
+  A fromDouble(double aggregate);
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.confluent.ksql.execution.function;
+
+import io.confluent.ksql.function.KsqlAggregateFunction;
+
+/**
+ * An aggregate function whose aggregate is a single, possibly null, {@code long}.
+ *
+ * <p>Aggregations can hold such an aggregate in a mutable primitive slot, which is updated
+ * without boxing. A null argument never changes the aggregate, and the first non-null argument
+ * of a null aggregate becomes the aggregate.
+ */
+public interface LongAggregationFunction<I, A, O> extends KsqlAggregateFunction<I, A, O> {
+
+  /**
+   * @param value the non-null argument.
+   * @return the value to pass to {@link #aggregateLong}.
+   */
+  long toLong(I value);
+
+  /**
+   * Aggregates a value into the aggregate.
+   *
+   * <p>Also used to merge two aggregates, e.g. of session windows.
+   */
+  long aggregateLong(long value, long aggregate);
+
+  /**
+   * @return the aggregate as an instance of the aggregate type.
+   */
+  A fromLong(long aggregate);
+}
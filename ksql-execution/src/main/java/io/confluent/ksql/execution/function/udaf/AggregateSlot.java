@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.confluent.ksql.execution.function.udaf;
+
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import java.nio.ByteBuffer;
+
+/**
+ * A mutable, possibly null, primitive aggregate held in an aggregate row in place of the boxed
+ * aggregate of a primitive-specialized function.
+ *
+ * @see PrimitiveAggregates
+ */
+interface AggregateSlot {
+
+  /**
+   * The number of bytes {@link #writeTo} writes.
+   */
+  int SIZE = 1 + Long.BYTES;
+
+  /**
+   * Aggregate the {@code value}, which may be null, into the slot.
+   */
+  void aggregate(KsqlAggregateFunction<?, ?, ?> function, Object value);
+
+  /**
+   * @return a new slot holding the merge of this and the {@code other} slot.
+   */
+  AggregateSlot merge(KsqlAggregateFunction<?, ?, ?> function, AggregateSlot other);
+
+  /**
+   * @return the aggregate as an instance of the function's aggregate type, or null.
+   */
+  Object get(KsqlAggregateFunction<?, ?, ?> function);
+
+  /**
+   * @param aggregate the new aggregate, of the function's aggregate type, or null.
+   */
+  void set(Object aggregate);
+
+  /**
+   * Write the slot as a null flag followed by eight bytes of value.
+   */
+  void writeTo(ByteBuffer buffer);
+}
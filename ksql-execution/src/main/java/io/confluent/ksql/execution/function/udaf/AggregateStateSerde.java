@@ -0,0 +1,173 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.confluent.ksql.execution.function.udaf;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.function.udaf.PrimitiveAggregates.Slot;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Serde of aggregate rows that hold primitive aggregates in {@link AggregateSlot}s.
+ *
+ * <p>The layout is the length of the rest of the row, the rest of the row as serialized by the
+ * inner serde, with null in place of each slot, and then each slot's null flag and eight byte
+ * value, in column order.
+ */
+final class AggregateStateSerde implements Serde<GenericRow> {
+
+  private final Serde<GenericRow> inner;
+  private final ImmutableList<Slot> slots;
+
+  AggregateStateSerde(final Serde<GenericRow> inner, final List<Slot> slots) {
+    this.inner = Objects.requireNonNull(inner, "inner");
+    this.slots = ImmutableList.copyOf(Objects.requireNonNull(slots, "slots"));
+  }
+
+  @Override
+  public void configure(final Map<String, ?> configs, final boolean isKey) {
+    inner.configure(configs, isKey);
+  }
+
+  @Override
+  public void close() {
+    inner.close();
+  }
+
+  @Override
+  public Serializer<GenericRow> serializer() {
+    return new StateSerializer(inner.serializer(), slots);
+  }
+
+  @Override
+  public Deserializer<GenericRow> deserializer() {
+    return new StateDeserializer(inner.deserializer(), slots);
+  }
+
+  private static final class StateSerializer implements Serializer<GenericRow> {
+
+    private final Serializer<GenericRow> inner;
+    private final ImmutableList<Slot> slots;
+
+    StateSerializer(final Serializer<GenericRow> inner, final ImmutableList<Slot> slots) {
+      this.inner = Objects.requireNonNull(inner, "inner");
+      this.slots = slots;
+    }
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+      inner.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final GenericRow row) {
+      if (row == null) {
+        return null;
+      }
+
+      final List<Object> columns = new ArrayList<>(row.getColumns());
+      for (final Slot slot : slots) {
+        columns.set(slot.column, null);
+      }
+
+      final byte[] rest = inner.serialize(topic, new GenericRow(columns));
+      final ByteBuffer buffer = ByteBuffer
+          .allocate(Integer.BYTES + rest.length + slots.size() * AggregateSlot.SIZE);
+
+      buffer.putInt(rest.length);
+      buffer.put(rest);
+
+      for (final Slot slot : slots) {
+        final Object aggregate = row.getColumns().get(slot.column);
+        if (!(aggregate instanceof AggregateSlot)) {
+          throw new SerializationException("Expected primitive aggregate in column "
+              + slot.column + ", got: " + aggregate);
+        }
+        ((AggregateSlot) aggregate).writeTo(buffer);
+      }
+
+      return buffer.array();
+    }
+
+    @Override
+    public void close() {
+      inner.close();
+    }
+  }
+
+  private static final class StateDeserializer implements Deserializer<GenericRow> {
+
+    private final Deserializer<GenericRow> inner;
+    private final ImmutableList<Slot> slots;
+
+    StateDeserializer(final Deserializer<GenericRow> inner, final ImmutableList<Slot> slots) {
+      this.inner = Objects.requireNonNull(inner, "inner");
+      this.slots = slots;
+    }
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+      inner.configure(configs, isKey);
+    }
+
+    @Override
+    public GenericRow deserialize(final String topic, final byte[] bytes) {
+      if (bytes == null) {
+        return null;
+      }
+
+      final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      final int restStart = Integer.BYTES;
+      final List<AggregateSlot> aggregates = new ArrayList<>(slots.size());
+      final int restLength;
+      try {
+        restLength = buffer.getInt();
+        buffer.position(restStart + restLength);
+        for (final Slot slot : slots) {
+          aggregates.add(slot.isDouble ? DoubleSlot.readFrom(buffer) : LongSlot.readFrom(buffer));
+        }
+      } catch (final BufferUnderflowException | IllegalArgumentException e) {
+        throw new SerializationException("Invalid aggregate state", e);
+      }
+
+      final GenericRow row = inner.deserialize(
+          topic,
+          Arrays.copyOfRange(bytes, restStart, restStart + restLength)
+      );
+
+      for (int i = 0; i < slots.size(); i++) {
+        row.getColumns().set(slots.get(i).column, aggregates.get(i));
+      }
+      return row;
+    }
+
+    @Override
+    public void close() {
+      inner.close();
+    }
+  }
+}
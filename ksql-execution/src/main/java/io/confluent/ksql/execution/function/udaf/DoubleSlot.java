@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.confluent.ksql.execution.function.udaf;
+
+import io.confluent.ksql.execution.function.DoubleAggregationFunction;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import java.nio.ByteBuffer;
+
+/**
+ * Slot holding the aggregate of a {@link DoubleAggregationFunction}.
+ */
+final class DoubleSlot implements AggregateSlot {
+
+  private boolean isNull;
+  private double value;
+
+  static DoubleSlot of(final Object aggregate) {
+    final DoubleSlot slot = new DoubleSlot(true, 0.0);
+    slot.set(aggregate);
+    return slot;
+  }
+
+  static DoubleSlot readFrom(final ByteBuffer buffer) {
+    final boolean isNull = buffer.get() == 0;
+    return new DoubleSlot(isNull, Double.longBitsToDouble(buffer.getLong()));
+  }
+
+  private DoubleSlot(final boolean isNull, final double value) {
+    this.isNull = isNull;
+    this.value = value;
+  }
+
+  @Override
+  public void aggregate(final KsqlAggregateFunction<?, ?, ?> function, final Object arg) {
+    if (arg == null) {
+      return;
+    }
+
+    final DoubleAggregationFunction<Object, ?, ?> fn = cast(function);
+    final double argValue = fn.toDouble(arg);
+    if (isNull) {
+      value = argValue;
+      isNull = false;
+    } else {
+      value = fn.aggregateDouble(argValue, value);
+    }
+  }
+
+  @Override
+  public AggregateSlot merge(
+      final KsqlAggregateFunction<?, ?, ?> function,
+      final AggregateSlot other
+  ) {
+    final DoubleSlot that = (DoubleSlot) other;
+    if (isNull) {
+      return new DoubleSlot(that.isNull, that.value);
+    }
+    if (that.isNull) {
+      return new DoubleSlot(false, value);
+    }
+    return new DoubleSlot(false, cast(function).aggregateDouble(that.value, value));
+  }
+
+  @Override
+  public Object get(final KsqlAggregateFunction<?, ?, ?> function) {
+    return isNull ? null : cast(function).fromDouble(value);
+  }
+
+  @Override
+  public void set(final Object aggregate) {
+    isNull = aggregate == null;
+    value = isNull ? 0.0 : ((Number) aggregate).doubleValue();
+  }
+
+  @Override
+  public void writeTo(final ByteBuffer buffer) {
+    buffer.put(isNull ? (byte) 0 : (byte) 1);
+    buffer.putLong(Double.doubleToLongBits(value));
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final DoubleSlot that = (DoubleSlot) o;
+    return isNull == that.isNull
+        && Double.compare(value, that.value) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return isNull ? 0 : Double.hashCode(value);
+  }
+
+  @Override
+  public String toString() {
+    return isNull ? "null" : String.valueOf(value);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static DoubleAggregationFunction<Object, ?, ?> cast(
+      final KsqlAggregateFunction<?, ?, ?> function
+  ) {
+    return (DoubleAggregationFunction<Object, ?, ?>) function;
+  }
+}
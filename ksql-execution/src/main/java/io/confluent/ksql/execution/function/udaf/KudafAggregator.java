@@ -61,6 +61,12 @@ public class KudafAggregator implements UdafAggregator {
       final KsqlAggregateFunction function = aggregateFunctionForColumn(idx);
       final Object currentValue = rowValue.getColumns().get(function.getArgIndexInValue());
       final Object currentAggregate = aggRowValue.getColumns().get(idx);
+      if (currentAggregate instanceof AggregateSlot) {
+        // Primitive aggregates are updated in place:
+        ((AggregateSlot) currentAggregate).aggregate(function, currentValue);
+        continue;
+      }
+
       final Object newAggregate = function.aggregate(currentValue, currentAggregate);
       aggRowValue.getColumns().set(idx, newAggregate);
     }
@@ -81,7 +87,7 @@ public class KudafAggregator implements UdafAggregator {
       for (int idx = initialUdafIndex; idx < columnCount; idx++) {
         final KsqlAggregateFunction function = aggregateFunctionForColumn(idx);
         final Object agg = aggRow.getColumns().get(idx);
-        final Object reduced = function.getResultMapper().apply(agg);
+        final Object reduced = function.getResultMapper().apply(unslot(function, agg));
         columns.add(idx, reduced);
       }
 
@@ -108,7 +114,9 @@ public class KudafAggregator implements UdafAggregator {
         final KsqlAggregateFunction function = aggregateFunctionForColumn(idx);
         final Object aggOne = aggRowOne.getColumns().get(idx);
         final Object aggTwo = aggRowTwo.getColumns().get(idx);
-        final Object merged = function.getMerger().apply(key, aggOne, aggTwo);
+        final Object merged = aggOne instanceof AggregateSlot
+            ? ((AggregateSlot) aggOne).merge(function, (AggregateSlot) aggTwo)
+            : function.getMerger().apply(key, aggOne, aggTwo);
         columns.add(idx, merged);
       }
 
@@ -119,4 +127,10 @@ public class KudafAggregator implements UdafAggregator {
   private KsqlAggregateFunction aggregateFunctionForColumn(final int columnIndex) {
     return aggregateFunctions.get(columnIndex - initialUdafIndex);
   }
+
+  private static Object unslot(final KsqlAggregateFunction<?, ?, ?> function, final Object agg) {
+    return agg instanceof AggregateSlot
+        ? ((AggregateSlot) agg).get(function)
+        : agg;
+  }
 }
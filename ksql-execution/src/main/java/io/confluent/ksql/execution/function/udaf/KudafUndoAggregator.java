@@ -48,7 +48,12 @@ public class KudafUndoAggregator implements Aggregator<Struct, GenericRow, Gener
     for (final TableAggregationFunction function : aggregateFunctions) {
       final Object argument = rowValue.getColumns().get(function.getArgIndexInValue());
       final Object previous = aggRowValue.getColumns().get(idx);
-      aggRowValue.getColumns().set(idx, function.undo(argument, previous));
+      if (previous instanceof AggregateSlot) {
+        final AggregateSlot slot = (AggregateSlot) previous;
+        slot.set(function.undo(argument, slot.get(function)));
+      } else {
+        aggRowValue.getColumns().set(idx, function.undo(argument, previous));
+      }
       idx++;
     }
 
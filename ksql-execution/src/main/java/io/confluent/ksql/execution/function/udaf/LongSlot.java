@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.confluent.ksql.execution.function.udaf;
+
+import io.confluent.ksql.execution.function.LongAggregationFunction;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import java.nio.ByteBuffer;
+
+/**
+ * Slot holding the aggregate of a {@link LongAggregationFunction}.
+ */
+final class LongSlot implements AggregateSlot {
+
+  private boolean isNull;
+  private long value;
+
+  static LongSlot of(final Object aggregate) {
+    final LongSlot slot = new LongSlot(true, 0L);
+    slot.set(aggregate);
+    return slot;
+  }
+
+  static LongSlot readFrom(final ByteBuffer buffer) {
+    final boolean isNull = buffer.get() == 0;
+    return new LongSlot(isNull, buffer.getLong());
+  }
+
+  private LongSlot(final boolean isNull, final long value) {
+    this.isNull = isNull;
+    this.value = value;
+  }
+
+  @Override
+  public void aggregate(final KsqlAggregateFunction<?, ?, ?> function, final Object arg) {
+    if (arg == null) {
+      return;
+    }
+
+    final LongAggregationFunction<Object, ?, ?> fn = cast(function);
+    final long argValue = fn.toLong(arg);
+    if (isNull) {
+      value = argValue;
+      isNull = false;
+    } else {
+      value = fn.aggregateLong(argValue, value);
+    }
+  }
+
+  @Override
+  public AggregateSlot merge(
+      final KsqlAggregateFunction<?, ?, ?> function,
+      final AggregateSlot other
+  ) {
+    final LongSlot that = (LongSlot) other;
+    if (isNull) {
+      return new LongSlot(that.isNull, that.value);
+    }
+    if (that.isNull) {
+      return new LongSlot(false, value);
+    }
+    return new LongSlot(false, cast(function).aggregateLong(that.value, value));
+  }
+
+  @Override
+  public Object get(final KsqlAggregateFunction<?, ?, ?> function) {
+    return isNull ? null : cast(function).fromLong(value);
+  }
+
+  @Override
+  public void set(final Object aggregate) {
+    isNull = aggregate == null;
+    value = isNull ? 0L : ((Number) aggregate).longValue();
+  }
+
+  @Override
+  public void writeTo(final ByteBuffer buffer) {
+    buffer.put(isNull ? (byte) 0 : (byte) 1);
+    buffer.putLong(value);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final LongSlot that = (LongSlot) o;
+    return isNull == that.isNull
+        && value == that.value;
+  }
+
+  @Override
+  public int hashCode() {
+    return isNull ? 0 : Long.hashCode(value);
+  }
+
+  @Override
+  public String toString() {
+    return isNull ? "null" : String.valueOf(value);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static LongAggregationFunction<Object, ?, ?> cast(
+      final KsqlAggregateFunction<?, ?, ?> function
+  ) {
+    return (LongAggregationFunction<Object, ?, ?>) function;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.confluent.ksql.execution.function.udaf;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.function.DoubleAggregationFunction;
+import io.confluent.ksql.execution.function.LongAggregationFunction;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import java.util.List;
+import java.util.Objects;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.streams.kstream.Initializer;
+
+/**
+ * The aggregates of an aggregation that are computed by primitive-specialized functions, i.e.
+ * by {@link LongAggregationFunction}s and {@link DoubleAggregationFunction}s.
+ *
+ * <p>Aggregate rows created by the {@link #initializer} hold each of these aggregates in a
+ * mutable primitive slot, which {@link KudafAggregator} updates in place. The {@link #serde}
+ * stores the slots in a fixed binary layout after the rest of the row, so that reading and
+ * writing the state of the aggregation does not box them either.
+ */
+public final class PrimitiveAggregates {
+
+  private final ImmutableList<Slot> slots;
+
+  public PrimitiveAggregates(
+      final int initialUdafIndex,
+      final List<KsqlAggregateFunction<?, ?, ?>> functions
+  ) {
+    Objects.requireNonNull(functions, "functions");
+
+    final ImmutableList.Builder<Slot> builder = ImmutableList.builder();
+    for (int i = 0; i < functions.size(); i++) {
+      final KsqlAggregateFunction<?, ?, ?> function = functions.get(i);
+      if (function instanceof LongAggregationFunction) {
+        builder.add(new Slot(initialUdafIndex + i, false));
+      } else if (function instanceof DoubleAggregationFunction) {
+        builder.add(new Slot(initialUdafIndex + i, true));
+      }
+    }
+    this.slots = builder.build();
+  }
+
+  /**
+   * @return {@code true} if none of the functions are primitive-specialized.
+   */
+  public boolean isEmpty() {
+    return slots.isEmpty();
+  }
+
+  /**
+   * @param initializer the initializer of the aggregation.
+   * @return an initializer whose rows hold the initial primitive aggregates in slots.
+   */
+  public Initializer<GenericRow> initializer(final Initializer<GenericRow> initializer) {
+    Objects.requireNonNull(initializer, "initializer");
+    if (slots.isEmpty()) {
+      return initializer;
+    }
+
+    return () -> {
+      final GenericRow row = initializer.apply();
+      final List<Object> columns = row.getColumns();
+      for (final Slot slot : slots) {
+        final Object initial = columns.get(slot.column);
+        columns.set(slot.column, slot.isDouble ? DoubleSlot.of(initial) : LongSlot.of(initial));
+      }
+      return row;
+    };
+  }
+
+  /**
+   * @param serde the serde of the aggregate rows.
+   * @return a serde for aggregate rows whose primitive aggregates are held in slots.
+   */
+  public Serde<GenericRow> serde(final Serde<GenericRow> serde) {
+    Objects.requireNonNull(serde, "serde");
+    if (slots.isEmpty()) {
+      return serde;
+    }
+    return new AggregateStateSerde(serde, slots);
+  }
+
+  static final class Slot {
+
+    final int column;
+    final boolean isDouble;
+
+    Slot(final int column, final boolean isDouble) {
+      this.column = column;
+      this.isDouble = isDouble;
+    }
+  }
+}
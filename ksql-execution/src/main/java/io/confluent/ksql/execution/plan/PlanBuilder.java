@@ -51,6 +51,8 @@ public interface PlanBuilder {
 
   <K> KStreamHolder<K> visitStreamTableJoin(StreamTableJoin<K> streamTableJoin);
 
+  <K> KStreamHolder<K> visitStreamGlobalTableJoin(StreamGlobalTableJoin<K> streamGlobalTableJoin);
+
   <K> KTableHolder<K> visitStreamToTable(StreamToTable<K> streamToTable);
 
   KTableHolder<Windowed<Struct>> visitStreamWindowedAggregate(
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.plan;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.annotations.Immutable;
+import io.confluent.ksql.schema.ksql.ColumnRef;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A join of a stream to a table that is read, in full, by every instance of the query, i.e. a
+ * {@code GlobalKTable}. Each stream row is joined to the table row whose key matches the stream's
+ * join column, so the stream need not be repartitioned by, nor co-partitioned with, the table.
+ *
+ * <p>The table is described by the {@link StreamSource} of its topic, which is not built as a
+ * stream in its own right.
+ */
+@Immutable
+public class StreamGlobalTableJoin<K> implements ExecutionStep<KStreamHolder<K>> {
+
+  private final ExecutionStepProperties properties;
+  private final JoinType joinType;
+  private final Formats formats;
+  private final ExecutionStep<KStreamHolder<K>> left;
+  private final StreamSource right;
+  private final ColumnRef leftJoinColumn;
+
+  public StreamGlobalTableJoin(
+      final ExecutionStepProperties properties,
+      final JoinType joinType,
+      final Formats formats,
+      final ExecutionStep<KStreamHolder<K>> left,
+      final StreamSource right,
+      final ColumnRef leftJoinColumn) {
+    this.properties = Objects.requireNonNull(properties, "properties");
+    this.joinType = Objects.requireNonNull(joinType, "joinType");
+    this.formats = Objects.requireNonNull(formats, "formats");
+    this.left = Objects.requireNonNull(left, "left");
+    this.right = Objects.requireNonNull(right, "right");
+    this.leftJoinColumn = Objects.requireNonNull(leftJoinColumn, "leftJoinColumn");
+  }
+
+  @Override
+  public ExecutionStepProperties getProperties() {
+    return properties;
+  }
+
+  @Override
+  public List<ExecutionStep<?>> getSources() {
+    return ImmutableList.of(left, right);
+  }
+
+  public Formats getFormats() {
+    return formats;
+  }
+
+  public ExecutionStep<KStreamHolder<K>> getLeft() {
+    return left;
+  }
+
+  public StreamSource getRight() {
+    return right;
+  }
+
+  public JoinType getJoinType() {
+    return joinType;
+  }
+
+  public ColumnRef getLeftJoinColumn() {
+    return leftJoinColumn;
+  }
+
+  @Override
+  public KStreamHolder<K> build(final PlanBuilder builder) {
+    return builder.visitStreamGlobalTableJoin(this);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final StreamGlobalTableJoin<?> that = (StreamGlobalTableJoin<?>) o;
+    return Objects.equals(properties, that.properties)
+        && joinType == that.joinType
+        && Objects.equals(formats, that.formats)
+        && Objects.equals(left, that.left)
+        && Objects.equals(right, that.right)
+        && Objects.equals(leftJoinColumn, that.leftJoinColumn);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(properties, joinType, formats, left, right, leftJoinColumn);
+  }
+}
@@ -18,6 +18,7 @@ package io.confluent.ksql.services;
 import io.confluent.ksql.rest.client.RestResponse;
 import io.confluent.ksql.rest.entity.KsqlEntityList;
 import java.net.URI;
+import java.util.Map;
 
 /**
  * A KSQL client implementation for use when communication with other nodes is not supported.
@@ -38,5 +39,14 @@ public final class DisabledKsqlClient implements SimpleKsqlClient {
   ) {
     throw new UnsupportedOperationException("KSQL client is disabled");
   }
+
+  @Override
+  public RestResponse<KsqlEntityList> makeKsqlRequest(
+      final URI serverEndPoint,
+      final String sql,
+      final Map<String, ?> requestProperties
+  ) {
+    throw new UnsupportedOperationException("KSQL client is disabled");
+  }
 }
 
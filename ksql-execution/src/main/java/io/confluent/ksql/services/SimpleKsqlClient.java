@@ -18,6 +18,7 @@ package io.confluent.ksql.services;
 import io.confluent.ksql.rest.client.RestResponse;
 import io.confluent.ksql.rest.entity.KsqlEntityList;
 import java.net.URI;
+import java.util.Map;
 import javax.annotation.concurrent.ThreadSafe;
 
 @ThreadSafe
@@ -27,4 +28,14 @@ public interface SimpleKsqlClient {
       URI serverEndPoint,
       String sql
   );
+
+  /**
+   * Makes a request to the supplied server with the supplied request properties, e.g. property
+   * overrides the request was received with, if it is being forwarded.
+   */
+  RestResponse<KsqlEntityList> makeKsqlRequest(
+      URI serverEndPoint,
+      String sql,
+      Map<String, ?> requestProperties
+  );
 }
@@ -16,7 +16,9 @@
 package io.confluent.ksql.execution.builder;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -30,6 +32,7 @@ import io.confluent.ksql.execution.context.QueryContext.Stacker;
 import io.confluent.ksql.execution.context.QueryLoggerUtil;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.metrics.QueryStepMetrics;
 import io.confluent.ksql.model.WindowType;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.query.QueryId;
@@ -48,10 +51,13 @@ import io.confluent.ksql.util.KsqlConfig;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.function.Supplier;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.kstream.Windowed;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -99,6 +105,10 @@ public class KsqlQueryBuilderTest {
   private KeySerdeFactory keySerdeFactory;
   @Mock
   private ValueSerdeFactory valueSerdeFactory;
+  @Mock
+  private Serializer<GenericRow> serializer;
+  @Mock
+  private Deserializer<GenericRow> deserializer;
   private QueryContext queryContext;
   private KsqlQueryBuilder ksqlQueryBuilder;
 
@@ -130,6 +140,11 @@ public class KsqlQueryBuilderTest {
     );
   }
 
+  @After
+  public void tearDown() {
+    QueryStepMetrics.remove(QUERY_ID);
+  }
+
   @Test
   public void shouldThrowNPEOnConstruction() {
     new NullPointerTester()
@@ -226,6 +241,40 @@ public class KsqlQueryBuilderTest {
     );
   }
 
+  @Test
+  public void shouldNotTimeValueSerdeIfStepMetricsDisabled() {
+    // When:
+    final Serde<GenericRow> result = ksqlQueryBuilder.buildValueSerde(
+        FORMAT_INFO,
+        SOME_SCHEMA,
+        queryContext
+    );
+
+    // Then:
+    assertThat(result, is(valueSerde));
+  }
+
+  @Test
+  public void shouldTimeValueSerdeIfStepMetricsEnabled() {
+    // Given:
+    when(ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_STEP_METRICS_SAMPLE_INTERVAL_CONFIG))
+        .thenReturn(1);
+    when(valueSerde.serializer()).thenReturn(serializer);
+    when(valueSerde.deserializer()).thenReturn(deserializer);
+    final GenericRow row = new GenericRow(true);
+
+    // When:
+    ksqlQueryBuilder.buildValueSerde(FORMAT_INFO, SOME_SCHEMA, queryContext)
+        .serializer()
+        .serialize("topic", row);
+
+    // Then:
+    verify(serializer).serialize("topic", row);
+    final String stats = QueryStepMetrics.getAndFormatStatsFor(QUERY_ID);
+    assertThat(stats, containsString("context/serialize"));
+    assertThat(stats, not(containsString("context/deserialize")));
+  }
+
   @Test
   public void shouldTrackSchemasUsed() {
     // When:
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.function.udaf;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.function.DoubleAggregationFunction;
+import io.confluent.ksql.execution.function.LongAggregationFunction;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.streams.kstream.Initializer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PrimitiveAggregatesTest {
+
+  private static final String TOPIC = "topic";
+  private static final byte[] REST = {1, 2, 3};
+
+  @Mock
+  private LongAggregationFunction<Object, Long, Long> longFunction;
+  @Mock
+  private DoubleAggregationFunction<Object, Double, Double> doubleFunction;
+  @Mock
+  private KsqlAggregateFunction<Object, String, String> otherFunction;
+  @Mock
+  private Initializer<GenericRow> initializer;
+  @Mock
+  private Serde<GenericRow> serde;
+  @Mock
+  private Serializer<GenericRow> serializer;
+  @Mock
+  private Deserializer<GenericRow> deserializer;
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  private PrimitiveAggregates primitiveAggregates;
+
+  @Before
+  public void init() {
+    primitiveAggregates = new PrimitiveAggregates(
+        1,
+        ImmutableList.of(longFunction, otherFunction, doubleFunction)
+    );
+  }
+
+  @Test
+  public void shouldBeEmptyIfNoFunctionsArePrimitive() {
+    // When:
+    final PrimitiveAggregates aggregates =
+        new PrimitiveAggregates(1, ImmutableList.of(otherFunction));
+
+    // Then:
+    assertThat(aggregates.isEmpty(), is(true));
+    assertThat(aggregates.initializer(initializer), is(sameInstance(initializer)));
+    assertThat(aggregates.serde(serde), is(sameInstance(serde)));
+  }
+
+  @Test
+  public void shouldHoldInitialPrimitiveAggregatesInSlots() {
+    // Given:
+    when(initializer.apply()).thenReturn(new GenericRow(Arrays.asList("k", 0L, "", 0.0)));
+
+    // When:
+    final GenericRow row = primitiveAggregates.initializer(initializer).apply();
+
+    // Then:
+    assertThat(row, is(new GenericRow("k", LongSlot.of(0L), "", DoubleSlot.of(0.0))));
+  }
+
+  @Test
+  public void shouldAggregateLongSlotInPlace() {
+    // Given:
+    final AggregateSlot slot = LongSlot.of(5L);
+    when(longFunction.toLong(3)).thenReturn(3L);
+    when(longFunction.aggregateLong(3L, 5L)).thenReturn(8L);
+
+    // When:
+    slot.aggregate(longFunction, 3);
+
+    // Then:
+    assertThat(slot, is(LongSlot.of(8L)));
+  }
+
+  @Test
+  public void shouldAggregateDoubleSlotInPlace() {
+    // Given:
+    final AggregateSlot slot = DoubleSlot.of(1.5);
+    when(doubleFunction.toDouble(2.0)).thenReturn(2.0);
+    when(doubleFunction.aggregateDouble(2.0, 1.5)).thenReturn(3.5);
+
+    // When:
+    slot.aggregate(doubleFunction, 2.0);
+
+    // Then:
+    assertThat(slot, is(DoubleSlot.of(3.5)));
+  }
+
+  @Test
+  public void shouldNotAggregateNullArgument() {
+    // Given:
+    final AggregateSlot slot = LongSlot.of(5L);
+
+    // When:
+    slot.aggregate(longFunction, null);
+
+    // Then:
+    assertThat(slot, is(LongSlot.of(5L)));
+    verifyZeroInteractions(longFunction);
+  }
+
+  @Test
+  public void shouldTakeFirstArgumentOfNullSlot() {
+    // Given:
+    final AggregateSlot slot = LongSlot.of(null);
+    when(longFunction.toLong(3)).thenReturn(3L);
+
+    // When:
+    slot.aggregate(longFunction, 3);
+
+    // Then:
+    assertThat(slot, is(LongSlot.of(3L)));
+  }
+
+  @Test
+  public void shouldMergeSlots() {
+    // Given:
+    when(longFunction.aggregateLong(3L, 5L)).thenReturn(8L);
+
+    // When:
+    final AggregateSlot merged = LongSlot.of(5L).merge(longFunction, LongSlot.of(3L));
+
+    // Then:
+    assertThat(merged, is(LongSlot.of(8L)));
+  }
+
+  @Test
+  public void shouldMergeNullSlots() {
+    assertThat(LongSlot.of(null).merge(longFunction, LongSlot.of(3L)), is(LongSlot.of(3L)));
+    assertThat(LongSlot.of(5L).merge(longFunction, LongSlot.of(null)), is(LongSlot.of(5L)));
+    verifyZeroInteractions(longFunction);
+  }
+
+  @Test
+  public void shouldGetAggregateOfSlot() {
+    // Given:
+    when(longFunction.fromLong(5L)).thenReturn(5L);
+
+    // Then:
+    assertThat(LongSlot.of(5L).get(longFunction), is(5L));
+    assertThat(LongSlot.of(null).get(longFunction), is(nullValue()));
+  }
+
+  @Test
+  public void shouldRoundTripStateThroughSerde() {
+    // Given:
+    givenInnerSerde();
+    final GenericRow row = new GenericRow("k", LongSlot.of(5L), "x", DoubleSlot.of(null));
+    when(serializer.serialize(TOPIC, new GenericRow("k", null, "x", null))).thenReturn(REST);
+    when(deserializer.deserialize(TOPIC, REST))
+        .thenReturn(new GenericRow(new ArrayList<>(Arrays.asList("k", null, "x", null))));
+
+    final Serde<GenericRow> stateSerde = primitiveAggregates.serde(serde);
+
+    // When:
+    final byte[] bytes = stateSerde.serializer().serialize(TOPIC, row);
+    final GenericRow result = stateSerde.deserializer().deserialize(TOPIC, bytes);
+
+    // Then:
+    assertThat(bytes.length, is(Integer.BYTES + REST.length + 2 * AggregateSlot.SIZE));
+    assertThat(result, is(row));
+  }
+
+  @Test
+  public void shouldNotPassSlotsToInnerSerializer() {
+    // Given:
+    givenInnerSerde();
+    final GenericRow row = new GenericRow("k", LongSlot.of(5L), "x", DoubleSlot.of(1.0));
+    when(serializer.serialize(TOPIC, new GenericRow("k", null, "x", null))).thenReturn(REST);
+
+    // When:
+    primitiveAggregates.serde(serde).serializer().serialize(TOPIC, row);
+
+    // Then:
+    verify(serializer).serialize(TOPIC, new GenericRow("k", null, "x", null));
+    assertThat(row, is(new GenericRow("k", LongSlot.of(5L), "x", DoubleSlot.of(1.0))));
+  }
+
+  @Test
+  public void shouldHandleNulls() {
+    // Given:
+    givenInnerSerde();
+    final Serde<GenericRow> stateSerde = primitiveAggregates.serde(serde);
+
+    // Then:
+    assertThat(stateSerde.serializer().serialize(TOPIC, null), is(nullValue()));
+    assertThat(stateSerde.deserializer().deserialize(TOPIC, null), is(nullValue()));
+  }
+
+  @Test
+  public void shouldThrowOnInvalidState() {
+    // Given:
+    givenInnerSerde();
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectMessage("Invalid aggregate state");
+
+    // When:
+    primitiveAggregates.serde(serde).deserializer().deserialize(TOPIC, new byte[]{0, 0, 0, 9});
+  }
+
+  private void givenInnerSerde() {
+    when(serde.serializer()).thenReturn(serializer);
+    when(serde.deserializer()).thenReturn(deserializer);
+  }
+}
@@ -410,7 +410,7 @@ public class TestExecutor implements Closeable {
         : stubKafkaRecord.getProducerRecord().key();
   }
 
-  static ServiceContext getServiceContext() {
+  public static ServiceContext getServiceContext() {
     final SchemaRegistryClient schemaRegistryClient = new MockSchemaRegistryClient();
     return new DefaultServiceContext(
         new StubKafkaClientSupplier(),
@@ -422,7 +422,7 @@ public class TestExecutor implements Closeable {
     );
   }
 
-  static KsqlEngine getKsqlEngine(final ServiceContext serviceContext) {
+  public static KsqlEngine getKsqlEngine(final ServiceContext serviceContext) {
     final MutableMetaStore metaStore = new MetaStoreImpl(TestFunctionRegistry.INSTANCE.get());
     return new KsqlEngine(
         serviceContext,
@@ -438,7 +438,7 @@ public class TestExecutor implements Closeable {
     );
   }
 
-  static Map<String, Object> getConfigs(final Map<String, Object> additionalConfigs) {
+  public static Map<String, Object> getConfigs(final Map<String, Object> additionalConfigs) {
 
     final ImmutableMap.Builder<String, Object> mapBuilder = ImmutableMap.<String, Object>builder()
         .put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:0")
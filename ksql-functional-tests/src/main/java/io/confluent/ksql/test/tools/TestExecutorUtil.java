@@ -87,7 +87,7 @@ public final class TestExecutorUtil {
         .collect(Collectors.toList());
   }
 
-  static List<TopologyTestDriverContainer> buildStreamsTopologyTestDrivers(
+  public static List<TopologyTestDriverContainer> buildStreamsTopologyTestDrivers(
       final TestCase testCase,
       final ServiceContext serviceContext,
       final KsqlEngine ksqlEngine,
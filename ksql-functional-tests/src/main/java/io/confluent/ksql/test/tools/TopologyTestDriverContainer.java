@@ -51,7 +51,7 @@ public final class TopologyTestDriverContainer {
         sinkTopic);
   }
 
-  TopologyTestDriver getTopologyTestDriver() {
+  public TopologyTestDriver getTopologyTestDriver() {
     return topologyTestDriver;
   }
 
@@ -32,4 +32,16 @@ public interface MetaStore extends FunctionRegistry, TypeRegistry {
   Set<String> getQueriesWithSink(SourceName sourceName);
 
   MetaStore copy();
+
+  /**
+   * The version of the metastore's contents, which changes whenever a source or type is added or
+   * removed, or the queries using a source change.
+   *
+   * <p>No two states of any metastore share a version, except a metastore and its copies, until
+   * either changes. This allows anything derived from the metastore's contents, e.g. prepared
+   * statements, to be cached against the version.
+   *
+   * @return the version.
+   */
+  long getVersion();
 }
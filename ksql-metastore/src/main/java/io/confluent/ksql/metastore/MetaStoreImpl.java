@@ -33,16 +33,35 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.kafka.connect.data.Schema;
+import org.pcollections.HashTreePMap;
+import org.pcollections.PMap;
 
+/**
+ * The metastore.
+ *
+ * <p>Sources are held in a persistent map, which is replaced, under a lock, on each change. Each
+ * change builds a new map that shares all but the changed entries with the old one, so costs
+ * the same however many sources there are. Reads need no lock, and a {@link #copy()}, as taken
+ * for each sandbox, shares the current map rather than copying every source. A change to a
+ * source's referential integrity data copies only that source, so the entries of a published map
+ * are never mutated.
+ *
+ * <p>Each change also moves the metastore to a new, globally unique, {@link #getVersion()
+ * version}, which a copy shares until either it or the original changes.
+ */
 @ThreadSafe
 public final class MetaStoreImpl implements MutableMetaStore {
 
-  private final Map<SourceName, SourceInfo> dataSources = new ConcurrentHashMap<>();
+  private static final AtomicLong VERSIONS = new AtomicLong();
+
+  private volatile PMap<SourceName, SourceInfo> dataSources;
+  private volatile long version;
   private final Object referentialIntegrityLock = new Object();
   private final FunctionRegistry functionRegistry;
   private final TypeRegistry typeRegistry;
@@ -50,17 +69,21 @@ public final class MetaStoreImpl implements MutableMetaStore {
   public MetaStoreImpl(final FunctionRegistry functionRegistry) {
     this.functionRegistry = Objects.requireNonNull(functionRegistry, "functionRegistry");
     this.typeRegistry = new TypeRegistryImpl();
+    this.dataSources = HashTreePMap.empty();
+    this.version = VERSIONS.incrementAndGet();
   }
 
   private MetaStoreImpl(
-      final Map<SourceName, SourceInfo> dataSources,
+      final PMap<SourceName, SourceInfo> dataSources,
       final FunctionRegistry functionRegistry,
-      final TypeRegistry typeRegistry
+      final TypeRegistry typeRegistry,
+      final long version
   ) {
     this.functionRegistry = Objects.requireNonNull(functionRegistry, "functionRegistry");
     this.typeRegistry = new TypeRegistryImpl();
+    this.dataSources = Objects.requireNonNull(dataSources, "dataSources");
+    this.version = version;
 
-    dataSources.forEach((name, info) -> this.dataSources.put(name, info.copy()));
     typeRegistry.types()
         .forEachRemaining(type -> this.typeRegistry.registerType(type.getName(), type.getType()));
   }
@@ -76,53 +99,56 @@ public final class MetaStoreImpl implements MutableMetaStore {
 
   @Override
   public void putSource(final DataSource<?> dataSource) {
-    final SourceInfo existing = dataSources
-        .putIfAbsent(dataSource.getName(), new SourceInfo(dataSource));
+    synchronized (referentialIntegrityLock) {
+      final SourceInfo existing = dataSources.get(dataSource.getName());
+
+      if (existing != null) {
+        final SourceName name = dataSource.getName();
+        final String newType = dataSource.getDataSourceType().getKsqlType().toLowerCase();
+        final String existingType = existing.source.getDataSourceType().getKsqlType()
+            .toLowerCase();
 
-    if (existing != null) {
-      final SourceName name = dataSource.getName();
-      final String newType = dataSource.getDataSourceType().getKsqlType().toLowerCase();
-      final String existingType = existing.source.getDataSourceType().getKsqlType().toLowerCase();
+        throw new KsqlException(String.format(
+            "Cannot add %s '%s': A %s with the same name already exists",
+            newType, name.name(), existingType));
+      }
 
-      throw new KsqlException(String.format(
-          "Cannot add %s '%s': A %s with the same name already exists",
-          newType, name.name(), existingType));
+      update(sources -> sources.plus(dataSource.getName(), new SourceInfo(dataSource)));
     }
   }
 
   @Override
   public void deleteSource(final SourceName sourceName) {
     synchronized (referentialIntegrityLock) {
-      dataSources.compute(sourceName, (ignored, source) -> {
-        if (source == null) {
-          throw new KsqlException(String.format("No data source with name %s exists.",
-              sourceName.name()));
-        }
+      final SourceInfo source = dataSources.get(sourceName);
+      if (source == null) {
+        throw new KsqlException(String.format("No data source with name %s exists.",
+            sourceName.name()));
+      }
 
-        final String sourceForQueriesMessage = source.referentialIntegrity
-            .getSourceForQueries()
-            .stream()
-            .collect(Collectors.joining(", "));
-
-        final String sinkForQueriesMessage = source.referentialIntegrity
-            .getSinkForQueries()
-            .stream()
-            .collect(Collectors.joining(", "));
-
-        if (!sourceForQueriesMessage.isEmpty() || !sinkForQueriesMessage.isEmpty()) {
-          throw new KsqlReferentialIntegrityException(
-              String.format("Cannot drop %s.%n"
-                      + "The following queries read from this source: [%s].%n"
-                      + "The following queries write into this source: [%s].%n"
-                      + "You need to terminate them before dropping %s.",
-                  sourceName.toString(FormatOptions.noEscape()),
-                  sourceForQueriesMessage,
-                  sinkForQueriesMessage,
-                  sourceName.toString(FormatOptions.noEscape())));
-        }
+      final String sourceForQueriesMessage = source.referentialIntegrity
+          .getSourceForQueries()
+          .stream()
+          .collect(Collectors.joining(", "));
+
+      final String sinkForQueriesMessage = source.referentialIntegrity
+          .getSinkForQueries()
+          .stream()
+          .collect(Collectors.joining(", "));
+
+      if (!sourceForQueriesMessage.isEmpty() || !sinkForQueriesMessage.isEmpty()) {
+        throw new KsqlReferentialIntegrityException(
+            String.format("Cannot drop %s.%n"
+                    + "The following queries read from this source: [%s].%n"
+                    + "The following queries write into this source: [%s].%n"
+                    + "You need to terminate them before dropping %s.",
+                sourceName.toString(FormatOptions.noEscape()),
+                sourceForQueriesMessage,
+                sinkForQueriesMessage,
+                sourceName.toString(FormatOptions.noEscape())));
+      }
 
-        return null;
-      });
+      update(sources -> sources.minus(sourceName));
     }
   }
 
@@ -160,19 +186,43 @@ public final class MetaStoreImpl implements MutableMetaStore {
             + ", registeredAgainstSink: " + sinkAlreadyRegistered);
       }
 
-      streamSources(sourceNames)
-          .forEach(source -> source.referentialIntegrity.addSourceForQueries(queryId));
-      streamSources(sinkNames)
-          .forEach(source -> source.referentialIntegrity.addSinkForQueries(queryId));
+      update(sources -> {
+        PMap<SourceName, SourceInfo> updated = sources;
+        for (final SourceName name : sourceNames) {
+          final SourceInfo copy = updated.get(name).copy();
+          copy.referentialIntegrity.addSourceForQueries(queryId);
+          updated = updated.plus(name, copy);
+        }
+        for (final SourceName name : sinkNames) {
+          final SourceInfo copy = updated.get(name).copy();
+          copy.referentialIntegrity.addSinkForQueries(queryId);
+          updated = updated.plus(name, copy);
+        }
+        return updated;
+      });
     }
   }
 
   @Override
   public void removePersistentQuery(final String queryId) {
     synchronized (referentialIntegrityLock) {
-      for (final SourceInfo sourceInfo : dataSources.values()) {
-        sourceInfo.referentialIntegrity.removeQuery(queryId);
+      final boolean registered = dataSources.values().stream()
+          .anyMatch(source -> source.isUsedBy(queryId));
+      if (!registered) {
+        return;
       }
+
+      update(sources -> {
+        PMap<SourceName, SourceInfo> updated = sources;
+        for (final Map.Entry<SourceName, SourceInfo> e : sources.entrySet()) {
+          if (e.getValue().isUsedBy(queryId)) {
+            final SourceInfo copy = e.getValue().copy();
+            copy.referentialIntegrity.removeQuery(queryId);
+            updated = updated.plus(e.getKey(), copy);
+          }
+        }
+        return updated;
+      });
     }
   }
 
@@ -197,10 +247,15 @@ public final class MetaStoreImpl implements MutableMetaStore {
   @Override
   public MutableMetaStore copy() {
     synchronized (referentialIntegrityLock) {
-      return new MetaStoreImpl(dataSources, functionRegistry, typeRegistry);
+      return new MetaStoreImpl(dataSources, functionRegistry, typeRegistry, version);
     }
   }
 
+  @Override
+  public long getVersion() {
+    return version;
+  }
+
   @Override
   public UdfFactory getUdfFactory(final String functionName) {
     return functionRegistry.getUdfFactory(functionName);
@@ -245,14 +300,31 @@ public final class MetaStoreImpl implements MutableMetaStore {
         });
   }
 
+  /**
+   * Publishes the sources returned by {@code change}. Must be called under the lock.
+   */
+  private void update(final UnaryOperator<PMap<SourceName, SourceInfo>> change) {
+    dataSources = change.apply(dataSources);
+    version = VERSIONS.incrementAndGet();
+  }
+
   @Override
   public void registerType(final String name, final SqlType type) {
-    typeRegistry.registerType(name, type);
+    synchronized (referentialIntegrityLock) {
+      typeRegistry.registerType(name, type);
+      version = VERSIONS.incrementAndGet();
+    }
   }
 
   @Override
   public boolean deleteType(final String name) {
-    return typeRegistry.deleteType(name);
+    synchronized (referentialIntegrityLock) {
+      final boolean deleted = typeRegistry.deleteType(name);
+      if (deleted) {
+        version = VERSIONS.incrementAndGet();
+      }
+      return deleted;
+    }
   }
 
   @Override
@@ -288,5 +360,10 @@ public final class MetaStoreImpl implements MutableMetaStore {
     public SourceInfo copy() {
       return new SourceInfo(source, referentialIntegrity);
     }
+
+    private boolean isUsedBy(final String queryId) {
+      return referentialIntegrity.getSourceForQueries().contains(queryId)
+          || referentialIntegrity.getSinkForQueries().contains(queryId);
+    }
   }
 }
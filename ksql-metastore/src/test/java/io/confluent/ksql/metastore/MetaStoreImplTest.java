@@ -20,6 +20,7 @@ import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -145,6 +146,78 @@ public class MetaStoreImplTest {
     assertThat(metaStore.getQueriesWithSink(dataSource.getName()), is(empty()));
   }
 
+  @Test
+  public void shouldNotChangeOriginalWhenCopyChanged() {
+    // Given:
+    metaStore.putSource(dataSource);
+    final MutableMetaStore copy = metaStore.copy();
+
+    // When:
+    copy.putSource(dataSource1);
+    copy.updateForPersistentQuery(
+        "some query",
+        ImmutableSet.of(dataSource.getName()),
+        ImmutableSet.of(dataSource1.getName()));
+
+    // Then:
+    assertThat(metaStore.getAllDataSources().keySet(), contains(dataSource.getName()));
+    assertThat(metaStore.getQueriesWithSource(dataSource.getName()), is(empty()));
+    assertThat(copy.getQueriesWithSource(dataSource.getName()), contains("some query"));
+    assertThat(copy.getQueriesWithSink(dataSource1.getName()), contains("some query"));
+  }
+
+  @Test
+  public void shouldShareVersionWithCopyUntilEitherChanges() {
+    // Given:
+    metaStore.putSource(dataSource);
+    final MutableMetaStore copy = metaStore.copy();
+    final long version = metaStore.getVersion();
+
+    // When:
+    copy.putSource(dataSource1);
+    metaStore.registerType("foo", SqlPrimitiveType.of(SqlBaseType.STRING));
+
+    // Then:
+    assertThat(copy.getVersion(), is(not(version)));
+    assertThat(metaStore.getVersion(), is(not(version)));
+    assertThat(metaStore.getVersion(), is(not(copy.getVersion())));
+    assertThat(metaStore.copy().getVersion(), is(metaStore.getVersion()));
+  }
+
+  @Test
+  public void shouldRegisterQueryAsBothSourceAndSinkOfSameSource() {
+    // Given:
+    metaStore.putSource(dataSource);
+
+    // When:
+    metaStore.updateForPersistentQuery(
+        "some query",
+        ImmutableSet.of(dataSource.getName()),
+        ImmutableSet.of(dataSource.getName()));
+
+    // Then:
+    assertThat(metaStore.getQueriesWithSource(dataSource.getName()), contains("some query"));
+    assertThat(metaStore.getQueriesWithSink(dataSource.getName()), contains("some query"));
+  }
+
+  @Test
+  public void shouldNotChangeCopyWhenQueryRemovedFromOriginal() {
+    // Given:
+    metaStore.putSource(dataSource);
+    metaStore.updateForPersistentQuery(
+        "some query",
+        ImmutableSet.of(dataSource.getName()),
+        ImmutableSet.of());
+    final MutableMetaStore copy = metaStore.copy();
+
+    // When:
+    metaStore.removePersistentQuery("some query");
+
+    // Then:
+    assertThat(metaStore.getQueriesWithSource(dataSource.getName()), is(empty()));
+    assertThat(copy.getQueriesWithSource(dataSource.getName()), contains("some query"));
+  }
+
   @Test
   public void shouldNotAllowModificationViaGetAllDataSources() {
     // Given:
@@ -16,6 +16,7 @@
 package io.confluent.ksql.rest.entity;
 
 import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.metrics.QueryStepMetrics;
 import io.confluent.ksql.name.SourceName;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.rest.util.EntityUtil;
@@ -68,7 +69,8 @@ public final class QueryDescriptionFactory {
         queryMetadata.getTopologyDescription(),
         queryMetadata.getExecutionPlan(),
         queryMetadata.getOverriddenProperties(),
-        state
+        state,
+        QueryStepMetrics.getAndFormatStatsFor(id)
     );
   }
 }
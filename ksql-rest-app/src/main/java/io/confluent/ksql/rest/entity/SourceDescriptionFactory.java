@@ -17,6 +17,7 @@ package io.confluent.ksql.rest.entity;
 
 import io.confluent.ksql.metastore.model.DataSource;
 import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.metrics.QueryStepMetrics;
 import io.confluent.ksql.rest.util.EntityUtil;
 import io.confluent.ksql.schema.ksql.FormatOptions;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
@@ -49,7 +50,7 @@ public final class SourceDescriptionFactory {
             .map(c -> c.toString(FormatOptions.noEscape())).orElse(""),
         (extended
             ? MetricCollectors.getAndFormatStatsFor(
-            dataSource.getKafkaTopicName(), false) : ""),
+            dataSource.getKafkaTopicName(), false) + formatStepStats(writeQueries) : ""),
         (extended
             ? MetricCollectors.getAndFormatStatsFor(
             dataSource.getKafkaTopicName(), true) : ""),
@@ -60,4 +61,19 @@ public final class SourceDescriptionFactory {
         topicDescription.map(td -> td.partitions().get(0).replicas().size()).orElse(0)
     );
   }
+
+  private static String formatStepStats(final List<RunningQuery> writeQueries) {
+    final StringBuilder stats = new StringBuilder();
+    for (final RunningQuery query : writeQueries) {
+      final String queryStats = QueryStepMetrics.getAndFormatStatsFor(query.getId());
+      if (!queryStats.isEmpty()) {
+        stats.append(System.lineSeparator())
+            .append(query.getId())
+            .append(':')
+            .append(System.lineSeparator())
+            .append(queryStats);
+      }
+    }
+    return stats.toString();
+  }
 }
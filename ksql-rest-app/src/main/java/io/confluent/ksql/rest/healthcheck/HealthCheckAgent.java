@@ -28,11 +28,16 @@ import java.net.URL;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.apache.kafka.common.config.ConfigException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class HealthCheckAgent {
 
+  private static final Logger LOG = LoggerFactory.getLogger(HealthCheckAgent.class);
+
   public static final String METASTORE_CHECK_NAME = "metastore";
   public static final String KAFKA_CHECK_NAME = "kafka";
 
@@ -109,9 +114,18 @@ public class HealthCheckAgent {
         final SimpleKsqlClient ksqlClient,
         final URI serverEndpoint
     ) {
-      final RestResponse<KsqlEntityList> response =
-          ksqlClient.makeKsqlRequest(serverEndpoint, ksqlStatement);
-      return new HealthCheckResponseDetail(response.isSuccessful());
+      final long start = System.nanoTime();
+      boolean isHealthy;
+      try {
+        final RestResponse<KsqlEntityList> response =
+            ksqlClient.makeKsqlRequest(serverEndpoint, ksqlStatement);
+        isHealthy = response.isSuccessful();
+      } catch (final Exception e) {
+        LOG.warn("Health check '{}' failed", name, e);
+        isHealthy = false;
+      }
+      final long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      return new HealthCheckResponseDetail(isHealthy, latencyMs);
     }
   }
 }
\ No newline at end of file
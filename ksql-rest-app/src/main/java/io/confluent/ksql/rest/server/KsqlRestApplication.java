@@ -45,6 +45,7 @@ import io.confluent.ksql.rest.server.computation.CommandRunner;
 import io.confluent.ksql.rest.server.computation.CommandStore;
 import io.confluent.ksql.rest.server.computation.StatementExecutor;
 import io.confluent.ksql.rest.server.context.KsqlRestServiceContextBinder;
+import io.confluent.ksql.rest.server.context.ServiceContextPool;
 import io.confluent.ksql.rest.server.filters.KsqlAuthorizationFilter;
 import io.confluent.ksql.rest.server.resources.HealthCheckResource;
 import io.confluent.ksql.rest.server.resources.KsqlConfigurable;
@@ -54,6 +55,7 @@ import io.confluent.ksql.rest.server.resources.RootDocument;
 import io.confluent.ksql.rest.server.resources.ServerInfoResource;
 import io.confluent.ksql.rest.server.resources.ServerMetadataResource;
 import io.confluent.ksql.rest.server.resources.StatusResource;
+import io.confluent.ksql.rest.server.resources.streaming.AsyncQueryStreamFilter;
 import io.confluent.ksql.rest.server.resources.streaming.StreamedQueryResource;
 import io.confluent.ksql.rest.server.resources.streaming.WSQueryEndpoint;
 import io.confluent.ksql.rest.server.services.RestServiceContextFactory;
@@ -89,6 +91,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -97,12 +100,14 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import javax.servlet.DispatcherType;
 import javax.websocket.DeploymentException;
 import javax.websocket.server.ServerEndpoint;
 import javax.websocket.server.ServerEndpointConfig;
@@ -112,8 +117,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.kafka.streams.StreamsConfig;
 import org.apache.log4j.LogManager;
 import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.FilterHolder;
+import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.websocket.jsr356.server.ServerContainer;
 import org.glassfish.hk2.utilities.Binder;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
 import org.glassfish.jersey.server.ServerProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -143,6 +151,9 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
   private final List<KsqlServerPrecondition> preconditions;
   private final List<KsqlConfigurable> configurables;
   private final Consumer<KsqlConfig> rocksDBConfigSetterHandler;
+  private final ServiceContextPool serviceContextPool;
+  private HealthCheckResource healthCheckResource;
+  private ScheduledExecutorService asyncQueryWriteExec;
 
   public static SourceName getCommandsStreamName() {
     return COMMANDS_STREAM_NAME;
@@ -169,7 +180,8 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
       final ProcessingLogContext processingLogContext,
       final List<KsqlServerPrecondition> preconditions,
       final List<KsqlConfigurable> configurables,
-      final Consumer<KsqlConfig> rocksDBConfigSetterHandler
+      final Consumer<KsqlConfig> rocksDBConfigSetterHandler,
+      final ServiceContextPool serviceContextPool
   ) {
     super(config);
 
@@ -192,6 +204,7 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
     this.configurables = requireNonNull(configurables, "configurables");
     this.rocksDBConfigSetterHandler =
         requireNonNull(rocksDBConfigSetterHandler, "rocksDBConfigSetterHandler");
+    this.serviceContextPool = requireNonNull(serviceContextPool, "serviceContextPool");
   }
 
   @Override
@@ -202,7 +215,8 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
     config.register(statusResource);
     config.register(ksqlResource);
     config.register(streamedQueryResource);
-    config.register(HealthCheckResource.create(ksqlResource, serviceContext, this.config));
+    healthCheckResource = HealthCheckResource.create(ksqlResource, serviceContext, this.config);
+    config.register(healthCheckResource);
     config.register(new KsqlExceptionMapper());
     config.register(new ServerStateDynamicBinding(serverState));
   }
@@ -223,10 +237,19 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
     displayWelcomeMessage();
   }
 
+  @VisibleForTesting
+  KsqlEngine getEngine() {
+    return ksqlEngine;
+  }
+
   @VisibleForTesting
   void startKsql() {
     waitForPreconditions();
     initialize();
+
+    if (healthCheckResource != null) {
+      healthCheckResource.start();
+    }
   }
 
   private static final class KsqlFailedPrecondition extends RuntimeException {
@@ -288,6 +311,14 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
 
   @Override
   public void stop() {
+    if (healthCheckResource != null) {
+      healthCheckResource.close();
+    }
+
+    if (asyncQueryWriteExec != null) {
+      asyncQueryWriteExec.shutdownNow();
+    }
+
     try {
       ksqlEngine.close();
     } catch (final Exception e) {
@@ -306,6 +337,12 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
       log.error("Exception while closing services", e);
     }
 
+    try {
+      serviceContextPool.close();
+    } catch (final Exception e) {
+      log.error("Exception while closing pooled services", e);
+    }
+
     try {
       securityExtension.close();
     } catch (final Exception e) {
@@ -352,6 +389,12 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
     config.register(jsonProvider);
     config.register(JsonParseExceptionMapper.class);
     config.register(serviceContextBinderFactory.apply(ksqlConfigNoPort, securityExtension));
+    config.register(new AbstractBinder() {
+      @Override
+      protected void configure() {
+        bind(serviceContextPool).to(ServiceContextPool.class);
+      }
+    });
 
     // Don't want to buffer rows when streaming JSON in a request to the query resource
     config.property(ServerProperties.OUTBOUND_CONTENT_LENGTH_BUFFER, 0);
@@ -414,6 +457,30 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
     }
   }
 
+  @Override
+  protected void configurePreResourceHandling(final ServletContextHandler context) {
+    if (!config.getBoolean(KsqlRestConfig.KSQL_STREAMED_QUERY_ASYNC_ENABLE_CONFIG)) {
+      return;
+    }
+
+    asyncQueryWriteExec = Executors.newScheduledThreadPool(
+        config.getInt(KsqlRestConfig.KSQL_STREAMED_QUERY_ASYNC_NUM_THREADS_CONFIG),
+        new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("streamed-query-writer-thread-%d")
+            .build()
+    );
+
+    final FilterHolder filterHolder = new FilterHolder(new AsyncQueryStreamFilter(
+        asyncQueryWriteExec,
+        Duration.ofMillis(config.getLong(KsqlRestConfig.STREAMED_QUERY_DISCONNECT_CHECK_MS_CONFIG)),
+        JsonMapper.INSTANCE.mapper
+    ));
+    filterHolder.setAsyncSupported(true);
+
+    context.addFilter(filterHolder, "/query", EnumSet.of(DispatcherType.REQUEST));
+  }
+
   static KsqlRestApplication buildApplication(
       final KsqlRestConfig restConfig,
       final Function<Supplier<Boolean>, VersionCheckerAgent> versionCheckerFactory
@@ -501,7 +568,8 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
             restConfig.getLong(KsqlRestConfig.STREAMED_QUERY_DISCONNECT_CHECK_MS_CONFIG)),
         Duration.ofMillis(restConfig.getLong(DISTRIBUTED_COMMAND_RESPONSE_TIMEOUT_MS_CONFIG)),
         versionChecker::updateLastRequestTime,
-        authorizationValidator
+        authorizationValidator,
+        restConfig.getBoolean(KsqlRestConfig.KSQL_STREAMED_QUERY_ASYNC_ENABLE_CONFIG)
     );
 
     final KsqlResource ksqlResource = new KsqlResource(
@@ -557,7 +625,8 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
         processingLogContext,
         preconditions,
         configurables,
-        rocksDBConfigSetterHandler
+        rocksDBConfigSetterHandler,
+        ServiceContextPool.create(ksqlConfig)
     );
   }
 
@@ -39,6 +39,19 @@ public class KsqlRestConfig extends RestConfig {
               + "JSON; this helps proactively determine if the connection has been terminated in "
               + "order to avoid keeping the created streams job alive longer than necessary";
 
+  static final String KSQL_STREAMED_QUERY_ASYNC_ENABLE_CONFIG =
+      KSQL_CONFIG_PREFIX + "server.query.stream.async.enable";
+  private static final String KSQL_STREAMED_QUERY_ASYNC_ENABLE_DOC =
+      "If true, the results of push queries issued to the /query endpoint are written using "
+          + "non-blocking I/O, only when the client connection is ready, by a small shared pool "
+          + "of threads, rather than holding a server thread for the lifetime of each query.";
+
+  static final String KSQL_STREAMED_QUERY_ASYNC_NUM_THREADS_CONFIG =
+      KSQL_CONFIG_PREFIX + "server.query.stream.async.num.threads";
+  private static final String KSQL_STREAMED_QUERY_ASYNC_NUM_THREADS_DOC =
+      "The number of threads writing the results of push queries when "
+          + KSQL_STREAMED_QUERY_ASYNC_ENABLE_CONFIG + " is true";
+
   static final String DISTRIBUTED_COMMAND_RESPONSE_TIMEOUT_MS_CONFIG =
       KSQL_CONFIG_PREFIX + "server.command.response.timeout.ms";
 
@@ -74,8 +87,9 @@ public class KsqlRestConfig extends RestConfig {
   public static final String KSQL_HEALTHCHECK_INTERVAL_MS_CONFIG =
       KSQL_CONFIG_PREFIX + "healthcheck.interval.ms";
   private static final String KSQL_HEALTHCHECK_INTERVAL_MS_DOC =
-      "Minimum time between consecutive health check evaluations. Health check queries before "
-          + "the interval has elapsed will receive cached responses.";
+      "Time between consecutive health check evaluations, which run in the background. Health "
+          + "check requests receive the result of the most recent evaluation, unless they set "
+          + "the 'refresh' query parameter to true.";
 
   private static final ConfigDef CONFIG_DEF;
 
@@ -86,6 +100,19 @@ public class KsqlRestConfig extends RestConfig {
         1000L,
         Importance.LOW,
         STREAMED_QUERY_DISCONNECT_CHECK_MS_DOC
+    ).define(
+        KSQL_STREAMED_QUERY_ASYNC_ENABLE_CONFIG,
+        Type.BOOLEAN,
+        false,
+        Importance.LOW,
+        KSQL_STREAMED_QUERY_ASYNC_ENABLE_DOC
+    ).define(
+        KSQL_STREAMED_QUERY_ASYNC_NUM_THREADS_CONFIG,
+        Type.INT,
+        2,
+        ConfigDef.Range.atLeast(1),
+        Importance.LOW,
+        KSQL_STREAMED_QUERY_ASYNC_NUM_THREADS_DOC
     ).define(
         DISTRIBUTED_COMMAND_RESPONSE_TIMEOUT_MS_CONFIG,
         Type.LONG,
@@ -26,6 +26,7 @@ import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.util.KsqlConfig;
 import java.security.Principal;
 import java.util.Optional;
+import java.util.function.Supplier;
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.HttpHeaders;
@@ -35,6 +36,9 @@ import org.glassfish.hk2.api.Factory;
 /**
  * This class implements {@link Factory}, which allows a REST application to create
  * a new {@link ServiceContext} during REST requests.
+ *
+ * <p>Contexts are leased from the server's {@link ServiceContextPool}, so that, if pooling is
+ * enabled, requests from the same principal share clients.
  */
 public class KsqlRestServiceContextFactory implements Factory<ServiceContext> {
   private static KsqlConfig ksqlConfig;
@@ -53,15 +57,18 @@ public class KsqlRestServiceContextFactory implements Factory<ServiceContext> {
   private final DefaultServiceContextFactory defaultServiceContextFactory;
   private final UserServiceContextFactory userServiceContextFactory;
   private final HttpServletRequest request;
+  private final ServiceContextPool pool;
 
   @Inject
   public KsqlRestServiceContextFactory(
       final SecurityContext securityContext,
-      final HttpServletRequest request
+      final HttpServletRequest request,
+      final ServiceContextPool pool
   ) {
     this(
         securityContext,
         request,
+        pool,
         RestServiceContextFactory::create,
         RestServiceContextFactory::create
     );
@@ -71,6 +78,7 @@ public class KsqlRestServiceContextFactory implements Factory<ServiceContext> {
   KsqlRestServiceContextFactory(
       final SecurityContext securityContext,
       final HttpServletRequest request,
+      final ServiceContextPool pool,
       final DefaultServiceContextFactory defaultServiceContextFactory,
       final UserServiceContextFactory userServiceContextFactory
   ) {
@@ -80,6 +88,7 @@ public class KsqlRestServiceContextFactory implements Factory<ServiceContext> {
     this.userServiceContextFactory = requireNonNull(userServiceContextFactory,
         "userServiceContextFactory");
     this.request = requireNonNull(request, "request");
+    this.pool = requireNonNull(pool, "pool");
   }
 
   @Override
@@ -88,22 +97,38 @@ public class KsqlRestServiceContextFactory implements Factory<ServiceContext> {
         Optional.ofNullable(request.getHeader(HttpHeaders.AUTHORIZATION));
 
     if (!securityExtension.getUserContextProvider().isPresent()) {
-      return defaultServiceContextFactory.create(ksqlConfig, authHeader);
+      return create(
+          Optional.empty(),
+          authHeader,
+          () -> defaultServiceContextFactory.create(ksqlConfig, authHeader)
+      );
     }
 
     final Principal principal = securityContext.getUserPrincipal();
     return securityExtension.getUserContextProvider()
         .map(provider ->
-            userServiceContextFactory.create(
-                ksqlConfig,
+            create(
+                Optional.ofNullable(principal).map(Principal::getName),
                 authHeader,
-                provider.getKafkaClientSupplier(principal),
-                provider.getSchemaRegistryClientFactory(principal)))
+                () -> userServiceContextFactory.create(
+                    ksqlConfig,
+                    authHeader,
+                    provider.getKafkaClientSupplier(principal),
+                    provider.getSchemaRegistryClientFactory(principal))))
         .get();
   }
 
   @Override
   public void dispose(final ServiceContext serviceContext) {
+    // Returns a pooled context to the pool:
     serviceContext.close();
   }
+
+  private ServiceContext create(
+      final Optional<String> principal,
+      final Optional<String> authHeader,
+      final Supplier<ServiceContext> factory
+  ) {
+    return pool.lease(principal, authHeader, factory);
+  }
 }
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.context;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.services.ConnectClient;
+import io.confluent.ksql.services.KafkaTopicClient;
+import io.confluent.ksql.services.ServiceContext;
+import io.confluent.ksql.services.SimpleKsqlClient;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.streams.KafkaClientSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded pool of {@link ServiceContext}s, shared by the requests of the same principal.
+ *
+ * <p>Each context is leased for the duration of a request. Closing the leased context returns
+ * it to the pool. A context is closed once it has been evicted from the pool, either because it
+ * has been idle for too long or because the pool is full, and all its leases have been returned.
+ *
+ * <p>A pool with a maximum size of zero is disabled: each lease creates a new context, which is
+ * closed when the lease is.
+ */
+public final class ServiceContextPool implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(ServiceContextPool.class);
+  private static final String METRIC_GROUP = "ksql-service-context-pool";
+
+  private final boolean enabled;
+  private final Cache<Key, Entry> entries;
+  private final Metrics metrics;
+  private final List<MetricName> metricNames;
+
+  /**
+   * Create the pool configured by {@link KsqlConfig#KSQL_SERVICE_CONTEXT_POOL_MAX_SIZE_CONFIG}
+   * and {@link KsqlConfig#KSQL_SERVICE_CONTEXT_POOL_IDLE_TIMEOUT_MS_CONFIG}.
+   *
+   * @param ksqlConfig the server's config.
+   * @return the pool, which is disabled if the configured maximum size is not positive.
+   */
+  public static ServiceContextPool create(final KsqlConfig ksqlConfig) {
+    return new ServiceContextPool(
+        ksqlConfig.getLong(KsqlConfig.KSQL_SERVICE_CONTEXT_POOL_MAX_SIZE_CONFIG),
+        Duration.ofMillis(
+            ksqlConfig.getLong(KsqlConfig.KSQL_SERVICE_CONTEXT_POOL_IDLE_TIMEOUT_MS_CONFIG)),
+        Ticker.systemTicker(),
+        MetricCollectors.getMetrics(),
+        ImmutableMap.of(
+            "ksql-service-id", ksqlConfig.getString(KsqlConfig.KSQL_SERVICE_ID_CONFIG))
+    );
+  }
+
+  @VisibleForTesting
+  ServiceContextPool(
+      final long maxSize,
+      final Duration idleTimeout,
+      final Ticker ticker,
+      final Metrics metrics,
+      final Map<String, String> metricTags
+  ) {
+    requireNonNull(idleTimeout, "idleTimeout");
+    requireNonNull(metricTags, "metricTags");
+    this.enabled = maxSize > 0;
+    this.entries = CacheBuilder.newBuilder()
+        .maximumSize(Math.max(maxSize, 0))
+        .expireAfterAccess(idleTimeout.toMillis(), TimeUnit.MILLISECONDS)
+        .ticker(requireNonNull(ticker, "ticker"))
+        .recordStats()
+        .<Key, Entry>removalListener(notification -> notification.getValue().retire())
+        .build();
+    this.metrics = requireNonNull(metrics, "metrics");
+
+    if (!enabled) {
+      this.metricNames = ImmutableList.of();
+      return;
+    }
+
+    final MetricName size = metrics.metricName(
+        "size", METRIC_GROUP, "The number of pooled service contexts", metricTags);
+    final MetricName hitCount = metrics.metricName(
+        "hit-count", METRIC_GROUP, "The number of requests that reused a pooled service context",
+        metricTags);
+    final MetricName missCount = metrics.metricName(
+        "miss-count", METRIC_GROUP, "The number of requests that created a service context",
+        metricTags);
+    final MetricName evictionCount = metrics.metricName(
+        "eviction-count", METRIC_GROUP, "The number of service contexts evicted from the pool",
+        metricTags);
+    metrics.addMetric(size, (Gauge<Long>) (config, now) -> entries.size());
+    metrics.addMetric(hitCount, (Gauge<Long>) (config, now) -> entries.stats().hitCount());
+    metrics.addMetric(missCount, (Gauge<Long>) (config, now) -> entries.stats().missCount());
+    metrics.addMetric(
+        evictionCount, (Gauge<Long>) (config, now) -> entries.stats().evictionCount());
+    this.metricNames = ImmutableList.of(size, hitCount, missCount, evictionCount);
+  }
+
+  /**
+   * Leases the pooled context for the supplied principal and auth header, creating one with
+   * {@code factory} if there is none.
+   *
+   * <p>The returned context must be closed once the request is complete, which returns it to the
+   * pool rather than closing the underlying clients.
+   */
+  public ServiceContext lease(
+      final Optional<String> principal,
+      final Optional<String> authHeader,
+      final Supplier<ServiceContext> factory
+  ) {
+    if (!enabled) {
+      return factory.get();
+    }
+
+    final Key key = new Key(principal, authHeader);
+    while (true) {
+      final Entry entry = get(key, factory);
+      if (entry.acquire()) {
+        return new LeasedServiceContext(entry);
+      }
+
+      // Evicted between being looked up and leased:
+      entries.asMap().remove(key, entry);
+    }
+  }
+
+  @Override
+  public void close() {
+    metricNames.forEach(metrics::removeMetric);
+    entries.invalidateAll();
+  }
+
+  @VisibleForTesting
+  void cleanUp() {
+    entries.cleanUp();
+  }
+
+  private Entry get(final Key key, final Supplier<ServiceContext> factory) {
+    try {
+      return entries.get(key, () -> new Entry(factory.get()));
+    } catch (final ExecutionException e) {
+      throw new KsqlException(e.getCause());
+    } catch (final UncheckedExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    }
+  }
+
+  private static final class Key {
+
+    private final Optional<String> principal;
+    private final Optional<String> authHeader;
+
+    Key(final Optional<String> principal, final Optional<String> authHeader) {
+      this.principal = requireNonNull(principal, "principal");
+      this.authHeader = requireNonNull(authHeader, "authHeader");
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key key = (Key) o;
+      return principal.equals(key.principal)
+          && authHeader.equals(key.authHeader);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(principal, authHeader);
+    }
+  }
+
+  private static final class Entry {
+
+    private final ServiceContext serviceContext;
+    private int leases;
+    private boolean retired;
+    private boolean closed;
+
+    Entry(final ServiceContext serviceContext) {
+      this.serviceContext = requireNonNull(serviceContext, "serviceContext");
+    }
+
+    synchronized boolean acquire() {
+      if (retired) {
+        return false;
+      }
+      leases++;
+      return true;
+    }
+
+    synchronized void release() {
+      leases--;
+      maybeClose();
+    }
+
+    synchronized void retire() {
+      retired = true;
+      maybeClose();
+    }
+
+    private void maybeClose() {
+      if (!retired || leases > 0 || closed) {
+        return;
+      }
+
+      closed = true;
+      try {
+        serviceContext.close();
+      } catch (final Exception e) {
+        log.warn("Failed to close pooled service context", e);
+      }
+    }
+  }
+
+  private static final class LeasedServiceContext implements ServiceContext {
+
+    private final Entry entry;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    LeasedServiceContext(final Entry entry) {
+      this.entry = requireNonNull(entry, "entry");
+    }
+
+    @Override
+    public Admin getAdminClient() {
+      return entry.serviceContext.getAdminClient();
+    }
+
+    @Override
+    public KafkaTopicClient getTopicClient() {
+      return entry.serviceContext.getTopicClient();
+    }
+
+    @Override
+    public KafkaClientSupplier getKafkaClientSupplier() {
+      return entry.serviceContext.getKafkaClientSupplier();
+    }
+
+    @Override
+    public SchemaRegistryClient getSchemaRegistryClient() {
+      return entry.serviceContext.getSchemaRegistryClient();
+    }
+
+    @Override
+    public Supplier<SchemaRegistryClient> getSchemaRegistryClientFactory() {
+      return entry.serviceContext.getSchemaRegistryClientFactory();
+    }
+
+    @Override
+    public ConnectClient getConnectClient() {
+      return entry.serviceContext.getConnectClient();
+    }
+
+    @Override
+    public SimpleKsqlClient getKsqlClient() {
+      return entry.serviceContext.getKsqlClient();
+    }
+
+    @Override
+    public void close() {
+      if (released.compareAndSet(false, true)) {
+        entry.release();
+      }
+    }
+  }
+}
@@ -27,8 +27,6 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.KsqlExecutionContext;
 import io.confluent.ksql.analyzer.Analysis;
 import io.confluent.ksql.analyzer.QueryAnalyzer;
-import io.confluent.ksql.execution.context.QueryContext;
-import io.confluent.ksql.execution.context.QueryContext.Stacker;
 import io.confluent.ksql.execution.expression.tree.ColumnReferenceExp;
 import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
 import io.confluent.ksql.execution.expression.tree.ComparisonExpression.Type;
@@ -44,6 +42,8 @@ import io.confluent.ksql.execution.streams.SelectValueMapperFactory;
 import io.confluent.ksql.execution.streams.materialization.Locator;
 import io.confluent.ksql.execution.streams.materialization.Locator.KsqlNode;
 import io.confluent.ksql.execution.streams.materialization.Materialization;
+import io.confluent.ksql.execution.streams.materialization.MaterializationCache;
+import io.confluent.ksql.execution.streams.materialization.MaterializationException;
 import io.confluent.ksql.execution.streams.materialization.MaterializationTimeOutException;
 import io.confluent.ksql.execution.streams.materialization.TableRow;
 import io.confluent.ksql.execution.util.ExpressionTypeManager;
@@ -86,10 +86,12 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.connect.data.Struct;
 
 // CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
@@ -97,6 +99,7 @@ public final class StaticQueryExecutor {
   // CHECKSTYLE_RULES.ON: ClassDataAbstractionCoupling
 
   private static final Duration OWNERSHIP_TIMEOUT = Duration.ofSeconds(30);
+  private static final Duration OWNERSHIP_POLL_INTERVAL = Duration.ofMillis(10);
   private static final Set<Type> VALID_WINDOW_BOUNDS_TYPES = ImmutableSet.of(
       Type.EQUAL,
       Type.GREATER_THAN,
@@ -152,12 +155,15 @@ public final class StaticQueryExecutor {
       final WhereInfo whereInfo = extractWhereInfo(analysis, query);
 
       final QueryId queryId = uniqueQueryId();
-      final QueryContext.Stacker contextStacker = new Stacker();
 
-      final Materialization mat = query
-          .getMaterialization(queryId, contextStacker)
+      final Materialization cachedMat = query
+          .getMaterialization()
           .orElseThrow(() -> notMaterializedException(getSourceName(analysis)));
 
+      final Materialization mat = isCacheEnabled(statement)
+          ? cachedMat
+          : MaterializationCache.uncached(cachedMat);
+
       final Struct rowKey = asKeyStruct(whereInfo.rowkey, query.getPhysicalSchema());
 
       final KsqlNode owner = getOwner(rowKey, mat);
@@ -165,6 +171,13 @@ public final class StaticQueryExecutor {
         return Optional.of(proxyTo(owner, statement, serviceContext));
       }
 
+      // Finding the lag is not free, so is skipped if it is not bounded:
+      final long maxAllowedOffsetLag = maxAllowedOffsetLag(statement);
+      final OptionalLong offsetLag = maxAllowedOffsetLag == Long.MAX_VALUE
+          ? OptionalLong.empty()
+          : mat.offsetLag();
+      checkOffsetLag(offsetLag, maxAllowedOffsetLag);
+
       final Result result;
       if (whereInfo.windowStartBounds.isPresent()) {
         final Range<Instant> windowStart = whereInfo.windowStartBounds.get();
@@ -200,7 +213,8 @@ public final class StaticQueryExecutor {
           statement.getStatementText(),
           queryId,
           outputSchema,
-          rows
+          rows,
+          offsetLag.isPresent() ? Optional.of(offsetLag.getAsLong()) : Optional.empty()
       );
 
       return Optional.of(entity);
@@ -651,6 +665,13 @@ public final class StaticQueryExecutor {
       if (owner.isPresent()) {
         return owner.get();
       }
+
+      try {
+        Thread.sleep(OWNERSHIP_POLL_INTERVAL.toMillis());
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new MaterializationException("Interrupted while locating the owner of the key", e);
+      }
     }
 
     throw new MaterializationTimeOutException(
@@ -658,6 +679,37 @@ public final class StaticQueryExecutor {
     );
   }
 
+  private static boolean isCacheEnabled(final ConfiguredStatement<Query> statement) {
+    final String cacheConfig = KsqlConfig.KSQL_QUERY_PULL_CACHE_ENABLED_CONFIG;
+    final Object override = statement.getOverrides().get(cacheConfig);
+    return override == null
+        ? statement.getConfig().getBoolean(cacheConfig)
+        : (Boolean) ConfigDef.parseType(cacheConfig, override, ConfigDef.Type.BOOLEAN);
+  }
+
+  private static long maxAllowedOffsetLag(final ConfiguredStatement<Query> statement) {
+    final String lagConfig = KsqlConfig.KSQL_QUERY_PULL_MAX_ALLOWED_OFFSET_LAG_CONFIG;
+    final Object override = statement.getOverrides().get(lagConfig);
+    return override == null
+        ? statement.getConfig().getLong(lagConfig)
+        : (Long) ConfigDef.parseType(lagConfig, override, ConfigDef.Type.LONG);
+  }
+
+  private static void checkOffsetLag(
+      final OptionalLong offsetLag,
+      final long maxAllowed
+  ) {
+    if (!offsetLag.isPresent()) {
+      return;
+    }
+
+    if (offsetLag.getAsLong() > maxAllowed) {
+      throw new MaterializationException("The state store's offset lag exceeds the maximum "
+          + "allowed. lag: " + offsetLag.getAsLong() + ", "
+          + KsqlConfig.KSQL_QUERY_PULL_MAX_ALLOWED_OFFSET_LAG_CONFIG + ": " + maxAllowed);
+    }
+  }
+
   private static KsqlEntity proxyTo(
       final KsqlNode owner,
       final ConfiguredStatement<Query> statement,
@@ -665,7 +717,7 @@ public final class StaticQueryExecutor {
   ) {
     final RestResponse<KsqlEntityList> response = serviceContext
         .getKsqlClient()
-        .makeKsqlRequest(owner.location(), statement.getStatementText());
+        .makeKsqlRequest(owner.location(), statement.getStatementText(), statement.getOverrides());
 
     if (response.isErroneous()) {
       throw new KsqlServerException("Proxy attempt failed: " + response.getErrorMessage());
@@ -16,51 +16,83 @@
 package io.confluent.ksql.rest.server.resources;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.confluent.ksql.rest.entity.HealthCheckResponse;
 import io.confluent.ksql.rest.entity.Versions;
 import io.confluent.ksql.rest.healthcheck.HealthCheckAgent;
 import io.confluent.ksql.rest.server.KsqlRestConfig;
 import io.confluent.ksql.rest.server.services.ServerInternalKsqlClient;
 import io.confluent.ksql.services.ServiceContext;
+import java.io.Closeable;
 import java.time.Duration;
 import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Serves the result of the most recent health check.
+ *
+ * <p>Once {@link #start() started}, checks are run on a background thread, every
+ * {@code healthCheckInterval}, so that probes by load balancers do not each issue statements
+ * against the server. Until the first check completes, or if the checks have not been started,
+ * a request runs the checks before responding. A request with {@code refresh=true} always runs
+ * the checks before responding.
+ */
 @Path("/healthcheck")
 @Produces({Versions.KSQL_V1_JSON, MediaType.APPLICATION_JSON})
-public class HealthCheckResource {
+public class HealthCheckResource implements Closeable {
 
-  private static final Boolean KEY = Boolean.TRUE;
+  private static final Logger LOG = LoggerFactory.getLogger(HealthCheckResource.class);
 
-  private final LoadingCache<Boolean, HealthCheckResponse> responseCache;
+  private final HealthCheckAgent healthCheckAgent;
+  private final Duration healthCheckInterval;
+  private final ScheduledExecutorService executor;
+  private final AtomicReference<HealthCheckResponse> cachedResponse = new AtomicReference<>();
 
   @VisibleForTesting
   HealthCheckResource(
       final HealthCheckAgent healthCheckAgent,
-      final Duration healthCheckInterval
+      final Duration healthCheckInterval,
+      final ScheduledExecutorService executor
   ) {
-    Objects.requireNonNull(healthCheckAgent, "healthCheckAgent");
-    Objects.requireNonNull(healthCheckInterval, "healthCheckInterval");
-    this.responseCache = createResponseCache(healthCheckAgent, healthCheckInterval);
+    this.healthCheckAgent = Objects.requireNonNull(healthCheckAgent, "healthCheckAgent");
+    this.healthCheckInterval = Objects.requireNonNull(healthCheckInterval, "healthCheckInterval");
+    this.executor = Objects.requireNonNull(executor, "executor");
+  }
+
+  /**
+   * Starts running checks in the background.
+   *
+   * <p>Should only be called once the server is ready to handle the statements the checks issue.
+   */
+  public void start() {
+    executor.scheduleWithFixedDelay(
+        this::scheduledRefresh,
+        0,
+        healthCheckInterval.toMillis(),
+        TimeUnit.MILLISECONDS
+    );
   }
 
   @GET
-  public Response checkHealth() {
-    return Response.ok(getResponse()).build();
+  public Response checkHealth(@QueryParam("refresh") final boolean refresh) {
+    final HealthCheckResponse response = refresh ? refresh() : getResponse();
+    return Response.ok(response).build();
   }
 
-  private HealthCheckResponse getResponse() {
-    // This calls healthCheckAgent.checkHealth() if the cached result is expired
-    return responseCache.getUnchecked(KEY);
+  @Override
+  public void close() {
+    executor.shutdownNow();
   }
 
   public static HealthCheckResource create(
@@ -72,26 +104,41 @@ public class HealthCheckResource {
         new HealthCheckAgent(
             new ServerInternalKsqlClient(ksqlResource, serviceContext),
             restConfig),
-        Duration.ofMillis(restConfig.getLong(KsqlRestConfig.KSQL_HEALTHCHECK_INTERVAL_MS_CONFIG))
+        Duration.ofMillis(restConfig.getLong(KsqlRestConfig.KSQL_HEALTHCHECK_INTERVAL_MS_CONFIG)),
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("health-check-thread-%d")
+                .build()
+        )
     );
   }
 
-  private static LoadingCache<Boolean, HealthCheckResponse> createResponseCache(
-      final HealthCheckAgent healthCheckAgent,
-      final Duration cacheDuration
-  ) {
-    final CacheLoader<Boolean, HealthCheckResponse> loader =
-        new CacheLoader<Boolean, HealthCheckResponse>() {
-          @Override
-          public HealthCheckResponse load(@Nonnull final Boolean key) {
-            if (!key.equals(KEY)) {
-              throw new IllegalArgumentException("Unexpected response cache key: " + key);
-            }
-            return healthCheckAgent.checkHealth();
-          }
-        };
-    return CacheBuilder.newBuilder()
-        .expireAfterWrite(cacheDuration.toMillis(), TimeUnit.MILLISECONDS)
-        .build(loader);
+  private HealthCheckResponse getResponse() {
+    final HealthCheckResponse cached = cachedResponse.get();
+    if (cached != null) {
+      return cached;
+    }
+
+    synchronized (this) {
+      // The first scheduled check may have completed while waiting:
+      final HealthCheckResponse checked = cachedResponse.get();
+      return checked != null ? checked : refresh();
+    }
+  }
+
+  private synchronized HealthCheckResponse refresh() {
+    final HealthCheckResponse response = healthCheckAgent.checkHealth();
+    cachedResponse.set(response);
+    return response;
+  }
+
+  private void scheduledRefresh() {
+    try {
+      refresh();
+    } catch (final Exception e) {
+      // Do not let the exception cancel subsequent checks:
+      LOG.error("Failed to check health", e);
+    }
   }
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.resources.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.ksql.util.TransientQueryMetadata;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.servlet.AsyncContext;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import javax.ws.rs.core.HttpHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Servlet filter, installed ahead of the JAX-RS application, that writes the results of push
+ * queries to the client using non-blocking servlet I/O.
+ *
+ * <p>Requests are handled by {@link StreamedQueryResource} as normal. If the resource chooses to
+ * stream a query asynchronously, it {@link #handOff hands the query off} to this filter and
+ * returns a response with no entity. The status and headers the application sets are passed on to
+ * the client, but its empty body, and the closing of the response, are not. Once the application
+ * has finished with the request, the filter puts the request into async mode and an
+ * {@link AsyncQueryStreamWriter} writes the query's rows whenever the connection is ready.
+ */
+public final class AsyncQueryStreamFilter implements Filter {
+
+  private static final Logger log = LoggerFactory.getLogger(AsyncQueryStreamFilter.class);
+
+  private static final String QUERY_ATTRIBUTE = AsyncQueryStreamFilter.class.getName() + ".query";
+
+  private final ScheduledExecutorService exec;
+  private final Duration disconnectCheckInterval;
+  private final ObjectMapper objectMapper;
+
+  public AsyncQueryStreamFilter(
+      final ScheduledExecutorService exec,
+      final Duration disconnectCheckInterval,
+      final ObjectMapper objectMapper
+  ) {
+    this.exec = Objects.requireNonNull(exec, "exec");
+    this.disconnectCheckInterval =
+        Objects.requireNonNull(disconnectCheckInterval, "disconnectCheckInterval");
+    this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
+  }
+
+  /**
+   * Hands a query off to the filter, to be streamed once the application has finished with the
+   * request.
+   *
+   * @param request the request the query was issued by.
+   * @param query the query to stream.
+   */
+  static void handOff(final HttpServletRequest request, final TransientQueryMetadata query) {
+    request.setAttribute(QUERY_ATTRIBUTE, Objects.requireNonNull(query, "query"));
+  }
+
+  @Override
+  public void init(final FilterConfig filterConfig) {
+  }
+
+  @Override
+  public void doFilter(
+      final ServletRequest request,
+      final ServletResponse response,
+      final FilterChain chain
+  ) throws IOException, ServletException {
+    if (!(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse)) {
+      chain.doFilter(request, response);
+      return;
+    }
+
+    final HttpServletRequest httpRequest = (HttpServletRequest) request;
+    final HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+    chain.doFilter(request, new HandOffResponse(httpRequest, httpResponse));
+
+    final Object handedOff = request.getAttribute(QUERY_ATTRIBUTE);
+    if (!(handedOff instanceof TransientQueryMetadata)) {
+      return;
+    }
+
+    request.removeAttribute(QUERY_ATTRIBUTE);
+    final TransientQueryMetadata query = (TransientQueryMetadata) handedOff;
+
+    try {
+      final AsyncContext asyncContext = request.startAsync(request, response);
+
+      AsyncQueryStreamWriter.start(
+          query,
+          asyncContext,
+          exec,
+          disconnectCheckInterval.toMillis(),
+          objectMapper,
+          QueryStreamEncoding.fromAccept(httpRequest.getHeader(HttpHeaders.ACCEPT))
+      );
+    } catch (final IOException | RuntimeException e) {
+      log.error("Failed to start streaming query {}", query.getQueryApplicationId(), e);
+      query.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public void destroy() {
+  }
+
+  /**
+   * Passes the application's status and headers through to the client, but discards its body
+   * once a query has been handed off.
+   */
+  private static final class HandOffResponse extends HttpServletResponseWrapper {
+
+    private final HttpServletRequest request;
+
+    HandOffResponse(final HttpServletRequest request, final HttpServletResponse response) {
+      super(response);
+      this.request = Objects.requireNonNull(request, "request");
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      return isHandedOff() ? new DiscardingOutputStream() : super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      return isHandedOff()
+          ? new PrintWriter(new OutputStreamWriter(
+              new DiscardingOutputStream(), StandardCharsets.UTF_8))
+          : super.getWriter();
+    }
+
+    @Override
+    public void setContentLength(final int len) {
+      if (!isHandedOff()) {
+        super.setContentLength(len);
+      }
+    }
+
+    @Override
+    public void setContentLengthLong(final long len) {
+      if (!isHandedOff()) {
+        super.setContentLengthLong(len);
+      }
+    }
+
+    @Override
+    public void setHeader(final String name, final String value) {
+      if (!isHandedOff() || !isContentLength(name)) {
+        super.setHeader(name, value);
+      }
+    }
+
+    @Override
+    public void addHeader(final String name, final String value) {
+      if (!isHandedOff() || !isContentLength(name)) {
+        super.addHeader(name, value);
+      }
+    }
+
+    private boolean isHandedOff() {
+      return request.getAttribute(QUERY_ATTRIBUTE) != null;
+    }
+
+    private static boolean isContentLength(final String name) {
+      return HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+    }
+  }
+
+  private static final class DiscardingOutputStream extends ServletOutputStream {
+
+    @Override
+    public boolean isReady() {
+      return true;
+    }
+
+    @Override
+    public void setWriteListener(final WriteListener writeListener) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void write(final int b) {
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+    }
+  }
+}
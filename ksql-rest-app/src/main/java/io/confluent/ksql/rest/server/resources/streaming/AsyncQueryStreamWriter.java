@@ -0,0 +1,349 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.resources.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.query.BlockingRowQueue;
+import io.confluent.ksql.rest.Errors;
+import io.confluent.ksql.rest.entity.StreamedRow;
+import io.confluent.ksql.rest.server.resources.streaming.QueryStreamEncoding.Encoder;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.TransientQueryMetadata;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streams the rows of a transient query to the client using non-blocking servlet I/O.
+ *
+ * <p>Unlike {@link QueryStreamWriter}, no thread is held for the lifetime of the query. Rows are
+ * written in batches only while the container reports the connection as ready for more, from the
+ * container's own thread or a thread of the supplied executor. While there is nothing to write
+ * the writer is idle, and is woken up when rows are queued, when the query completes or fails,
+ * or when it is time to check the client is still connected.
+ *
+ * <p>A slow client therefore simply leaves rows in the query's queue, where they are subject to
+ * the queue's overflow policy.
+ */
+final class AsyncQueryStreamWriter implements WriteListener, AsyncListener {
+
+  private static final Logger log = LoggerFactory.getLogger(AsyncQueryStreamWriter.class);
+  private static final int WRITE_BATCH_SIZE = 500;
+
+  private final TransientQueryMetadata queryMetadata;
+  private final BlockingRowQueue rowQueue;
+  private final AsyncContext asyncContext;
+  private final ServletOutputStream output;
+  private final ScheduledExecutorService exec;
+  private final Encoder encoder;
+  private final List<GenericRow> batch = new ArrayList<>();
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+  private final AtomicBoolean idle = new AtomicBoolean(false);
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+  private final ScheduledFuture<?> disconnectCheck;
+  private volatile Exception streamsException;
+  private volatile boolean limitReached = false;
+  private volatile boolean probeDue = false;
+  private byte[] header;
+  private boolean needsFlush = false;
+  private boolean finished = false;
+
+  /**
+   * Starts the query and begins streaming its rows to the client.
+   *
+   * <p>The response must already be in async mode, with its status and headers set.
+   *
+   * @param queryMetadata the query to stream.
+   * @param asyncContext the async context of the request.
+   * @param exec the executor used to resume writing once rows are available.
+   * @param disconnectCheckInterval how often to check the client is still connected.
+   * @param objectMapper the mapper used to serialize rows.
+   * @param encoding the encoding of the response.
+   * @throws IOException if the response's output stream can not be obtained.
+   */
+  static void start(
+      final TransientQueryMetadata queryMetadata,
+      final AsyncContext asyncContext,
+      final ScheduledExecutorService exec,
+      final long disconnectCheckInterval,
+      final ObjectMapper objectMapper,
+      final QueryStreamEncoding encoding
+  ) throws IOException {
+    final AsyncQueryStreamWriter writer = new AsyncQueryStreamWriter(
+        queryMetadata,
+        asyncContext,
+        asyncContext.getResponse().getOutputStream(),
+        exec,
+        disconnectCheckInterval,
+        objectMapper,
+        encoding
+    );
+
+    asyncContext.setTimeout(0);
+    asyncContext.addListener(writer);
+    queryMetadata.start();
+    writer.output.setWriteListener(writer);
+  }
+
+  private AsyncQueryStreamWriter(
+      final TransientQueryMetadata queryMetadata,
+      final AsyncContext asyncContext,
+      final ServletOutputStream output,
+      final ScheduledExecutorService exec,
+      final long disconnectCheckInterval,
+      final ObjectMapper objectMapper,
+      final QueryStreamEncoding encoding
+  ) throws IOException {
+    this.queryMetadata = Objects.requireNonNull(queryMetadata, "queryMetadata");
+    this.rowQueue = queryMetadata.getRowQueue();
+    this.asyncContext = Objects.requireNonNull(asyncContext, "asyncContext");
+    this.output = Objects.requireNonNull(output, "output");
+    this.exec = Objects.requireNonNull(exec, "exec");
+    this.encoder = Objects.requireNonNull(encoding, "encoding").encoder(
+        queryMetadata.getLogicalSchema().value(),
+        Objects.requireNonNull(objectMapper, "objectMapper")
+    );
+
+    encoder.writeHeader(buffer);
+    this.header = buffer.size() == 0 ? null : buffer.toByteArray();
+
+    this.queryMetadata.setLimitHandler(() -> {
+      limitReached = true;
+      wake();
+    });
+    this.queryMetadata.setUncaughtExceptionHandler((thread, e) -> {
+      streamsException = e instanceof Exception ? (Exception) e : new RuntimeException(e);
+      wake();
+    });
+
+    this.disconnectCheck = exec.scheduleWithFixedDelay(
+        () -> {
+          probeDue = true;
+          wake();
+        },
+        disconnectCheckInterval,
+        disconnectCheckInterval,
+        TimeUnit.MILLISECONDS
+    );
+  }
+
+  @Override
+  public void onWritePossible() {
+    if (closed.get()) {
+      return;
+    }
+
+    try {
+      while (output.isReady()) {
+        if (header != null) {
+          output.write(header);
+          header = null;
+          needsFlush = true;
+          continue;
+        }
+
+        if (needsFlush) {
+          needsFlush = false;
+          output.flush();
+          continue;
+        }
+
+        if (finished) {
+          complete();
+          return;
+        }
+
+        if (!writeNext()) {
+          awaitRows();
+          return;
+        }
+      }
+    } catch (final Exception e) {
+      onError(e);
+    }
+  }
+
+  @Override
+  public void onError(final Throwable t) {
+    // The most likely cause of this is the user terminating the connection:
+    log.warn("Query terminated due to exception:" + t.toString());
+    complete();
+  }
+
+  @Override
+  public void onComplete(final AsyncEvent event) {
+    closeQuery();
+  }
+
+  @Override
+  public void onTimeout(final AsyncEvent event) {
+    complete();
+  }
+
+  @Override
+  public void onError(final AsyncEvent event) {
+    closeQuery();
+  }
+
+  @Override
+  public void onStartAsync(final AsyncEvent event) {
+  }
+
+  /**
+   * Writes the next batch of rows or, if there are none, whatever the state of the query
+   * requires.
+   *
+   * @return {@code false} if there was nothing to write.
+   */
+  private boolean writeNext() throws IOException, InterruptedException {
+    batch.clear();
+    rowQueue.drainRowsTo(batch, WRITE_BATCH_SIZE, 0, TimeUnit.MILLISECONDS);
+    if (!batch.isEmpty()) {
+      write(batch);
+      probeDue = false;
+      return true;
+    }
+
+    if (streamsException != null) {
+      log.error("Exception occurred while writing to connection stream: ", streamsException);
+      writeError(streamsException);
+      return true;
+    }
+
+    if (rowQueue.hasOverflowed()) {
+      writeError(new KsqlException("Client is not consuming rows fast enough. "
+          + "Query terminated as its buffer overflowed."));
+      return true;
+    }
+
+    if (limitReached) {
+      buffer.reset();
+      encoder.write(StreamedRow.finalMessage("Limit Reached"), buffer);
+      writeFinal();
+      return true;
+    }
+
+    if (!queryMetadata.isRunning()) {
+      finished = true;
+      return true;
+    }
+
+    if (probeDue) {
+      // If no new rows have been written, the user may have terminated the connection without
+      // us knowing. Check by trying to write something the client will ignore.
+      probeDue = false;
+      buffer.reset();
+      encoder.writeEmpty(buffer);
+      buffer.writeTo(output);
+      needsFlush = true;
+      return true;
+    }
+
+    return false;
+  }
+
+  private void write(final List<GenericRow> rows) throws IOException {
+    buffer.reset();
+    for (final GenericRow row : rows) {
+      encoder.write(StreamedRow.row(row), buffer);
+    }
+    buffer.writeTo(output);
+    needsFlush = true;
+  }
+
+  private void writeError(final Throwable exception) throws IOException {
+    final Throwable error = exception.getCause() instanceof KsqlException
+        ? exception.getCause()
+        : exception;
+
+    buffer.reset();
+    encoder.writeEmpty(buffer);
+    encoder.write(StreamedRow.error(error, Errors.ERROR_CODE_SERVER_ERROR), buffer);
+    writeFinal();
+  }
+
+  private void writeFinal() throws IOException {
+    buffer.writeTo(output);
+    needsFlush = true;
+    finished = true;
+  }
+
+  /**
+   * Goes idle until woken by rows being queued, or any of the other events that need handling.
+   */
+  private void awaitRows() {
+    idle.set(true);
+    rowQueue.notifyWhenAvailable(this::wake);
+
+    // Re-check, as any event that occurred before going idle will not have woken us:
+    if (limitReached || streamsException != null || probeDue || !queryMetadata.isRunning()) {
+      wake();
+    }
+  }
+
+  private void wake() {
+    if (!idle.compareAndSet(true, false)) {
+      return;
+    }
+
+    try {
+      exec.execute(this::onWritePossible);
+    } catch (final RejectedExecutionException e) {
+      log.warn("Unable to resume writing query results as the server is shutting down");
+      complete();
+    }
+  }
+
+  private void complete() {
+    closeQuery();
+
+    try {
+      asyncContext.complete();
+    } catch (final IllegalStateException e) {
+      // Already completed by the container.
+      log.debug("Response for query {} already completed", queryMetadata.getQueryApplicationId());
+    }
+  }
+
+  private void closeQuery() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+
+    disconnectCheck.cancel(false);
+
+    try {
+      queryMetadata.close();
+    } catch (final Exception e) {
+      log.error("Failed to close query {}", queryMetadata.getQueryApplicationId(), e);
+    }
+  }
+}
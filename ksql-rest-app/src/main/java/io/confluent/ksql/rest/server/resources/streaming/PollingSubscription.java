@@ -16,12 +16,27 @@
 package io.confluent.ksql.rest.server.resources.streaming;
 
 import com.google.common.base.Preconditions;
-import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * A subscription that delivers items as soon as they are available, for as long as the
+ * subscriber has outstanding demand.
+ *
+ * <p>Demand is credit based: each call to {@link #request(long)} grants credit for that many
+ * more items, and each item delivered consumes one. Items are delivered by a single task on the
+ * executor, which runs until either the subscriber runs out of credit or there is nothing left
+ * to {@link #poll()}. It is then rescheduled by the next request for more items or, while there
+ * is still credit, by {@link #awaitItems()}.
+ *
+ * <p>By default, {@code awaitItems} polls again after a short backoff. Subclasses whose source
+ * can notify them of new items should override it to call {@link #scheduleDrain()} instead.
+ */
 public abstract class PollingSubscription<T> implements Flow.Subscription {
 
   private static final int BACKOFF_DELAY_MS = 100;
@@ -29,12 +44,14 @@ public abstract class PollingSubscription<T> implements Flow.Subscription {
   private final Flow.Subscriber<T> subscriber;
   private final ListeningScheduledExecutorService exec;
   private final LogicalSchema schema;
+  private final AtomicBoolean needsSchema = new AtomicBoolean(true);
+  private final AtomicLong demand = new AtomicLong();
+  private final AtomicBoolean scheduled = new AtomicBoolean(false);
+  private final AtomicBoolean closed = new AtomicBoolean(false);
 
-  private boolean needsSchema = true;
   private volatile boolean done = false;
-  private Throwable exception = null;
-  private boolean draining = false;
-  private volatile ListenableFuture<?> future;
+  private volatile boolean cancelled = false;
+  private volatile Throwable exception = null;
 
   public PollingSubscription(
       final ListeningScheduledExecutorService exec,
@@ -48,59 +65,113 @@ public abstract class PollingSubscription<T> implements Flow.Subscription {
 
   @Override
   public void cancel() {
-    if (future != null) {
-      future.cancel(false);
-    }
-    exec.submit(this::close);
+    cancelled = true;
+    exec.submit(this::closeOnce);
   }
 
   @Override
   public void request(final long n) {
-    Preconditions.checkArgument(n == 1, "number of requested items must be 1");
+    Preconditions.checkArgument(n > 0, "number of requested items must be positive");
 
-    if (needsSchema) {
-      if (schema != null) {
-        subscriber.onSchema(schema);
-      }
-      needsSchema = false;
+    if (needsSchema.compareAndSet(true, false) && schema != null) {
+      subscriber.onSchema(schema);
     }
-    // check status since request() can be reentrant through subscriber.onNext()
-    // this is to prevent another thread from calling onNext again
-    // while the first one is draining and closing the subscription after having called onNext
-    // with the last element polled from the queue after being marked done.
-    if (!draining) {
-      future = exec.submit(() -> {
-
-        if (done) {
-          draining = true;
-        }
+
+    demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+    scheduleDrain();
+  }
+
+  protected void setError(final Throwable e) {
+    exception = e;
+    setDone();
+  }
+
+  protected void setDone() {
+    done = true;
+    scheduleDrain();
+  }
+
+  /**
+   * Schedules delivery of available items, unless delivery is already scheduled or running.
+   *
+   * <p>Safe to call from any thread, including producer threads.
+   */
+  protected final void scheduleDrain() {
+    if (cancelled || closed.get() || !scheduled.compareAndSet(false, true)) {
+      return;
+    }
+
+    try {
+      exec.submit(this::drain);
+    } catch (final RejectedExecutionException e) {
+      scheduled.set(false);
+    }
+  }
+
+  /**
+   * Called when the subscriber has outstanding demand but there are no items to deliver.
+   *
+   * <p>Implementations must arrange for {@link #scheduleDrain()} to be called once items may
+   * be available.
+   */
+  protected void awaitItems() {
+    exec.schedule(this::scheduleDrain, BACKOFF_DELAY_MS, TimeUnit.MILLISECONDS);
+  }
+
+  private void drain() {
+    try {
+      while (demand.get() > 0 && !cancelled) {
+        // Once done, poll one last time to drain anything left before completing:
+        final boolean draining = done;
+
         final T item = poll();
-        if (item == null) {
-          if (!draining) {
-            future = exec.schedule(() -> request(1), BACKOFF_DELAY_MS, TimeUnit.MILLISECONDS);
-          }
-        } else {
+        if (item != null) {
+          demand.decrementAndGet();
           subscriber.onNext(item);
         }
+
         if (draining) {
-          close();
-          if (exception != null) {
-            subscriber.onError(exception);
-          } else {
-            subscriber.onComplete();
-          }
+          complete();
+          return;
         }
-      });
+
+        if (item == null) {
+          break;
+        }
+      }
+    } finally {
+      scheduled.set(false);
+    }
+
+    // Re-check, as demand or items may have arrived after the loop exited:
+    if (demand.get() > 0 && !cancelled && !closed.get()) {
+      if (done) {
+        scheduleDrain();
+      } else {
+        awaitItems();
+      }
     }
   }
 
-  protected void setError(final Throwable e) {
-    exception = e;
-    done = true;
+  private void complete() {
+    if (!closeOnce()) {
+      return;
+    }
+
+    if (exception != null) {
+      subscriber.onError(exception);
+    } else {
+      subscriber.onComplete();
+    }
   }
 
-  protected void setDone() {
-    done = true;
+  private boolean closeOnce() {
+    if (!closed.compareAndSet(false, true)) {
+      return false;
+    }
+
+    close();
+    return true;
   }
 
   abstract T poll();
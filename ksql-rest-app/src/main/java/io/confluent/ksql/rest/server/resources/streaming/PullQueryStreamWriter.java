@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.resources.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.rest.entity.StreamedRow;
+import io.confluent.ksql.rest.entity.TableRowsEntity;
+import io.confluent.ksql.rest.server.resources.streaming.QueryStreamEncoding.Encoder;
+import io.confluent.ksql.schema.ksql.Column;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Writes the result of a static query in the same encoding as the rows of a streamed query.
+ *
+ * <p>Each row holds the key columns of the result's schema, followed by its value columns.
+ */
+class PullQueryStreamWriter implements StreamingOutput {
+
+  private final TableRowsEntity result;
+  private final Encoder encoder;
+
+  PullQueryStreamWriter(
+      final TableRowsEntity result,
+      final ObjectMapper objectMapper,
+      final QueryStreamEncoding encoding
+  ) {
+    this.result = Objects.requireNonNull(result, "result");
+    this.encoder = Objects.requireNonNull(encoding, "encoding")
+        .encoder(columns(result.getSchema()), objectMapper);
+  }
+
+  @Override
+  public void write(final OutputStream out) throws IOException {
+    encoder.writeHeader(out);
+    for (final List<?> row : result.getRows()) {
+      encoder.write(StreamedRow.row(new GenericRow(new ArrayList<>(row))), out);
+    }
+    out.flush();
+  }
+
+  private static List<Column> columns(final LogicalSchema schema) {
+    return ImmutableList.<Column>builder()
+        .addAll(schema.key())
+        .addAll(schema.value())
+        .build();
+  }
+}
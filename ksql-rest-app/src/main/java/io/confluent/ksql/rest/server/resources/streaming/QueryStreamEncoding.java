@@ -0,0 +1,164 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.resources.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.ksql.rest.entity.StreamedRow;
+import io.confluent.ksql.rest.entity.StreamedRowBinaryCodec;
+import io.confluent.ksql.rest.entity.Versions;
+import io.confluent.ksql.schema.ksql.Column;
+import io.confluent.ksql.schema.ksql.types.Field;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * The encodings in which the results of a streamed query can be written.
+ */
+enum QueryStreamEncoding {
+
+  /**
+   * A JSON {@link StreamedRow} per line. Blank lines are ignored by clients.
+   */
+  JSON {
+    @Override
+    Encoder encoder(final List<Column> columns, final ObjectMapper objectMapper) {
+      return new JsonEncoder(objectMapper);
+    }
+  },
+
+  /**
+   * Length-prefixed binary frames, as defined by {@link StreamedRowBinaryCodec}.
+   */
+  BINARY {
+    @Override
+    Encoder encoder(final List<Column> columns, final ObjectMapper objectMapper) {
+      return new BinaryEncoder(columns);
+    }
+  };
+
+  private static final byte[] NEW_LINE = "\n".getBytes(StandardCharsets.UTF_8);
+
+  /**
+   * Creates an encoder for a single stream of results.
+   *
+   * @param columns the columns of each row in the stream.
+   * @param objectMapper the mapper used to serialize rows as JSON.
+   * @return the encoder.
+   */
+  abstract Encoder encoder(List<Column> columns, ObjectMapper objectMapper);
+
+  /**
+   * Encodes a single stream of results. Not thread safe.
+   */
+  interface Encoder {
+
+    /**
+     * Writes anything that must precede the first row.
+     */
+    void writeHeader(OutputStream out) throws IOException;
+
+    void write(StreamedRow row, OutputStream out) throws IOException;
+
+    /**
+     * Writes something clients will ignore, used to check they are still connected.
+     */
+    void writeEmpty(OutputStream out) throws IOException;
+  }
+
+  /**
+   * Picks the encoding to use from the request's {@code Accept} header. The binary encoding is
+   * only used when explicitly requested, as older clients expect JSON.
+   */
+  static QueryStreamEncoding fromAccept(final String accept) {
+    if (accept != null && accept.contains(Versions.KSQL_V1_BINARY)) {
+      return BINARY;
+    }
+    return JSON;
+  }
+
+  /**
+   * Picks the content type of the response, matching the order of preference given by
+   * {@code @Produces} on {@link StreamedQueryResource}.
+   */
+  static String mediaType(final String accept) {
+    if (fromAccept(accept) == BINARY) {
+      return Versions.KSQL_V1_BINARY;
+    }
+
+    if (accept != null
+        && !accept.contains(Versions.KSQL_V1_JSON)
+        && accept.contains(MediaType.APPLICATION_JSON)) {
+      return MediaType.APPLICATION_JSON;
+    }
+
+    return Versions.KSQL_V1_JSON;
+  }
+
+  private static final class JsonEncoder implements Encoder {
+
+    private final ObjectMapper objectMapper;
+
+    JsonEncoder(final ObjectMapper objectMapper) {
+      this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
+    }
+
+    @Override
+    public void writeHeader(final OutputStream out) {
+    }
+
+    @Override
+    public void write(final StreamedRow row, final OutputStream out) throws IOException {
+      out.write(objectMapper.writeValueAsBytes(row));
+      out.write(NEW_LINE);
+    }
+
+    @Override
+    public void writeEmpty(final OutputStream out) throws IOException {
+      out.write(NEW_LINE);
+    }
+  }
+
+  private static final class BinaryEncoder implements Encoder {
+
+    private final StreamedRowBinaryCodec.Writer writer;
+
+    BinaryEncoder(final List<Column> columns) {
+      this.writer = StreamedRowBinaryCodec.writer(columns.stream()
+          .map(column -> Field.of(column.name().name(), column.type()))
+          .collect(Collectors.toList()));
+    }
+
+    @Override
+    public void writeHeader(final OutputStream out) throws IOException {
+      writer.writeHeader(out);
+    }
+
+    @Override
+    public void write(final StreamedRow row, final OutputStream out) throws IOException {
+      writer.write(row, out);
+    }
+
+    @Override
+    public void writeEmpty(final OutputStream out) throws IOException {
+      writer.writeEmptyFrame(out);
+    }
+  }
+}
@@ -16,42 +16,49 @@
 package io.confluent.ksql.rest.server.resources.streaming;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.collect.Lists;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.rest.Errors;
 import io.confluent.ksql.rest.entity.StreamedRow;
+import io.confluent.ksql.rest.server.resources.streaming.QueryStreamEncoding.Encoder;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.TransientQueryMetadata;
+import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import javax.ws.rs.core.StreamingOutput;
-import org.apache.kafka.streams.KeyValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 class QueryStreamWriter implements StreamingOutput {
 
   private static final Logger log = LoggerFactory.getLogger(QueryStreamWriter.class);
+  private static final int WRITE_BATCH_SIZE = 500;
 
   private final TransientQueryMetadata queryMetadata;
   private final long disconnectCheckInterval;
   private final ObjectMapper objectMapper;
+  private final Encoder encoder;
+  private final List<GenericRow> batch = new ArrayList<>();
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
   private volatile Exception streamsException;
   private volatile boolean limitReached = false;
 
   QueryStreamWriter(
       final TransientQueryMetadata queryMetadata,
       final long disconnectCheckInterval,
-      final ObjectMapper objectMapper
+      final ObjectMapper objectMapper,
+      final QueryStreamEncoding encoding
   ) {
     this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
     this.disconnectCheckInterval = disconnectCheckInterval;
     this.queryMetadata = Objects.requireNonNull(queryMetadata, "queryMetadata");
+    this.encoder = Objects.requireNonNull(encoding, "encoding")
+        .encoder(queryMetadata.getLogicalSchema().value(), objectMapper);
     this.queryMetadata.setLimitHandler(new LimitHandler());
     this.queryMetadata.setUncaughtExceptionHandler(new StreamsExceptionHandler());
     queryMetadata.start();
@@ -60,17 +67,22 @@ class QueryStreamWriter implements StreamingOutput {
   @Override
   public void write(final OutputStream out) {
     try {
+      encoder.writeHeader(out);
+
       while (queryMetadata.isRunning() && !limitReached) {
-        final KeyValue<String, GenericRow> value = queryMetadata.getRowQueue().poll(
+        batch.clear();
+        queryMetadata.getRowQueue().drainRowsTo(
+            batch,
+            WRITE_BATCH_SIZE,
             disconnectCheckInterval,
             TimeUnit.MILLISECONDS
         );
-        if (value != null) {
-          write(out, value.value);
+        if (!batch.isEmpty()) {
+          write(out, batch);
         } else {
           // If no new rows have been written, the user may have terminated the connection without
-          // us knowing. Check by trying to write a single newline.
-          out.write("\n".getBytes(StandardCharsets.UTF_8));
+          // us knowing. Check by trying to write something the client will ignore.
+          encoder.writeEmpty(out);
           out.flush();
         }
         drainAndThrowOnError(out);
@@ -79,8 +91,7 @@ class QueryStreamWriter implements StreamingOutput {
       drain(out);
 
       if (limitReached) {
-        objectMapper.writeValue(out, StreamedRow.finalMessage("Limit Reached"));
-        out.write("\n".getBytes(StandardCharsets.UTF_8));
+        encoder.write(StreamedRow.finalMessage("Limit Reached"), out);
         out.flush();
       }
     } catch (final EOFException exception) {
@@ -98,23 +109,28 @@ class QueryStreamWriter implements StreamingOutput {
     }
   }
 
-  private void write(final OutputStream output, final GenericRow row) throws IOException {
-    objectMapper.writeValue(output, StreamedRow.row(row));
-    output.write("\n".getBytes(StandardCharsets.UTF_8));
+  /**
+   * Writes a batch of rows, buffering them so that the batch is written and flushed at once.
+   */
+  private void write(final OutputStream output, final List<GenericRow> rows) throws IOException {
+    buffer.reset();
+    for (final GenericRow row : rows) {
+      encoder.write(StreamedRow.row(row), buffer);
+    }
+    buffer.writeTo(output);
     output.flush();
   }
 
   private void outputException(final OutputStream out, final Throwable exception) {
     try {
-      out.write("\n".getBytes(StandardCharsets.UTF_8));
+      encoder.writeEmpty(out);
       if (exception.getCause() instanceof KsqlException) {
-        objectMapper.writeValue(out, StreamedRow
-            .error(exception.getCause(), Errors.ERROR_CODE_SERVER_ERROR));
+        encoder.write(StreamedRow
+            .error(exception.getCause(), Errors.ERROR_CODE_SERVER_ERROR), out);
       } else {
-        objectMapper.writeValue(out, StreamedRow
-            .error(exception, Errors.ERROR_CODE_SERVER_ERROR));
+        encoder.write(StreamedRow
+            .error(exception, Errors.ERROR_CODE_SERVER_ERROR), out);
       }
-      out.write("\n".getBytes(StandardCharsets.UTF_8));
       out.flush();
     } catch (final IOException e) {
       log.debug("Client disconnected while attempting to write an error message");
@@ -126,14 +142,19 @@ class QueryStreamWriter implements StreamingOutput {
       drain(out);
       throw streamsException;
     }
-  }
 
-  private void drain(final OutputStream out) throws IOException {
-    final List<KeyValue<String, GenericRow>> rows = Lists.newArrayList();
-    queryMetadata.getRowQueue().drainTo(rows);
+    if (queryMetadata.getRowQueue().hasOverflowed()) {
+      drain(out);
+      throw new KsqlException("Client is not consuming rows fast enough. "
+          + "Query terminated as its buffer overflowed.");
+    }
+  }
 
-    for (final KeyValue<String, GenericRow> row : rows) {
-      write(out, row.value);
+  private void drain(final OutputStream out) throws IOException, InterruptedException {
+    batch.clear();
+    queryMetadata.getRowQueue().drainRowsTo(batch, Integer.MAX_VALUE, 0, TimeUnit.MILLISECONDS);
+    if (!batch.isEmpty()) {
+      write(out, batch);
     }
   }
 
@@ -28,8 +28,8 @@ import io.confluent.ksql.util.TransientQueryMetadata;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
-import org.apache.kafka.streams.KeyValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -90,16 +90,25 @@ class StreamPublisher implements Flow.Publisher<Collection<StreamedRow>> {
 
     @Override
     public Collection<StreamedRow> poll() {
-      final List<KeyValue<String, GenericRow>> rows = Lists.newLinkedList();
-      queryMetadata.getRowQueue().drainTo(rows);
+      final List<GenericRow> rows = Lists.newLinkedList();
+      try {
+        queryMetadata.getRowQueue().drainRowsTo(rows, Integer.MAX_VALUE, 0, TimeUnit.MILLISECONDS);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
       if (rows.isEmpty()) {
         return null;
       } else {
-        return rows.stream().map(row -> StreamedRow.row(row.value))
+        return rows.stream().map(StreamedRow::row)
             .collect(Collectors.toCollection(Lists::newLinkedList));
       }
     }
 
+    @Override
+    protected void awaitItems() {
+      queryMetadata.getRowQueue().notifyWhenAvailable(this::scheduleDrain);
+    }
+
     @Override
     public synchronized void close() {
       if (!closed) {
@@ -23,10 +23,13 @@ import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.PrintTopic;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.rest.Errors;
+import io.confluent.ksql.rest.entity.KsqlEntity;
 import io.confluent.ksql.rest.entity.KsqlRequest;
+import io.confluent.ksql.rest.entity.TableRowsEntity;
 import io.confluent.ksql.rest.entity.Versions;
 import io.confluent.ksql.rest.server.StatementParser;
 import io.confluent.ksql.rest.server.computation.CommandQueue;
+import io.confluent.ksql.rest.server.execution.StaticQueryExecutor;
 import io.confluent.ksql.rest.server.resources.KsqlConfigurable;
 import io.confluent.ksql.rest.server.resources.KsqlRestException;
 import io.confluent.ksql.rest.util.CommandStoreUtil;
@@ -45,11 +48,13 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import org.apache.kafka.common.errors.TopicAuthorizationException;
@@ -58,7 +63,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @Path("/query")
-@Produces({Versions.KSQL_V1_JSON, MediaType.APPLICATION_JSON})
+@Produces({Versions.KSQL_V1_JSON, MediaType.APPLICATION_JSON, Versions.KSQL_V1_BINARY})
 @Consumes({Versions.KSQL_V1_JSON, MediaType.APPLICATION_JSON})
 public class StreamedQueryResource implements KsqlConfigurable {
 
@@ -72,6 +77,7 @@ public class StreamedQueryResource implements KsqlConfigurable {
   private final ObjectMapper objectMapper;
   private final ActivenessRegistrar activenessRegistrar;
   private final KsqlAuthorizationValidator authorizationValidator;
+  private final boolean streamAsync;
   private KsqlConfig ksqlConfig;
 
   public StreamedQueryResource(
@@ -80,7 +86,8 @@ public class StreamedQueryResource implements KsqlConfigurable {
       final Duration disconnectCheckInterval,
       final Duration commandQueueCatchupTimeout,
       final ActivenessRegistrar activenessRegistrar,
-      final KsqlAuthorizationValidator authorizationValidator
+      final KsqlAuthorizationValidator authorizationValidator,
+      final boolean streamAsync
   ) {
     this(
         ksqlEngine,
@@ -89,7 +96,8 @@ public class StreamedQueryResource implements KsqlConfigurable {
         disconnectCheckInterval,
         commandQueueCatchupTimeout,
         activenessRegistrar,
-        authorizationValidator
+        authorizationValidator,
+        streamAsync
     );
   }
 
@@ -101,7 +109,8 @@ public class StreamedQueryResource implements KsqlConfigurable {
       final Duration disconnectCheckInterval,
       final Duration commandQueueCatchupTimeout,
       final ActivenessRegistrar activenessRegistrar,
-      final KsqlAuthorizationValidator authorizationValidator
+      final KsqlAuthorizationValidator authorizationValidator,
+      final boolean streamAsync
   ) {
     this.ksqlEngine = Objects.requireNonNull(ksqlEngine, "ksqlEngine");
     this.statementParser = Objects.requireNonNull(statementParser, "statementParser");
@@ -114,6 +123,7 @@ public class StreamedQueryResource implements KsqlConfigurable {
     this.activenessRegistrar =
         Objects.requireNonNull(activenessRegistrar, "activenessRegistrar");
     this.authorizationValidator = authorizationValidator;
+    this.streamAsync = streamAsync;
   }
 
   @Override
@@ -125,10 +135,20 @@ public class StreamedQueryResource implements KsqlConfigurable {
     ksqlConfig = config;
   }
 
+  /**
+   * Runs a query or print statement, streaming its results.
+   *
+   * <p>If configured to stream asynchronously, the results of push queries are not written by
+   * the returned response, which has no entity. The query is instead handed off to the
+   * {@link AsyncQueryStreamFilter}, which writes its rows once the request leaves the
+   * application.
+   */
   @POST
   public Response streamQuery(
       @Context final ServiceContext serviceContext,
-      final KsqlRequest request
+      final KsqlRequest request,
+      @Context final HttpHeaders headers,
+      @Context final HttpServletRequest servletRequest
   ) {
     throwIfNotConfigured();
 
@@ -139,7 +159,7 @@ public class StreamedQueryResource implements KsqlConfigurable {
     CommandStoreUtil.httpWaitForCommandSequenceNumber(
         commandQueue, request, commandQueueCatchupTimeout);
 
-    return handleStatement(serviceContext, request, statement);
+    return handleStatement(serviceContext, request, statement, headers, servletRequest);
   }
 
   private void throwIfNotConfigured() {
@@ -165,7 +185,9 @@ public class StreamedQueryResource implements KsqlConfigurable {
   private Response handleStatement(
       final ServiceContext serviceContext,
       final KsqlRequest request,
-      final PreparedStatement<?> statement
+      final PreparedStatement<?> statement,
+      final HttpHeaders headers,
+      final HttpServletRequest servletRequest
   )  {
     try {
       authorizationValidator.checkAuthorization(
@@ -178,7 +200,9 @@ public class StreamedQueryResource implements KsqlConfigurable {
         return handleQuery(
             serviceContext,
             (PreparedStatement<Query>) statement,
-            request.getStreamsProperties()
+            request.getStreamsProperties(),
+            headers,
+            servletRequest
         );
       }
 
@@ -203,11 +227,19 @@ public class StreamedQueryResource implements KsqlConfigurable {
   private Response handleQuery(
       final ServiceContext serviceContext,
       final PreparedStatement<Query> statement,
-      final Map<String, Object> streamsProperties
+      final Map<String, Object> streamsProperties,
+      final HttpHeaders headers,
+      final HttpServletRequest servletRequest
   ) {
     final ConfiguredStatement<Query> configured =
         ConfiguredStatement.of(statement, streamsProperties, ksqlConfig);
 
+    final String accept = headers.getHeaderString(HttpHeaders.ACCEPT);
+
+    if (statement.getStatement().isStatic()) {
+      return handlePullQuery(serviceContext, configured, streamsProperties, accept);
+    }
+
     final QueryMetadata query = ksqlEngine.execute(serviceContext, configured)
         .getQuery()
         .get();
@@ -219,13 +251,55 @@ public class StreamedQueryResource implements KsqlConfigurable {
       ));
     }
 
+    if (streamAsync) {
+      AsyncQueryStreamFilter.handOff(servletRequest, (TransientQueryMetadata) query);
+
+      log.info("Streaming query '{}' asynchronously", statement.getStatementText());
+      return Response.ok()
+          .type(QueryStreamEncoding.mediaType(accept))
+          .build();
+    }
+
     final QueryStreamWriter queryStreamWriter = new QueryStreamWriter(
         (TransientQueryMetadata) query,
         disconnectCheckInterval.toMillis(),
-        objectMapper);
+        objectMapper,
+        QueryStreamEncoding.fromAccept(accept));
 
     log.info("Streaming query '{}'", statement.getStatementText());
-    return Response.ok().entity(queryStreamWriter).build();
+    return Response.ok()
+        .entity(queryStreamWriter)
+        .type(QueryStreamEncoding.mediaType(accept))
+        .build();
+  }
+
+  private Response handlePullQuery(
+      final ServiceContext serviceContext,
+      final ConfiguredStatement<Query> configured,
+      final Map<String, Object> streamsProperties,
+      final String accept
+  ) {
+    final KsqlEntity entity = StaticQueryExecutor
+        .execute(configured, streamsProperties, ksqlEngine, serviceContext)
+        .orElseThrow(() -> new IllegalStateException("No result for static query"));
+
+    if (!(entity instanceof TableRowsEntity)) {
+      throw new IllegalStateException(String.format(
+          "Unexpected static query result: expected TableRowsEntity, found %s instead",
+          entity.getClass()
+      ));
+    }
+
+    final PullQueryStreamWriter pullQueryStreamWriter = new PullQueryStreamWriter(
+        (TableRowsEntity) entity,
+        objectMapper,
+        QueryStreamEncoding.fromAccept(accept));
+
+    log.info("Returning static query result '{}'", configured.getStatementText());
+    return Response.ok()
+        .entity(pullQueryStreamWriter)
+        .type(QueryStreamEncoding.mediaType(accept))
+        .build();
   }
 
   private Response handlePrintTopic(
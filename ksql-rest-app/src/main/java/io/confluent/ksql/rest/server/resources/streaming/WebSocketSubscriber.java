@@ -21,13 +21,23 @@ import io.confluent.ksql.rest.util.EntityUtil;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.websocket.CloseReason.CloseCodes;
 import javax.websocket.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Sends each item of the batches it receives as a websocket text message.
+ *
+ * <p>Demand is credit based: at most {@link #MAX_BATCHES_IN_FLIGHT} batches may be queued for
+ * sending at once, and credit for another batch is only granted once all messages of a previous
+ * batch have been sent. A slow client therefore applies backpressure to the subscription.
+ */
 class WebSocketSubscriber<T> implements Flow.Subscriber<Collection<T>>, AutoCloseable {
 
+  static final int MAX_BATCHES_IN_FLIGHT = 4;
+
   private static final Logger log = LoggerFactory.getLogger(WebSocketSubscriber.class);
   private final Session session;
   private final ObjectMapper mapper;
@@ -42,34 +52,46 @@ class WebSocketSubscriber<T> implements Flow.Subscriber<Collection<T>>, AutoClos
 
   public void onSubscribe(final Flow.Subscription subscription) {
     this.subscription = subscription;
-    subscription.request(1);
+    subscription.request(MAX_BATCHES_IN_FLIGHT);
   }
 
   @Override
   public void onNext(final Collection<T> rows) {
+    // One count per row, plus one released once all rows have been queued for sending:
+    final AtomicInteger pending = new AtomicInteger(rows.size() + 1);
+
     for (final T row : rows) {
       // check if session is closed inside the loop to avoid
       // logging too many async callback errors after close
-      if (!closed) {
-        try {
-          final String buffer = mapper.writeValueAsString(row);
-          session.getAsyncRemote().sendText(
-              buffer, result -> {
-                if (!result.isOK()) {
-                  log.warn(
-                      "Error sending websocket message for session {}",
-                      session.getId(),
-                      result.getException()
-                  );
-                }
-              });
-
-        } catch (final JsonProcessingException e) {
-          log.warn("Error serializing row in session {}", session.getId(), e);
-        }
+      if (closed) {
+        return;
+      }
+
+      try {
+        final String buffer = mapper.writeValueAsString(row);
+        session.getAsyncRemote().sendText(
+            buffer, result -> {
+              if (!result.isOK()) {
+                log.warn(
+                    "Error sending websocket message for session {}",
+                    session.getId(),
+                    result.getException()
+                );
+              }
+              onSent(pending);
+            });
+
+      } catch (final JsonProcessingException e) {
+        log.warn("Error serializing row in session {}", session.getId(), e);
+        onSent(pending);
       }
     }
-    if (!closed) {
+
+    onSent(pending);
+  }
+
+  private void onSent(final AtomicInteger pending) {
+    if (pending.decrementAndGet() == 0 && !closed) {
       subscription.request(1);
     }
   }
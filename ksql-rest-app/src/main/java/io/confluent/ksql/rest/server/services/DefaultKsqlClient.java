@@ -26,6 +26,7 @@ import io.confluent.ksql.rest.client.RestResponse;
 import io.confluent.ksql.rest.entity.KsqlEntityList;
 import io.confluent.ksql.services.SimpleKsqlClient;
 import java.net.URI;
+import java.util.Map;
 import java.util.Optional;
 
 final class DefaultKsqlClient implements SimpleKsqlClient {
@@ -66,4 +67,20 @@ final class DefaultKsqlClient implements SimpleKsqlClient {
         .orElse(target)
         .postKsqlRequest(sql, Optional.empty());
   }
+
+  @Override
+  public RestResponse<KsqlEntityList> makeKsqlRequest(
+      final URI serverEndPoint,
+      final String sql,
+      final Map<String, ?> requestProperties
+  ) {
+    final KsqlTarget target = sharedClient
+        .target(serverEndPoint)
+        .properties(requestProperties);
+
+    return authHeader
+        .map(target::authorizationHeader)
+        .orElse(target)
+        .postKsqlRequest(sql, Optional.empty());
+  }
 }
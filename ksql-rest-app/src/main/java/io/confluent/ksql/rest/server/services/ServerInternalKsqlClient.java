@@ -26,6 +26,7 @@ import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.services.SimpleKsqlClient;
 import java.net.URI;
 import java.util.Collections;
+import java.util.Map;
 import javax.ws.rs.core.Response;
 
 /**
@@ -53,7 +54,16 @@ public class ServerInternalKsqlClient implements SimpleKsqlClient {
       final URI serverEndpoint,
       final String sql
   ) {
-    final KsqlRequest request = new KsqlRequest(sql, Collections.emptyMap(), null);
+    return makeKsqlRequest(serverEndpoint, sql, Collections.emptyMap());
+  }
+
+  @Override
+  public RestResponse<KsqlEntityList> makeKsqlRequest(
+      final URI serverEndpoint,
+      final String sql,
+      final Map<String, ?> requestProperties
+  ) {
+    final KsqlRequest request = new KsqlRequest(sql, requestProperties, null);
     final Response response = ksqlResource.handleKsqlStatements(serviceContext, request);
     return KsqlClientUtil.toRestResponse(
         response,
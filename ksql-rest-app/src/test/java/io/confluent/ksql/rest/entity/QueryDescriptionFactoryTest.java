@@ -28,6 +28,8 @@ import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.name.SourceName;
 import io.confluent.ksql.query.LimitHandler;
 import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.query.QueueOverflowPolicy;
+import io.confluent.ksql.query.RowRingBuffer;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
 import io.confluent.ksql.schema.ksql.SqlBaseType;
@@ -41,7 +43,6 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.apache.kafka.streams.KafkaStreams;
@@ -97,7 +98,7 @@ public class QueryDescriptionFactoryTest {
         SOURCE_NAMES,
         limitHandler,
         "execution plan",
-        new LinkedBlockingQueue<>(),
+        new RowRingBuffer(1, QueueOverflowPolicy.BLOCK),
         "app id",
         topology,
         STREAMS_PROPS,
@@ -209,7 +210,7 @@ public class QueryDescriptionFactoryTest {
         SOURCE_NAMES,
         limitHandler,
         "execution plan",
-        new LinkedBlockingQueue<>(),
+        new RowRingBuffer(1, QueueOverflowPolicy.BLOCK),
         "app id",
         topology,
         STREAMS_PROPS,
@@ -242,7 +243,7 @@ public class QueryDescriptionFactoryTest {
         SOURCE_NAMES,
         limitHandler,
         "execution plan",
-        new LinkedBlockingQueue<>(),
+        new RowRingBuffer(1, QueueOverflowPolicy.BLOCK),
         "app id",
         topology,
         STREAMS_PROPS,
@@ -18,6 +18,7 @@ package io.confluent.ksql.rest.healthcheck;
 import static io.confluent.ksql.rest.healthcheck.HealthCheckAgent.KAFKA_CHECK_NAME;
 import static io.confluent.ksql.rest.healthcheck.HealthCheckAgent.METASTORE_CHECK_NAME;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -114,4 +115,31 @@ public class HealthCheckAgentTest {
     assertThat(response.getDetails().get(KAFKA_CHECK_NAME).getIsHealthy(), is(false));
     assertThat(response.getIsHealthy(), is(false));
   }
+
+  @Test
+  public void shouldReportLatencyOfEachCheck() {
+    // When:
+    final HealthCheckResponse response = healthCheckAgent.checkHealth();
+
+    // Then:
+    assertThat(response.getDetails().get(METASTORE_CHECK_NAME).getLatencyMs(),
+        greaterThanOrEqualTo(0L));
+    assertThat(response.getDetails().get(KAFKA_CHECK_NAME).getLatencyMs(),
+        greaterThanOrEqualTo(0L));
+  }
+
+  @Test
+  public void shouldReturnUnhealthyIfCheckThrows() {
+    // Given:
+    when(ksqlClient.makeKsqlRequest(SERVER_URI, "list topics extended;"))
+        .thenThrow(new RuntimeException("boom"));
+
+    // When:
+    final HealthCheckResponse response = healthCheckAgent.checkHealth();
+
+    // Then:
+    assertThat(response.getDetails().get(KAFKA_CHECK_NAME).getIsHealthy(), is(false));
+    assertThat(response.getDetails().get(METASTORE_CHECK_NAME).getIsHealthy(), is(true));
+    assertThat(response.getIsHealthy(), is(false));
+  }
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.integration;
+
+import static io.confluent.ksql.test.util.AssertEventually.assertThatEventually;
+import static io.confluent.ksql.util.KsqlConfig.KSQL_STREAMS_PREFIX;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.common.utils.IntegrationTest;
+import io.confluent.ksql.integration.IntegrationTestHarness;
+import io.confluent.ksql.integration.Retry;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.rest.entity.KsqlEntity;
+import io.confluent.ksql.rest.entity.TableRowsEntity;
+import io.confluent.ksql.rest.server.TestKsqlRestApp;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.PhysicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.serde.Format;
+import io.confluent.ksql.serde.SerdeOption;
+import io.confluent.ksql.test.util.KsqlIdentifierTestUtil;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.TestDataProvider;
+import io.confluent.ksql.util.UserDataProvider;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import kafka.zookeeper.ZooKeeperClientException;
+import org.apache.kafka.streams.StreamsConfig;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.RuleChain;
+
+/**
+ * Test to ensure pull queries served from the cache see updates to their table before the query
+ * that builds the table commits.
+ */
+@Category({IntegrationTest.class})
+public class PullQueryCacheFunctionalTest {
+
+  private static final String USER_TOPIC = "user_topic";
+  private static final String USERS_STREAM = "users";
+  private static final String USER_KEY = "USER_0";
+
+  private static final TestDataProvider USER_PROVIDER = new UserDataProvider();
+  private static final Format VALUE_FORMAT = Format.JSON;
+
+  private static final PhysicalSchema AGGREGATE_SCHEMA = PhysicalSchema.from(
+      LogicalSchema.builder()
+          .valueColumn(ColumnName.of("COUNT"), SqlTypes.BIGINT)
+          .build(),
+      SerdeOption.none()
+  );
+
+  private static final long COMMIT_INTERVAL_MS = TimeUnit.MINUTES.toMillis(10);
+
+  private static final IntegrationTestHarness TEST_HARNESS = IntegrationTestHarness.build();
+
+  private static final TestKsqlRestApp REST_APP = TestKsqlRestApp
+      .builder(TEST_HARNESS::kafkaBootstrapServers)
+      .withProperty(KSQL_STREAMS_PREFIX + StreamsConfig.NUM_STREAM_THREADS_CONFIG, 1)
+      .withProperty(KSQL_STREAMS_PREFIX + StreamsConfig.COMMIT_INTERVAL_MS_CONFIG,
+          COMMIT_INTERVAL_MS)
+      .withProperty(KsqlConfig.KSQL_QUERY_PULL_CACHE_MAX_ENTRIES_CONFIG, 100L)
+      .withProperty(KsqlConfig.KSQL_QUERY_PULL_CACHE_TTL_MS_CONFIG, COMMIT_INTERVAL_MS)
+      .build();
+
+  @ClassRule
+  public static final RuleChain CHAIN = RuleChain
+      .outerRule(Retry.of(3, ZooKeeperClientException.class, 3, TimeUnit.SECONDS))
+      .around(TEST_HARNESS)
+      .around(REST_APP);
+
+  @BeforeClass
+  public static void setUpClass() {
+    TEST_HARNESS.ensureTopics(1, USER_TOPIC);
+
+    TEST_HARNESS.produceRows(
+        USER_TOPIC,
+        USER_PROVIDER,
+        VALUE_FORMAT,
+        new AtomicLong(1_000_000)::getAndIncrement
+    );
+
+    RestIntegrationTestUtil.makeKsqlRequest(
+        REST_APP,
+        "CREATE STREAM " + USERS_STREAM
+            + " " + USER_PROVIDER.ksqlSchemaString()
+            + " WITH ("
+            + "   kafka_topic='" + USER_TOPIC + "', "
+            + "   key='" + USER_PROVIDER.key() + "', "
+            + "   value_format='" + VALUE_FORMAT + "'"
+            + ");"
+    );
+  }
+
+  @After
+  public void cleanUp() {
+    REST_APP.closePersistentQueries();
+    REST_APP.dropSourcesExcept(USERS_STREAM);
+  }
+
+  @Test
+  public void shouldReadUpdatedKeyBeforeCommit() {
+    // Given:
+    final String output = KsqlIdentifierTestUtil.uniqueIdentifierName();
+
+    RestIntegrationTestUtil.makeKsqlRequest(
+        REST_APP,
+        "CREATE TABLE " + output + " AS"
+            + " SELECT COUNT(1) AS COUNT FROM " + USERS_STREAM
+            + " GROUP BY " + USER_PROVIDER.key() + ";"
+    );
+
+    final String sql = "SELECT * FROM " + output + " WHERE ROWKEY = '" + USER_KEY + "';";
+
+    TEST_HARNESS.verifyAvailableUniqueRows(
+        output.toUpperCase(),
+        USER_PROVIDER.data().size(),
+        VALUE_FORMAT,
+        AGGREGATE_SCHEMA
+    );
+
+    // Caches the key's row:
+    assertThat(makePullQueryRequest(sql), contains(ImmutableList.of(USER_KEY, 1)));
+
+    // When:
+    TEST_HARNESS.produceRecord(
+        USER_TOPIC,
+        USER_KEY,
+        "{\"REGISTERTIME\": 5, \"GENDER\": \"FEMALE\", \"REGIONID\": \"REGION_0\", "
+            + "\"USERID\": \"" + USER_KEY + "\"}"
+    );
+
+    // Then:
+    assertThatEventually(
+        "update not visible before commit",
+        () -> makePullQueryRequest(sql),
+        contains(ImmutableList.of(USER_KEY, 2)),
+        COMMIT_INTERVAL_MS / 20,
+        TimeUnit.MILLISECONDS
+    );
+  }
+
+  private static List<List<?>> makePullQueryRequest(final String sql) {
+    final List<KsqlEntity> entities = RestIntegrationTestUtil.makeKsqlRequest(REST_APP, sql);
+    assertThat(entities, hasSize(1));
+
+    final KsqlEntity entity = entities.get(0);
+    assertThat(entity, instanceOf(TableRowsEntity.class));
+    return ((TableRowsEntity) entity).getRows();
+  }
+}
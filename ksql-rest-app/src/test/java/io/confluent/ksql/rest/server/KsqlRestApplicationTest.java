@@ -42,6 +42,7 @@ import io.confluent.ksql.rest.server.computation.CommandRunner;
 import io.confluent.ksql.rest.server.computation.CommandStore;
 import io.confluent.ksql.rest.server.computation.QueuedCommandStatus;
 import io.confluent.ksql.rest.server.context.KsqlRestServiceContextBinder;
+import io.confluent.ksql.rest.server.context.ServiceContextPool;
 import io.confluent.ksql.rest.server.filters.KsqlAuthorizationFilter;
 import io.confluent.ksql.rest.server.resources.KsqlResource;
 import io.confluent.ksql.rest.server.resources.RootDocument;
@@ -126,6 +127,8 @@ public class KsqlRestApplicationTest {
   private PreparedStatement<?> preparedStatement;
   @Mock
   private Consumer<KsqlConfig> rocksDBConfigSetterHandler;
+  @Mock
+  private ServiceContextPool serviceContextPool;
   private PreparedStatement<?> logCreateStatement;
   private KsqlRestApplication app;
 
@@ -178,7 +181,8 @@ public class KsqlRestApplicationTest {
         processingLogContext,
         ImmutableList.of(precondition1, precondition2),
         ImmutableList.of(ksqlResource, streamedQueryResource),
-        rocksDBConfigSetterHandler
+        rocksDBConfigSetterHandler,
+        serviceContextPool
     );
   }
 
@@ -200,6 +204,15 @@ public class KsqlRestApplicationTest {
     verify(securityExtension).close();
   }
 
+  @Test
+  public void shouldCloseServiceContextPoolOnClose() {
+    // When:
+    app.stop();
+
+    // Then:
+    verify(serviceContextPool).close();
+  }
+
   @Test
   public void shouldNotRegisterAuthorizationFilterWithoutAuthorizationProvider() {
     // Given:
@@ -22,6 +22,7 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.json.JsonMapper;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.rest.client.BasicCredentials;
@@ -229,6 +230,10 @@ public class TestKsqlRestApp extends ExternalResource {
     return serviceContext.get();
   }
 
+  public KsqlEngine getEngine() {
+    return restServer.getEngine();
+  }
+
   @Override
   protected void before() {
     if (restServer != null) {
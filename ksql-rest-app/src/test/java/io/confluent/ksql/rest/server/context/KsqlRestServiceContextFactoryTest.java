@@ -19,9 +19,13 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.rest.server.services.RestServiceContextFactory.DefaultServiceContextFactory;
 import io.confluent.ksql.rest.server.services.RestServiceContextFactory.UserServiceContextFactory;
 import io.confluent.ksql.security.KsqlSecurityExtension;
@@ -29,10 +33,12 @@ import io.confluent.ksql.security.KsqlUserContextProvider;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.util.KsqlConfig;
 import java.security.Principal;
+import java.time.Duration;
 import java.util.Optional;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.SecurityContext;
+import org.apache.kafka.common.metrics.Metrics;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -70,6 +76,7 @@ public class KsqlRestServiceContextFactoryTest {
     serviceContextFactory = new KsqlRestServiceContextFactory(
         securityContext,
         request,
+        pool(0, new Metrics()),
         defaultServiceContextProvider,
         userServiceContextFactory
     );
@@ -131,4 +138,55 @@ public class KsqlRestServiceContextFactoryTest {
     // Then:
     verify(userServiceContextFactory).create(any(), eq(Optional.of("some-auth")), any(), any());
   }
+
+  @Test
+  public void shouldReuseServiceContextIfPoolingEnabled() {
+    // Given:
+    when(securityExtension.getUserContextProvider()).thenReturn(Optional.of(userContextProvider));
+    final Metrics metrics = new Metrics();
+    final ServiceContextPool pool = pool(10, metrics);
+    serviceContextFactory = new KsqlRestServiceContextFactory(
+        securityContext,
+        request,
+        pool,
+        defaultServiceContextProvider,
+        userServiceContextFactory
+    );
+
+    try {
+      // When:
+      serviceContextFactory.dispose(serviceContextFactory.provide());
+      serviceContextFactory.dispose(serviceContextFactory.provide());
+
+      // Then:
+      verify(userServiceContextFactory, times(1)).create(any(), any(), any(), any());
+      verify(userServiceContext, never()).close();
+    } finally {
+      pool.close();
+      metrics.close();
+    }
+    verify(userServiceContext).close();
+  }
+
+  @Test
+  public void shouldCloseServiceContextIfPoolingDisabled() {
+    // Given:
+    when(securityExtension.getUserContextProvider()).thenReturn(Optional.empty());
+
+    // When:
+    serviceContextFactory.dispose(serviceContextFactory.provide());
+
+    // Then:
+    verify(defaultServiceContext).close();
+  }
+
+  private static ServiceContextPool pool(final long maxSize, final Metrics metrics) {
+    return new ServiceContextPool(
+        maxSize,
+        Duration.ofMinutes(5),
+        Ticker.systemTicker(),
+        metrics,
+        ImmutableMap.of()
+    );
+  }
 }
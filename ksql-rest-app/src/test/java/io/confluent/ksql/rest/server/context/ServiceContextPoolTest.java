@@ -0,0 +1,223 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.context;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Ticker;
+import io.confluent.ksql.services.KafkaTopicClient;
+import io.confluent.ksql.services.ServiceContext;
+import io.confluent.ksql.services.SimpleKsqlClient;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.apache.kafka.common.metrics.Metrics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ServiceContextPoolTest {
+
+  private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(5);
+  private static final Optional<String> USER_1 = Optional.of("user1");
+  private static final Optional<String> USER_2 = Optional.of("user2");
+  private static final Optional<String> AUTH = Optional.of("some-auth");
+
+  @Mock
+  private Supplier<ServiceContext> factory;
+  @Mock
+  private ServiceContext serviceContext;
+  @Mock
+  private ServiceContext otherServiceContext;
+  @Mock
+  private KafkaTopicClient topicClient;
+  @Mock
+  private SimpleKsqlClient ksqlClient;
+
+  private final AtomicLong nanos = new AtomicLong();
+  private Metrics metrics;
+  private ServiceContextPool pool;
+
+  @Before
+  public void setUp() {
+    metrics = new Metrics();
+    pool = new ServiceContextPool(1, IDLE_TIMEOUT, new Ticker() {
+      @Override
+      public long read() {
+        return nanos.get();
+      }
+    }, metrics, Collections.emptyMap());
+
+    when(factory.get()).thenReturn(serviceContext, otherServiceContext);
+  }
+
+  @After
+  public void tearDown() {
+    metrics.close();
+  }
+
+  @Test
+  public void shouldDelegateToPooledContext() {
+    // Given:
+    when(serviceContext.getTopicClient()).thenReturn(topicClient);
+
+    // When:
+    final ServiceContext leased = pool.lease(USER_1, AUTH, factory);
+
+    // Then:
+    assertThat(leased.getTopicClient(), is(topicClient));
+  }
+
+  @Test
+  public void shouldDelegateKsqlClientToPooledContext() {
+    // Given:
+    when(serviceContext.getKsqlClient()).thenReturn(ksqlClient);
+
+    // When:
+    final ServiceContext leased = pool.lease(USER_1, AUTH, factory);
+
+    // Then:
+    assertThat(leased.getKsqlClient(), is(ksqlClient));
+  }
+
+  @Test
+  public void shouldNotPoolContextsIfDisabled() {
+    // Given:
+    final ServiceContextPool disabled = new ServiceContextPool(
+        0, IDLE_TIMEOUT, Ticker.systemTicker(), metrics, Collections.emptyMap());
+
+    // When:
+    final ServiceContext leased = disabled.lease(USER_1, AUTH, factory);
+    disabled.lease(USER_1, AUTH, factory);
+
+    // Then:
+    assertThat(leased, is(serviceContext));
+    verify(factory, times(2)).get();
+  }
+
+  @Test
+  public void shouldReuseContextForSamePrincipalAndAuth() {
+    // Given:
+    pool.lease(USER_1, AUTH, factory).close();
+
+    // When:
+    pool.lease(USER_1, AUTH, factory).close();
+
+    // Then:
+    verify(factory, times(1)).get();
+    verify(serviceContext, never()).close();
+  }
+
+  @Test
+  public void shouldNotShareContextBetweenAuthHeaders() {
+    // When:
+    pool.lease(USER_1, AUTH, factory);
+    pool.lease(USER_1, Optional.empty(), factory);
+
+    // Then:
+    verify(factory, times(2)).get();
+  }
+
+  @Test
+  public void shouldCloseEvictedContextOnceReleased() {
+    // Given:
+    final ServiceContext leased = pool.lease(USER_1, AUTH, factory);
+
+    // When:
+    pool.lease(USER_2, AUTH, factory);
+
+    // Then:
+    verify(serviceContext, never()).close();
+    leased.close();
+    verify(serviceContext).close();
+  }
+
+  @Test
+  public void shouldCloseIdleContext() {
+    // Given:
+    pool.lease(USER_1, AUTH, factory).close();
+
+    // When:
+    nanos.addAndGet(IDLE_TIMEOUT.toNanos());
+    pool.cleanUp();
+
+    // Then:
+    verify(serviceContext).close();
+  }
+
+  @Test
+  public void shouldOnlyReleaseLeaseOnce() {
+    // Given:
+    final ServiceContext leased = pool.lease(USER_1, AUTH, factory);
+    final ServiceContext other = pool.lease(USER_1, AUTH, factory);
+    leased.close();
+    leased.close();
+
+    // When:
+    pool.close();
+
+    // Then:
+    verify(serviceContext, never()).close();
+    other.close();
+    verify(serviceContext).close();
+  }
+
+  @Test
+  public void shouldReportHitsAndMissesAsMetrics() {
+    // When:
+    pool.lease(USER_1, AUTH, factory).close();
+    pool.lease(USER_1, AUTH, factory).close();
+    pool.lease(USER_1, AUTH, factory).close();
+
+    // Then:
+    assertThat(metricValue("hit-count"), is(2L));
+    assertThat(metricValue("miss-count"), is(1L));
+    assertThat(metricValue("size"), is(1L));
+  }
+
+  @Test
+  public void shouldRemoveMetricsAndCloseContextsOnClose() {
+    // Given:
+    pool.lease(USER_1, AUTH, factory).close();
+
+    // When:
+    pool.close();
+
+    // Then:
+    verify(serviceContext).close();
+    assertThat(metrics.metric(metrics.metricName(
+        "size", "ksql-service-context-pool", "", Collections.emptyMap())),
+        is(nullValue()));
+  }
+
+  private Object metricValue(final String name) {
+    return metrics.metric(metrics.metricName(
+        name, "ksql-service-context-pool", "", Collections.emptyMap())
+    ).metricValue();
+  }
+}
@@ -16,20 +16,26 @@
 package io.confluent.ksql.rest.server.resources;
 
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.confluent.ksql.rest.entity.HealthCheckResponse;
 import io.confluent.ksql.rest.healthcheck.HealthCheckAgent;
 import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import javax.ws.rs.core.Response;
-import org.apache.kafka.test.TestUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -39,6 +45,8 @@ public class HealthCheckResourceTest {
   @Mock
   private HealthCheckAgent healthCheckAgent;
   @Mock
+  private ScheduledExecutorService executor;
+  @Mock
   private HealthCheckResponse response1;
   @Mock
   private HealthCheckResponse response2;
@@ -46,47 +54,131 @@ public class HealthCheckResourceTest {
 
   @Before
   public void setUp() {
-    when(healthCheckAgent.checkHealth())
-        .thenReturn(response1)
-        .thenReturn(response2);
+    healthCheckResource =
+        new HealthCheckResource(healthCheckAgent, Duration.ofMillis(1000), executor);
+  }
 
-    healthCheckResource = new HealthCheckResource(healthCheckAgent, Duration.ofMillis(1000));
+  @Test
+  public void shouldNotScheduleChecksUntilStarted() {
+    verify(executor, never())
+        .scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
   }
 
   @Test
-  public void shouldCheckHealth() {
+  public void shouldScheduleChecksAtIntervalOnStart() {
     // When:
-    final Response response = healthCheckResource.checkHealth();
+    healthCheckResource.start();
+
+    // Then:
+    verify(executor)
+        .scheduleWithFixedDelay(any(), eq(0L), eq(1000L), eq(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void shouldCheckHealthIfNoCheckHasRunYet() {
+    // Given:
+    givenChecksReturnResponse1ThenResponse2();
+
+    // When:
+    final Response response = healthCheckResource.checkHealth(false);
 
     // Then:
     verify(healthCheckAgent).checkHealth();
     assertThat(response.getStatus(), is(200));
-    assertThat(response.getEntity(), instanceOf(HealthCheckResponse.class));
+    assertThat(response.getEntity(), sameInstance(response1));
   }
 
   @Test
   public void shouldGetCachedResponse() {
     // Given:
-    healthCheckResource.checkHealth();
+    givenChecksReturnResponse1ThenResponse2();
+    healthCheckResource.checkHealth(false);
 
     // When:
-    final Response response = healthCheckResource.checkHealth();
+    final Response response = healthCheckResource.checkHealth(false);
 
     // Then:
+    verify(healthCheckAgent, times(1)).checkHealth();
     assertThat(response.getEntity(), sameInstance(response1));
   }
 
   @Test
-  public void shouldRecheckHealthIfCachedResponseExpired() throws Exception {
+  public void shouldGetResponseOfScheduledCheck() {
     // Given:
-    healthCheckResource = new HealthCheckResource(healthCheckAgent, Duration.ofMillis(10));
-    healthCheckResource.checkHealth();
-
-    // When / Then:
-    TestUtils.waitForCondition(
-        () -> healthCheckResource.checkHealth().getEntity() == response2,
-        1000,
-        "Should receive response2 once response1 expires."
-    );
+    givenChecksReturnResponse1ThenResponse2();
+    scheduledCheck().run();
+
+    // When:
+    final Response response = healthCheckResource.checkHealth(false);
+
+    // Then:
+    verify(healthCheckAgent, times(1)).checkHealth();
+    assertThat(response.getEntity(), sameInstance(response1));
+  }
+
+  @Test
+  public void shouldUpdateCachedResponseOnEachScheduledCheck() {
+    // Given:
+    givenChecksReturnResponse1ThenResponse2();
+    final Runnable check = scheduledCheck();
+    check.run();
+
+    // When:
+    check.run();
+
+    // Then:
+    assertThat(healthCheckResource.checkHealth(false).getEntity(), sameInstance(response2));
+  }
+
+  @Test
+  public void shouldRecheckHealthOnRefresh() {
+    // Given:
+    givenChecksReturnResponse1ThenResponse2();
+    healthCheckResource.checkHealth(false);
+
+    // When:
+    final Response response = healthCheckResource.checkHealth(true);
+
+    // Then:
+    assertThat(response.getEntity(), sameInstance(response2));
+    assertThat(healthCheckResource.checkHealth(false).getEntity(), sameInstance(response2));
+  }
+
+  @Test
+  public void shouldKeepLastResponseIfScheduledCheckThrows() {
+    // Given:
+    givenChecksReturnResponse1ThenResponse2();
+    final Runnable check = scheduledCheck();
+    check.run();
+    when(healthCheckAgent.checkHealth()).thenThrow(new RuntimeException("boom"));
+
+    // When:
+    check.run();
+
+    // Then:
+    assertThat(healthCheckResource.checkHealth(false).getEntity(), sameInstance(response1));
+  }
+
+  @Test
+  public void shouldShutdownExecutorOnClose() {
+    // When:
+    healthCheckResource.close();
+
+    // Then:
+    verify(executor).shutdownNow();
+    verify(executor, never()).shutdown();
+  }
+
+  private void givenChecksReturnResponse1ThenResponse2() {
+    when(healthCheckAgent.checkHealth())
+        .thenReturn(response1)
+        .thenReturn(response2);
+  }
+
+  private Runnable scheduledCheck() {
+    healthCheckResource.start();
+    final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+    verify(executor).scheduleWithFixedDelay(captor.capture(), eq(0L), eq(1000L), any());
+    return captor.getValue();
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.resources.streaming;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.ksql.json.JsonMapper;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.TransientQueryMetadata;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.servlet.AsyncContext;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncQueryStreamFilterTest {
+
+  private static final Duration DISCONNECT_CHECK_INTERVAL = Duration.ofSeconds(1);
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Mock
+  private ScheduledExecutorService exec;
+  @Mock
+  private HttpServletRequest request;
+  @Mock
+  private HttpServletResponse response;
+  @Mock
+  private FilterChain chain;
+  @Mock
+  private AsyncContext asyncContext;
+  @Mock
+  private ServletOutputStream output;
+  @Mock
+  private TransientQueryMetadata query;
+  @Captor
+  private ArgumentCaptor<ServletResponse> responseCaptor;
+
+  private AsyncQueryStreamFilter filter;
+
+  @Before
+  public void setUp() {
+    filter = new AsyncQueryStreamFilter(
+        exec,
+        DISCONNECT_CHECK_INTERVAL,
+        JsonMapper.INSTANCE.mapper
+    );
+  }
+
+  @Test
+  public void shouldPassRequestsWithoutHandOffThrough() throws Exception {
+    // When:
+    filter.doFilter(request, response, chain);
+
+    // Then:
+    verify(chain).doFilter(eq(request), responseCaptor.capture());
+    assertThat(responseCaptor.getValue(), is(not(sameInstance(response))));
+    verify(request, never()).startAsync(any(), any());
+  }
+
+  @Test
+  public void shouldWriteApplicationBodyIfNotHandedOff() throws Exception {
+    // Given:
+    when(response.getOutputStream()).thenReturn(output);
+    doAnswer(inv -> {
+      final HttpServletResponse wrapped = inv.getArgument(1);
+      wrapped.setContentLength(3);
+      wrapped.getOutputStream().write("foo".getBytes(StandardCharsets.UTF_8));
+      return null;
+    }).when(chain).doFilter(any(), any());
+
+    // When:
+    filter.doFilter(request, response, chain);
+
+    // Then:
+    verify(response).setContentLength(3);
+    verify(output).write("foo".getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void shouldHandOffQueryToFilter() {
+    // When:
+    AsyncQueryStreamFilter.handOff(request, query);
+
+    // Then:
+    verify(request).setAttribute(anyString(), eq(query));
+  }
+
+  @Test
+  public void shouldStreamHandedOffQueryOnceApplicationHasFinished() throws Exception {
+    // Given:
+    givenHandedOff();
+
+    // When:
+    filter.doFilter(request, response, chain);
+
+    // Then:
+    verify(request).removeAttribute(anyString());
+    verify(request).startAsync(request, response);
+    verify(asyncContext).setTimeout(0);
+    verify(query).start();
+    verify(output).setWriteListener(any(WriteListener.class));
+    verify(exec).scheduleWithFixedDelay(any(), eq(1000L), eq(1000L), any());
+  }
+
+  @Test
+  public void shouldDiscardApplicationBodyOnceHandedOff() throws Exception {
+    // Given:
+    givenHandedOff();
+    doAnswer(inv -> {
+      final HttpServletResponse wrapped = inv.getArgument(1);
+      wrapped.setStatus(200);
+      wrapped.setContentType("application/json");
+      wrapped.setContentLength(0);
+      wrapped.setHeader("Content-Length", "0");
+      wrapped.getOutputStream().write(new byte[]{1, 2, 3});
+      wrapped.getOutputStream().close();
+      return null;
+    }).when(chain).doFilter(any(), any());
+
+    // When:
+    filter.doFilter(request, response, chain);
+
+    // Then:
+    verify(response).setStatus(200);
+    verify(response).setContentType("application/json");
+    verify(response, never()).setContentLength(anyInt());
+    verify(response, never()).setHeader(anyString(), anyString());
+    verify(output, never()).write(any(byte[].class), anyInt(), anyInt());
+    verify(output, never()).close();
+  }
+
+  @Test
+  public void shouldCloseQueryIfStreamingFailsToStart() throws Exception {
+    // Given:
+    when(request.getAttribute(anyString())).thenReturn(query);
+    when(request.startAsync(request, response))
+        .thenThrow(new IllegalStateException("async not supported"));
+
+    // Then:
+    expectedException.expect(IllegalStateException.class);
+
+    // When:
+    try {
+      filter.doFilter(request, response, chain);
+    } finally {
+      verify(query).close();
+      verify(query, never()).start();
+    }
+  }
+
+  private void givenHandedOff() throws Exception {
+    when(request.getAttribute(anyString())).thenReturn(query);
+    when(request.startAsync(request, response)).thenReturn(asyncContext);
+    when(asyncContext.getResponse()).thenReturn(response);
+    when(response.getOutputStream()).thenReturn(output);
+    when(query.getLogicalSchema()).thenReturn(LogicalSchema.builder()
+        .valueColumn(ColumnName.of("col1"), SqlTypes.STRING)
+        .build());
+  }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.resources.streaming;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.json.JsonMapper;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.query.LimitHandler;
+import io.confluent.ksql.query.QueueOverflowPolicy;
+import io.confluent.ksql.query.RowRingBuffer;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.TransientQueryMetadata;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncQueryStreamWriterTest {
+
+  private static final long DISCONNECT_CHECK_INTERVAL = 1000L;
+
+  @Mock
+  private TransientQueryMetadata queryMetadata;
+  @Mock
+  private AsyncContext asyncContext;
+  @Mock
+  private ServletResponse servletResponse;
+  @Mock
+  private ServletOutputStream output;
+  @Mock
+  private ScheduledExecutorService exec;
+  @Mock
+  private ScheduledFuture<?> disconnectCheckFuture;
+  @Captor
+  private ArgumentCaptor<WriteListener> writeListenerCaptor;
+  @Captor
+  private ArgumentCaptor<LimitHandler> limitHandlerCaptor;
+  @Captor
+  private ArgumentCaptor<UncaughtExceptionHandler> exceptionHandlerCaptor;
+  @Captor
+  private ArgumentCaptor<Runnable> disconnectCheckCaptor;
+
+  private RowRingBuffer rowQueue;
+  private ByteArrayOutputStream written;
+  private WriteListener writer;
+
+  @Before
+  public void setUp() throws Exception {
+    rowQueue = new RowRingBuffer(16, QueueOverflowPolicy.BLOCK);
+    written = new ByteArrayOutputStream();
+
+    when(queryMetadata.getRowQueue()).thenReturn(rowQueue);
+    when(queryMetadata.getLogicalSchema()).thenReturn(LogicalSchema.builder()
+        .valueColumn(ColumnName.of("col1"), SqlTypes.STRING)
+        .build());
+    when(asyncContext.getResponse()).thenReturn(servletResponse);
+    when(servletResponse.getOutputStream()).thenReturn(output);
+    doReturn(disconnectCheckFuture).when(exec).scheduleWithFixedDelay(
+        any(Runnable.class),
+        eq(DISCONNECT_CHECK_INTERVAL),
+        eq(DISCONNECT_CHECK_INTERVAL),
+        eq(TimeUnit.MILLISECONDS)
+    );
+
+    AsyncQueryStreamWriter.start(
+        queryMetadata,
+        asyncContext,
+        exec,
+        DISCONNECT_CHECK_INTERVAL,
+        JsonMapper.INSTANCE.mapper,
+        QueryStreamEncoding.JSON
+    );
+
+    verify(output).setWriteListener(writeListenerCaptor.capture());
+    writer = writeListenerCaptor.getValue();
+  }
+
+  @Test
+  public void shouldStartQueryAndNeverTimeOut() {
+    verify(asyncContext).setTimeout(0);
+    verify(queryMetadata).start();
+  }
+
+  @Test
+  public void shouldWriteQueuedRows() throws Exception {
+    // Given:
+    givenConnectionReady();
+    givenRunning();
+    rowQueue.offer("k1", new GenericRow(ImmutableList.of("Row1")));
+    rowQueue.offer("k2", new GenericRow(ImmutableList.of("Row2")));
+
+    // When:
+    writer.onWritePossible();
+
+    // Then:
+    final List<String> lines = getOutput();
+    assertThat(lines, contains(containsString("Row1"), containsString("Row2")));
+    verify(output).flush();
+  }
+
+  @Test
+  public void shouldResumeWritingOnceRowsQueued() throws Exception {
+    // Given:
+    givenConnectionReady();
+    givenRunning();
+    givenInlineExecutor();
+    writer.onWritePossible();
+    assertThat(getOutput(), is(empty()));
+
+    // When:
+    rowQueue.offer("k1", new GenericRow(ImmutableList.of("Row1")));
+
+    // Then:
+    assertThat(getOutput(), contains(containsString("Row1")));
+  }
+
+  @Test
+  public void shouldNotWriteIfConnectionNotReady() throws Exception {
+    // Given:
+    when(output.isReady()).thenReturn(false);
+    rowQueue.offer("k1", new GenericRow(ImmutableList.of("Row1")));
+
+    // When:
+    writer.onWritePossible();
+
+    // Then:
+    assertThat(getOutput(), is(empty()));
+    assertThat(rowQueue.size(), is(1));
+  }
+
+  @Test
+  public void shouldWriteNewLineToCheckForDisconnectIfNoRows() throws Exception {
+    // Given:
+    givenConnectionReady();
+    givenRunning();
+    givenInlineExecutor();
+    writer.onWritePossible();
+    verify(exec).scheduleWithFixedDelay(
+        disconnectCheckCaptor.capture(), anyLong(), anyLong(), any());
+
+    // When:
+    disconnectCheckCaptor.getValue().run();
+
+    // Then:
+    assertThat(new String(written.toByteArray(), StandardCharsets.UTF_8), is("\n"));
+  }
+
+  @Test
+  public void shouldWriteLimitMessageAndCompleteOnceLimitReached() throws Exception {
+    // Given:
+    givenConnectionReady();
+    givenRunning();
+    givenInlineExecutor();
+    verify(queryMetadata).setLimitHandler(limitHandlerCaptor.capture());
+    writer.onWritePossible();
+    rowQueue.offer("k1", new GenericRow(ImmutableList.of("Row1")));
+
+    // When:
+    limitHandlerCaptor.getValue().limitReached();
+
+    // Then:
+    assertThat(getOutput(), contains(
+        containsString("Row1"),
+        containsString("Limit Reached")));
+    verify(queryMetadata).close();
+    verify(asyncContext).complete();
+    verify(disconnectCheckFuture).cancel(false);
+  }
+
+  @Test
+  public void shouldWritePendingRowsThenErrorOnStreamsException() throws Exception {
+    // Given:
+    givenConnectionReady();
+    verify(queryMetadata).setUncaughtExceptionHandler(exceptionHandlerCaptor.capture());
+    rowQueue.offer("k1", new GenericRow(ImmutableList.of("Row1")));
+    exceptionHandlerCaptor.getValue()
+        .uncaughtException(Thread.currentThread(), new KsqlException("Server went Boom"));
+
+    // When:
+    writer.onWritePossible();
+
+    // Then:
+    final List<String> lines = getOutput();
+    assertThat(lines, hasItem(containsString("Row1")));
+    assertThat(lines, hasItem(containsString("Server went Boom")));
+    verify(queryMetadata).close();
+    verify(asyncContext).complete();
+  }
+
+  @Test
+  public void shouldCompleteOnceQueryStops() throws Exception {
+    // Given:
+    when(output.isReady()).thenReturn(true);
+    when(queryMetadata.isRunning()).thenReturn(false);
+
+    // When:
+    writer.onWritePossible();
+
+    // Then:
+    verify(queryMetadata).close();
+    verify(asyncContext).complete();
+  }
+
+  @Test
+  public void shouldCloseQueryOnWriteError() {
+    // When:
+    writer.onError(new IOException("Connection reset"));
+
+    // Then:
+    verify(queryMetadata).close();
+    verify(asyncContext).complete();
+  }
+
+  @Test
+  public void shouldNotWriteAfterClose() throws Exception {
+    // Given:
+    writer.onError(new IOException("Connection reset"));
+    rowQueue.offer("k1", new GenericRow(ImmutableList.of("Row1")));
+
+    // When:
+    writer.onWritePossible();
+
+    // Then:
+    verify(output, never()).write(any(byte[].class), anyInt(), anyInt());
+    verify(exec, never()).execute(any());
+  }
+
+  private void givenConnectionReady() throws IOException {
+    when(output.isReady()).thenReturn(true);
+    doAnswer(inv -> {
+      written.write(inv.<byte[]>getArgument(0), inv.getArgument(1), inv.getArgument(2));
+      return null;
+    }).when(output).write(any(byte[].class), anyInt(), anyInt());
+  }
+
+  private void givenRunning() {
+    when(queryMetadata.isRunning()).thenReturn(true);
+  }
+
+  private void givenInlineExecutor() {
+    doAnswer(inv -> {
+      inv.<Runnable>getArgument(0).run();
+      return null;
+    }).when(exec).execute(any());
+  }
+
+  private List<String> getOutput() {
+    final String[] lines = new String(written.toByteArray(), StandardCharsets.UTF_8).split("\n");
+    return Arrays.stream(lines)
+        .filter(line -> !line.isEmpty())
+        .collect(Collectors.toList());
+  }
+}
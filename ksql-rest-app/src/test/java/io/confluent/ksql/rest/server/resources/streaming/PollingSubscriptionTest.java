@@ -31,9 +31,11 @@ import io.confluent.ksql.rest.server.resources.streaming.StreamingTestUtils.Test
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 
 
@@ -229,14 +231,86 @@ public class PollingSubscriptionTest {
   }
 
   @Test(expected = IllegalArgumentException.class)
-  public void testExpectsNEqualsOne() {
+  public void testExpectsPositiveN() {
     final TestSubscriber<String> testSubscriber = new TestSubscriber<String>() {
       @Override
       public void onSubscribe(final Subscription subscription) {
+        subscription.request(0);
+      }
+    };
+    final TestPublisher testPublisher = new TestPublisher();
+    testPublisher.subscribe(testSubscriber);
+  }
+
+  @Test
+  public void testDeliversNoMoreThanRequested() throws Exception {
+    final TestSubscriber<String> testSubscriber = new TestSubscriber<String>() {
+      @Override
+      public void onNext(final String item) {
+        elements.add(item);
+      }
+
+      @Override
+      public void onSubscribe(final Subscription subscription) {
+        this.subscription = subscription;
         subscription.request(2);
       }
     };
     final TestPublisher testPublisher = new TestPublisher();
     testPublisher.subscribe(testSubscriber);
+
+    // wait for the delivery task to run out of credit:
+    exec.submit(() -> { }).get();
+    assertEquals(ImmutableList.of("a", "b"), testSubscriber.elements);
+    assertEquals(1, testSubscriber.done.getCount());
+
+    testSubscriber.subscription.request(ELEMENTS.size());
+
+    assertTrue(testSubscriber.done.await(1000, TimeUnit.MILLISECONDS));
+    assertTrue(exec.shutdownNow().isEmpty());
+    assertEquals(ELEMENTS, testSubscriber.elements);
+  }
+
+  @Test
+  public void testDeliversItemsOnceNotified() throws Exception {
+    final Queue<String> source = new ConcurrentLinkedQueue<>();
+    final AtomicInteger awaiting = new AtomicInteger();
+    final TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+    final TestPublisher testPublisher = new TestPublisher() {
+      @Override
+      TestPollingSubscription createSubscription(final Subscriber<String> subscriber) {
+        return new TestPollingSubscription(subscriber, exec) {
+          @Override
+          String poll() {
+            return source.poll();
+          }
+
+          @Override
+          protected void awaitItems() {
+            awaiting.incrementAndGet();
+          }
+        };
+      }
+    };
+    testPublisher.subscribe(testSubscriber);
+
+    exec.submit(() -> { }).get();
+    assertEquals(1, awaiting.get());
+    assertEquals(ImmutableList.of(), testSubscriber.elements);
+
+    source.add("a");
+    source.add("b");
+    testPublisher.subscription.scheduleDrain();
+
+    exec.submit(() -> { }).get();
+    assertEquals(ImmutableList.of("a", "b"), testSubscriber.elements);
+    assertEquals(2, awaiting.get());
+
+    testPublisher.subscription.setDone();
+
+    assertTrue(testSubscriber.done.await(1000, TimeUnit.MILLISECONDS));
+    assertTrue(exec.shutdownNow().isEmpty());
+    assertTrue(testPublisher.subscription.closed);
+    assertNull(testSubscriber.error);
   }
 }
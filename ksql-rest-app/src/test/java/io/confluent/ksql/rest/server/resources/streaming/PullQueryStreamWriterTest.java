@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.resources.streaming;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.json.JsonMapper;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.rest.entity.StreamedRow;
+import io.confluent.ksql.rest.entity.StreamedRowBinaryCodec;
+import io.confluent.ksql.rest.entity.TableRowsEntity;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.Field;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PullQueryStreamWriterTest {
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder()
+      .noImplicitColumns()
+      .keyColumn(ColumnName.of("ROWKEY"), SqlTypes.STRING)
+      .valueColumn(ColumnName.of("COUNT"), SqlTypes.BIGINT)
+      .build();
+
+  private static final TableRowsEntity RESULT = new TableRowsEntity(
+      "SELECT * FROM T WHERE ROWKEY='k';",
+      new QueryId("id"),
+      SCHEMA,
+      ImmutableList.of(ImmutableList.of("k", 10L))
+  );
+
+  private ByteArrayOutputStream out;
+
+  @Before
+  public void setUp() {
+    out = new ByteArrayOutputStream();
+  }
+
+  @Test
+  public void shouldWriteKeyAndValueColumnsOfEachRowAsJson() throws Exception {
+    // Given:
+    final PullQueryStreamWriter writer =
+        new PullQueryStreamWriter(RESULT, JsonMapper.INSTANCE.mapper, QueryStreamEncoding.JSON);
+
+    // When:
+    writer.write(out);
+
+    // Then:
+    final String json = new String(out.toByteArray(), StandardCharsets.UTF_8);
+    assertThat(json, containsString("\"columns\":[\"k\",10]"));
+    assertThat(json.endsWith("\n"), is(true));
+  }
+
+  @Test
+  public void shouldWriteColumnsInHeaderAndEachRowAsBinary() throws Exception {
+    // Given:
+    final PullQueryStreamWriter writer =
+        new PullQueryStreamWriter(RESULT, JsonMapper.INSTANCE.mapper, QueryStreamEncoding.BINARY);
+
+    // When:
+    writer.write(out);
+
+    // Then:
+    final StreamedRowBinaryCodec.Reader reader =
+        StreamedRowBinaryCodec.reader(new ByteArrayInputStream(out.toByteArray()));
+
+    assertThat(reader.getColumns(), contains(
+        Field.of("ROWKEY", SqlTypes.STRING),
+        Field.of("COUNT", SqlTypes.BIGINT)));
+    assertThat(reader.read(), is(StreamedRow.row(new GenericRow(ImmutableList.of("k", 10L)))));
+    assertThat(reader.read(), is(nullValue()));
+  }
+}
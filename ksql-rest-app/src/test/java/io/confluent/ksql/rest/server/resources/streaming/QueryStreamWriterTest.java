@@ -15,6 +15,8 @@
 
 package io.confluent.ksql.rest.server.resources.streaming;
 
+import static org.easymock.EasyMock.anyInt;
+import static org.easymock.EasyMock.anyLong;
 import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.capture;
 import static org.easymock.EasyMock.expect;
@@ -24,6 +26,8 @@ import static org.easymock.EasyMock.niceMock;
 import static org.easymock.EasyMock.replay;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -32,22 +36,27 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.json.JsonMapper;
 import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.query.BlockingRowQueue;
 import io.confluent.ksql.query.LimitHandler;
+import io.confluent.ksql.rest.entity.StreamedRow;
+import io.confluent.ksql.rest.entity.StreamedRowBinaryCodec;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.Field;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.TransientQueryMetadata;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.KafkaStreams.State;
-import org.apache.kafka.streams.KeyValue;
 import org.easymock.Capture;
 import org.easymock.EasyMockRunner;
 import org.easymock.IAnswer;
@@ -74,9 +83,9 @@ public class QueryStreamWriterTest {
   @Mock(MockType.NICE)
   private TransientQueryMetadata queryMetadata;
   @Mock(MockType.NICE)
-  private BlockingQueue<KeyValue<String, GenericRow>> rowQueue;
+  private BlockingRowQueue rowQueue;
   private Capture<Thread.UncaughtExceptionHandler> ehCapture;
-  private Capture<Collection<KeyValue<String, GenericRow>>> drainCapture;
+  private Capture<Collection<GenericRow>> drainCapture;
   private Capture<LimitHandler> limitHandlerCapture;
   private QueryStreamWriter writer;
   private ByteArrayOutputStream out;
@@ -118,7 +127,8 @@ public class QueryStreamWriterTest {
   public void shouldWriteAnyPendingRowsBeforeReportingException() throws Exception {
     // Given:
     expect(queryMetadata.isRunning()).andReturn(true).anyTimes();
-    expect(rowQueue.drainTo(capture(drainCapture))).andAnswer(rows("Row1", "Row2", "Row3"));
+    expect(rowQueue.drainRowsTo(capture(drainCapture), anyInt(), anyLong(), anyObject()))
+        .andAnswer(rows("Row1", "Row2", "Row3"));
 
     createWriter();
 
@@ -139,7 +149,8 @@ public class QueryStreamWriterTest {
   public void shouldExitAndDrainIfQueryStopsRunning() throws Exception {
     // Given:
     expect(queryMetadata.isRunning()).andReturn(true).andReturn(false);
-    expect(rowQueue.drainTo(capture(drainCapture))).andAnswer(rows("Row1", "Row2", "Row3"));
+    expect(rowQueue.drainRowsTo(capture(drainCapture), anyInt(), anyLong(), anyObject()))
+        .andAnswer(rows("Row1", "Row2", "Row3"));
 
     createWriter();
 
@@ -158,7 +169,8 @@ public class QueryStreamWriterTest {
   public void shouldExitAndDrainIfLimitReached() throws Exception {
     // Given:
     expect(queryMetadata.isRunning()).andReturn(true).anyTimes();
-    expect(rowQueue.drainTo(capture(drainCapture))).andAnswer(rows("Row1", "Row2", "Row3"));
+    expect(rowQueue.drainRowsTo(capture(drainCapture), anyInt(), anyLong(), anyObject()))
+        .andAnswer(rows("Row1", "Row2", "Row3"));
 
     createWriter();
 
@@ -175,10 +187,43 @@ public class QueryStreamWriterTest {
         containsString("Row3")));
   }
 
+  @Test
+  public void shouldWriteBinaryFramesIfRequested() throws Exception {
+    // Given:
+    expect(queryMetadata.isRunning()).andReturn(true).andReturn(false);
+    expect(rowQueue.drainRowsTo(capture(drainCapture), anyInt(), anyLong(), anyObject()))
+        .andAnswer(rows("Row1", "Row2"));
+
+    createWriter(QueryStreamEncoding.BINARY);
+
+    // When:
+    writer.write(out);
+
+    // Then:
+    final InputStream in = new ByteArrayInputStream(out.toByteArray());
+    final StreamedRowBinaryCodec.Reader reader = StreamedRowBinaryCodec.reader(in);
+
+    final List<StreamedRow> rows = new ArrayList<>();
+    StreamedRow row;
+    while ((row = reader.read()) != null) {
+      rows.add(row);
+    }
+
+    assertThat(reader.getColumns(), contains(Field.of("col1", SqlTypes.STRING)));
+    assertThat(rows, contains(
+        StreamedRow.row(new GenericRow(ImmutableList.of("Row1"))),
+        StreamedRow.row(new GenericRow(ImmutableList.of("Row2")))));
+    assertThat(in.read(), is(-1));
+  }
+
   private void createWriter() {
+    createWriter(QueryStreamEncoding.JSON);
+  }
+
+  private void createWriter(final QueryStreamEncoding encoding) {
     replay(queryMetadata, ksqlEngine, rowQueue);
 
-    writer = new QueryStreamWriter(queryMetadata, 1000, objectMapper);
+    writer = new QueryStreamWriter(queryMetadata, 1000, objectMapper, encoding);
 
     out = new ByteArrayOutputStream();
     limitHandler = limitHandlerCapture.getValue();
@@ -190,12 +235,12 @@ public class QueryStreamWriterTest {
 
   private IAnswer<Integer> rows(final Object... rows) {
     return () -> {
-      final Collection<KeyValue<String, GenericRow>> output = drainCapture.getValue();
+      final Collection<GenericRow> output = drainCapture.getValue();
 
       Arrays.stream(rows)
           .map(ImmutableList::of)
           .map(GenericRow::new)
-          .forEach(row -> output.add(new KeyValue<>("no used", row)));
+          .forEach(output::add);
 
       return rows.length;
     };
@@ -20,11 +20,14 @@ import static io.confluent.ksql.rest.entity.KsqlErrorMessageMatchers.errorCode;
 import static io.confluent.ksql.rest.entity.KsqlErrorMessageMatchers.errorMessage;
 import static io.confluent.ksql.rest.server.resources.KsqlRestExceptionMatchers.exceptionErrorMessage;
 import static io.confluent.ksql.rest.server.resources.KsqlRestExceptionMatchers.exceptionStatusCode;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -45,10 +48,13 @@ import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.PrintTopic;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.parser.tree.Statement;
+import io.confluent.ksql.query.QueueOverflowPolicy;
+import io.confluent.ksql.query.RowRingBuffer;
 import io.confluent.ksql.rest.Errors;
 import io.confluent.ksql.rest.entity.KsqlErrorMessage;
 import io.confluent.ksql.rest.entity.KsqlRequest;
 import io.confluent.ksql.rest.entity.StreamedRow;
+import io.confluent.ksql.rest.entity.Versions;
 import io.confluent.ksql.rest.server.StatementParser;
 import io.confluent.ksql.rest.server.computation.CommandQueue;
 import io.confluent.ksql.rest.server.resources.KsqlRestException;
@@ -72,15 +78,15 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Scanner;
-import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
 import org.apache.kafka.common.acl.AclOperation;
 import org.apache.kafka.streams.KafkaStreams;
-import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.Topology;
 import org.eclipse.jetty.http.HttpStatus;
@@ -126,6 +132,10 @@ public class StreamedQueryResourceTest {
   private Consumer<QueryMetadata> queryCloseCallback;
   @Mock
   private KsqlAuthorizationValidator authorizationValidator;
+  @Mock
+  private HttpHeaders headers;
+  @Mock
+  private HttpServletRequest servletRequest;
   private StreamedQueryResource testResource;
 
   private final static String queryString = "SELECT * FROM test_stream EMIT CHANGES;";
@@ -146,7 +156,8 @@ public class StreamedQueryResourceTest {
         DISCONNECT_CHECK_INTERVAL,
         COMMAND_QUEUE_CATCHUP_TIMOEUT,
         activenessRegistrar,
-        authorizationValidator
+        authorizationValidator,
+        false
     );
 
     testResource.configure(VALID_CONFIG);
@@ -171,7 +182,8 @@ public class StreamedQueryResourceTest {
         DISCONNECT_CHECK_INTERVAL,
         COMMAND_QUEUE_CATCHUP_TIMOEUT,
         activenessRegistrar,
-        authorizationValidator
+        authorizationValidator,
+        false
     );
 
     // Then:
@@ -181,10 +193,7 @@ public class StreamedQueryResourceTest {
         .expect(exceptionErrorMessage(errorMessage(Matchers.is("Server initializing"))));
 
     // When:
-    testResource.streamQuery(
-        serviceContext,
-        new KsqlRequest("query", Collections.emptyMap(), null)
-    );
+    streamQuery(new KsqlRequest("query", Collections.emptyMap(), null));
   }
 
   @Test
@@ -201,19 +210,13 @@ public class StreamedQueryResourceTest {
         exceptionErrorMessage(errorCode(is(Errors.ERROR_CODE_BAD_STATEMENT))));
 
     // When:
-    testResource.streamQuery(
-        serviceContext,
-        new KsqlRequest("query", Collections.emptyMap(), null)
-    );
+    streamQuery(new KsqlRequest("query", Collections.emptyMap(), null));
   }
 
   @Test
   public void shouldNotWaitIfCommandSequenceNumberSpecified() throws Exception {
     // When:
-    testResource.streamQuery(
-        serviceContext,
-        new KsqlRequest(queryString, Collections.emptyMap(), null)
-    );
+    streamQuery(new KsqlRequest(queryString, Collections.emptyMap(), null));
 
     // Then:
     verify(commandQueue, never()).ensureConsumedPast(anyLong(), any());
@@ -222,10 +225,7 @@ public class StreamedQueryResourceTest {
   @Test
   public void shouldWaitIfCommandSequenceNumberSpecified() throws Exception {
     // When:
-    testResource.streamQuery(
-        serviceContext,
-        new KsqlRequest(queryString, Collections.emptyMap(), 3L)
-    );
+    streamQuery(new KsqlRequest(queryString, Collections.emptyMap(), 3L));
 
     // Then:
     verify(commandQueue).ensureConsumedPast(eq(3L), any());
@@ -247,10 +247,7 @@ public class StreamedQueryResourceTest {
         exceptionErrorMessage(errorCode(is(Errors.ERROR_CODE_COMMAND_QUEUE_CATCHUP_TIMEOUT))));
 
     // When:
-    testResource.streamQuery(
-        serviceContext,
-        new KsqlRequest(queryString, Collections.emptyMap(), 3L)
-    );
+    streamQuery(new KsqlRequest(queryString, Collections.emptyMap(), 3L));
   }
 
   @SuppressWarnings("unchecked")
@@ -263,22 +260,18 @@ public class StreamedQueryResourceTest {
 
     final String queryString = "SELECT * FROM test_stream;";
 
-    final SynchronousQueue<KeyValue<String, GenericRow>> rowQueue = new SynchronousQueue<>();
+    final RowRingBuffer rowQueue = new RowRingBuffer(NUM_ROWS, QueueOverflowPolicy.BLOCK);
 
     final LinkedList<GenericRow> writtenRows = new LinkedList<>();
 
     final Thread rowQueuePopulatorThread = new Thread(() -> {
-      try {
-        for (int i = 0; i != NUM_ROWS; i++) {
-          final String key = Integer.toString(i);
-          final GenericRow value = new GenericRow(Collections.singletonList(i));
-          synchronized (writtenRows) {
-            writtenRows.add(value);
-          }
-          rowQueue.put(new KeyValue<>(key, value));
+      for (int i = 0; i != NUM_ROWS; i++) {
+        final String key = Integer.toString(i);
+        final GenericRow value = new GenericRow(Collections.singletonList(i));
+        synchronized (writtenRows) {
+          writtenRows.add(value);
         }
-      } catch (final InterruptedException exception) {
-        // This should happen during the test, so it's fine
+        rowQueue.offer(key, value);
       }
     }, "Row Queue Populator");
     rowQueuePopulatorThread.setUncaughtExceptionHandler(threadExceptionHandler);
@@ -312,10 +305,7 @@ public class StreamedQueryResourceTest {
         .thenReturn(ExecuteResult.of(transientQueryMetadata));
 
     final Response response =
-        testResource.streamQuery(
-            serviceContext,
-            new KsqlRequest(queryString, requestStreamsProperties, null)
-        );
+        streamQuery(new KsqlRequest(queryString, requestStreamsProperties, null));
     final PipedOutputStream responseOutputStream = new EOFPipedOutputStream();
     final PipedInputStream responseInputStream = new PipedInputStream(responseOutputStream, 1);
     final StreamingOutput responseStream = (StreamingOutput) response.getEntity();
@@ -434,10 +424,7 @@ public class StreamedQueryResourceTest {
   @Test
   public void shouldUpdateTheLastRequestTime() {
     /// When:
-    testResource.streamQuery(
-        serviceContext,
-        new KsqlRequest(queryString, Collections.emptyMap(), null)
-    );
+    streamQuery(new KsqlRequest(queryString, Collections.emptyMap(), null));
 
     // Then:
     verify(activenessRegistrar).updateLastRequestTime();
@@ -455,10 +442,8 @@ public class StreamedQueryResourceTest {
         .when(authorizationValidator).checkAuthorization(any(), any(), any());
 
     // When:
-    final Response response = testResource.streamQuery(
-        serviceContext,
-        new KsqlRequest(queryString, Collections.emptyMap(), null)
-    );
+    final Response response =
+        streamQuery(new KsqlRequest(queryString, Collections.emptyMap(), null));
 
     final Response expected = Errors.accessDeniedFromKafka(
         new KsqlTopicAuthorizationException(AclOperation.READ, Collections.singleton(topicName)));
@@ -481,10 +466,8 @@ public class StreamedQueryResourceTest {
         .when(authorizationValidator).checkAuthorization(any(), any(), any());
 
     // When:
-    final Response response = testResource.streamQuery(
-        serviceContext,
-        new KsqlRequest(queryString, Collections.emptyMap(), null)
-    );
+    final Response response =
+        streamQuery(new KsqlRequest(queryString, Collections.emptyMap(), null));
 
     final Response expected = Errors.accessDeniedFromKafka(
         new KsqlException(
@@ -509,10 +492,8 @@ public class StreamedQueryResourceTest {
         .when(authorizationValidator).checkAuthorization(any(), any(), any());
 
     // When:
-    final Response response = testResource.streamQuery(
-        serviceContext,
-        new KsqlRequest(printString, Collections.emptyMap(), null)
-    );
+    final Response response =
+        streamQuery(new KsqlRequest(printString, Collections.emptyMap(), null));
 
     final Response expected = Errors.accessDeniedFromKafka(
         new KsqlTopicAuthorizationException(AclOperation.READ, Collections.singleton(topicName)));
@@ -558,9 +539,44 @@ public class StreamedQueryResourceTest {
         ))));
 
     // When:
-    testResource.streamQuery(
-        serviceContext,
-        new KsqlRequest(printString, Collections.emptyMap(), null)
+    streamQuery(new KsqlRequest(printString, Collections.emptyMap(), null));
+  }
+
+  @Test
+  public void shouldStreamQueryAsynchronouslyIfConfigured() throws Exception {
+    // Given:
+    testResource = new StreamedQueryResource(
+        mockKsqlEngine,
+        mockStatementParser,
+        commandQueue,
+        DISCONNECT_CHECK_INTERVAL,
+        COMMAND_QUEUE_CATCHUP_TIMOEUT,
+        activenessRegistrar,
+        authorizationValidator,
+        true
     );
+    testResource.configure(VALID_CONFIG);
+
+    statement = PreparedStatement.of("query", mock(Query.class));
+    when(mockStatementParser.parseSingleStatement(queryString)).thenReturn(statement);
+
+    final TransientQueryMetadata query = mock(TransientQueryMetadata.class);
+    when(query.getLogicalSchema()).thenReturn(SOME_SCHEMA);
+    when(mockKsqlEngine.execute(any(), any())).thenReturn(ExecuteResult.of(query));
+
+    // When:
+    final Response response =
+        streamQuery(new KsqlRequest(queryString, Collections.emptyMap(), null));
+
+    // Then:
+    assertThat(response.getStatus(), is(Response.Status.OK.getStatusCode()));
+    assertThat(response.getMediaType().toString(), is(Versions.KSQL_V1_JSON));
+    assertThat(response.getEntity(), is(nullValue()));
+    verify(servletRequest).setAttribute(anyString(), eq(query));
+    verify(query, never()).start();
+  }
+
+  private Response streamQuery(final KsqlRequest request) {
+    return testResource.streamQuery(serviceContext, request, headers, servletRequest);
   }
 }
@@ -31,6 +31,8 @@ import javax.websocket.CloseReason;
 import javax.websocket.CloseReason.CloseCodes;
 import javax.websocket.RemoteEndpoint.Async;
 import javax.websocket.RemoteEndpoint.Basic;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
 import javax.websocket.Session;
 import org.easymock.Capture;
 import org.easymock.CaptureType;
@@ -49,7 +51,7 @@ public class WebSocketSubscriberTest {
       new WebSocketSubscriber<>(session, mapper);
 
   private void replayOnSubscribe() {
-    subscription.request(1);
+    subscription.request(WebSocketSubscriber.MAX_BATCHES_IN_FLIGHT);
     EasyMock.expectLastCall().once();
 
     EasyMock.replay(subscription);
@@ -64,7 +66,8 @@ public class WebSocketSubscriberTest {
 
     EasyMock.expect(session.getAsyncRemote()).andReturn(async).anyTimes();
     final Capture<String> json = EasyMock.newCapture(CaptureType.ALL);
-    async.sendText(EasyMock.capture(json), EasyMock.anyObject());
+    final Capture<SendHandler> handlers = EasyMock.newCapture(CaptureType.ALL);
+    async.sendText(EasyMock.capture(json), EasyMock.capture(handlers));
     EasyMock.expectLastCall().times(3);
 
     subscription.request(1);
@@ -77,6 +80,7 @@ public class WebSocketSubscriberTest {
     EasyMock.replay(subscription, session, async);
     subscriber.onNext(ImmutableList.of(ImmutableMap.of("a", 1), ImmutableMap.of("b", 2), ImmutableMap.of("c", 3)));
     assertEquals(ImmutableList.of("{\"a\":1}","{\"b\":2}","{\"c\":3}"), json.getValues());
+    handlers.getValues().forEach(handler -> handler.onResult(new SendResult()));
     subscriber.onComplete();
     subscriber.close();
 
@@ -89,12 +93,14 @@ public class WebSocketSubscriberTest {
 
     EasyMock.expect(session.getAsyncRemote()).andReturn(async).anyTimes();
     final Capture<String> json = EasyMock.newCapture(CaptureType.ALL);
-    async.sendText(EasyMock.capture(json), EasyMock.anyObject());
+    final Capture<SendHandler> handler = EasyMock.newCapture();
+    async.sendText(EasyMock.capture(json), EasyMock.capture(handler));
     subscription.request(1);
     subscription.cancel();
 
     EasyMock.replay(subscription, session, async);
     subscriber.onNext(ImmutableList.of(ImmutableMap.of("a", 1)));
+    handler.getValue().onResult(new SendResult());
     subscriber.close();
     subscriber.onNext(ImmutableList.of(ImmutableMap.of("b", 2), ImmutableMap.of("c", 3)));
     assertEquals(ImmutableList.of("{\"a\":1}"), json.getValues());
@@ -160,4 +166,31 @@ public class WebSocketSubscriberTest {
 
     EasyMock.verify(subscription, session);
   }
+
+  @Test
+  public void shouldOnlyRequestMoreOnceBatchSent() {
+    replayOnSubscribe();
+
+    EasyMock.expect(session.getAsyncRemote()).andReturn(async).anyTimes();
+    final Capture<SendHandler> handlers = EasyMock.newCapture(CaptureType.ALL);
+    async.sendText(EasyMock.anyString(), EasyMock.capture(handlers));
+    EasyMock.expectLastCall().times(2);
+
+    EasyMock.replay(subscription, session, async);
+    subscriber.onNext(ImmutableList.of(ImmutableMap.of("a", 1), ImmutableMap.of("b", 2)));
+    handlers.getValues().get(0).onResult(new SendResult());
+
+    // Then:
+    EasyMock.verify(subscription, session, async);
+
+    // When:
+    EasyMock.reset(subscription);
+    subscription.request(1);
+    EasyMock.expectLastCall().once();
+    EasyMock.replay(subscription);
+    handlers.getValues().get(1).onResult(new SendResult());
+
+    // Then:
+    EasyMock.verify(subscription);
+  }
 }
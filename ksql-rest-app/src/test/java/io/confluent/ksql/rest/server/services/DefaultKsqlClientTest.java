@@ -23,12 +23,14 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableMap;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.confluent.ksql.rest.client.KsqlClient;
 import io.confluent.ksql.rest.client.KsqlTarget;
 import io.confluent.ksql.rest.client.RestResponse;
 import io.confluent.ksql.rest.entity.KsqlEntityList;
 import java.net.URI;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.Before;
 import org.junit.Test;
@@ -100,4 +102,20 @@ public class DefaultKsqlClientTest {
     verify(target).postKsqlRequest("Sql", Optional.empty());
     assertThat(result, is(response));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldPostRequestWithProperties() {
+    // Given:
+    final Map<String, ?> properties = ImmutableMap.of("some.property", 10L);
+    when(target.properties(any())).thenReturn(target);
+
+    // When:
+    final RestResponse<KsqlEntityList> result =
+        client.makeKsqlRequest(SERVER_ENDPOINT, "Sql", properties);
+
+    // Then:
+    verify(target).properties(properties);
+    verify(target).postKsqlRequest("Sql", Optional.empty());
+    assertThat(result, is(response));
+  }
+}
@@ -106,6 +106,13 @@ public class KsqlRestClient implements Closeable {
     return target().postQueryRequest(ksql, Optional.ofNullable(commandSeqNum));
   }
 
+  public RestResponse<QueryStream> makeBinaryQueryRequest(
+      final String ksql,
+      final Long commandSeqNum
+  ) {
+    return target().postBinaryQueryRequest(ksql, Optional.ofNullable(commandSeqNum));
+  }
+
   public RestResponse<InputStream> makePrintTopicRequest(
       final String ksql,
       final Long commandSeqNum
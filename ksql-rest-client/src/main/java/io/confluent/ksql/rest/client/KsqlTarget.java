@@ -24,8 +24,10 @@ import io.confluent.ksql.rest.entity.HealthCheckResponse;
 import io.confluent.ksql.rest.entity.KsqlEntityList;
 import io.confluent.ksql.rest.entity.KsqlRequest;
 import io.confluent.ksql.rest.entity.ServerInfo;
+import io.confluent.ksql.rest.entity.Versions;
 import java.io.InputStream;
 import java.net.SocketTimeoutException;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
@@ -48,6 +50,10 @@ public final class KsqlTarget {
   private static final String KSQL_PATH = "/ksql";
   private static final String QUERY_PATH = "/query";
 
+  private static final MediaType[] JSON = {MediaType.APPLICATION_JSON_TYPE};
+  private static final MediaType[] BINARY_OR_JSON =
+      {Versions.KSQL_V1_BINARY_TYPE, MediaType.APPLICATION_JSON_TYPE};
+
   private final WebTarget target;
   private final LocalProperties localProperties;
   private final Optional<String> authHeader;
@@ -66,6 +72,10 @@ public final class KsqlTarget {
     return new KsqlTarget(target, localProperties, Optional.of(authHeader));
   }
 
+  public KsqlTarget properties(final Map<String, ?> properties) {
+    return new KsqlTarget(target, new LocalProperties(properties), authHeader);
+  }
+
   public RestResponse<ServerInfo> getServerInfo() {
     return get("/info", ServerInfo.class);
   }
@@ -108,6 +118,26 @@ public final class KsqlTarget {
     );
   }
 
+  /**
+   * Posts a query, asking for its results in the compact binary encoding.
+   *
+   * <p>Servers that do not support the binary encoding respond with JSON, which the returned
+   * stream also reads.
+   */
+  public RestResponse<QueryStream> postBinaryQueryRequest(
+      final String ksql,
+      final Optional<Long> previousCommandSeqNum
+  ) {
+    return post(
+        QUERY_PATH,
+        ksqlRequest(ksql, previousCommandSeqNum),
+        Optional.of(QueryStream.READ_TIMEOUT_MS),
+        false,
+        QueryStream::new,
+        BINARY_OR_JSON
+    );
+  }
+
   public RestResponse<InputStream> postPrintTopicRequest(
       final String ksql,
       final Optional<Long> previousCommandSeqNum
@@ -151,13 +181,24 @@ public final class KsqlTarget {
       final Optional<Integer> readTimeoutMs,
       final boolean closeResponse,
       final Function<Response, T> mapper
+  ) {
+    return post(path, jsonEntity, readTimeoutMs, closeResponse, mapper, JSON);
+  }
+
+  private <T> RestResponse<T> post(
+      final String path,
+      final Object jsonEntity,
+      final Optional<Integer> readTimeoutMs,
+      final boolean closeResponse,
+      final Function<Response, T> mapper,
+      final MediaType[] accept
   ) {
     Response response = null;
 
     try {
       response = target
           .path(path)
-          .request(MediaType.APPLICATION_JSON_TYPE)
+          .request(accept)
           .property(ClientProperties.READ_TIMEOUT, readTimeoutMs.orElse(0))
           .headers(headers())
           .post(Entity.json(jsonEntity));
@@ -165,7 +206,8 @@ public final class KsqlTarget {
       return KsqlClientUtil.toRestResponse(response, path, mapper);
     } catch (final ProcessingException e) {
       if (shouldRetry(readTimeoutMs, e)) {
-        return post(path, jsonEntity, calcReadTimeout(readTimeoutMs), closeResponse, mapper);
+        return post(
+            path, jsonEntity, calcReadTimeout(readTimeoutMs), closeResponse, mapper, accept);
       }
       throw new KsqlRestClientException("Error issuing POST to KSQL server. path:" + path, e);
     } catch (final Exception e) {
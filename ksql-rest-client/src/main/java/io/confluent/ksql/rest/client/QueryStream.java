@@ -18,7 +18,11 @@ package io.confluent.ksql.rest.client;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.confluent.ksql.json.JsonMapper;
 import io.confluent.ksql.rest.entity.StreamedRow;
+import io.confluent.ksql.rest.entity.StreamedRowBinaryCodec;
+import io.confluent.ksql.rest.entity.Versions;
+import java.io.BufferedInputStream;
 import java.io.Closeable;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -39,18 +43,31 @@ public final class QueryStream implements Closeable, Iterator<StreamedRow> {
   private final ObjectMapper objectMapper;
   private final Scanner responseScanner;
   private final InputStreamReader isr;
+  private final InputStream binaryInput;
+  private final boolean binary;
 
   private StreamedRow bufferedRow;
+  private StreamedRowBinaryCodec.Reader binaryReader;
   private volatile boolean closed = false;
 
   QueryStream(final Response response) {
     this.response = response;
 
     this.objectMapper = JsonMapper.INSTANCE.mapper;
-    this.isr = new InputStreamReader(
-        (InputStream) response.getEntity(),
-        StandardCharsets.UTF_8
-    );
+    this.binary = Versions.KSQL_V1_BINARY_TYPE.isCompatible(response.getMediaType());
+    this.bufferedRow = null;
+
+    // Only a reader for the response's content type is created, as each buffers the entity:
+    final InputStream entity = (InputStream) response.getEntity();
+    if (binary) {
+      this.isr = null;
+      this.responseScanner = null;
+      this.binaryInput = new BufferedInputStream(new TimeoutRetryingInputStream(entity));
+      return;
+    }
+
+    this.binaryInput = null;
+    this.isr = new InputStreamReader(entity, StandardCharsets.UTF_8);
     this.responseScanner = new Scanner((buf) -> {
       while (true) {
         try {
@@ -70,8 +87,6 @@ public final class QueryStream implements Closeable, Iterator<StreamedRow> {
         }
       }
     });
-
-    this.bufferedRow = null;
   }
 
   @Override
@@ -103,12 +118,19 @@ public final class QueryStream implements Closeable, Iterator<StreamedRow> {
     synchronized (this) {
       closed = true;
     }
-    responseScanner.close();
+    if (responseScanner != null) {
+      responseScanner.close();
+    }
     response.close();
     IOUtils.closeQuietly(isr);
+    IOUtils.closeQuietly(binaryInput);
   }
 
   private boolean bufferNextRow() {
+    if (binary) {
+      return bufferNextBinaryRow();
+    }
+
     try {
       while (responseScanner.hasNextLine()) {
         final String responseLine = responseScanner.nextLine().trim();
@@ -135,4 +157,57 @@ public final class QueryStream implements Closeable, Iterator<StreamedRow> {
       throw e;
     }
   }
+
+  private boolean bufferNextBinaryRow() {
+    try {
+      if (binaryReader == null) {
+        binaryReader = StreamedRowBinaryCodec.reader(binaryInput);
+      }
+
+      bufferedRow = binaryReader.read();
+      return bufferedRow != null;
+    } catch (final IOException e) {
+      // Can occur if the stream is closed:
+      if (closed) {
+        return false;
+      }
+
+      throw new RuntimeException(e);
+    }
+  }
+
+  private final class TimeoutRetryingInputStream extends FilterInputStream {
+
+    private TimeoutRetryingInputStream(final InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      while (true) {
+        try {
+          return super.read();
+        } catch (final SocketTimeoutException e) {
+          // Read timeout:
+          if (closed) {
+            return -1;
+          }
+        }
+      }
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      while (true) {
+        try {
+          return super.read(b, off, len);
+        } catch (final SocketTimeoutException e) {
+          // Read timeout:
+          if (closed) {
+            return -1;
+          }
+        }
+      }
+    }
+  }
 }
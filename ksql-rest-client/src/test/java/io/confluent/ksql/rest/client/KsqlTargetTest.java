@@ -25,15 +25,25 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.properties.LocalProperties;
 import io.confluent.ksql.rest.entity.CommandStatus;
 import io.confluent.ksql.rest.entity.CommandStatuses;
 import io.confluent.ksql.rest.entity.HealthCheckResponse;
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.rest.entity.KsqlEntityList;
 import io.confluent.ksql.rest.entity.KsqlErrorMessage;
 import io.confluent.ksql.rest.entity.KsqlRequest;
 import io.confluent.ksql.rest.entity.ServerInfo;
+import io.confluent.ksql.rest.entity.StreamedRow;
+import io.confluent.ksql.rest.entity.StreamedRowBinaryCodec;
+import io.confluent.ksql.rest.entity.Versions;
+import io.confluent.ksql.schema.ksql.types.Field;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Optional;
 import javax.ws.rs.client.Entity;
@@ -291,6 +301,35 @@ public class KsqlTargetTest {
     verify(invocationBuilder).post(jsonKsqlRequest("query request", Optional.of(42L)));
   }
 
+  @Test
+  public void shouldPostBinaryQueryRequestAndReadBinaryResponse() throws Exception {
+    // Given:
+    final StreamedRow row = StreamedRow.row(new GenericRow(Arrays.asList("a", 1L)));
+    final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    final StreamedRowBinaryCodec.Writer writer = StreamedRowBinaryCodec.writer(ImmutableList.of(
+        Field.of("S", SqlTypes.STRING),
+        Field.of("L", SqlTypes.BIGINT)
+    ));
+    writer.writeHeader(body);
+    writer.write(row, body);
+
+    when(webTarget.request(Versions.KSQL_V1_BINARY_TYPE, MediaType.APPLICATION_JSON_TYPE))
+        .thenReturn(invocationBuilder);
+    when(response.getEntity()).thenReturn(new ByteArrayInputStream(body.toByteArray()));
+    when(response.getMediaType()).thenReturn(Versions.KSQL_V1_BINARY_TYPE);
+
+    // When:
+    final RestResponse<QueryStream> result = target
+        .postBinaryQueryRequest("query request", NO_PREVIOUS_CMD);
+
+    // Then:
+    verify(invocationBuilder).post(jsonKsqlRequest("query request", NO_PREVIOUS_CMD));
+    final QueryStream stream = result.getResponse();
+    assertThat(stream.hasNext(), is(true));
+    assertThat(stream.next(), is(row));
+    assertThat(stream.hasNext(), is(false));
+  }
+
   @Test
   public void shouldPostPrintTopicRequest() {
     // Given:
@@ -30,6 +30,7 @@ import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import org.junit.Test;
 
 public class TableRowsEntityTest {
@@ -97,6 +98,30 @@ public class TableRowsEntityTest {
     assertThat(result, is(entity));
   }
 
+  @Test
+  public void shouldSerializeOffsetLag() throws Exception {
+    // Given:
+    final TableRowsEntity entity = new TableRowsEntity(
+        SOME_SQL,
+        QUERY_ID,
+        LOGICAL_SCHEMA,
+        ImmutableList.of(A_VALUE),
+        Optional.of(42L)
+    );
+
+    // When:
+    final String json = MAPPER.writeValueAsString(entity);
+
+    // Then:
+    assertThat(json, containsString("\"offsetLag\":42"));
+
+    // When:
+    final TableRowsEntity result = (TableRowsEntity) MAPPER.readValue(json, KsqlEntity.class);
+
+    // Then:
+    assertThat(result.getOffsetLag(), is(Optional.of(42L)));
+  }
+
   @Test
   public void shouldSerializeNullElements() throws Exception {
     // Given:
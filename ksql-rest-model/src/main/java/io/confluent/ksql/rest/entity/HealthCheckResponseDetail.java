@@ -25,18 +25,25 @@ import java.util.Objects;
 @Immutable
 public final class HealthCheckResponseDetail {
   private final boolean isHealthy;
+  private final long latencyMs;
 
   @JsonCreator
   public HealthCheckResponseDetail(
-      @JsonProperty("isHealthy") final boolean isHealthy
+      @JsonProperty("isHealthy") final boolean isHealthy,
+      @JsonProperty("latencyMs") final long latencyMs
   ) {
     this.isHealthy = isHealthy;
+    this.latencyMs = latencyMs;
   }
 
   public boolean getIsHealthy() {
     return isHealthy;
   }
 
+  public long getLatencyMs() {
+    return latencyMs;
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
@@ -48,11 +55,12 @@ public final class HealthCheckResponseDetail {
     }
 
     final HealthCheckResponseDetail that = (HealthCheckResponseDetail) o;
-    return isHealthy == that.isHealthy;
+    return isHealthy == that.isHealthy
+        && latencyMs == that.latencyMs;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(isHealthy);
+    return Objects.hash(isHealthy, latencyMs);
   }
 }
@@ -38,6 +38,7 @@ public class QueryDescription {
   private final String executionPlan;
   private final Map<String, Object> overriddenProperties;
   private final Optional<String> state;
+  private final String stepStatistics;
 
   @SuppressWarnings("WeakerAccess") // Invoked via reflection
   @JsonCreator
@@ -50,7 +51,8 @@ public class QueryDescription {
       @JsonProperty("topology") final String topology,
       @JsonProperty("executionPlan") final String executionPlan,
       @JsonProperty("overriddenProperties") final Map<String, Object> overriddenProperties,
-      @JsonProperty("state") final Optional<String> state
+      @JsonProperty("state") final Optional<String> state,
+      @JsonProperty("stepStatistics") final String stepStatistics
   ) {
     this.id = id;
     this.statementText = statementText;
@@ -61,6 +63,7 @@ public class QueryDescription {
     this.executionPlan = executionPlan;
     this.overriddenProperties = Collections.unmodifiableMap(overriddenProperties);
     this.state = Objects.requireNonNull(state, "state");
+    this.stepStatistics = stepStatistics == null ? "" : stepStatistics;
   }
 
   public QueryId getId() {
@@ -99,6 +102,10 @@ public class QueryDescription {
     return state;
   }
 
+  public String getStepStatistics() {
+    return stepStatistics;
+  }
+
   // CHECKSTYLE_RULES.OFF: CyclomaticComplexity
   @Override
   public boolean equals(final Object o) {
@@ -118,7 +125,8 @@ public class QueryDescription {
         && Objects.equals(sources, that.sources)
         && Objects.equals(sinks, that.sinks)
         && Objects.equals(overriddenProperties, that.overriddenProperties)
-        && Objects.equals(state, that.state);
+        && Objects.equals(state, that.state)
+        && Objects.equals(stepStatistics, that.stepStatistics);
   }
 
   @Override
@@ -132,7 +140,8 @@ public class QueryDescription {
         sources,
         sinks,
         overriddenProperties,
-        state
+        state,
+        stepStatistics
     );
   }
 }
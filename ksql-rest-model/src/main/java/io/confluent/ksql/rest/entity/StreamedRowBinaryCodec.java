@@ -0,0 +1,600 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.entity;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.types.Field;
+import io.confluent.ksql.schema.ksql.types.SqlArray;
+import io.confluent.ksql.schema.ksql.types.SqlDecimal;
+import io.confluent.ksql.schema.ksql.types.SqlMap;
+import io.confluent.ksql.schema.ksql.types.SqlStruct;
+import io.confluent.ksql.schema.ksql.types.SqlType;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Compact binary encoding of a stream of {@link StreamedRow}s, served for
+ * {@link Versions#KSQL_V1_BINARY}.
+ *
+ * <p>The stream starts with a header of a magic number, a format version and the name and type
+ * of each column, followed by length-prefixed frames. Each frame is a big-endian int length
+ * followed by that many bytes holding a single row, error or final message. A zero length frame
+ * carries nothing and is used to check the client is still connected.
+ *
+ * <p>Rows are written against the columns of the header: a bitmap of the null columns followed
+ * by the value of each non-null column, without any type information. Nested values are each
+ * preceded by a byte that is zero if the value is null. Structs are read back as maps of field
+ * name to value, as they are when read from JSON.
+ *
+ * <p>A {@link Writer} or {@link Reader} handles a single stream, reusing its buffers for each
+ * frame.
+ */
+public final class StreamedRowBinaryCodec {
+
+  static final int MAGIC = 0x4B53514C; // "KSQL"
+  static final byte VERSION = 1;
+
+  private static final byte ROW = 1;
+  private static final byte ERROR = 2;
+  private static final byte FINAL_MESSAGE = 3;
+
+  private static final byte BOOLEAN = 1;
+  private static final byte INTEGER = 2;
+  private static final byte BIGINT = 3;
+  private static final byte DOUBLE = 4;
+  private static final byte STRING = 5;
+  private static final byte DECIMAL = 6;
+  private static final byte ARRAY = 7;
+  private static final byte MAP = 8;
+  private static final byte STRUCT = 9;
+
+  private StreamedRowBinaryCodec() {
+  }
+
+  /**
+   * @param columns the columns of the rows to be written.
+   * @return a writer for a single stream.
+   */
+  public static Writer writer(final List<Field> columns) {
+    return new Writer(columns);
+  }
+
+  /**
+   * Reads and validates the header of the stream.
+   *
+   * @param in the stream, which should be buffered.
+   * @return a reader of the rest of the stream.
+   * @throws IOException if the stream does not start with a supported header.
+   */
+  public static Reader reader(final InputStream in) throws IOException {
+    final DataInputStream data = new DataInputStream(in);
+    final int magic = data.readInt();
+    if (magic != MAGIC) {
+      throw new IOException("Not a binary KSQL stream");
+    }
+
+    final byte version = data.readByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported binary KSQL stream version: " + version);
+    }
+
+    final int size = data.readInt();
+    final ImmutableList.Builder<Field> columns = ImmutableList.builder();
+    for (int i = 0; i < size; i++) {
+      columns.add(Field.of(readString(data), readType(data)));
+    }
+    return new Reader(data, columns.build());
+  }
+
+  /**
+   * Writes the frames of a single stream.
+   */
+  public static final class Writer {
+
+    private final ImmutableList<Field> columns;
+    private final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    private final DataOutputStream data = new DataOutputStream(payload);
+    private final byte[] nulls;
+    private final byte[] length = new byte[Integer.BYTES];
+
+    private Writer(final List<Field> columns) {
+      this.columns = ImmutableList.copyOf(Objects.requireNonNull(columns, "columns"));
+      this.nulls = new byte[(columns.size() + 7) / 8];
+    }
+
+    /**
+     * Writes the header that must precede the first frame of the stream.
+     */
+    public void writeHeader(final OutputStream out) throws IOException {
+      payload.reset();
+      data.writeInt(MAGIC);
+      data.writeByte(VERSION);
+      data.writeInt(columns.size());
+      for (final Field column : columns) {
+        writeString(column.name(), data);
+        writeType(column.type(), data);
+      }
+      payload.writeTo(out);
+    }
+
+    /**
+     * Writes a single framed {@code row}.
+     *
+     * @throws IllegalArgumentException if a row does not match the columns of the stream, or
+     *     has a decimal that can not be written at the scale of its column without rounding.
+     */
+    public void write(final StreamedRow row, final OutputStream out) throws IOException {
+      payload.reset();
+
+      if (row.getRow() != null) {
+        data.writeByte(ROW);
+        writeRow(row.getRow());
+      } else if (row.getErrorMessage() != null) {
+        data.writeByte(ERROR);
+        writeError(row.getErrorMessage(), data);
+      } else {
+        data.writeByte(FINAL_MESSAGE);
+        writeString(row.getFinalMessage(), data);
+      }
+
+      writeLength(payload.size(), out);
+      payload.writeTo(out);
+    }
+
+    /**
+     * Writes an empty frame, which readers skip.
+     */
+    public void writeEmptyFrame(final OutputStream out) throws IOException {
+      writeLength(0, out);
+    }
+
+    private void writeRow(final GenericRow row) throws IOException {
+      final List<Object> values = row.getColumns();
+      if (values.size() != columns.size()) {
+        throw new IllegalArgumentException("column count mismatch."
+            + " expected: " + columns.size()
+            + ", got: " + values.size());
+      }
+
+      for (int i = 0; i < nulls.length; i++) {
+        nulls[i] = 0;
+      }
+      for (int i = 0; i < values.size(); i++) {
+        if (values.get(i) == null) {
+          nulls[i / 8] |= 1 << (i % 8);
+        }
+      }
+      data.write(nulls);
+
+      for (int i = 0; i < values.size(); i++) {
+        final Object value = values.get(i);
+        if (value != null) {
+          writeValue(columns.get(i).type(), value, data);
+        }
+      }
+    }
+
+    private void writeLength(final int value, final OutputStream out) throws IOException {
+      length[0] = (byte) (value >>> 24);
+      length[1] = (byte) (value >>> 16);
+      length[2] = (byte) (value >>> 8);
+      length[3] = (byte) value;
+      out.write(length);
+    }
+  }
+
+  /**
+   * Reads the frames of a single stream.
+   */
+  public static final class Reader {
+
+    private final DataInputStream in;
+    private final ImmutableList<Field> columns;
+    private final Payload payload = new Payload();
+    private final DataInputStream data = new DataInputStream(payload);
+
+    private Reader(final DataInputStream in, final ImmutableList<Field> columns) {
+      this.in = Objects.requireNonNull(in, "in");
+      this.columns = Objects.requireNonNull(columns, "columns");
+    }
+
+    /**
+     * @return the columns of the rows in the stream, as sent in its header.
+     */
+    public List<Field> getColumns() {
+      return columns;
+    }
+
+    /**
+     * Reads the next row, skipping any empty frames.
+     *
+     * @return the next row, or {@code null} if the stream ended cleanly between frames.
+     * @throws IOException if the stream ended part way through a frame or is malformed.
+     */
+    public StreamedRow read() throws IOException {
+      int length = 0;
+      while (length == 0) {
+        final int first = in.read();
+        if (first < 0) {
+          return null;
+        }
+
+        length = (first << 24)
+            | (in.readUnsignedByte() << 16)
+            | (in.readUnsignedByte() << 8)
+            | in.readUnsignedByte();
+      }
+
+      if (length < 0) {
+        throw new IOException("Invalid frame length: " + length);
+      }
+
+      in.readFully(payload.reset(length), 0, length);
+
+      final byte type = data.readByte();
+      switch (type) {
+        case ROW:
+          return StreamedRow.row(readRow());
+        case ERROR:
+          return new StreamedRow(null, readError(data), null);
+        case FINAL_MESSAGE:
+          return StreamedRow.finalMessage(readString(data));
+        default:
+          throw new IOException("Unknown frame type: " + type);
+      }
+    }
+
+    private GenericRow readRow() throws IOException {
+      final byte[] nulls = new byte[(columns.size() + 7) / 8];
+      data.readFully(nulls);
+
+      final List<Object> values = new ArrayList<>(columns.size());
+      for (int i = 0; i < columns.size(); i++) {
+        final boolean isNull = (nulls[i / 8] & (1 << (i % 8))) != 0;
+        values.add(isNull ? null : readValue(columns.get(i).type(), data));
+      }
+      return new GenericRow(values);
+    }
+  }
+
+  /**
+   * Frame buffer, reused for each frame that fits.
+   */
+  private static final class Payload extends ByteArrayInputStream {
+
+    Payload() {
+      super(new byte[1024]);
+    }
+
+    byte[] reset(final int length) {
+      if (buf.length < length) {
+        buf = new byte[length];
+      }
+      pos = 0;
+      count = length;
+      mark = 0;
+      return buf;
+    }
+  }
+
+  private static void writeType(final SqlType type, final DataOutputStream data)
+      throws IOException {
+    switch (type.baseType()) {
+      case BOOLEAN:
+        data.writeByte(BOOLEAN);
+        break;
+      case INTEGER:
+        data.writeByte(INTEGER);
+        break;
+      case BIGINT:
+        data.writeByte(BIGINT);
+        break;
+      case DOUBLE:
+        data.writeByte(DOUBLE);
+        break;
+      case STRING:
+        data.writeByte(STRING);
+        break;
+      case DECIMAL:
+        data.writeByte(DECIMAL);
+        data.writeInt(((SqlDecimal) type).getPrecision());
+        data.writeInt(((SqlDecimal) type).getScale());
+        break;
+      case ARRAY:
+        data.writeByte(ARRAY);
+        writeType(((SqlArray) type).getItemType(), data);
+        break;
+      case MAP:
+        data.writeByte(MAP);
+        writeType(((SqlMap) type).getValueType(), data);
+        break;
+      case STRUCT:
+        data.writeByte(STRUCT);
+        final List<Field> fields = ((SqlStruct) type).fields();
+        data.writeInt(fields.size());
+        for (final Field field : fields) {
+          writeString(field.name(), data);
+          writeType(field.type(), data);
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported column type: " + type);
+    }
+  }
+
+  private static SqlType readType(final DataInputStream data) throws IOException {
+    final byte type = data.readByte();
+    switch (type) {
+      case BOOLEAN:
+        return SqlTypes.BOOLEAN;
+      case INTEGER:
+        return SqlTypes.INTEGER;
+      case BIGINT:
+        return SqlTypes.BIGINT;
+      case DOUBLE:
+        return SqlTypes.DOUBLE;
+      case STRING:
+        return SqlTypes.STRING;
+      case DECIMAL:
+        final int precision = data.readInt();
+        return SqlTypes.decimal(precision, data.readInt());
+      case ARRAY:
+        return SqlTypes.array(readType(data));
+      case MAP:
+        return SqlTypes.map(readType(data));
+      case STRUCT:
+        final int size = data.readInt();
+        final SqlStruct.Builder builder = SqlTypes.struct();
+        for (int i = 0; i < size; i++) {
+          builder.field(readString(data), readType(data));
+        }
+        return builder.build();
+      default:
+        throw new IOException("Unknown column type: " + type);
+    }
+  }
+
+  private static void writeValue(
+      final SqlType type,
+      final Object value,
+      final DataOutputStream data
+  ) throws IOException {
+    switch (type.baseType()) {
+      case BOOLEAN:
+        data.writeBoolean((Boolean) value);
+        break;
+      case INTEGER:
+        data.writeInt((Integer) value);
+        break;
+      case BIGINT:
+        data.writeLong((Long) value);
+        break;
+      case DOUBLE:
+        data.writeDouble((Double) value);
+        break;
+      case STRING:
+        writeString((String) value, data);
+        break;
+      case DECIMAL:
+        writeDecimal((SqlDecimal) type, (BigDecimal) value, data);
+        break;
+      case ARRAY:
+        writeList((SqlArray) type, (List<?>) value, data);
+        break;
+      case MAP:
+        writeMap((SqlMap) type, (Map<?, ?>) value, data);
+        break;
+      case STRUCT:
+        writeStruct((SqlStruct) type, value, data);
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported column type: " + type);
+    }
+  }
+
+  private static Object readValue(final SqlType type, final DataInputStream data)
+      throws IOException {
+    switch (type.baseType()) {
+      case BOOLEAN:
+        return data.readBoolean();
+      case INTEGER:
+        return data.readInt();
+      case BIGINT:
+        return data.readLong();
+      case DOUBLE:
+        return data.readDouble();
+      case STRING:
+        return readString(data);
+      case DECIMAL:
+        return new BigDecimal(new BigInteger(readBytes(data)), ((SqlDecimal) type).getScale());
+      case ARRAY:
+        return readList((SqlArray) type, data);
+      case MAP:
+        return readMap((SqlMap) type, data);
+      case STRUCT:
+        return readStruct((SqlStruct) type, data);
+      default:
+        throw new IOException("Unsupported column type: " + type);
+    }
+  }
+
+  private static void writeNullable(
+      final SqlType type,
+      final Object value,
+      final DataOutputStream data
+  ) throws IOException {
+    if (value == null) {
+      data.writeBoolean(false);
+      return;
+    }
+
+    data.writeBoolean(true);
+    writeValue(type, value, data);
+  }
+
+  private static Object readNullable(final SqlType type, final DataInputStream data)
+      throws IOException {
+    return data.readBoolean() ? readValue(type, data) : null;
+  }
+
+  private static void writeString(final String value, final DataOutputStream data)
+      throws IOException {
+    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    data.writeInt(bytes.length);
+    data.write(bytes);
+  }
+
+  private static String readString(final DataInputStream data) throws IOException {
+    return new String(readBytes(data), StandardCharsets.UTF_8);
+  }
+
+  private static void writeDecimal(
+      final SqlDecimal type,
+      final BigDecimal value,
+      final DataOutputStream data
+  ) throws IOException {
+    // Values are written unchanged by the JSON encoding, so are never rounded here either:
+    final BigDecimal scaled;
+    try {
+      scaled = value.setScale(type.getScale(), RoundingMode.UNNECESSARY);
+    } catch (final ArithmeticException e) {
+      throw new IllegalArgumentException(String.format(
+          "Cannot write decimal '%s' as %s without rounding.", value.toPlainString(), type), e);
+    }
+
+    final byte[] unscaled = scaled.unscaledValue().toByteArray();
+    data.writeInt(unscaled.length);
+    data.write(unscaled);
+  }
+
+  private static void writeList(
+      final SqlArray type,
+      final List<?> list,
+      final DataOutputStream data
+  ) throws IOException {
+    data.writeInt(list.size());
+    for (final Object element : list) {
+      writeNullable(type.getItemType(), element, data);
+    }
+  }
+
+  private static List<Object> readList(final SqlArray type, final DataInputStream data)
+      throws IOException {
+    final int size = data.readInt();
+    final List<Object> list = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      list.add(readNullable(type.getItemType(), data));
+    }
+    return list;
+  }
+
+  private static void writeMap(
+      final SqlMap type,
+      final Map<?, ?> map,
+      final DataOutputStream data
+  ) throws IOException {
+    data.writeInt(map.size());
+    for (final Map.Entry<?, ?> e : map.entrySet()) {
+      writeString((String) e.getKey(), data);
+      writeNullable(type.getValueType(), e.getValue(), data);
+    }
+  }
+
+  private static Map<String, Object> readMap(final SqlMap type, final DataInputStream data)
+      throws IOException {
+    final int size = data.readInt();
+    final Map<String, Object> map = new LinkedHashMap<>();
+    for (int i = 0; i < size; i++) {
+      final String key = readString(data);
+      map.put(key, readNullable(type.getValueType(), data));
+    }
+    return map;
+  }
+
+  private static void writeStruct(
+      final SqlStruct type,
+      final Object struct,
+      final DataOutputStream data
+  ) throws IOException {
+    for (final Field field : type.fields()) {
+      final Object value = struct instanceof Struct
+          ? ((Struct) struct).get(field.name())
+          : ((Map<?, ?>) struct).get(field.name());
+      writeNullable(field.type(), value, data);
+    }
+  }
+
+  private static Map<String, Object> readStruct(final SqlStruct type, final DataInputStream data)
+      throws IOException {
+    final Map<String, Object> struct = new LinkedHashMap<>();
+    for (final Field field : type.fields()) {
+      struct.put(field.name(), readNullable(field.type(), data));
+    }
+    return struct;
+  }
+
+  private static void writeError(final KsqlErrorMessage error, final DataOutputStream data)
+      throws IOException {
+    data.writeInt(error.getErrorCode());
+    writeString(error.getMessage(), data);
+
+    final List<String> stackTrace = error.getStackTrace();
+    data.writeInt(stackTrace.size());
+    for (final String line : stackTrace) {
+      writeString(line, data);
+    }
+  }
+
+  private static KsqlErrorMessage readError(final DataInputStream data) throws IOException {
+    final int errorCode = data.readInt();
+    final String message = readString(data);
+
+    final int size = data.readInt();
+    final List<String> stackTrace = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      stackTrace.add(readString(data));
+    }
+    return new KsqlErrorMessage(errorCode, message, stackTrace);
+  }
+
+  private static byte[] readBytes(final DataInputStream data) throws IOException {
+    final int length = data.readInt();
+    if (length < 0) {
+      throw new IOException("Invalid length: " + length);
+    }
+
+    final byte[] bytes = new byte[length];
+    data.readFully(bytes);
+    return bytes;
+  }
+}
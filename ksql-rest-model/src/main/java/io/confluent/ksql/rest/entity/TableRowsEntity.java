@@ -17,7 +17,10 @@ package io.confluent.ksql.rest.entity;
 
 import static java.util.Objects.requireNonNull;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
@@ -27,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class TableRowsEntity extends KsqlEntity {
@@ -34,17 +38,30 @@ public class TableRowsEntity extends KsqlEntity {
   private final LogicalSchema schema;
   private final QueryId queryId;
   private final ImmutableList<List<?>> rows;
+  private final Optional<Long> offsetLag;
 
+  public TableRowsEntity(
+      final String statementText,
+      final QueryId queryId,
+      final LogicalSchema schema,
+      final List<List<?>> rows
+  ) {
+    this(statementText, queryId, schema, rows, Optional.empty());
+  }
+
+  @JsonCreator
   public TableRowsEntity(
       @JsonProperty("statementText") final String statementText,
       @JsonProperty("queryId") final QueryId queryId,
       @JsonProperty("schema") final LogicalSchema schema,
-      @JsonProperty("rows") final List<List<?>> rows
+      @JsonProperty("rows") final List<List<?>> rows,
+      @JsonProperty("offsetLag") final Optional<Long> offsetLag
   ) {
     super(statementText);
     this.schema = requireNonNull(schema, "schema");
     this.queryId = requireNonNull(queryId, "queryId");
     this.rows = deepCopy(requireNonNull(rows, "rows"));
+    this.offsetLag = requireNonNull(offsetLag, "offsetLag");
 
     rows.forEach(this::validate);
   }
@@ -61,6 +78,15 @@ public class TableRowsEntity extends KsqlEntity {
     return rows;
   }
 
+  /**
+   * @return how far, in offsets, the state store the rows were read from trailed its inputs,
+   *         if known. Only reported if the request bounded the lag.
+   */
+  @JsonInclude(Include.NON_ABSENT)
+  public Optional<Long> getOffsetLag() {
+    return offsetLag;
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
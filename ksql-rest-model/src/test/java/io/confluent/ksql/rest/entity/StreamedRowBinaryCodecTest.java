@@ -0,0 +1,247 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.confluent.ksql.rest.entity;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.types.Field;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class StreamedRowBinaryCodecTest {
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  private static final List<Field> PRIMITIVES = ImmutableList.of(
+      Field.of("B", SqlTypes.BOOLEAN),
+      Field.of("I", SqlTypes.INTEGER),
+      Field.of("L", SqlTypes.BIGINT),
+      Field.of("D", SqlTypes.DOUBLE),
+      Field.of("S", SqlTypes.STRING),
+      Field.of("DEC", SqlTypes.decimal(5, 3)),
+      Field.of("N", SqlTypes.STRING)
+  );
+
+  private static final List<Field> STRING = ImmutableList.of(Field.of("S", SqlTypes.STRING));
+
+  @Test
+  public void shouldRoundTripRowOfPrimitives() throws Exception {
+    // Given:
+    final StreamedRow row = StreamedRow.row(new GenericRow(Arrays.asList(
+        true, 10, 20L, 1.5, "héllo", new BigDecimal("12.345"), null)));
+
+    // When:
+    final StreamedRow result = roundTrip(PRIMITIVES, row);
+
+    // Then:
+    assertThat(result, is(row));
+    assertThat(result.getRow().getColumns().get(5), is(new BigDecimal("12.345")));
+  }
+
+  @Test
+  public void shouldWriteDecimalAtScaleOfSchema() throws Exception {
+    // Given:
+    final List<Field> columns = ImmutableList.of(Field.of("DEC", SqlTypes.decimal(4, 2)));
+    final StreamedRow row = StreamedRow.row(new GenericRow(Arrays.asList(new BigDecimal("1.5"))));
+
+    // When:
+    final StreamedRow result = roundTrip(columns, row);
+
+    // Then:
+    assertThat(result.getRow().getColumns().get(0), is(new BigDecimal("1.50")));
+  }
+
+  @Test
+  public void shouldRoundTripNestedTypes() throws Exception {
+    // Given:
+    final List<Field> columns = ImmutableList.of(
+        Field.of("A", SqlTypes.array(SqlTypes.INTEGER)),
+        Field.of("M", SqlTypes.map(SqlTypes.array(SqlTypes.STRING)))
+    );
+    final StreamedRow row = StreamedRow.row(new GenericRow(Arrays.asList(
+        Arrays.asList(1, null, 3),
+        ImmutableMap.of("a", ImmutableList.of("x"), "b", ImmutableList.of()))));
+
+    // When:
+    final StreamedRow result = roundTrip(columns, row);
+
+    // Then:
+    assertThat(result, is(row));
+  }
+
+  @Test
+  public void shouldReadStructAsMap() throws Exception {
+    // Given:
+    final List<Field> columns = ImmutableList.of(Field.of("S", SqlTypes.struct()
+        .field("F0", SqlTypes.INTEGER)
+        .field("F1", SqlTypes.STRING)
+        .build()));
+    final Schema schema = SchemaBuilder.struct()
+        .field("F0", Schema.OPTIONAL_INT32_SCHEMA)
+        .field("F1", Schema.OPTIONAL_STRING_SCHEMA)
+        .build();
+    final Struct struct = new Struct(schema).put("F0", 1).put("F1", "v");
+
+    // When:
+    final StreamedRow result =
+        roundTrip(columns, StreamedRow.row(new GenericRow(Arrays.asList(struct))));
+
+    // Then:
+    assertThat(result.getRow().getColumns().get(0), is(ImmutableMap.of("F0", 1, "F1", "v")));
+  }
+
+  @Test
+  public void shouldRoundTripColumnsInHeader() throws Exception {
+    // Given:
+    final List<Field> columns = ImmutableList.<Field>builder()
+        .addAll(PRIMITIVES)
+        .add(Field.of("A", SqlTypes.array(SqlTypes.decimal(10, 2))))
+        .add(Field.of("M", SqlTypes.map(SqlTypes.BIGINT)))
+        .add(Field.of("S", SqlTypes.struct().field("F0", SqlTypes.DOUBLE).build()))
+        .build();
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    StreamedRowBinaryCodec.writer(columns).writeHeader(out);
+
+    // When:
+    final StreamedRowBinaryCodec.Reader reader =
+        StreamedRowBinaryCodec.reader(new ByteArrayInputStream(out.toByteArray()));
+
+    // Then:
+    assertThat(reader.getColumns(), is(columns));
+  }
+
+  @Test
+  public void shouldRoundTripErrorAndFinalMessage() throws Exception {
+    // Given:
+    final StreamedRow error = new StreamedRow(
+        null, new KsqlErrorMessage(50000, "Boom", ImmutableList.of("line1", "line2")), null);
+    final StreamedRow finalMessage = StreamedRow.finalMessage("Limit Reached");
+
+    // Then:
+    assertThat(roundTrip(STRING, error), is(error));
+    assertThat(roundTrip(STRING, finalMessage), is(finalMessage));
+  }
+
+  @Test
+  public void shouldReuseWriterAndReaderForEachFrame() throws Exception {
+    // Given:
+    final StreamedRow first = StreamedRow.row(new GenericRow(Arrays.asList("a much longer value")));
+    final StreamedRow second = StreamedRow.row(new GenericRow(Arrays.asList("b")));
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final StreamedRowBinaryCodec.Writer writer = StreamedRowBinaryCodec.writer(STRING);
+    writer.writeHeader(out);
+    writer.write(first, out);
+    writer.write(second, out);
+
+    // When:
+    final StreamedRowBinaryCodec.Reader reader =
+        StreamedRowBinaryCodec.reader(new ByteArrayInputStream(out.toByteArray()));
+
+    // Then:
+    assertThat(reader.read(), is(first));
+    assertThat(reader.read(), is(second));
+  }
+
+  @Test
+  public void shouldSkipEmptyFramesAndReturnNullAtEndOfStream() throws Exception {
+    // Given:
+    final StreamedRow row = StreamedRow.row(new GenericRow(Arrays.asList("a")));
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final StreamedRowBinaryCodec.Writer writer = StreamedRowBinaryCodec.writer(STRING);
+    writer.writeHeader(out);
+    writer.writeEmptyFrame(out);
+    writer.write(row, out);
+    writer.writeEmptyFrame(out);
+
+    // When:
+    final StreamedRowBinaryCodec.Reader reader =
+        StreamedRowBinaryCodec.reader(new ByteArrayInputStream(out.toByteArray()));
+
+    // Then:
+    assertThat(reader.read(), is(row));
+    assertThat(reader.read(), is(nullValue()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowIfRowDoesNotMatchColumns() throws Exception {
+    // Given:
+    final StreamedRow row = StreamedRow.row(new GenericRow(Arrays.asList("a", "b")));
+
+    // When:
+    StreamedRowBinaryCodec.writer(STRING).write(row, new ByteArrayOutputStream());
+  }
+
+  @Test
+  public void shouldThrowIfDecimalDoesNotFitScaleOfColumn() throws Exception {
+    // Given:
+    final List<Field> columns = ImmutableList.of(Field.of("DEC", SqlTypes.decimal(4, 2)));
+    final StreamedRow row = StreamedRow.row(new GenericRow(Arrays.asList(
+        new BigDecimal("1.234"))));
+
+    // Then:
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage(
+        "Cannot write decimal '1.234' as DECIMAL(4, 2) without rounding.");
+
+    // When:
+    StreamedRowBinaryCodec.writer(columns).write(row, new ByteArrayOutputStream());
+  }
+
+  @Test(expected = IOException.class)
+  public void shouldThrowOnTruncatedFrame() throws Exception {
+    // Given:
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final StreamedRowBinaryCodec.Writer writer = StreamedRowBinaryCodec.writer(STRING);
+    writer.writeHeader(out);
+    writer.write(StreamedRow.row(new GenericRow(Arrays.asList("a"))), out);
+    final byte[] bytes = Arrays.copyOf(out.toByteArray(), out.size() - 1);
+
+    // When:
+    StreamedRowBinaryCodec.reader(new ByteArrayInputStream(bytes)).read();
+  }
+
+  @Test(expected = IOException.class)
+  public void shouldThrowOnInvalidHeader() throws Exception {
+    StreamedRowBinaryCodec.reader(new ByteArrayInputStream("{\"row\":".getBytes()));
+  }
+
+  private static StreamedRow roundTrip(
+      final List<Field> columns,
+      final StreamedRow row
+  ) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final StreamedRowBinaryCodec.Writer writer = StreamedRowBinaryCodec.writer(columns);
+    writer.writeHeader(out);
+    writer.write(row, out);
+    return StreamedRowBinaryCodec.reader(new ByteArrayInputStream(out.toByteArray())).read();
+  }
+}
@@ -27,10 +27,12 @@ import io.confluent.ksql.execution.plan.Formats;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
 import io.confluent.ksql.serde.KeySerde;
+import io.confluent.ksql.util.KsqlConfig;
 import java.util.List;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.Materialized;
 import org.apache.kafka.streams.state.KeyValueStore;
 
@@ -43,7 +45,8 @@ public final class AggregateBuilderUtils {
       final LogicalSchema aggregateSchema,
       final Formats formats,
       final KsqlQueryBuilder queryBuilder,
-      final MaterializedFactory materializedFactory) {
+      final MaterializedFactory materializedFactory,
+      final AggregateParams aggregateParams) {
     final PhysicalSchema physicalAggregationSchema = PhysicalSchema.from(
         aggregateSchema,
         formats.getOptions()
@@ -53,14 +56,44 @@ public final class AggregateBuilderUtils {
         physicalAggregationSchema,
         queryContext
     );
-    final Serde<GenericRow> valueSerde = queryBuilder.buildValueSerde(
-        formats.getValueFormat().getFormatInfo(),
-        physicalAggregationSchema,
-        queryContext
+    final Serde<GenericRow> valueSerde = buildStateSerde(
+        queryBuilder.buildValueSerde(
+            formats.getValueFormat().getFormatInfo(),
+            physicalAggregationSchema,
+            queryContext
+        ),
+        queryBuilder,
+        aggregateParams
     );
     return materializedFactory.create(keySerde, valueSerde, StreamsUtil.buildOpName(queryContext));
   }
 
+  /**
+   * @return the initializer of the aggregation, which holds the aggregates of primitive-specialized
+   *         functions in slots if the query's state format supports them.
+   */
+  static Initializer<GenericRow> buildInitializer(
+      final KsqlQueryBuilder queryBuilder,
+      final AggregateParams aggregateParams) {
+    if (!usePrimitiveState(queryBuilder)) {
+      return aggregateParams.getInitializer();
+    }
+    return aggregateParams.getPrimitiveAggregates().initializer(aggregateParams.getInitializer());
+  }
+
+  /**
+   * @return the serde of the aggregation's state, matching {@link #buildInitializer}.
+   */
+  static Serde<GenericRow> buildStateSerde(
+      final Serde<GenericRow> valueSerde,
+      final KsqlQueryBuilder queryBuilder,
+      final AggregateParams aggregateParams) {
+    if (!usePrimitiveState(queryBuilder)) {
+      return valueSerde;
+    }
+    return aggregateParams.getPrimitiveAggregates().serde(valueSerde);
+  }
+
   static MaterializationInfo.Builder materializationInfoBuilder(
       final QueryContext queryContext,
       final int nonFuncColumns,
@@ -75,4 +108,8 @@ public final class AggregateBuilderUtils {
             outputSchema
         );
   }
+
+  private static boolean usePrimitiveState(final KsqlQueryBuilder queryBuilder) {
+    return queryBuilder.getKsqlConfig().getBoolean(KsqlConfig.KSQL_PRIMITIVE_AGGREGATE_STATE);
+  }
 }
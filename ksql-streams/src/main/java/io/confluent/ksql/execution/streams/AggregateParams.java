@@ -25,6 +25,7 @@ import io.confluent.ksql.execution.function.UdafUtil;
 import io.confluent.ksql.execution.function.udaf.KudafAggregator;
 import io.confluent.ksql.execution.function.udaf.KudafInitializer;
 import io.confluent.ksql.execution.function.udaf.KudafUndoAggregator;
+import io.confluent.ksql.execution.function.udaf.PrimitiveAggregates;
 import io.confluent.ksql.execution.function.udaf.window.WindowSelectMapper;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.KsqlAggregateFunction;
@@ -78,6 +79,10 @@ public final class AggregateParams {
     return initializer;
   }
 
+  public PrimitiveAggregates getPrimitiveAggregates() {
+    return new PrimitiveAggregates(initialUdafIndex, functions);
+  }
+
   public KudafAggregator getAggregator() {
     return aggregatorFactory.create(initialUdafIndex, functions);
   }
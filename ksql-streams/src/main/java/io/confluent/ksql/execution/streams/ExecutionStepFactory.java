@@ -29,6 +29,7 @@ import io.confluent.ksql.execution.plan.LogicalSchemaWithMetaAndKeyFields;
 import io.confluent.ksql.execution.plan.SelectExpression;
 import io.confluent.ksql.execution.plan.StreamAggregate;
 import io.confluent.ksql.execution.plan.StreamFilter;
+import io.confluent.ksql.execution.plan.StreamGlobalTableJoin;
 import io.confluent.ksql.execution.plan.StreamGroupBy;
 import io.confluent.ksql.execution.plan.StreamGroupByKey;
 import io.confluent.ksql.execution.plan.StreamMapValues;
@@ -194,6 +195,26 @@ public final class ExecutionStepFactory {
     );
   }
 
+  public static <K> StreamGlobalTableJoin<K> streamGlobalTableJoin(
+      final QueryContext.Stacker stacker,
+      final JoinType joinType,
+      final Formats formats,
+      final ExecutionStep<KStreamHolder<K>> left,
+      final StreamSource right,
+      final ColumnRef leftJoinColumn,
+      final LogicalSchema resultSchema
+  ) {
+    final QueryContext queryContext = stacker.getQueryContext();
+    return new StreamGlobalTableJoin<>(
+        new DefaultExecutionStepProperties(resultSchema, queryContext),
+        joinType,
+        formats,
+        left,
+        right,
+        leftJoinColumn
+    );
+  }
+
   public static <K> StreamStreamJoin<K> streamStreamJoin(
       final QueryContext.Stacker stacker,
       final JoinType joinType,
@@ -22,6 +22,7 @@ import io.confluent.ksql.execution.plan.KTableHolder;
 import io.confluent.ksql.execution.plan.PlanBuilder;
 import io.confluent.ksql.execution.plan.StreamAggregate;
 import io.confluent.ksql.execution.plan.StreamFilter;
+import io.confluent.ksql.execution.plan.StreamGlobalTableJoin;
 import io.confluent.ksql.execution.plan.StreamGroupBy;
 import io.confluent.ksql.execution.plan.StreamGroupByKey;
 import io.confluent.ksql.execution.plan.StreamMapValues;
@@ -177,6 +178,12 @@ public final class KSPlanBuilder implements PlanBuilder {
     );
   }
 
+  @Override
+  public <K> KStreamHolder<K> visitStreamGlobalTableJoin(final StreamGlobalTableJoin<K> join) {
+    final KStreamHolder<K> left = join.getLeft().build(this);
+    return StreamGlobalTableJoinBuilder.build(left, join, queryBuilder);
+  }
+
   @Override
   public <K> KTableHolder<K> visitStreamToTable(final StreamToTable<K> streamToTable) {
     final KStreamHolder<K> source = streamToTable.getSource().build(this);
@@ -48,6 +48,12 @@ public interface MaterializedFactory {
   static MaterializedFactory create(
       final KsqlConfig ksqlConfig,
       final Materializer materializer) {
+    // Record caching delays the updates a table emits until the query commits. Pull query results
+    // cached for the table are invalidated by those updates, so caching must be off for them to
+    // be invalidated as soon as the table's store is written to:
+    final boolean cachingEnabled =
+        ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_PULL_CACHE_MAX_ENTRIES_CONFIG) == 0;
+
     if (StreamsUtil.useProvidedName(ksqlConfig)) {
       return new MaterializedFactory() {
         @Override
@@ -55,9 +61,11 @@ public interface MaterializedFactory {
             final Serde<K> keySerde,
             final Serde<GenericRow> valSerde,
             final String name) {
-          return materializer.<K, GenericRow, S>materializedAs(name)
+          final Materialized<K, GenericRow, S> materialized = materializer
+              .<K, GenericRow, S>materializedAs(name)
               .withKeySerde(keySerde)
               .withValueSerde(valSerde);
+          return cachingEnabled ? materialized : materialized.withCachingDisabled();
         }
       };
     }
@@ -67,7 +75,9 @@ public interface MaterializedFactory {
           final Serde<K> keySerde,
           final Serde<GenericRow> valSerde,
           final String name) {
-        return materializer.materializedWith(keySerde, valSerde);
+        final Materialized<K, GenericRow, S> materialized =
+            materializer.materializedWith(keySerde, valSerde);
+        return cachingEnabled ? materialized : materialized.withCachingDisabled();
       }
     };
   }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams;
+
+import io.confluent.ksql.metrics.StepTimer;
+import java.util.Optional;
+import org.apache.kafka.streams.kstream.Aggregator;
+import org.apache.kafka.streams.kstream.Predicate;
+import org.apache.kafka.streams.kstream.ValueJoiner;
+import org.apache.kafka.streams.kstream.ValueMapper;
+
+/**
+ * Wraps the per-record functions of steps so that they're timed by the step's
+ * {@link StepTimer}. If there is no timer, the function is returned unwrapped, so that disabled
+ * step metrics cost nothing.
+ */
+final class StepTiming {
+
+  private StepTiming() {
+  }
+
+  static <K, V> Predicate<K, V> predicate(
+      final Optional<StepTimer> timer,
+      final Predicate<K, V> predicate
+  ) {
+    if (!timer.isPresent()) {
+      return predicate;
+    }
+
+    final StepTimer t = timer.get();
+    return (key, value) -> {
+      final long start = t.start();
+      try {
+        return predicate.test(key, value);
+      } finally {
+        t.stop(start);
+      }
+    };
+  }
+
+  static <V, R> ValueMapper<V, R> valueMapper(
+      final Optional<StepTimer> timer,
+      final ValueMapper<V, R> mapper
+  ) {
+    if (!timer.isPresent()) {
+      return mapper;
+    }
+
+    final StepTimer t = timer.get();
+    return value -> {
+      final long start = t.start();
+      try {
+        return mapper.apply(value);
+      } finally {
+        t.stop(start);
+      }
+    };
+  }
+
+  static <V1, V2, R> ValueJoiner<V1, V2, R> valueJoiner(
+      final Optional<StepTimer> timer,
+      final ValueJoiner<V1, V2, R> joiner
+  ) {
+    if (!timer.isPresent()) {
+      return joiner;
+    }
+
+    final StepTimer t = timer.get();
+    return (left, right) -> {
+      final long start = t.start();
+      try {
+        return joiner.apply(left, right);
+      } finally {
+        t.stop(start);
+      }
+    };
+  }
+
+  static <K, V, A> Aggregator<K, V, A> aggregator(
+      final Optional<StepTimer> timer,
+      final Aggregator<K, V, A> aggregator
+  ) {
+    if (!timer.isPresent()) {
+      return aggregator;
+    }
+
+    final StepTimer t = timer.get();
+    return (key, value, aggregate) -> {
+      final long start = t.start();
+      try {
+        return aggregator.apply(key, value, aggregate);
+      } finally {
+        t.stop(start);
+      }
+    };
+  }
+}
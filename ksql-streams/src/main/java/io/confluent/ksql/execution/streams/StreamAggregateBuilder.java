@@ -38,6 +38,8 @@ import java.util.Objects;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.kstream.Aggregator;
+import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.KGroupedStream;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
@@ -78,11 +80,15 @@ public final class StreamAggregateBuilder {
             aggregate.getAggregationSchema(),
             aggregate.getFormats(),
             queryBuilder,
-            materializedFactory
+            materializedFactory,
+            aggregateParams
         );
     final KTable<Struct, GenericRow> aggregated = kgroupedStream.aggregate(
-        aggregateParams.getInitializer(),
-        aggregateParams.getAggregator(),
+        AggregateBuilderUtils.buildInitializer(queryBuilder, aggregateParams),
+        StepTiming.aggregator(
+            queryBuilder.buildStepTimer(aggregate.getProperties().getQueryContext()),
+            aggregateParams.getAggregator()
+        ),
         materialized
     );
     final MaterializationInfo.Builder materializationBuilder =
@@ -173,6 +179,8 @@ public final class StreamAggregateBuilder {
     final KeySerde<Struct> keySerde;
     final Serde<GenericRow> valueSerde;
     final AggregateParams aggregateParams;
+    final Initializer<GenericRow> initializer;
+    final Aggregator<Struct, GenericRow, GenericRow> aggregator;
 
     WindowedAggregator(
         final KGroupedStream<Struct, GenericRow> groupedStream,
@@ -186,6 +194,11 @@ public final class StreamAggregateBuilder {
       this.materializedFactory = Objects.requireNonNull(materializedFactory, "materializedFactory");
       this.aggregateParams = Objects.requireNonNull(aggregateParams, "aggregateParams");
       this.queryContext = aggregate.getProperties().getQueryContext();
+      this.initializer = AggregateBuilderUtils.buildInitializer(queryBuilder, aggregateParams);
+      this.aggregator = StepTiming.aggregator(
+          queryBuilder.buildStepTimer(queryContext),
+          aggregateParams.getAggregator()
+      );
       this.formats = aggregate.getFormats();
       final PhysicalSchema physicalSchema = PhysicalSchema.from(
           aggregate.getAggregationSchema(),
@@ -196,10 +209,14 @@ public final class StreamAggregateBuilder {
           physicalSchema,
           queryContext
       );
-      valueSerde = queryBuilder.buildValueSerde(
-          formats.getValueFormat().getFormatInfo(),
-          physicalSchema,
-          queryContext
+      valueSerde = AggregateBuilderUtils.buildStateSerde(
+          queryBuilder.buildValueSerde(
+              formats.getValueFormat().getFormatInfo(),
+              physicalSchema,
+              queryContext
+          ),
+          queryBuilder,
+          aggregateParams
       );
     }
 
@@ -216,8 +233,8 @@ public final class StreamAggregateBuilder {
       return groupedStream
           .windowedBy(windows)
           .aggregate(
-              aggregateParams.getInitializer(),
-              aggregateParams.getAggregator(),
+              initializer,
+              aggregator,
               materializedFactory.create(
                   keySerde, valueSerde, StreamsUtil.buildOpName(queryContext))
           );
@@ -233,8 +250,8 @@ public final class StreamAggregateBuilder {
       return groupedStream
           .windowedBy(windows)
           .aggregate(
-              aggregateParams.getInitializer(),
-              aggregateParams.getAggregator(),
+              initializer,
+              aggregator,
               aggregateParams.getAggregator().getMerger(),
               materializedFactory.create(
                   keySerde, valueSerde, StreamsUtil.buildOpName(queryContext))
@@ -250,8 +267,8 @@ public final class StreamAggregateBuilder {
       return groupedStream
           .windowedBy(windows)
           .aggregate(
-              aggregateParams.getInitializer(),
-              aggregateParams.getAggregator(),
+              initializer,
+              aggregator,
               materializedFactory.create(
                   keySerde, valueSerde, StreamsUtil.buildOpName(queryContext))
           );
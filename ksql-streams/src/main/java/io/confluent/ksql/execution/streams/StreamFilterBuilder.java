@@ -15,12 +15,14 @@
 
 package io.confluent.ksql.execution.streams;
 
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
 import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.context.QueryLoggerUtil;
 import io.confluent.ksql.execution.plan.KStreamHolder;
 import io.confluent.ksql.execution.plan.StreamFilter;
 import io.confluent.ksql.execution.sqlpredicate.SqlPredicate;
+import org.apache.kafka.streams.kstream.Predicate;
 
 public final class StreamFilterBuilder {
   private StreamFilterBuilder() {
@@ -52,8 +54,12 @@ public final class StreamFilterBuilder {
                 contextStacker.push("FILTER").getQueryContext())
         )
     );
+    final Predicate<K, GenericRow> filter = StepTiming.predicate(
+        queryBuilder.buildStepTimer(step.getProperties().getQueryContext()),
+        predicate.getPredicate()
+    );
     return stream.withStream(
-        stream.getStream().filter(predicate.getPredicate())
+        stream.getStream().filter(filter)
     );
   }
 }
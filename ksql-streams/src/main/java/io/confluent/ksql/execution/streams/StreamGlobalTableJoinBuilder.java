@@ -0,0 +1,180 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
+import io.confluent.ksql.execution.plan.JoinType;
+import io.confluent.ksql.execution.plan.KStreamHolder;
+import io.confluent.ksql.execution.plan.StreamGlobalTableJoin;
+import io.confluent.ksql.execution.plan.StreamSource;
+import io.confluent.ksql.execution.util.StructKeyUtil;
+import io.confluent.ksql.schema.ksql.Column;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.PhysicalSchema;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.ValueTransformer;
+import org.apache.kafka.streams.kstream.ValueTransformerSupplier;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.ValueAndTimestamp;
+
+public final class StreamGlobalTableJoinBuilder {
+
+  private StreamGlobalTableJoinBuilder() {
+  }
+
+  public static <K> KStreamHolder<K> build(
+      final KStreamHolder<K> left,
+      final StreamGlobalTableJoin<K> join,
+      final KsqlQueryBuilder queryBuilder) {
+    final StreamSource right = join.getRight();
+    final String storeName = StreamsUtil.buildOpName(right.getProperties().getQueryContext());
+
+    buildGlobalTable(right, queryBuilder, storeName);
+
+    final LogicalSchema leftSchema = join.getLeft().getProperties().getSchema();
+    final LogicalSchema rightSchema = right.getProperties().getSchema();
+
+    final Column joinColumn = leftSchema.findValueColumn(join.getLeftJoinColumn())
+        .orElseThrow(() -> new IllegalArgumentException(
+            "Unknown join column: " + join.getLeftJoinColumn()));
+
+    final int joinColumnIndex = leftSchema.valueColumnIndex(joinColumn.ref())
+        .orElseThrow(IllegalStateException::new);
+
+    final ValueTransformerSupplier<GenericRow, GenericRow> lookup = () -> new Lookup(
+        storeName,
+        joinColumnIndex,
+        join.getJoinType() == JoinType.LEFT,
+        new KsqlValueJoiner(leftSchema, rightSchema)
+    );
+
+    final KStream<K, GenericRow> result = left.getStream()
+        .transformValues(lookup)
+        .filter((key, value) -> value != null);
+
+    return left.withStream(result);
+  }
+
+  private static void buildGlobalTable(
+      final StreamSource right,
+      final KsqlQueryBuilder queryBuilder,
+      final String storeName
+  ) {
+    final PhysicalSchema physicalSchema = PhysicalSchema.from(
+        right.getSourceSchema(),
+        right.getFormats().getOptions()
+    );
+
+    final Serde<Struct> keySerde = StreamSourceBuilder.getKeySerde(queryBuilder, right);
+
+    final Serde<GenericRow> valueSerde = queryBuilder.buildValueSerde(
+        right.getFormats().getValueFormat().getFormatInfo(),
+        physicalSchema,
+        right.getProperties().getQueryContext()
+    );
+
+    final Consumed<Struct, GenericRow> consumed = Consumed
+        .with(keySerde, valueSerde)
+        .withTimestampExtractor(right.getTimestampPolicy().create(right.getTimestampIndex()));
+
+    queryBuilder.getStreamsBuilder().globalTable(
+        right.getTopicName(),
+        right.getOffsetReset().map(consumed::withOffsetResetPolicy).orElse(consumed),
+        Materialized.<Struct, GenericRow, KeyValueStore<Bytes, byte[]>>as(storeName)
+            .withKeySerde(keySerde)
+            .withValueSerde(valueSerde)
+    );
+  }
+
+  /**
+   * Joins each stream row to the table row held in the global store under the value of the
+   * stream's join column. The table row is given the same {@code ROWTIME} and {@code ROWKEY}
+   * columns a table source would have. Returns {@code null} for rows to drop.
+   */
+  private static final class Lookup implements ValueTransformer<GenericRow, GenericRow> {
+
+    private final String storeName;
+    private final int joinColumnIndex;
+    private final boolean leftJoin;
+    private final KsqlValueJoiner joiner;
+    private KeyValueStore<Struct, ValueAndTimestamp<GenericRow>> store;
+
+    Lookup(
+        final String storeName,
+        final int joinColumnIndex,
+        final boolean leftJoin,
+        final KsqlValueJoiner joiner
+    ) {
+      this.storeName = Objects.requireNonNull(storeName, "storeName");
+      this.joinColumnIndex = joinColumnIndex;
+      this.leftJoin = leftJoin;
+      this.joiner = Objects.requireNonNull(joiner, "joiner");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void init(final ProcessorContext context) {
+      store = (KeyValueStore<Struct, ValueAndTimestamp<GenericRow>>) context
+          .getStateStore(storeName);
+    }
+
+    @Override
+    public GenericRow transform(final GenericRow row) {
+      if (row == null) {
+        return null;
+      }
+
+      final GenericRow match = lookup(row.getColumns().get(joinColumnIndex));
+      if (match == null && !leftJoin) {
+        return null;
+      }
+
+      return joiner.apply(row, match);
+    }
+
+    private GenericRow lookup(final Object joinValue) {
+      if (joinValue == null) {
+        return null;
+      }
+
+      final String rowKey = joinValue.toString();
+      final ValueAndTimestamp<GenericRow> found = store.get(StructKeyUtil.asStructKey(rowKey));
+      if (found == null || found.value() == null) {
+        return null;
+      }
+
+      final List<Object> columns = new ArrayList<>(found.value().getColumns().size() + 2);
+      columns.add(found.timestamp());
+      columns.add(rowKey);
+      columns.addAll(found.value().getColumns());
+      return new GenericRow(columns);
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
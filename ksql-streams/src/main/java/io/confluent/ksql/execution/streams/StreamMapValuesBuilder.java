@@ -15,11 +15,13 @@
 
 package io.confluent.ksql.execution.streams;
 
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
 import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.plan.KStreamHolder;
 import io.confluent.ksql.execution.plan.StreamMapValues;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
+import org.apache.kafka.streams.kstream.ValueMapper;
 
 public final class StreamMapValuesBuilder {
   private StreamMapValuesBuilder() {
@@ -41,8 +43,12 @@ public final class StreamMapValuesBuilder {
             queryBuilder.getFunctionRegistry(),
             queryBuilder.getProcessingLogContext()
         );
+    final ValueMapper<GenericRow, GenericRow> mapper = StepTiming.valueMapper(
+        queryBuilder.buildStepTimer(queryContext),
+        selection.getMapper()
+    );
     return stream.withStream(
-        stream.getStream().mapValues(selection.getMapper())
+        stream.getStream().mapValues(mapper)
     );
   }
 }
@@ -28,6 +28,7 @@ import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.streams.kstream.JoinWindows;
 import org.apache.kafka.streams.kstream.KStream;
 import org.apache.kafka.streams.kstream.StreamJoined;
+import org.apache.kafka.streams.kstream.ValueJoiner;
 
 public final class StreamStreamJoinBuilder {
   private static final String LEFT_SERDE_CTX = "left";
@@ -78,7 +79,10 @@ public final class StreamStreamJoinBuilder {
         StreamsUtil.buildOpName(queryContext),
         StreamsUtil.buildOpName(queryContext)
     );
-    final KsqlValueJoiner joiner = new KsqlValueJoiner(leftSchema, rightSchema);
+    final ValueJoiner<GenericRow, GenericRow, GenericRow> joiner = StepTiming.valueJoiner(
+        queryBuilder.buildStepTimer(queryContext),
+        new KsqlValueJoiner(leftSchema, rightSchema)
+    );
     final JoinWindows joinWindows = JoinWindows.of(join.getBefore()).after(join.getAfter());
     final KStream<K, GenericRow> result;
     switch (join.getJoinType()) {
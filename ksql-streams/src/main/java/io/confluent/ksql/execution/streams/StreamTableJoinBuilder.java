@@ -28,6 +28,7 @@ import io.confluent.ksql.serde.KeySerde;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.streams.kstream.Joined;
 import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.ValueJoiner;
 
 public final class StreamTableJoinBuilder {
   private static final String SERDE_CTX = "left";
@@ -66,7 +67,10 @@ public final class StreamTableJoinBuilder {
         StreamsUtil.buildOpName(queryContext)
     );
     final LogicalSchema rightSchema = join.getRight().getProperties().getSchema();
-    final KsqlValueJoiner joiner = new KsqlValueJoiner(leftSchema, rightSchema);
+    final ValueJoiner<GenericRow, GenericRow, GenericRow> joiner = StepTiming.valueJoiner(
+        queryBuilder.buildStepTimer(queryContext),
+        new KsqlValueJoiner(leftSchema, rightSchema)
+    );
     final KStream<K, GenericRow> result;
     switch (join.getJoinType()) {
       case LEFT:
@@ -67,11 +67,15 @@ public final class TableAggregateBuilder {
             aggregate.getAggregationSchema(),
             aggregate.getFormats(),
             queryBuilder,
-            materializedFactory
+            materializedFactory,
+            aggregateParams
         );
     final KTable<Struct, GenericRow> aggregated = kgroupedTable.aggregate(
-        aggregateParams.getInitializer(),
-        aggregateParams.getAggregator(),
+        AggregateBuilderUtils.buildInitializer(queryBuilder, aggregateParams),
+        StepTiming.aggregator(
+            queryBuilder.buildStepTimer(aggregate.getProperties().getQueryContext()),
+            aggregateParams.getAggregator()
+        ),
         aggregateParams.getUndoAggregator(),
         materialized
     ).mapValues(aggregateParams.getAggregator().getResultMapper());
@@ -15,12 +15,14 @@
 
 package io.confluent.ksql.execution.streams;
 
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
 import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.context.QueryLoggerUtil;
 import io.confluent.ksql.execution.plan.KTableHolder;
 import io.confluent.ksql.execution.plan.TableFilter;
 import io.confluent.ksql.execution.sqlpredicate.SqlPredicate;
+import org.apache.kafka.streams.kstream.Predicate;
 
 public final class TableFilterBuilder {
   private TableFilterBuilder() {
@@ -52,8 +54,12 @@ public final class TableFilterBuilder {
                 contextStacker.push("FILTER").getQueryContext())
         )
     );
+    final Predicate<K, GenericRow> filter = StepTiming.predicate(
+        queryBuilder.buildStepTimer(step.getProperties().getQueryContext()),
+        predicate.getPredicate()
+    );
     return table
-        .withTable(table.getTable().filter(predicate.getPredicate()))
+        .withTable(table.getTable().filter(filter))
         .withMaterialization(
             table.getMaterializationBuilder().map(
                 b -> b.filter(step.getFilterExpression())
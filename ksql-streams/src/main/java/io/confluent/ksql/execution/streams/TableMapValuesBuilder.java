@@ -15,11 +15,13 @@
 
 package io.confluent.ksql.execution.streams;
 
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
 import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.plan.KTableHolder;
 import io.confluent.ksql.execution.plan.TableMapValues;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
+import org.apache.kafka.streams.kstream.ValueMapper;
 
 public final class TableMapValuesBuilder {
   private TableMapValuesBuilder() {
@@ -41,8 +43,12 @@ public final class TableMapValuesBuilder {
             queryBuilder.getFunctionRegistry(),
             queryBuilder.getProcessingLogContext()
         );
+    final ValueMapper<GenericRow, GenericRow> mapper = StepTiming.valueMapper(
+        queryBuilder.buildStepTimer(queryContext),
+        selection.getMapper()
+    );
     return table
-        .withTable(table.getTable().mapValues(selection.getMapper()))
+        .withTable(table.getTable().mapValues(mapper))
         .withMaterialization(
             table.getMaterializationBuilder().map(
                 b -> b.project(step.getSelectExpressions(), step.getSchema())
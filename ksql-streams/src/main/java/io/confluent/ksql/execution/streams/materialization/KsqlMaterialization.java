@@ -27,6 +27,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.function.BiFunction;
 import org.apache.kafka.connect.data.Struct;
 
@@ -88,6 +89,11 @@ class KsqlMaterialization implements Materialization {
     return inner.windowType();
   }
 
+  @Override
+  public OptionalLong offsetLag() {
+    return inner.offsetLag();
+  }
+
   @Override
   public MaterializedTable nonWindowed() {
     return new KsqlMaterializedTable(inner.nonWindowed());
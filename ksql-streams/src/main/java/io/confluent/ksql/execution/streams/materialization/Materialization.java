@@ -18,6 +18,7 @@ package io.confluent.ksql.execution.streams.materialization;
 import io.confluent.ksql.model.WindowType;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 public interface Materialization {
 
@@ -36,6 +37,11 @@ public interface Materialization {
    */
   Optional<WindowType> windowType();
 
+  /**
+   * @return how far, in offsets, the local store trails its inputs, if known.
+   */
+  OptionalLong offsetLag();
+
   /**
    * @return access to the materialized non-windowed table.
    */
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams.materialization;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.model.WindowType;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * A bounded cache of the rows returned by a {@link Materialization}, for tables where a small
+ * number of keys receive most pull queries.
+ *
+ * <p>The cache holds at most {@code maxEntries} rows, where each lookup that found no rows also
+ * counts as one. Entries expire after a fixed time and are evicted once the cache is full.
+ *
+ * <p>Entries are invalidated, via {@link #invalidate(Struct)}, when the table emits an update for
+ * their key. Record caching is disabled for the stores of queries whose results are cached, so an
+ * update is emitted as soon as it is written to the table's store, rather than when the query
+ * commits.
+ * A lookup that races with an invalidation of the same key is returned to the caller, but not
+ * cached, so an invalidation is never lost.
+ */
+public final class MaterializationCache implements AutoCloseable {
+
+  private static final String METRIC_GROUP = "ksql-pull-query-cache";
+  private static final int GENERATION_STRIPES = 256;
+
+  private final Cache<Struct, Optional<Row>> rows;
+  private final Cache<Struct, ImmutableMap<Range<Instant>, List<WindowedRow>>> windowedRows;
+  private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final Metrics metrics;
+  private final List<MetricName> metricNames;
+
+  /**
+   * @param queryId the id of the query whose table is cached, used to tag metrics.
+   * @param maxEntries the maximum number of rows to cache.
+   * @param ttl the maximum time to cache a key's rows for.
+   */
+  public MaterializationCache(
+      final String queryId,
+      final long maxEntries,
+      final Duration ttl
+  ) {
+    this(queryId, maxEntries, ttl, Ticker.systemTicker(), MetricCollectors.getMetrics());
+  }
+
+  @VisibleForTesting
+  MaterializationCache(
+      final String queryId,
+      final long maxEntries,
+      final Duration ttl,
+      final Ticker ticker,
+      final Metrics metrics
+  ) {
+    requireNonNull(queryId, "queryId");
+    requireNonNull(ttl, "ttl");
+    this.rows = CacheBuilder.newBuilder()
+        .maximumSize(maxEntries)
+        .expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+        .ticker(requireNonNull(ticker, "ticker"))
+        .build();
+    this.windowedRows = CacheBuilder.newBuilder()
+        .maximumWeight(maxEntries)
+        .weigher(MaterializationCache::weigh)
+        .expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+        .ticker(ticker)
+        .build();
+    this.metrics = requireNonNull(metrics, "metrics");
+
+    final Map<String, String> tags = ImmutableMap.of("query-id", queryId);
+    final MetricName hitCount = metrics.metricName(
+        "hit-count", METRIC_GROUP, "The number of pull query lookups served from cache", tags);
+    final MetricName missCount = metrics.metricName(
+        "miss-count", METRIC_GROUP, "The number of pull query lookups not in cache", tags);
+    metrics.addMetric(hitCount, (Gauge<Long>) (config, now) -> hits.sum());
+    metrics.addMetric(missCount, (Gauge<Long>) (config, now) -> misses.sum());
+    this.metricNames = ImmutableList.of(hitCount, missCount);
+  }
+
+  /**
+   * Wraps {@code inner} so that its lookups are served from this cache where possible.
+   */
+  public Materialization wrap(final Materialization inner) {
+    return new CachedMaterialization(inner);
+  }
+
+  /**
+   * @return the materialization wrapped by {@code materialization}, if it is cached, otherwise
+   *     {@code materialization} itself.
+   */
+  public static Materialization uncached(final Materialization materialization) {
+    return materialization instanceof CachedMaterialization
+        ? ((CachedMaterialization) materialization).inner
+        : materialization;
+  }
+
+  /**
+   * Invalidates any rows cached for the supplied {@code key}.
+   *
+   * <p>Called for every update emitted by the materialized table.
+   */
+  public void invalidate(final Struct key) {
+    generations.incrementAndGet(stripe(key));
+    rows.invalidate(key);
+    windowedRows.invalidate(key);
+  }
+
+  @Override
+  public void close() {
+    metricNames.forEach(metrics::removeMetric);
+    rows.invalidateAll();
+    windowedRows.invalidateAll();
+  }
+
+  @VisibleForTesting
+  long hitCount() {
+    return hits.sum();
+  }
+
+  @VisibleForTesting
+  long missCount() {
+    return misses.sum();
+  }
+
+  private Optional<Row> get(final Struct key, final Supplier<Optional<Row>> loader) {
+    final Optional<Row> cached = rows.getIfPresent(key);
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+
+    misses.increment();
+    final long generation = generations.get(stripe(key));
+    final Optional<Row> result = loader.get();
+    if (generations.get(stripe(key)) == generation) {
+      rows.put(key, result);
+    }
+    return result;
+  }
+
+  private List<WindowedRow> get(
+      final Struct key,
+      final Range<Instant> windowStart,
+      final Supplier<List<WindowedRow>> loader
+  ) {
+    final Map<Range<Instant>, List<WindowedRow>> ranges = windowedRows.getIfPresent(key);
+    final List<WindowedRow> cached = ranges == null ? null : ranges.get(windowStart);
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+
+    misses.increment();
+    final long generation = generations.get(stripe(key));
+    final List<WindowedRow> result = loader.get();
+    if (generations.get(stripe(key)) == generation) {
+      // Values are replaced, rather than updated in place, so that they are re-weighed:
+      windowedRows.asMap().merge(
+          key,
+          ImmutableMap.of(windowStart, result),
+          (current, added) -> ImmutableMap.<Range<Instant>, List<WindowedRow>>builder()
+              .putAll(Maps.filterKeys(current, range -> !range.equals(windowStart)))
+              .putAll(added)
+              .build()
+      );
+    }
+    return result;
+  }
+
+  private static int weigh(
+      final Struct key,
+      final Map<Range<Instant>, List<WindowedRow>> ranges
+  ) {
+    return ranges.values().stream()
+        .mapToInt(rows -> Math.max(rows.size(), 1))
+        .sum();
+  }
+
+  private static int stripe(final Struct key) {
+    return (key.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+  }
+
+  private final class CachedMaterialization implements Materialization {
+
+    private final Materialization inner;
+
+    CachedMaterialization(final Materialization inner) {
+      this.inner = requireNonNull(inner, "inner");
+    }
+
+    @Override
+    public LogicalSchema schema() {
+      return inner.schema();
+    }
+
+    @Override
+    public Locator locator() {
+      return inner.locator();
+    }
+
+    @Override
+    public Optional<WindowType> windowType() {
+      return inner.windowType();
+    }
+
+    @Override
+    public OptionalLong offsetLag() {
+      return inner.offsetLag();
+    }
+
+    @Override
+    public MaterializedTable nonWindowed() {
+      final MaterializedTable table = inner.nonWindowed();
+      return key -> get(key, () -> table.get(key));
+    }
+
+    @Override
+    public MaterializedWindowedTable windowed() {
+      final MaterializedWindowedTable table = inner.windowed();
+      return (key, windowStart) -> get(key, windowStart, () -> table.get(key, windowStart));
+    }
+  }
+}
@@ -24,6 +24,7 @@ import io.confluent.ksql.execution.streams.materialization.MaterializedWindowedT
 import io.confluent.ksql.model.WindowType;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Kafka Streams impl of {@link Materialization}.
@@ -59,6 +60,11 @@ public final class KsMaterialization implements Materialization {
     return windowType;
   }
 
+  @Override
+  public OptionalLong offsetLag() {
+    return stateStore.offsetLag();
+  }
+
   @Override
   public MaterializedTable nonWindowed() {
     if (windowType.isPresent()) {
@@ -18,17 +18,24 @@ package io.confluent.ksql.execution.streams.materialization.ks;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.execution.streams.materialization.Locator;
 import io.confluent.ksql.model.WindowType;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.TopologyDescription.Processor;
+import org.apache.kafka.streams.TopologyDescription.Source;
+import org.apache.kafka.streams.TopologyDescription.Subtopology;
 
 /**
  * Factory class for {@link KsMaterialization}.
@@ -63,6 +70,7 @@ public final class KsMaterializationFactory {
    *
    * @param stateStoreName the name of the state store in the Kafka Streams instance.
    * @param kafkaStreams the Kafka Streams instance.
+   * @param topology the topology run by the Kafka Streams instance.
    * @param keySerializer the key serializer - used purely for location lookups.
    * @param windowType the window type of the key.
    * @param streamsProperties the Kafka Streams properties.
@@ -71,6 +79,7 @@ public final class KsMaterializationFactory {
   public Optional<KsMaterialization> create(
       final String stateStoreName,
       final KafkaStreams kafkaStreams,
+      final Topology topology,
       final LogicalSchema schema,
       final Serializer<Struct> keySerializer,
       final Optional<WindowType> windowType,
@@ -93,7 +102,8 @@ public final class KsMaterializationFactory {
     final KsStateStore stateStore = storeFactory.create(
         stateStoreName,
         kafkaStreams,
-        schema
+        schema,
+        storeTopics(stateStoreName, topology, streamsProperties)
     );
 
     final KsMaterialization materialization = materializationFactory.create(
@@ -105,6 +115,47 @@ public final class KsMaterializationFactory {
     return Optional.of(materialization);
   }
 
+  /**
+   * Finds the topics whose consumption the store's contents depend on: the source topics of the
+   * sub-topology that writes to the store, and the store's changelog, which it is restored from.
+   *
+   * <p>Internal topics are included both with and without the application id prefix, as the
+   * topology does not know the application id.
+   */
+  @VisibleForTesting
+  static Set<String> storeTopics(
+      final String stateStoreName,
+      final Topology topology,
+      final Map<String, ?> streamsProperties
+  ) {
+    final Object applicationId = streamsProperties.get(StreamsConfig.APPLICATION_ID_CONFIG);
+    final String prefix = applicationId == null ? "" : applicationId + "-";
+
+    final ImmutableSet.Builder<String> topics = ImmutableSet.builder();
+    topics.add(prefix + stateStoreName + "-changelog");
+
+    for (final Subtopology subtopology : topology.describe().subtopologies()) {
+      final boolean writesStore = subtopology.nodes().stream()
+          .filter(node -> node instanceof Processor)
+          .anyMatch(node -> ((Processor) node).stores().contains(stateStoreName));
+      if (!writesStore) {
+        continue;
+      }
+
+      subtopology.nodes().stream()
+          .filter(node -> node instanceof Source)
+          .map(node -> ((Source) node).topicSet())
+          .filter(Objects::nonNull)
+          .flatMap(Set::stream)
+          .forEach(topic -> {
+            topics.add(topic);
+            topics.add(prefix + topic);
+          });
+    }
+
+    return topics.build();
+  }
+
   private static URL buildLocalHost(final Object appServer) {
     if (!(appServer instanceof String)) {
       throw new IllegalArgumentException(StreamsConfig.APPLICATION_SERVER_CONFIG + " not String");
@@ -133,7 +184,8 @@ public final class KsMaterializationFactory {
     KsStateStore create(
         String stateStoreName,
         KafkaStreams kafkaStreams,
-        LogicalSchema schema
+        LogicalSchema schema,
+        Set<String> sourceTopics
     );
   }
 
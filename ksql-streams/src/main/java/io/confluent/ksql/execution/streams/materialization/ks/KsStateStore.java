@@ -18,35 +18,69 @@ package io.confluent.ksql.execution.streams.materialization.ks;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.execution.streams.materialization.MaterializationException;
 import io.confluent.ksql.execution.streams.materialization.MaterializationTimeOutException;
 import io.confluent.ksql.execution.streams.materialization.NotRunningException;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.KafkaStreams.State;
 import org.apache.kafka.streams.state.QueryableStoreType;
 
 /**
  * Wrapper around Kafka Streams state store.
+ *
+ * <p>Store handles are looked up once and reused while the streams app remains running. They
+ * are discarded whenever the app is seen to be in any other state, e.g. rebalancing, and looked
+ * up again once it is running.
+ *
+ * <p>The store's offset lag is derived from the {@code records-lag} metrics of the app's
+ * consumers, including the restore consumer, for the partitions of the topics the store is built
+ * and restored from, so covers both processing and restoration lag. Like store handles, the
+ * metrics are looked up once while the app remains running, rather than on every call.
  */
 class KsStateStore {
 
   private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+  private static final long REBALANCE_POLL_INTERVAL_MS = 10;
+  private static final String CONSUMER_FETCH_METRICS_GROUP = "consumer-fetch-manager-metrics";
+  private static final String RECORDS_LAG_METRIC = "records-lag";
 
   private final String stateStoreName;
   private final KafkaStreams kafkaStreams;
   private final LogicalSchema schema;
   private final Duration timeout;
   private final Supplier<Long> clock;
+  private final ConcurrentMap<Class<?>, Object> stores = new ConcurrentHashMap<>();
+  private final ImmutableSet<String> sourceTopics;
+  private volatile List<Metric> lagMetrics = ImmutableList.of();
 
   KsStateStore(
       final String stateStoreName,
       final KafkaStreams kafkaStreams,
-      final LogicalSchema schema
+      final LogicalSchema schema,
+      final Set<String> sourceTopics
   ) {
-    this(stateStoreName, kafkaStreams, schema, DEFAULT_TIMEOUT, System::currentTimeMillis);
+    this(
+        stateStoreName,
+        kafkaStreams,
+        schema,
+        sourceTopics,
+        DEFAULT_TIMEOUT,
+        System::currentTimeMillis
+    );
   }
 
   @VisibleForTesting
@@ -54,12 +88,14 @@ class KsStateStore {
       final String stateStoreName,
       final KafkaStreams kafkaStreams,
       final LogicalSchema schema,
+      final Set<String> sourceTopics,
       final Duration timeout,
       final Supplier<Long> clock
   ) {
     this.kafkaStreams = requireNonNull(kafkaStreams, "kafkaStreams");
     this.stateStoreName = requireNonNull(stateStoreName, "stateStoreName");
     this.schema = requireNonNull(schema, "schema");
+    this.sourceTopics = ImmutableSet.copyOf(requireNonNull(sourceTopics, "sourceTopics"));
     this.timeout = requireNonNull(timeout, "timeout");
     this.clock = requireNonNull(clock, "clock");
   }
@@ -68,9 +104,34 @@ class KsStateStore {
     return schema;
   }
 
+  /**
+   * @return the largest offset lag of any partition of the store's source topics consumed by the
+   *     streams app, if known.
+   */
+  OptionalLong offsetLag() {
+    return lagMetrics().stream()
+        .map(Metric::metricValue)
+        .filter(v -> v instanceof Number && !Double.isNaN(((Number) v).doubleValue()))
+        .mapToLong(v -> ((Number) v).longValue())
+        .max();
+  }
+
+  @SuppressWarnings("unchecked")
   <T> T store(final QueryableStoreType<T> queryableStoreType) {
-    awaitRunning();
+    final State state = awaitRunning();
+    if (state != State.RUNNING) {
+      discardHandles();
+      return findStore(queryableStoreType);
+    }
 
+    // Store types have no equality, but there is one class per type of store:
+    return (T) stores.computeIfAbsent(
+        queryableStoreType.getClass(),
+        k -> findStore(queryableStoreType)
+    );
+  }
+
+  private <T> T findStore(final QueryableStoreType<T> queryableStoreType) {
     try {
       return kafkaStreams.store(stateStoreName, queryableStoreType);
     } catch (final Exception e) {
@@ -83,15 +144,65 @@ class KsStateStore {
     }
   }
 
-  private void awaitRunning() {
+  private State awaitRunning() {
     final long threshold = clock.get() + timeout.toMillis();
-    while (kafkaStreams.state() == State.REBALANCING) {
+    State state = kafkaStreams.state();
+    while (state == State.REBALANCING) {
+      discardHandles();
+
       if (clock.get() > threshold) {
         throw new MaterializationTimeOutException("Store failed to rebalance within the configured "
             + "timeout. timeout: " + timeout.toMillis() + "ms");
       }
 
-      Thread.yield();
+      backOff();
+      state = kafkaStreams.state();
+    }
+    return state;
+  }
+
+  private List<Metric> lagMetrics() {
+    if (kafkaStreams.state() != State.RUNNING) {
+      discardHandles();
+      return findLagMetrics();
     }
+
+    final List<Metric> found = lagMetrics;
+    if (!found.isEmpty()) {
+      return found;
+    }
+
+    // Consumers only register the lag of a partition once they have fetched from it, so keep
+    // looking until some are found:
+    lagMetrics = findLagMetrics();
+    return lagMetrics;
+  }
+
+  private List<Metric> findLagMetrics() {
+    return kafkaStreams.metrics().entrySet().stream()
+        .filter(e -> isPartitionLag(e.getKey()))
+        .map(Map.Entry::getValue)
+        .collect(Collectors.collectingAndThen(Collectors.toList(), ImmutableList::copyOf));
+  }
+
+  private void discardHandles() {
+    stores.clear();
+    lagMetrics = ImmutableList.of();
+  }
+
+  private static void backOff() {
+    try {
+      Thread.sleep(REBALANCE_POLL_INTERVAL_MS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MaterializationException("Interrupted while waiting for store to rebalance", e);
+    }
+  }
+
+  private boolean isPartitionLag(final MetricName metricName) {
+    return metricName.name().equals(RECORDS_LAG_METRIC)
+        && metricName.group().equals(CONSUMER_FETCH_METRICS_GROUP)
+        && metricName.tags().containsKey("partition")
+        && sourceTopics.contains(metricName.tags().get("topic"));
   }
 }
@@ -96,4 +96,28 @@ public class MaterializedFactoryTest {
     verify(asName).withKeySerde(keySerde);
     verify(withKeySerde).withValueSerde(rowSerde);
   }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldDisableCachingIfPullQueryCacheEnabled() {
+    // Given:
+    final KsqlConfig ksqlConfig = new KsqlConfig(
+        ImmutableMap.of(
+            KsqlConfig.KSQL_USE_NAMED_INTERNAL_TOPICS,
+            KsqlConfig.KSQL_USE_NAMED_INTERNAL_TOPICS_OFF,
+            KsqlConfig.KSQL_QUERY_PULL_CACHE_MAX_ENTRIES_CONFIG,
+            100L)
+    );
+    final Materialized<String, GenericRow, StateStore> uncached = mock(Materialized.class);
+    when(materializer.materializedWith(keySerde, rowSerde)).thenReturn(materialized);
+    when(materialized.withCachingDisabled()).thenReturn(uncached);
+
+    // When:
+    final Materialized<String, GenericRow, StateStore> returned
+        = MaterializedFactory.create(ksqlConfig, materializer).create(
+        keySerde, rowSerde, OP_NAME);
+
+    // Then:
+    assertThat(returned, is(uncached));
+  }
 }
@@ -29,6 +29,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
 import io.confluent.ksql.execution.context.QueryContext;
@@ -36,6 +37,7 @@ import io.confluent.ksql.execution.expression.tree.ColumnReferenceExp;
 import io.confluent.ksql.execution.expression.tree.FunctionCall;
 import io.confluent.ksql.execution.function.udaf.KudafAggregator;
 import io.confluent.ksql.execution.function.udaf.KudafInitializer;
+import io.confluent.ksql.execution.function.udaf.PrimitiveAggregates;
 import io.confluent.ksql.execution.function.udaf.window.WindowSelectMapper;
 import io.confluent.ksql.execution.materialization.MaterializationInfo;
 import io.confluent.ksql.execution.materialization.MaterializationInfo.AggregateMapInfo;
@@ -62,12 +64,14 @@ import io.confluent.ksql.serde.KeyFormat;
 import io.confluent.ksql.serde.KeySerde;
 import io.confluent.ksql.serde.SerdeOption;
 import io.confluent.ksql.serde.ValueFormat;
+import io.confluent.ksql.util.KsqlConfig;
 import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.KGroupedStream;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
@@ -93,6 +97,9 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.class)
 public class StreamAggregateBuilderTest {
+  private static final KsqlConfig KSQL_CONFIG = new KsqlConfig(
+      ImmutableMap.of(KsqlConfig.KSQL_PRIMITIVE_AGGREGATE_STATE, false)
+  );
   private static final LogicalSchema INPUT_SCHEMA = LogicalSchema.builder()
       .valueColumn(ColumnName.of("REQUIRED0"), SqlTypes.BIGINT)
       .valueColumn(ColumnName.of("REQUIRED1"), SqlTypes.STRING)
@@ -158,6 +165,12 @@ public class StreamAggregateBuilderTest {
   @Mock
   private KudafInitializer initializer;
   @Mock
+  private PrimitiveAggregates primitiveAggregates;
+  @Mock
+  private Initializer<GenericRow> primitiveInitializer;
+  @Mock
+  private Serde<GenericRow> stateSerde;
+  @Mock
   private KudafAggregator aggregator;
   @Mock
   private ValueMapper<GenericRow, GenericRow> resultMapper;
@@ -212,8 +225,18 @@ public class StreamAggregateBuilderTest {
     );
   }
 
+  private void givenPrimitiveAggregateState() {
+    when(queryBuilder.getKsqlConfig()).thenReturn(new KsqlConfig(
+        ImmutableMap.of(KsqlConfig.KSQL_PRIMITIVE_AGGREGATE_STATE, true)
+    ));
+    when(aggregateParams.getPrimitiveAggregates()).thenReturn(primitiveAggregates);
+    when(primitiveAggregates.initializer(initializer)).thenReturn(primitiveInitializer);
+    when(primitiveAggregates.serde(valueSerde)).thenReturn(stateSerde);
+  }
+
   @SuppressWarnings("unchecked")
   private void givenUnwindowedAggregate() {
+    when(queryBuilder.getKsqlConfig()).thenReturn(KSQL_CONFIG);
     when(materializedFactory.<Struct, KeyValueStore<Bytes, byte[]>>create(any(), any(), any()))
         .thenReturn(materialized);
     when(groupedStream.aggregate(any(), any(), any(Materialized.class))).thenReturn(aggregated);
@@ -230,6 +253,7 @@ public class StreamAggregateBuilderTest {
 
   @SuppressWarnings("unchecked")
   private void givenTimeWindowedAggregate() {
+    when(queryBuilder.getKsqlConfig()).thenReturn(KSQL_CONFIG);
     when(materializedFactory.<Struct, WindowStore<Bytes, byte[]>>create(any(), any(), any()))
         .thenReturn(timeWindowMaterialized);
     when(groupedStream.windowedBy(any(Windows.class))).thenReturn(timeWindowedStream);
@@ -271,6 +295,7 @@ public class StreamAggregateBuilderTest {
 
   @SuppressWarnings("unchecked")
   private void givenSessionWindowedAggregate() {
+    when(queryBuilder.getKsqlConfig()).thenReturn(KSQL_CONFIG);
     when(materializedFactory.<Struct, SessionStore<Bytes, byte[]>>create(any(), any(), any()))
         .thenReturn(sessionWindowMaterialized);
     when(groupedStream.windowedBy(any(SessionWindows.class))).thenReturn(sessionWindowedStream);
@@ -304,6 +329,20 @@ public class StreamAggregateBuilderTest {
     inOrder.verifyNoMoreInteractions();
   }
 
+  @Test
+  public void shouldUsePrimitiveAggregateStateForUnwindowedAggregateIfEnabled() {
+    // Given:
+    givenUnwindowedAggregate();
+    givenPrimitiveAggregateState();
+
+    // When:
+    aggregate.build(planBuilder);
+
+    // Then:
+    verify(groupedStream).aggregate(primitiveInitializer, aggregator, materialized);
+    verify(materializedFactory).create(same(keySerde), same(stateSerde), any());
+  }
+
   @Test
   public void shouldBuildMaterializationCorrectlyForUnwindowedAggregate() {
     // Given:
@@ -451,6 +490,22 @@ public class StreamAggregateBuilderTest {
     inOrder.verifyNoMoreInteractions();
   }
 
+  @Test
+  public void shouldUsePrimitiveAggregateStateForWindowedAggregateIfEnabled() {
+    for (final Runnable given : given()) {
+      // Given:
+      reset(groupedStream, timeWindowedStream, sessionWindowedStream, aggregated, materializedFactory);
+      given.run();
+      givenPrimitiveAggregateState();
+
+      // When:
+      windowedAggregate.build(planBuilder);
+
+      // Then:
+      verify(materializedFactory).create(same(keySerde), same(stateSerde), any());
+    }
+  }
+
   @Test
   public void shouldBuildMaterializationCorrectlyForWindowedAggregate() {
     // Given:
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
+import io.confluent.ksql.execution.context.QueryContext;
+import io.confluent.ksql.execution.plan.DefaultExecutionStepProperties;
+import io.confluent.ksql.execution.plan.ExecutionStep;
+import io.confluent.ksql.execution.plan.Formats;
+import io.confluent.ksql.execution.plan.JoinType;
+import io.confluent.ksql.execution.plan.KStreamHolder;
+import io.confluent.ksql.execution.plan.KeySerdeFactory;
+import io.confluent.ksql.execution.plan.PlanBuilder;
+import io.confluent.ksql.execution.plan.StreamGlobalTableJoin;
+import io.confluent.ksql.execution.plan.StreamSource;
+import io.confluent.ksql.execution.util.StructKeyUtil;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.schema.ksql.ColumnRef;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.serde.Format;
+import io.confluent.ksql.serde.FormatInfo;
+import io.confluent.ksql.serde.KeyFormat;
+import io.confluent.ksql.serde.KeySerde;
+import io.confluent.ksql.serde.SerdeOption;
+import io.confluent.ksql.serde.ValueFormat;
+import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
+import java.util.Arrays;
+import java.util.Optional;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.ValueTransformer;
+import org.apache.kafka.streams.kstream.ValueTransformerSupplier;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.processor.TimestampExtractor;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.ValueAndTimestamp;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StreamGlobalTableJoinBuilderTest {
+
+  private static final SourceName LEFT = SourceName.of("LEFT");
+  private static final SourceName RIGHT = SourceName.of("RIGHT");
+  private static final LogicalSchema LEFT_SCHEMA = LogicalSchema.builder()
+      .valueColumn(ColumnName.of("BLUE"), SqlTypes.STRING)
+      .valueColumn(ColumnName.of("GREEN"), SqlTypes.INTEGER)
+      .build()
+      .withMetaAndKeyColsInValue()
+      .withAlias(LEFT);
+  private static final LogicalSchema RIGHT_SOURCE_SCHEMA = LogicalSchema.builder()
+      .valueColumn(ColumnName.of("RED"), SqlTypes.BIGINT)
+      .build();
+  private static final LogicalSchema RIGHT_SCHEMA = RIGHT_SOURCE_SCHEMA
+      .withMetaAndKeyColsInValue()
+      .withAlias(RIGHT);
+  private static final ColumnRef JOIN_COLUMN = ColumnRef.of(LEFT, ColumnName.of("BLUE"));
+  private static final Formats FORMATS = Formats.of(
+      KeyFormat.nonWindowed(FormatInfo.of(Format.KAFKA)),
+      ValueFormat.of(FormatInfo.of(Format.JSON)),
+      SerdeOption.none()
+  );
+  private static final QueryContext RIGHT_CTX =
+      new QueryContext.Stacker().push("right").push("source").getQueryContext();
+  private static final QueryContext CTX =
+      new QueryContext.Stacker().push("jo").push("in").getQueryContext();
+  private static final String STORE_NAME = "right-source";
+
+  @Mock
+  private KStream<Struct, GenericRow> leftKStream;
+  @Mock
+  private KStream<Struct, GenericRow> transformedStream;
+  @Mock
+  private KStream<Struct, GenericRow> resultStream;
+  @Mock
+  private ExecutionStep<KStreamHolder<Struct>> left;
+  @Mock
+  private KsqlQueryBuilder queryBuilder;
+  @Mock
+  private StreamsBuilder streamsBuilder;
+  @Mock
+  private KeySerdeFactory<Struct> keySerdeFactory;
+  @Mock
+  private KeySerde<Struct> keySerde;
+  @Mock
+  private TimestampExtractionPolicy timestampPolicy;
+  @Mock
+  private ProcessorContext processorContext;
+  @Mock
+  private KeyValueStore<Struct, ValueAndTimestamp<GenericRow>> store;
+  @Captor
+  private ArgumentCaptor<ValueTransformerSupplier<GenericRow, GenericRow>> supplierCaptor;
+
+  private PlanBuilder planBuilder;
+  private StreamSource right;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void init() {
+    when(left.getProperties()).thenReturn(new DefaultExecutionStepProperties(LEFT_SCHEMA, CTX));
+    when(left.build(any())).thenReturn(new KStreamHolder<>(leftKStream, keySerdeFactory));
+    when(queryBuilder.getStreamsBuilder()).thenReturn(streamsBuilder);
+    when(queryBuilder.buildKeySerde(any(FormatInfo.class), any(), any())).thenReturn(keySerde);
+    when(timestampPolicy.create(anyInt())).thenReturn(mock(TimestampExtractor.class));
+    when(leftKStream.transformValues(any(ValueTransformerSupplier.class)))
+        .thenReturn(transformedStream);
+    when(transformedStream.filter(any())).thenReturn(resultStream);
+    when(processorContext.getStateStore(STORE_NAME)).thenReturn(store);
+
+    right = new StreamSource(
+        new DefaultExecutionStepProperties(RIGHT_SCHEMA, RIGHT_CTX),
+        "right-topic",
+        FORMATS,
+        timestampPolicy,
+        -1,
+        Optional.empty(),
+        RIGHT_SOURCE_SCHEMA
+    );
+
+    planBuilder = new KSPlanBuilder(
+        queryBuilder,
+        mock(SqlPredicateFactory.class),
+        mock(AggregateParams.Factory.class),
+        mock(StreamsFactories.class)
+    );
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldBuildGlobalTableFromRightSource() {
+    // When:
+    givenJoin(JoinType.INNER).build(planBuilder);
+
+    // Then:
+    verify(streamsBuilder).globalTable(
+        eq("right-topic"),
+        any(Consumed.class),
+        any(Materialized.class)
+    );
+  }
+
+  @Test
+  public void shouldReturnFilteredStream() {
+    // When:
+    final KStreamHolder<Struct> result = givenJoin(JoinType.INNER).build(planBuilder);
+
+    // Then:
+    assertThat(result.getStream(), is(resultStream));
+    assertThat(result.getKeySerdeFactory(), is(keySerdeFactory));
+  }
+
+  @Test
+  public void shouldJoinToTableRowWithMatchingKey() {
+    // Given:
+    final ValueTransformer<GenericRow, GenericRow> lookup = givenLookup(JoinType.INNER);
+    when(store.get(StructKeyUtil.asStructKey("b")))
+        .thenReturn(ValueAndTimestamp.make(new GenericRow(Arrays.asList(10L)), 99L));
+
+    // When:
+    final GenericRow result = lookup.transform(leftRow("b"));
+
+    // Then:
+    assertThat(result, is(new GenericRow(Arrays.asList(1L, "k", "b", 2, 99L, "b", 10L))));
+  }
+
+  @Test
+  public void shouldDropRowWithNoMatchOnInnerJoin() {
+    // Given:
+    final ValueTransformer<GenericRow, GenericRow> lookup = givenLookup(JoinType.INNER);
+
+    // When:
+    final GenericRow result = lookup.transform(leftRow("b"));
+
+    // Then:
+    assertThat(result, is(nullValue()));
+  }
+
+  @Test
+  public void shouldJoinToNullsWithNoMatchOnLeftJoin() {
+    // Given:
+    final ValueTransformer<GenericRow, GenericRow> lookup = givenLookup(JoinType.LEFT);
+
+    // When:
+    final GenericRow result = lookup.transform(leftRow(null));
+
+    // Then:
+    assertThat(result, is(new GenericRow(Arrays.asList(1L, "k", null, 2, null, null, null))));
+  }
+
+  private StreamGlobalTableJoin<Struct> givenJoin(final JoinType joinType) {
+    return new StreamGlobalTableJoin<>(
+        new DefaultExecutionStepProperties(LEFT_SCHEMA, CTX),
+        joinType,
+        FORMATS,
+        left,
+        right,
+        JOIN_COLUMN
+    );
+  }
+
+  private ValueTransformer<GenericRow, GenericRow> givenLookup(final JoinType joinType) {
+    givenJoin(joinType).build(planBuilder);
+    verify(leftKStream).transformValues(supplierCaptor.capture());
+
+    final ValueTransformer<GenericRow, GenericRow> lookup = supplierCaptor.getValue().get();
+    lookup.init(processorContext);
+    return lookup;
+  }
+
+  private static GenericRow leftRow(final String blue) {
+    return new GenericRow(Arrays.asList(1L, "k", blue, 2));
+  }
+}
@@ -28,6 +28,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
 import io.confluent.ksql.execution.context.QueryContext;
@@ -36,6 +37,7 @@ import io.confluent.ksql.execution.expression.tree.FunctionCall;
 import io.confluent.ksql.execution.function.udaf.KudafAggregator;
 import io.confluent.ksql.execution.function.udaf.KudafInitializer;
 import io.confluent.ksql.execution.function.udaf.KudafUndoAggregator;
+import io.confluent.ksql.execution.function.udaf.PrimitiveAggregates;
 import io.confluent.ksql.execution.materialization.MaterializationInfo;
 import io.confluent.ksql.execution.materialization.MaterializationInfo.AggregateMapInfo;
 import io.confluent.ksql.execution.plan.DefaultExecutionStepProperties;
@@ -57,10 +59,12 @@ import io.confluent.ksql.serde.KeyFormat;
 import io.confluent.ksql.serde.KeySerde;
 import io.confluent.ksql.serde.SerdeOption;
 import io.confluent.ksql.serde.ValueFormat;
+import io.confluent.ksql.util.KsqlConfig;
 import java.util.List;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.KGroupedTable;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
@@ -105,6 +109,9 @@ public class TableAggregateBuilderTest {
       new QueryContext.Stacker().push("agg").push("regate").getQueryContext();
   private static final KeyFormat KEY_FORMAT = KeyFormat.nonWindowed(FormatInfo.of(Format.KAFKA));
   private static final ValueFormat VALUE_FORMAT = ValueFormat.of(FormatInfo.of(Format.JSON));
+  private static final KsqlConfig KSQL_CONFIG = new KsqlConfig(
+      ImmutableMap.of(KsqlConfig.KSQL_PRIMITIVE_AGGREGATE_STATE, false)
+  );
 
   @Mock
   private KGroupedTable<Struct, GenericRow> groupedTable;
@@ -123,6 +130,12 @@ public class TableAggregateBuilderTest {
   @Mock
   private KudafInitializer initializer;
   @Mock
+  private PrimitiveAggregates primitiveAggregates;
+  @Mock
+  private Initializer<GenericRow> primitiveInitializer;
+  @Mock
+  private Serde<GenericRow> stateSerde;
+  @Mock
   private KudafAggregator aggregator;
   @Mock
   private ValueMapper<GenericRow, GenericRow> resultMapper;
@@ -149,6 +162,7 @@ public class TableAggregateBuilderTest {
     when(queryBuilder.buildKeySerde(any(), any(), any())).thenReturn(keySerde);
     when(queryBuilder.buildValueSerde(any(), any(), any())).thenReturn(valueSerde);
     when(queryBuilder.getFunctionRegistry()).thenReturn(functionRegistry);
+    when(queryBuilder.getKsqlConfig()).thenReturn(KSQL_CONFIG);
     when(aggregateParamsFactory.create(any(), anyInt(), any(), any())).thenReturn(aggregateParams);
     when(aggregateParams.getAggregator()).thenReturn(aggregator);
     when(aggregateParams.getUndoAggregator()).thenReturn(undoAggregator);
@@ -203,6 +217,25 @@ public class TableAggregateBuilderTest {
     verify(materializedFactory).create(same(keySerde), same(valueSerde), any());
   }
 
+  @Test
+  public void shouldUsePrimitiveAggregateStateIfEnabled() {
+    // Given:
+    when(queryBuilder.getKsqlConfig()).thenReturn(new KsqlConfig(
+        ImmutableMap.of(KsqlConfig.KSQL_PRIMITIVE_AGGREGATE_STATE, true)
+    ));
+    when(aggregateParams.getPrimitiveAggregates()).thenReturn(primitiveAggregates);
+    when(primitiveAggregates.initializer(initializer)).thenReturn(primitiveInitializer);
+    when(primitiveAggregates.serde(valueSerde)).thenReturn(stateSerde);
+
+    // When:
+    aggregate.build(planBuilder);
+
+    // Then:
+    verify(groupedTable)
+        .aggregate(primitiveInitializer, aggregator, undoAggregator, materialized);
+    verify(materializedFactory).create(same(keySerde), same(stateSerde), any());
+  }
+
   @Test
   public void shouldBuildMaterializedWithCorrectNameForAggregate() {
     // When:
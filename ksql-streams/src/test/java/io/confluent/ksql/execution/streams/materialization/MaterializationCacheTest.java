@@ -0,0 +1,284 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams.materialization;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Range;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.util.StructKeyUtil;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.SchemaUtil;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MaterializationCacheTest {
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder()
+      .keyColumn(SchemaUtil.ROWKEY_NAME, SqlTypes.STRING)
+      .valueColumn(ColumnName.of("v0"), SqlTypes.STRING)
+      .build();
+
+  private static final Struct A_KEY = StructKeyUtil.asStructKey("k");
+  private static final Struct OTHER_KEY = StructKeyUtil.asStructKey("other");
+  private static final Range<Instant> WINDOW_START_BOUNDS = Range.closed(
+      Instant.now(),
+      Instant.now().plusSeconds(10)
+  );
+  private static final Duration TTL = Duration.ofSeconds(30);
+  private static final Row ROW = Row.of(SCHEMA, A_KEY, new GenericRow("a"));
+  private static final List<WindowedRow> WINDOWED_ROWS = ImmutableList.of(
+      WindowedRow.of(
+          SCHEMA, A_KEY, Window.of(Instant.now(), Optional.empty()), new GenericRow("a"))
+  );
+
+  @Mock
+  private Materialization inner;
+  @Mock
+  private MaterializedTable innerNonWindowed;
+  @Mock
+  private MaterializedWindowedTable innerWindowed;
+
+  private final AtomicLong nanos = new AtomicLong();
+  private Metrics metrics;
+  private MaterializationCache cache;
+  private Materialization materialization;
+
+  @Before
+  public void setUp() {
+    metrics = new Metrics();
+    cache = new MaterializationCache("q1", 10, TTL, new Ticker() {
+      @Override
+      public long read() {
+        return nanos.get();
+      }
+    }, metrics);
+    materialization = cache.wrap(inner);
+  }
+
+  @After
+  public void tearDown() {
+    metrics.close();
+  }
+
+  @Test
+  public void shouldServeRepeatedLookupsFromCache() {
+    // Given:
+    givenRow();
+
+    // When:
+    materialization.nonWindowed().get(A_KEY);
+    final Optional<Row> result = materialization.nonWindowed().get(A_KEY);
+
+    // Then:
+    assertThat(result, is(Optional.of(ROW)));
+    verify(innerNonWindowed, times(1)).get(A_KEY);
+    assertThat(cache.hitCount(), is(1L));
+    assertThat(cache.missCount(), is(1L));
+  }
+
+  @Test
+  public void shouldCacheMissingRows() {
+    // Given:
+    when(inner.nonWindowed()).thenReturn(innerNonWindowed);
+    when(innerNonWindowed.get(OTHER_KEY)).thenReturn(Optional.empty());
+
+    // When:
+    materialization.nonWindowed().get(OTHER_KEY);
+    final Optional<Row> result = materialization.nonWindowed().get(OTHER_KEY);
+
+    // Then:
+    assertThat(result, is(Optional.empty()));
+    verify(innerNonWindowed, times(1)).get(OTHER_KEY);
+  }
+
+  @Test
+  public void shouldLookUpAgainOnceInvalidated() {
+    // Given:
+    givenRow();
+    materialization.nonWindowed().get(A_KEY);
+
+    // When:
+    cache.invalidate(A_KEY);
+    materialization.nonWindowed().get(A_KEY);
+
+    // Then:
+    verify(innerNonWindowed, times(2)).get(A_KEY);
+  }
+
+  @Test
+  public void shouldLookUpAgainOnceExpired() {
+    // Given:
+    givenRow();
+    materialization.nonWindowed().get(A_KEY);
+
+    // When:
+    nanos.addAndGet(TTL.toNanos());
+    materialization.nonWindowed().get(A_KEY);
+
+    // Then:
+    verify(innerNonWindowed, times(2)).get(A_KEY);
+  }
+
+  @Test
+  public void shouldNotCacheLookupThatRacedWithInvalidation() {
+    // Given:
+    when(inner.nonWindowed()).thenReturn(innerNonWindowed);
+    when(innerNonWindowed.get(A_KEY)).thenAnswer(inv -> {
+      cache.invalidate(A_KEY);
+      return Optional.of(ROW);
+    });
+
+    // When:
+    materialization.nonWindowed().get(A_KEY);
+    materialization.nonWindowed().get(A_KEY);
+
+    // Then:
+    verify(innerNonWindowed, times(2)).get(A_KEY);
+  }
+
+  @Test
+  public void shouldCacheWindowedLookupsPerRange() {
+    // Given:
+    final Range<Instant> otherBounds = Range.atLeast(Instant.now());
+    when(inner.windowed()).thenReturn(innerWindowed);
+    when(innerWindowed.get(A_KEY, WINDOW_START_BOUNDS)).thenReturn(WINDOWED_ROWS);
+    when(innerWindowed.get(A_KEY, otherBounds)).thenReturn(ImmutableList.of());
+
+    // When:
+    materialization.windowed().get(A_KEY, WINDOW_START_BOUNDS);
+    materialization.windowed().get(A_KEY, otherBounds);
+    final List<WindowedRow> result = materialization.windowed().get(A_KEY, WINDOW_START_BOUNDS);
+
+    // Then:
+    assertThat(result, is(WINDOWED_ROWS));
+    verify(innerWindowed, times(1)).get(A_KEY, WINDOW_START_BOUNDS);
+    verify(innerWindowed, times(1)).get(A_KEY, otherBounds);
+  }
+
+  @Test
+  public void shouldInvalidateAllWindowedRangesOfKey() {
+    // Given:
+    when(inner.windowed()).thenReturn(innerWindowed);
+    when(innerWindowed.get(A_KEY, WINDOW_START_BOUNDS)).thenReturn(WINDOWED_ROWS);
+    materialization.windowed().get(A_KEY, WINDOW_START_BOUNDS);
+
+    // When:
+    cache.invalidate(A_KEY);
+    materialization.windowed().get(A_KEY, WINDOW_START_BOUNDS);
+
+    // Then:
+    verify(innerWindowed, times(2)).get(A_KEY, WINDOW_START_BOUNDS);
+  }
+
+  @Test
+  public void shouldBoundWindowedLookupsByNumberOfRows() {
+    // Given:
+    final List<WindowedRow> manyRows = ImmutableList.copyOf(
+        Collections.nCopies(11, WINDOWED_ROWS.get(0)));
+    when(inner.windowed()).thenReturn(innerWindowed);
+    when(innerWindowed.get(A_KEY, WINDOW_START_BOUNDS)).thenReturn(manyRows);
+
+    // When:
+    materialization.windowed().get(A_KEY, WINDOW_START_BOUNDS);
+    materialization.windowed().get(A_KEY, WINDOW_START_BOUNDS);
+
+    // Then:
+    verify(innerWindowed, times(2)).get(A_KEY, WINDOW_START_BOUNDS);
+  }
+
+  @Test
+  public void shouldEvictWindowedRangesOnceRowBoundExceeded() {
+    // Given:
+    when(inner.windowed()).thenReturn(innerWindowed);
+    when(innerWindowed.get(any(), any())).thenReturn(WINDOWED_ROWS);
+
+    // When:
+    for (int i = 0; i != 11; i++) {
+      materialization.windowed().get(A_KEY, Range.atLeast(Instant.ofEpochMilli(i)));
+    }
+    materialization.windowed().get(A_KEY, Range.atLeast(Instant.ofEpochMilli(0)));
+
+    // Then:
+    verify(innerWindowed, times(2)).get(A_KEY, Range.atLeast(Instant.ofEpochMilli(0)));
+  }
+
+  @Test
+  public void shouldUnwrapCachedMaterialization() {
+    assertThat(MaterializationCache.uncached(materialization), is(sameInstance(inner)));
+    assertThat(MaterializationCache.uncached(inner), is(sameInstance(inner)));
+  }
+
+  @Test
+  public void shouldReportHitsAndMissesAsMetrics() {
+    // Given:
+    givenRow();
+    materialization.nonWindowed().get(A_KEY);
+    materialization.nonWindowed().get(A_KEY);
+    materialization.nonWindowed().get(A_KEY);
+
+    // Then:
+    assertThat(metricValue("hit-count"), is(2L));
+    assertThat(metricValue("miss-count"), is(1L));
+  }
+
+  @Test
+  public void shouldRemoveMetricsOnClose() {
+    // When:
+    cache.close();
+
+    // Then:
+    assertThat(metrics.metric(metrics.metricName(
+        "hit-count", "ksql-pull-query-cache", "", ImmutableMap.of("query-id", "q1"))),
+        is(nullValue()));
+  }
+
+  private void givenRow() {
+    when(inner.nonWindowed()).thenReturn(innerNonWindowed);
+    when(innerNonWindowed.get(A_KEY)).thenReturn(Optional.of(ROW));
+  }
+
+  private Object metricValue(final String name) {
+    return metrics.metric(metrics.metricName(
+        name, "ksql-pull-query-cache", "", ImmutableMap.of("query-id", "q1"))
+    ).metricValue();
+  }
+}
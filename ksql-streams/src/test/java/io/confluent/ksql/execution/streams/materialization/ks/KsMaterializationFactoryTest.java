@@ -16,11 +16,13 @@
 package io.confluent.ksql.execution.streams.materialization.ks;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.testing.NullPointerTester;
 import com.google.common.testing.NullPointerTester.Visibility;
 import io.confluent.ksql.execution.streams.materialization.ks.KsMaterializationFactory.LocatorFactory;
@@ -35,10 +37,14 @@ import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.kstream.Materialized;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -75,6 +81,7 @@ public class KsMaterializationFactoryTest {
   private KsMaterialization materialization;
   private KsMaterializationFactory factory;
   private final Map<String, Object> streamsProperties = new HashMap<>();
+  private final Topology topology = new Topology();
 
   @Before
   public void setUp() {
@@ -85,11 +92,12 @@ public class KsMaterializationFactoryTest {
     );
 
     when(locatorFactory.create(any(), any(), any(), any())).thenReturn(locator);
-    when(storeFactory.create(any(), any(), any())).thenReturn(stateStore);
+    when(storeFactory.create(any(), any(), any(), any())).thenReturn(stateStore);
     when(materializationFactory.create(any(), any(), any())).thenReturn(materialization);
 
     streamsProperties.clear();
     streamsProperties.put(StreamsConfig.APPLICATION_SERVER_CONFIG, DEFAULT_APP_SERVER.toString());
+    streamsProperties.put(StreamsConfig.APPLICATION_ID_CONFIG, "app");
   }
 
   @Test
@@ -108,7 +116,8 @@ public class KsMaterializationFactoryTest {
 
     // When:
     final Optional<KsMaterialization> result = factory
-        .create(STORE_NAME, kafkaStreams, SCHEMA, keySerializer, Optional.empty(), streamsProperties);
+        .create(STORE_NAME, kafkaStreams, topology, SCHEMA, keySerializer, Optional.empty(),
+            streamsProperties);
 
     // Then:
     assertThat(result, is(Optional.empty()));
@@ -117,7 +126,8 @@ public class KsMaterializationFactoryTest {
   @Test
   public void shouldBuildLocatorWithCorrectParams() {
     // When:
-    factory.create(STORE_NAME, kafkaStreams, SCHEMA, keySerializer, Optional.empty(), streamsProperties);
+    factory.create(STORE_NAME, kafkaStreams, topology, SCHEMA, keySerializer, Optional.empty(),
+        streamsProperties);
 
     // Then:
     verify(locatorFactory).create(
@@ -131,23 +141,44 @@ public class KsMaterializationFactoryTest {
   @Test
   public void shouldBuildStateStoreWithCorrectParams() {
     // When:
-    factory.create(STORE_NAME, kafkaStreams, SCHEMA, keySerializer, Optional.empty(), streamsProperties);
+    factory.create(STORE_NAME, kafkaStreams, topology, SCHEMA, keySerializer, Optional.empty(),
+        streamsProperties);
 
     // Then:
     verify(storeFactory).create(
         STORE_NAME,
         kafkaStreams,
-        SCHEMA
+        SCHEMA,
+        ImmutableSet.of("app-someStore-changelog")
     );
   }
 
+  @Test
+  public void shouldFindSourceAndChangelogTopicsOfStore() {
+    // Given:
+    final StreamsBuilder builder = new StreamsBuilder();
+    builder.stream("input")
+        .groupByKey()
+        .count(Materialized.as(STORE_NAME));
+    builder.stream("other")
+        .foreach((k, v) -> { });
+
+    // When:
+    final Set<String> topics =
+        KsMaterializationFactory.storeTopics(STORE_NAME, builder.build(), streamsProperties);
+
+    // Then:
+    assertThat(topics, containsInAnyOrder("app-someStore-changelog", "input", "app-input"));
+  }
+
   @Test
   public void shouldBuildMaterializationWithCorrectParams() {
     // Given:
     final Optional<WindowType> windowType = Optional.of(WindowType.SESSION);
 
     // When:
-    factory.create(STORE_NAME, kafkaStreams, SCHEMA, keySerializer, windowType, streamsProperties);
+    factory.create(STORE_NAME, kafkaStreams, topology, SCHEMA, keySerializer, windowType,
+        streamsProperties);
 
     // Then:
     verify(materializationFactory).create(
@@ -161,7 +192,8 @@ public class KsMaterializationFactoryTest {
   public void shouldReturnMaterialization() {
     // When:
     final Optional<KsMaterialization> result = factory
-        .create(STORE_NAME, kafkaStreams, SCHEMA, keySerializer, Optional.empty(), streamsProperties);
+        .create(STORE_NAME, kafkaStreams, topology, SCHEMA, keySerializer, Optional.empty(),
+            streamsProperties);
 
     // Then:
     assertThat(result,  is(Optional.of(materialization)));
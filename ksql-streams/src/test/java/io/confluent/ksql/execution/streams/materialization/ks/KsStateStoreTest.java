@@ -20,10 +20,15 @@ import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.testing.NullPointerTester;
 import com.google.common.testing.NullPointerTester.Visibility;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -34,7 +39,13 @@ import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.function.Supplier;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.KafkaStreams.State;
 import org.apache.kafka.streams.errors.InvalidStateStoreException;
@@ -59,6 +70,7 @@ public class KsStateStoreTest {
 
   private static final String STORE_NAME = "someStore";
   private static final Duration TIMEOUT = Duration.ofMillis(10);
+  private static final Set<String> SOURCE_TOPICS = ImmutableSet.of("t");
   private static final LogicalSchema SCHEMA = LogicalSchema.builder()
       .keyColumn(ColumnName.of("k0"), SqlTypes.STRING)
       .keyColumn(ColumnName.of("v0"), SqlTypes.BIGINT)
@@ -79,7 +91,7 @@ public class KsStateStoreTest {
 
   @Before
   public void setUp() {
-    store = new KsStateStore(STORE_NAME, kafkaStreams, SCHEMA, TIMEOUT, clock);
+    store = new KsStateStore(STORE_NAME, kafkaStreams, SCHEMA, SOURCE_TOPICS, TIMEOUT, clock);
 
     when(clock.get()).thenReturn(0L);
     when(kafkaStreams.state()).thenReturn(State.RUNNING);
@@ -90,6 +102,7 @@ public class KsStateStoreTest {
     new NullPointerTester()
         .setDefault(KafkaStreams.class, kafkaStreams)
         .setDefault(LogicalSchema.class, SCHEMA)
+        .setDefault(Set.class, SOURCE_TOPICS)
         .setDefault(Supplier.class, clock)
         .testConstructors(KsStateStore.class, Visibility.PACKAGE);
   }
@@ -113,6 +126,98 @@ public class KsStateStoreTest {
     verify(kafkaStreams, atLeast(3)).state();
   }
 
+  @Test
+  public void shouldReportLargestPartitionLagAsOffsetLag() {
+    // Given:
+    final Map<MetricName, Metric> metrics = new HashMap<>();
+    givenMetric(metrics, "records-lag", "consumer-fetch-manager-metrics", "t", "0", 5.0);
+    givenMetric(metrics, "records-lag", "consumer-fetch-manager-metrics", "t", "1", 12.0);
+    givenMetric(metrics, "records-lag", "consumer-fetch-manager-metrics", "t", "2", Double.NaN);
+    givenMetric(metrics, "records-lag-max", "consumer-fetch-manager-metrics", "t", "0", 100.0);
+    doReturn(metrics).when(kafkaStreams).metrics();
+
+    // When:
+    final OptionalLong result = store.offsetLag();
+
+    // Then:
+    assertThat(result, is(OptionalLong.of(12L)));
+  }
+
+  @Test
+  public void shouldIgnoreLagOfTopicsStoreIsNotBuiltFrom() {
+    // Given:
+    final Map<MetricName, Metric> metrics = new HashMap<>();
+    givenMetric(metrics, "records-lag", "consumer-fetch-manager-metrics", "t", "0", 5.0);
+    givenMetric(metrics, "records-lag", "consumer-fetch-manager-metrics", "other", "0", 50.0);
+    doReturn(metrics).when(kafkaStreams).metrics();
+
+    // When:
+    final OptionalLong result = store.offsetLag();
+
+    // Then:
+    assertThat(result, is(OptionalLong.of(5L)));
+  }
+
+  @Test
+  public void shouldReportUnknownOffsetLagIfNoLagMetrics() {
+    // Given:
+    doReturn(ImmutableMap.of()).when(kafkaStreams).metrics();
+
+    // Then:
+    assertThat(store.offsetLag(), is(OptionalLong.empty()));
+  }
+
+  @Test
+  public void shouldLookUpLagMetricsOnceWhileRunning() {
+    // Given:
+    final Map<MetricName, Metric> metrics = new HashMap<>();
+    givenMetric(metrics, "records-lag", "consumer-fetch-manager-metrics", "t", "0", 5.0);
+    doReturn(metrics).when(kafkaStreams).metrics();
+    store.offsetLag();
+
+    when(metrics.values().iterator().next().metricValue()).thenReturn(7.0);
+
+    // When:
+    final OptionalLong result = store.offsetLag();
+
+    // Then:
+    assertThat(result, is(OptionalLong.of(7L)));
+    verify(kafkaStreams, times(1)).metrics();
+  }
+
+  @Test
+  public void shouldLookUpLagMetricsAgainAfterRebalance() {
+    // Given:
+    when(kafkaStreams.state())
+        .thenReturn(State.RUNNING)
+        .thenReturn(State.REBALANCING)
+        .thenReturn(State.RUNNING);
+    final Map<MetricName, Metric> metrics = new HashMap<>();
+    givenMetric(metrics, "records-lag", "consumer-fetch-manager-metrics", "t", "0", 5.0);
+    doReturn(metrics).when(kafkaStreams).metrics();
+
+    // When:
+    store.offsetLag();
+    store.offsetLag();
+    store.offsetLag();
+
+    // Then:
+    verify(kafkaStreams, times(3)).metrics();
+  }
+
+  @Test
+  public void shouldLookUpLagMetricsAgainIfNoneFound() {
+    // Given:
+    doReturn(ImmutableMap.of()).when(kafkaStreams).metrics();
+
+    // When:
+    store.offsetLag();
+    store.offsetLag();
+
+    // Then:
+    verify(kafkaStreams, times(2)).metrics();
+  }
+
   @Test
   public void shouldThrowIfDoesNotFinishRebalanceBeforeTimeout() {
     // Given:
@@ -200,6 +305,53 @@ public class KsStateStoreTest {
     assertThat(result, is(sessionStore));
   }
 
+  @Test
+  public void shouldReuseStoreWhileRunning() {
+    // Given:
+    final ReadOnlyWindowStore<?, ?> windowStore = mock(ReadOnlyWindowStore.class);
+    when(kafkaStreams.store(any(), any())).thenReturn(windowStore);
+    store.store(QueryableStoreTypes.windowStore());
+
+    // When:
+    final ReadOnlyWindowStore<Boolean, String> result = store
+        .store(QueryableStoreTypes.windowStore());
+
+    // Then:
+    assertThat(result, is(windowStore));
+    verify(kafkaStreams).store(any(), any());
+  }
+
+  @Test
+  public void shouldLookUpStoreAgainAfterRebalance() {
+    // Given:
+    when(kafkaStreams.state())
+        .thenReturn(State.RUNNING)
+        .thenReturn(State.REBALANCING)
+        .thenReturn(State.RUNNING);
+    when(kafkaStreams.store(any(), any())).thenReturn(mock(ReadOnlyWindowStore.class));
+
+    store.store(QueryableStoreTypes.windowStore());
+
+    // When:
+    store.store(QueryableStoreTypes.windowStore());
+
+    // Then:
+    verify(kafkaStreams, times(2)).store(any(), any());
+  }
+
+  @Test
+  public void shouldNotReuseStoreAcrossStoreTypes() {
+    // Given:
+    when(kafkaStreams.store(any(), any())).thenReturn(mock(ReadOnlyWindowStore.class));
+
+    // When:
+    store.store(QueryableStoreTypes.windowStore());
+    store.store(QueryableStoreTypes.sessionStore());
+
+    // Then:
+    verify(kafkaStreams, times(2)).store(any(), any());
+  }
+
   @Test
   public void shouldReturnWindowStore() {
     // Given:
@@ -213,4 +365,19 @@ public class KsStateStoreTest {
     // Then:
     assertThat(result, is(windowStore));
   }
-}
\ No newline at end of file
+
+  private static void givenMetric(
+      final Map<MetricName, Metric> metrics,
+      final String name,
+      final String group,
+      final String topic,
+      final String partition,
+      final double value
+  ) {
+    final MetricName metricName = new MetricName(
+        name, group, "", ImmutableMap.of("topic", topic, "partition", partition));
+    final Metric metric = mock(Metric.class, withSettings().lenient());
+    when(metric.metricValue()).thenReturn(value);
+    metrics.put(metricName, metric);
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.index;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * The index of the UDF and UDAF classes in a jar, written by the {@link FunctionIndexProcessor}
+ * when the jar is compiled, so that KSQL can find the functions without scanning the jar.
+ *
+ * <p>The index is a text resource with one line per class:
+ * {@code <udf|udaf> <function name> <binary class name>}. Blank lines and lines starting with
+ * {@code #} are ignored.
+ */
+public final class FunctionIndex {
+
+  /**
+   * The location of the index within a jar.
+   */
+  public static final String RESOURCE = "META-INF/ksql/functions.idx";
+
+  private static final String COMMENT = "#";
+
+  public enum Kind {
+    UDF, UDAF
+  }
+
+  private FunctionIndex() {
+  }
+
+  /**
+   * Read an index.
+   *
+   * @param reader the reader to read from.
+   * @return the entries in the index.
+   * @throws IOException on failure to read.
+   * @throws IllegalArgumentException if the index is malformed.
+   */
+  public static List<Entry> read(final Reader reader) throws IOException {
+    final List<Entry> entries = new ArrayList<>();
+    final BufferedReader lines = new BufferedReader(reader);
+
+    String line;
+    while ((line = lines.readLine()) != null) {
+      final String trimmed = line.trim();
+      if (trimmed.isEmpty() || trimmed.startsWith(COMMENT)) {
+        continue;
+      }
+
+      final String[] parts = trimmed.split("\\s+");
+      if (parts.length != 3) {
+        throw new IllegalArgumentException("Malformed function index entry: " + line);
+      }
+
+      entries.add(new Entry(parseKind(parts[0], line), parts[1], parts[2]));
+    }
+    return entries;
+  }
+
+  /**
+   * Write an index.
+   *
+   * @param entries the entries to write.
+   * @param writer the writer to write to.
+   * @throws IOException on failure to write.
+   */
+  public static void write(final Collection<Entry> entries, final Writer writer)
+      throws IOException {
+    writer.write(COMMENT + " Generated by " + FunctionIndexProcessor.class.getName() + "\n");
+    for (final Entry entry : entries) {
+      writer.write(entry.toString());
+      writer.write("\n");
+    }
+  }
+
+  private static Kind parseKind(final String kind, final String line) {
+    try {
+      return Kind.valueOf(kind.toUpperCase(Locale.ROOT));
+    } catch (final IllegalArgumentException e) {
+      throw new IllegalArgumentException("Malformed function index entry: " + line, e);
+    }
+  }
+
+  public static final class Entry {
+
+    private final Kind kind;
+    private final String functionName;
+    private final String className;
+
+    public Entry(final Kind kind, final String functionName, final String className) {
+      this.kind = Objects.requireNonNull(kind, "kind");
+      this.functionName = Objects.requireNonNull(functionName, "functionName");
+      this.className = Objects.requireNonNull(className, "className");
+    }
+
+    public Kind getKind() {
+      return kind;
+    }
+
+    public String getFunctionName() {
+      return functionName;
+    }
+
+    public String getClassName() {
+      return className;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Entry entry = (Entry) o;
+      return kind == entry.kind
+          && Objects.equals(functionName, entry.functionName)
+          && Objects.equals(className, entry.className);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(kind, functionName, className);
+    }
+
+    @Override
+    public String toString() {
+      return kind.name().toLowerCase(Locale.ROOT) + " " + functionName + " " + className;
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.index;
+
+import io.confluent.ksql.function.index.FunctionIndex.Entry;
+import io.confluent.ksql.function.index.FunctionIndex.Kind;
+import io.confluent.ksql.function.udaf.UdafDescription;
+import io.confluent.ksql.function.udf.UdfDescription;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that writes the {@link FunctionIndex} of the classes annotated with
+ * {@link UdfDescription} or {@link UdafDescription}.
+ *
+ * <p>The processor is not registered as a service, so only runs when a build names it
+ * explicitly, e.g. via the {@code annotationProcessorPaths} of the Maven compiler plugin.
+ * Nothing is written if no functions are found.
+ */
+@SupportedAnnotationTypes({
+    "io.confluent.ksql.function.udf.UdfDescription",
+    "io.confluent.ksql.function.udaf.UdafDescription"
+})
+public final class FunctionIndexProcessor extends AbstractProcessor {
+
+  private final Set<Entry> entries = new LinkedHashSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(
+      final Set<? extends TypeElement> annotations,
+      final RoundEnvironment roundEnv
+  ) {
+    if (roundEnv.processingOver()) {
+      if (!entries.isEmpty()) {
+        writeIndex();
+      }
+      return false;
+    }
+
+    index(roundEnv, UdfDescription.class, Kind.UDF, UdfDescription::name);
+    index(roundEnv, UdafDescription.class, Kind.UDAF, UdafDescription::name);
+
+    // Leave the annotations unclaimed, so that other processors still see them:
+    return false;
+  }
+
+  private <A extends Annotation> void index(
+      final RoundEnvironment roundEnv,
+      final Class<A> annotationType,
+      final Kind kind,
+      final Function<A, String> functionName
+  ) {
+    for (final Element element : roundEnv.getElementsAnnotatedWith(annotationType)) {
+      if (element.getKind() != ElementKind.CLASS) {
+        continue;
+      }
+
+      final String className = processingEnv.getElementUtils()
+          .getBinaryName((TypeElement) element)
+          .toString();
+
+      entries.add(new Entry(kind, functionName.apply(element.getAnnotation(annotationType)),
+          className));
+    }
+  }
+
+  private void writeIndex() {
+    try {
+      final FileObject resource = processingEnv.getFiler()
+          .createResource(StandardLocation.CLASS_OUTPUT, "", FunctionIndex.RESOURCE);
+
+      try (Writer writer =
+          new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+        FunctionIndex.write(entries, writer);
+      }
+    } catch (final IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Failed to write function index " + FunctionIndex.RESOURCE + ": " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.index;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+import io.confluent.ksql.function.index.FunctionIndex.Entry;
+import io.confluent.ksql.function.index.FunctionIndex.Kind;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FunctionIndexProcessorTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private File sourceDir;
+  private File classDir;
+
+  @Before
+  public void setUp() throws IOException {
+    sourceDir = folder.newFolder("src");
+    classDir = folder.newFolder("classes");
+  }
+
+  @Test
+  public void shouldIndexAnnotatedClasses() throws IOException {
+    // Given:
+    givenSource("Upper.java", ""
+        + "package test;\n"
+        + "import io.confluent.ksql.function.udf.*;\n"
+        + "@UdfDescription(name = \"upper\", description = \"\")\n"
+        + "public class Upper {\n"
+        + "  @Udf public String upper(final String s) { return s; }\n"
+        + "}\n");
+    givenSource("Aggs.java", ""
+        + "package test;\n"
+        + "import io.confluent.ksql.function.udaf.*;\n"
+        + "public class Aggs {\n"
+        + "  @UdafDescription(name = \"agg\", description = \"\")\n"
+        + "  public static class Agg {}\n"
+        + "}\n");
+
+    // When:
+    final boolean success = compile();
+
+    // Then:
+    assertThat(success, is(true));
+    assertThat(readIndex(), containsInAnyOrder(
+        new Entry(Kind.UDF, "upper", "test.Upper"),
+        new Entry(Kind.UDAF, "agg", "test.Aggs$Agg")
+    ));
+  }
+
+  @Test
+  public void shouldNotWriteIndexIfNoFunctions() throws IOException {
+    // Given:
+    givenSource("Other.java", "package test;\npublic class Other {}\n");
+
+    // When:
+    final boolean success = compile();
+
+    // Then:
+    assertThat(success, is(true));
+    assertThat(new File(classDir, FunctionIndex.RESOURCE).exists(), is(false));
+  }
+
+  private void givenSource(final String fileName, final String source) throws IOException {
+    Files.write(new File(sourceDir, fileName).toPath(), source.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private boolean compile() throws IOException {
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+    try (StandardJavaFileManager fileManager =
+        compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+
+      final File[] sources = sourceDir.listFiles();
+      final List<String> options = Arrays.asList(
+          "-classpath", System.getProperty("java.class.path"),
+          "-d", classDir.getPath(),
+          "-proc:only"
+      );
+
+      final CompilationTask task = compiler.getTask(
+          null,
+          fileManager,
+          null,
+          options,
+          null,
+          fileManager.getJavaFileObjects(sources == null ? new File[0] : sources)
+      );
+
+      task.setProcessors(Collections.singletonList(new FunctionIndexProcessor()));
+      return task.call();
+    }
+  }
+
+  private List<Entry> readIndex() throws IOException {
+    final Path index = new File(classDir, FunctionIndex.RESOURCE).toPath();
+    try (Reader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+      return FunctionIndex.read(reader);
+    }
+  }
+}
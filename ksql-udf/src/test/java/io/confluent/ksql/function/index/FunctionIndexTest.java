@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.index;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+import io.confluent.ksql.function.index.FunctionIndex.Entry;
+import io.confluent.ksql.function.index.FunctionIndex.Kind;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class FunctionIndexTest {
+
+  private static final Entry UDF =
+      new Entry(Kind.UDF, "substring", "io.confluent.ksql.function.udf.string.Substring");
+  private static final Entry UDAF =
+      new Entry(Kind.UDAF, "collect_list", "io.confluent.ksql.Outer$CollectList");
+
+  @Test
+  public void shouldRoundTrip() throws IOException {
+    // Given:
+    final StringWriter writer = new StringWriter();
+    FunctionIndex.write(Arrays.asList(UDF, UDAF), writer);
+
+    // When:
+    final List<Entry> entries = FunctionIndex.read(new StringReader(writer.toString()));
+
+    // Then:
+    assertThat(entries, contains(UDF, UDAF));
+  }
+
+  @Test
+  public void shouldIgnoreBlankLinesAndComments() throws IOException {
+    // When:
+    final List<Entry> entries = FunctionIndex.read(new StringReader(
+        "# comment\n\n  udf substring io.confluent.ksql.function.udf.string.Substring  \n"));
+
+    // Then:
+    assertThat(entries, contains(UDF));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowOnMissingClassName() throws IOException {
+    FunctionIndex.read(new StringReader("udf substring\n"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowOnUnknownKind() throws IOException {
+    FunctionIndex.read(new StringReader("udtf explode io.confluent.Explode\n"));
+  }
+}